@@ -17,7 +17,6 @@
 package uk.gov.gchq.gaffer.commonutil;
 
 import java.security.InvalidParameterException;
-import java.util.Arrays;
 
 /**
  * Removes the 0 byte from a byte array. Preserves ordering.
@@ -44,32 +43,60 @@ public final class ByteArrayEscapeUtils {
      * @return the escaped byte array
      */
     public static byte[] escape(final byte[] bytes, final byte... appendAfterEscaping) {
-        final byte[] temp = new byte[(2 * bytes.length) + ((null == appendAfterEscaping) ? 0 : appendAfterEscaping.length)];
-        int currentPosition = escape(bytes, temp, 0);
+        final byte[] escaped = new byte[escapedLength(bytes) + ((null == appendAfterEscaping) ? 0 : appendAfterEscaping.length)];
+        int currentPosition = escape(bytes, escaped, 0);
         if (null != appendAfterEscaping) {
             for (final byte b : appendAfterEscaping) {
-                temp[currentPosition++] = b;
+                escaped[currentPosition++] = b;
             }
         }
-        return Arrays.copyOfRange(temp, 0, currentPosition);
+        return escaped;
     }
 
-    private static int escape(final byte[] bytes, final byte[] temp, final int position) {
+    /**
+     * Escapes the provided byte[] directly into the target byte[], so that
+     * escaped values can be written into a larger array without an
+     * intermediate copy.
+     * The target must have at least {@link #escapedLength(byte[])} bytes
+     * available from the position.
+     *
+     * @param bytes    the byte array to escape
+     * @param target   the byte array to write the escaped bytes to
+     * @param position the position in the target to start writing at
+     * @return the position in the target after the escaped bytes
+     */
+    public static int escape(final byte[] bytes, final byte[] target, final int position) {
         int currentPosition = position;
         for (final byte b : bytes) {
             if (ESCAPE_CHAR == b) {
-                temp[currentPosition++] = ESCAPE_CHAR;
-                temp[currentPosition++] = REPLACEMENT_CHAR;
+                target[currentPosition++] = ESCAPE_CHAR;
+                target[currentPosition++] = REPLACEMENT_CHAR;
             } else if (DELIMITER == b) {
-                temp[currentPosition++] = ESCAPE_CHAR;
-                temp[currentPosition++] = ESCAPE_CHAR;
+                target[currentPosition++] = ESCAPE_CHAR;
+                target[currentPosition++] = ESCAPE_CHAR;
             } else {
-                temp[currentPosition++] = b;
+                target[currentPosition++] = b;
             }
         }
         return currentPosition;
     }
 
+    /**
+     * Calculates the length of the provided byte[] once it has been escaped.
+     *
+     * @param bytes the byte array to be escaped
+     * @return the number of bytes in the escaped byte array
+     */
+    public static int escapedLength(final byte[] bytes) {
+        int length = bytes.length;
+        for (final byte b : bytes) {
+            if (ESCAPE_CHAR == b || DELIMITER == b) {
+                length++;
+            }
+        }
+        return length;
+    }
+
     /**
      * Unescapes the provided byte array - this should only be called on byte
      * arrays that have been through the {@code escape} method.
@@ -121,31 +148,45 @@ public final class ByteArrayEscapeUtils {
         if (allBytes.length < offset + length) {
             throw new InvalidParameterException(String.format("unEscape parameters larger than allByte.length:%d, offset:%d, length:%d", allBytes.length, offset, length));
         }
-        final byte[] temp = new byte[length];
+        final int end = offset + length;
+        final byte[] unEscaped = new byte[unEscapedLength(allBytes, offset, end)];
         int currentPosition = 0;
         boolean isEscaped = false;
 
-        for (int i = offset; i < allBytes.length && i < offset + length; i++) {
+        for (int i = offset; i < end; i++) {
             byte b = allBytes[i];
             if (isEscaped) {
                 if (REPLACEMENT_CHAR == b) {
-                    temp[currentPosition++] = ESCAPE_CHAR;
+                    unEscaped[currentPosition++] = ESCAPE_CHAR;
                 } else if (ESCAPE_CHAR == b) {
-                    temp[currentPosition++] = DELIMITER;
+                    unEscaped[currentPosition++] = DELIMITER;
                 } else {
-                    temp[currentPosition++] = b;
+                    unEscaped[currentPosition++] = b;
                 }
                 isEscaped = false;
             } else {
                 if (ESCAPE_CHAR == b) {
                     isEscaped = true;
                 } else {
-                    temp[currentPosition++] = b;
+                    unEscaped[currentPosition++] = b;
                 }
             }
         }
-        final byte[] unEscaped = new byte[currentPosition];
-        System.arraycopy(temp, 0, unEscaped, 0, currentPosition);
         return unEscaped;
     }
+
+    private static int unEscapedLength(final byte[] allBytes, final int start, final int end) {
+        // Each escape character and the byte after it become a single byte
+        int length = 0;
+        boolean isEscaped = false;
+        for (int i = start; i < end; i++) {
+            if (!isEscaped && ESCAPE_CHAR == allBytes[i]) {
+                isEscaped = true;
+            } else {
+                length++;
+                isEscaped = false;
+            }
+        }
+        return length;
+    }
 }
@@ -26,7 +26,6 @@ import uk.gov.gchq.koryphe.Summary;
 
 import java.util.Collection;
 import java.util.LinkedHashMap;
-import java.util.regex.Pattern;
 
 /**
  * Generates a CSV string for each {@link Element}, based on the fields and constants provided.
@@ -37,13 +36,18 @@ import java.util.regex.Pattern;
  * The output will be:<pre>
  *  prop1Value,sourceValue,destinationValue,prop2,groupValue,constant1,constant2
  * </pre>
+ * Commas in values are replaced with the comma replacement, if there is one. Any
+ * value that still contains a comma, a double quote or a line break is then wrapped
+ * in double quotes and its double quotes are escaped by doubling them, as described
+ * in RFC 4180.
  */
 @Since("1.0.0")
 @Summary("Generates a CSV string for each element")
 public class CsvGenerator implements OneToOneObjectGenerator<String> {
     public static final String GROUP = "GROUP";
     public static final String COMMA = ",";
-    private static final Pattern COMMA_PATTERN = Pattern.compile(COMMA);
+    private static final char COMMA_CHAR = ',';
+    private static final char QUOTE_CHAR = '"';
     private static final String COMMA_REPLACEMENT_DEFAULT = " ";
 
     private LinkedHashMap<String, String> fields = new LinkedHashMap<>();
@@ -51,7 +55,8 @@ public class CsvGenerator implements OneToOneObjectGenerator<String> {
     private LinkedHashMap<String, String> constants = new LinkedHashMap<>();
 
     /**
-     * When set to true, each value in the csv will be wrapped in quotes.
+     * When set to true, each value in the csv will be wrapped in quotes. Values
+     * that need quoting to be valid CSV are always wrapped in quotes.
      */
     private boolean quoted = false;
 
@@ -109,26 +114,38 @@ public class CsvGenerator implements OneToOneObjectGenerator<String> {
     @Override
     public String _apply(final Element element) {
         final StringBuilder strBuilder = new StringBuilder();
+        append(element, strBuilder);
+        return strBuilder.toString();
+    }
+
+    /**
+     * Appends the CSV representation of the provided {@link Element} to the
+     * provided {@link StringBuilder}. This allows a single builder to be reused
+     * when writing many elements.
+     *
+     * @param element    the element to convert to CSV
+     * @param strBuilder the builder to append the CSV to
+     */
+    public void append(final Element element, final StringBuilder strBuilder) {
+        boolean first = true;
         for (final String field : fields.keySet()) {
+            if (!first) {
+                strBuilder.append(COMMA_CHAR);
+            }
+            first = false;
             final Object value = getFieldValue(element, field);
             if (null != value) {
-                strBuilder.append(quoteString(value));
+                appendValue(value, strBuilder);
             }
-            strBuilder.append(COMMA);
         }
 
-        if (!constants.isEmpty()) {
-            for (final String constant : constants.keySet()) {
-                strBuilder.append(quoteString(constant));
-                strBuilder.append(COMMA);
+        for (final String constant : constants.keySet()) {
+            if (!first) {
+                strBuilder.append(COMMA_CHAR);
             }
+            first = false;
+            appendValue(constant, strBuilder);
         }
-
-        if (strBuilder.length() < 1) {
-            return "";
-        }
-
-        return strBuilder.substring(0, strBuilder.length() - 1);
     }
 
     /**
@@ -157,24 +174,55 @@ public class CsvGenerator implements OneToOneObjectGenerator<String> {
     }
 
     private String quoteString(final Object s) {
-        String value;
-        if (null == s) {
-            value = "";
-        } else {
-            value = s.toString();
-        }
+        final StringBuilder strBuilder = new StringBuilder();
+        appendValue(s, strBuilder);
+        return strBuilder.toString();
+    }
 
-        if (null != commaReplacement) {
-            value = COMMA_PATTERN.matcher(value).replaceAll(commaReplacement);
+    private void appendValue(final Object s, final StringBuilder strBuilder) {
+        final String value = null != s ? replaceCommas(s.toString()) : "";
+        if (!quoted && !requiresQuotes(value)) {
+            strBuilder.append(value);
+            return;
         }
 
-        if (quoted) {
-            value = "\"" + value + "\"";
+        // Values are quoted and any quotes within them are doubled, as described in RFC 4180
+        strBuilder.append(QUOTE_CHAR);
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (QUOTE_CHAR == c) {
+                strBuilder.append(QUOTE_CHAR);
+            }
+            strBuilder.append(c);
         }
+        strBuilder.append(QUOTE_CHAR);
+    }
 
-        return value;
+    private String replaceCommas(final String value) {
+        if (null == commaReplacement || value.indexOf(COMMA_CHAR) < 0) {
+            return value;
+        }
+        final StringBuilder strBuilder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (COMMA_CHAR == c) {
+                strBuilder.append(commaReplacement);
+            } else {
+                strBuilder.append(c);
+            }
+        }
+        return strBuilder.toString();
     }
 
+    private static boolean requiresQuotes(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (COMMA_CHAR == c || QUOTE_CHAR == c || '\n' == c || '\r' == c) {
+                return true;
+            }
+        }
+        return false;
+    }
 
     public boolean isQuoted() {
         return quoted;
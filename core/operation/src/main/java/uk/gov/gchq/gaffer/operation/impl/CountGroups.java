@@ -35,6 +35,12 @@ import java.util.Map;
  * counts for the number of entity and edge groups used. To avoid counting all
  * elements in the store, this operation has a limit, which can be set to
  * skip counting the remaining groups.
+ * <p>
+ * If the limit is hit then {@link GroupCounts#isLimitHit()} is set. Stores that
+ * count the elements one by one stop at the limit, but stores that count the
+ * groups without returning the elements, such as the Accumulo and HBase stores,
+ * return their full counts instead.
+ * </p>
  *
  * @see CountGroups.Builder
  */
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.operation.impl;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import uk.gov.gchq.gaffer.commonutil.Required;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.io.InputOutput;
+import uk.gov.gchq.gaffer.operation.io.MultiInput;
+import uk.gov.gchq.gaffer.operation.serialisation.TypeReferenceImpl;
+import uk.gov.gchq.koryphe.Since;
+import uk.gov.gchq.koryphe.Summary;
+import uk.gov.gchq.koryphe.ValidationResult;
+
+import java.util.Map;
+
+/**
+ * <p>
+ * A {@code SampleElements} operation takes in an {@link Iterable} of
+ * {@link Element}s and returns a uniform random sample of them. Unlike a
+ * {@link Limit}, every element in the input has the same chance of being
+ * included in the sample, regardless of its position in the input.
+ * </p>
+ * <p>
+ * The input is read once and at most {@code sampleSize} elements are held in
+ * memory. If the stratified flag is set then up to {@code sampleSize} elements
+ * are sampled from each group, so small groups are still represented.
+ * </p>
+ * <p>
+ * A seed can be provided to make the sample repeatable for the same input.
+ * </p>
+ *
+ * @see SampleElements.Builder
+ */
+@JsonPropertyOrder(value = {"class", "input", "sampleSize"}, alphabetic = true)
+@Since("1.21.2")
+@Summary("Returns a uniform random sample of the input elements")
+public class SampleElements implements
+        InputOutput<Iterable<? extends Element>, Iterable<? extends Element>>,
+        MultiInput<Element> {
+    @Required
+    private Integer sampleSize;
+    private boolean stratified;
+    private Long seed;
+    private Iterable<? extends Element> input;
+    private Map<String, String> options;
+
+    @Override
+    public ValidationResult validate() {
+        final ValidationResult result = InputOutput.super.validate();
+        if (null != sampleSize && sampleSize < 1) {
+            result.addError("sampleSize must be greater than 0");
+        }
+        return result;
+    }
+
+    public Integer getSampleSize() {
+        return sampleSize;
+    }
+
+    public void setSampleSize(final Integer sampleSize) {
+        this.sampleSize = sampleSize;
+    }
+
+    public boolean isStratified() {
+        return stratified;
+    }
+
+    public void setStratified(final boolean stratified) {
+        this.stratified = stratified;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(final Long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public Iterable<? extends Element> getInput() {
+        return input;
+    }
+
+    @Override
+    public void setInput(final Iterable<? extends Element> input) {
+        this.input = input;
+    }
+
+    @Override
+    public TypeReference<Iterable<? extends Element>> getOutputTypeReference() {
+        return new TypeReferenceImpl.IterableElement();
+    }
+
+    @Override
+    public SampleElements shallowClone() {
+        return new SampleElements.Builder()
+                .input(input)
+                .sampleSize(sampleSize)
+                .stratified(stratified)
+                .seed(seed)
+                .options(options)
+                .build();
+    }
+
+    @Override
+    public Map<String, String> getOptions() {
+        return options;
+    }
+
+    @Override
+    public void setOptions(final Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static final class Builder
+            extends Operation.BaseBuilder<SampleElements, Builder>
+            implements InputOutput.Builder<SampleElements, Iterable<? extends Element>, Iterable<? extends Element>, Builder>,
+            MultiInput.Builder<SampleElements, Element, Builder> {
+        public Builder() {
+            super(new SampleElements());
+        }
+
+        public Builder sampleSize(final Integer sampleSize) {
+            _getOp().setSampleSize(sampleSize);
+            return _self();
+        }
+
+        public Builder stratified(final boolean stratified) {
+            _getOp().setStratified(stratified);
+            return _self();
+        }
+
+        public Builder seed(final Long seed) {
+            _getOp().setSeed(seed);
+            return _self();
+        }
+    }
+}
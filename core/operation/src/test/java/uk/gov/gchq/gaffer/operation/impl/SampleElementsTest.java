@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.operation.impl;
+
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.operation.OperationTest;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SampleElementsTest extends OperationTest<SampleElements> {
+
+    @Override
+    protected Set<String> getRequiredFields() {
+        return Sets.newHashSet("sampleSize");
+    }
+
+    @Test
+    @Override
+    public void builderShouldCreatePopulatedOperation() {
+        // Given
+        final Entity entity = new Entity(TestGroups.ENTITY, "vertex");
+
+        // When
+        final SampleElements sample = new SampleElements.Builder()
+                .input(entity)
+                .sampleSize(10)
+                .stratified(true)
+                .seed(5L)
+                .build();
+
+        // Then
+        assertThat(sample.getInput()).containsOnly(entity);
+        assertEquals(10, (int) sample.getSampleSize());
+        assertTrue(sample.isStratified());
+        assertEquals(5L, (long) sample.getSeed());
+    }
+
+    @Test
+    @Override
+    public void shouldShallowCloneOperation() {
+        // Given
+        final Entity entity = new Entity(TestGroups.ENTITY, "vertex");
+        final SampleElements sample = new SampleElements.Builder()
+                .input(entity)
+                .sampleSize(10)
+                .stratified(true)
+                .seed(5L)
+                .build();
+
+        // When
+        final SampleElements clone = sample.shallowClone();
+
+        // Then
+        assertNotSame(sample, clone);
+        assertThat(clone.getInput()).containsOnly(entity);
+        assertEquals(10, (int) clone.getSampleSize());
+        assertTrue(clone.isStratified());
+        assertEquals(5L, (long) clone.getSeed());
+    }
+
+    @Test
+    public void shouldFailValidationIfSampleSizeIsLessThan1() {
+        // Given
+        final SampleElements sample = new SampleElements.Builder()
+                .sampleSize(0)
+                .build();
+
+        // When / Then
+        assertFalse(sample.validate().isValid());
+    }
+
+    @Test
+    public void shouldGetOutputClass() {
+        // When
+        final Class<?> outputClass = getTestObject().getOutputClass();
+
+        // Then
+        assertEquals(Iterable.class, outputClass);
+    }
+
+    @Override
+    protected SampleElements getTestObject() {
+        return new SampleElements();
+    }
+}
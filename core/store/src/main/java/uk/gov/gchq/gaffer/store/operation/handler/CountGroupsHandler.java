@@ -24,6 +24,9 @@ import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.CountGroups;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.util.Map;
 
 /**
  * A {@code CountGroupsHandler} handles {@link CountGroups} operations.
@@ -59,4 +62,40 @@ public class CountGroupsHandler implements OutputOperationHandler<CountGroups, G
 
         return groupCounts;
     }
+
+    /**
+     * Creates {@link GroupCounts} from the number of elements in each group,
+     * for stores that can count the elements without returning them.
+     * <p>
+     * This differs from {@link #doOperation} when the limit is hit. Counting
+     * the elements one by one stops at the limit, so the counts only cover
+     * the first limit elements. Here the counts have already been computed,
+     * so they are all returned in full and the limit is only used to set
+     * {@link GroupCounts#isLimitHit()} when their total is more than the
+     * limit. In both cases a result with the limit hit should be treated as
+     * incomplete.
+     * </p>
+     * Counts larger than {@link Integer#MAX_VALUE} are reported as
+     * {@link Integer#MAX_VALUE}.
+     *
+     * @param counts the number of elements in each group
+     * @param limit  the limit on the total count, or null if there is no limit
+     * @param schema the schema, used to tell entity groups from edge groups
+     * @return the group counts
+     */
+    protected GroupCounts toGroupCounts(final Map<String, Long> counts, final Integer limit, final Schema schema) {
+        final GroupCounts groupCounts = new GroupCounts();
+        long total = 0;
+        for (final Map.Entry<String, Long> entry : counts.entrySet()) {
+            final int count = (int) Math.min(entry.getValue(), Integer.MAX_VALUE);
+            if (schema.isEntity(entry.getKey())) {
+                groupCounts.getEntityGroups().put(entry.getKey(), count);
+            } else {
+                groupCounts.getEdgeGroups().put(entry.getKey(), count);
+            }
+            total += entry.getValue();
+        }
+        groupCounts.setLimitHit(null != limit && total > limit);
+        return groupCounts;
+    }
 }
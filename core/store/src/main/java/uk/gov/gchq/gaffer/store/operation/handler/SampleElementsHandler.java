@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.operation.handler;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.SampleElements;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A {@code SampleElementsHandler} handles {@link SampleElements} operations.
+ * It reads the input once and uses reservoir sampling, so only the sampled
+ * elements are held in memory. When the operation is stratified a separate
+ * reservoir is kept for each group.
+ */
+public class SampleElementsHandler implements OutputOperationHandler<SampleElements, Iterable<? extends Element>> {
+    @Override
+    public Iterable<? extends Element> doOperation(final SampleElements operation, final Context context, final Store store) throws OperationException {
+        if (null == operation.getInput()) {
+            return null;
+        }
+
+        if (null == operation.getSampleSize() || operation.getSampleSize() < 1) {
+            throw new OperationException("SampleElements operation requires a sampleSize greater than 0");
+        }
+
+        final Random random = null != operation.getSeed() ? new Random(operation.getSeed()) : new Random();
+        final Reservoir reservoir = new Reservoir(operation.getSampleSize(), random);
+        final Map<String, Reservoir> reservoirsByGroup = new HashMap<>();
+        try {
+            for (final Element element : operation.getInput()) {
+                if (null == element) {
+                    continue;
+                }
+                if (operation.isStratified()) {
+                    reservoirsByGroup.computeIfAbsent(element.getGroup(), group -> new Reservoir(operation.getSampleSize(), random))
+                            .offer(element);
+                } else {
+                    reservoir.offer(element);
+                }
+            }
+        } finally {
+            CloseableUtil.close(operation);
+        }
+
+        if (operation.isStratified()) {
+            final List<Element> sample = new ArrayList<>();
+            for (final Reservoir groupReservoir : reservoirsByGroup.values()) {
+                sample.addAll(groupReservoir.sample);
+            }
+            return sample;
+        }
+
+        return reservoir.sample;
+    }
+
+    /**
+     * A fixed size reservoir, which replaces its sampled elements with
+     * decreasing probability so that each offered element is equally likely
+     * to be kept.
+     */
+    private static final class Reservoir {
+        private final int size;
+        private final Random random;
+        private final List<Element> sample = new ArrayList<>();
+        private long count;
+
+        private Reservoir(final int size, final Random random) {
+            this.size = size;
+            this.random = random;
+        }
+
+        private void offer(final Element element) {
+            count++;
+            if (sample.size() < size) {
+                sample.add(element);
+            } else {
+                final long index = (long) (random.nextDouble() * count);
+                if (index < size) {
+                    sample.set((int) index, element);
+                }
+            }
+        }
+    }
+}
@@ -26,14 +26,24 @@ import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
 
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * A {@code MinHandler} handles the {@link Min} operation.
  *
  * It uses the {@link Comparator}s instances on the operation to determine the
  * object with the minimum value.
+ * <p>
+ * The handler has a parallelism setting, which can be overridden by system
+ * administrators by supplying an operationDeclarations.json file. If it is set
+ * the input is processed by that number of threads using {@link ParallelTopK},
+ * in a pool that is created on first use and shared by all the operations the
+ * handler handles. It is not set by default, so the input is processed on the calling thread.
  */
 public class MinHandler implements OutputOperationHandler<Min, Element> {
+    private Integer parallelism = null;
+    private ForkJoinPool pool = null;
+
     @Override
     public Element doOperation(final Min operation, final Context context, final Store store) throws OperationException {
         // If there is no input or there are no comparators, we return null
@@ -44,12 +54,34 @@ public class MinHandler implements OutputOperationHandler<Min, Element> {
         }
 
         try {
+            if (null != parallelism) {
+                return ParallelTopK.min(operation.getInput(), operation.getComparators(), getPool());
+            }
             return getMin(operation.getInput(), operation);
         } finally {
             CloseableUtil.close(operation);
         }
     }
 
+    public Integer getParallelism() {
+        return parallelism;
+    }
+
+    public synchronized void setParallelism(final Integer parallelism) {
+        this.parallelism = parallelism;
+        if (null != pool) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    private synchronized ForkJoinPool getPool() {
+        if (null == pool) {
+            pool = ParallelTopK.createPool(parallelism);
+        }
+        return pool;
+    }
+
     private Element getMin(final Iterable<? extends Element> elements, final Min operation) {
         Element minElement = null;
 
@@ -0,0 +1,350 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.operation.handler.compare;
+
+import uk.gov.gchq.gaffer.commonutil.iterable.TransformIterable;
+import uk.gov.gchq.gaffer.commonutil.stream.Streams;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.comparison.ElementPropertyComparator;
+import uk.gov.gchq.gaffer.operation.OperationException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BinaryOperator;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Utility methods for finding the top K, maximum or minimum {@link Element}s
+ * using multiple threads.
+ * <p>
+ * The input is split across a {@link ForkJoinPool}, which is created once by each
+ * handler with {@link #createPool(int)} and shared by the operations it handles.
+ * Each thread keeps its own bounded, sorted collection of the best elements it
+ * has seen and these are merged together at the end. The properties used by any
+ * {@link ElementPropertyComparator}s are extracted once per element, rather than
+ * on every comparison.
+ * </p>
+ * <p>
+ * Each element is given its encounter index as it is read from the input, and
+ * elements that the comparators consider equal are ordered by that index. This
+ * means ties are resolved in the same way as when the input is processed on a
+ * single thread, whichever thread processes each element. When deduplicating,
+ * the first encountered of a set of equal elements is the one kept, so the
+ * elements returned at the limit are the same on every run.
+ * </p>
+ */
+public final class ParallelTopK {
+    private static final Object NOT_IN_GROUP = new Object();
+
+    private ParallelTopK() {
+        // Private constructor to prevent instantiation.
+    }
+
+    /**
+     * Creates a pool for the handlers to pass to the methods of this class.
+     * The pool is bounded by the parallelism and its threads are daemon threads
+     * that stop when they are idle, so a handler can create one pool and use
+     * it for every operation it handles.
+     *
+     * @param parallelism the number of threads to use
+     * @return the pool
+     */
+    public static ForkJoinPool createPool(final int parallelism) {
+        if (1 > parallelism) {
+            throw new IllegalArgumentException("Parallelism must be greater than 0");
+        }
+        return new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Sorts the elements, keeping at most {@code limit} of them.
+     *
+     * @param elements    the elements to sort
+     * @param comparators the comparators to sort the elements with
+     * @param limit       the maximum number of elements to return, or null for no limit
+     * @param deduplicate true if duplicate elements should be removed
+     * @param pool        the pool to sort the elements in
+     * @return the sorted elements
+     * @throws OperationException if the sort fails
+     */
+    public static List<Element> sort(final Iterable<? extends Element> elements,
+                                     final List<Comparator<Element>> comparators,
+                                     final Integer limit,
+                                     final boolean deduplicate,
+                                     final ForkJoinPool pool) throws OperationException {
+        if (null != limit && 1 > limit) {
+            throw new IllegalArgumentException("Limit cannot be less than or equal to 0");
+        }
+        final KeyedElementComparator comparator = new KeyedElementComparator(comparators);
+        final Comparator<KeyedElement> orderedComparator = comparator.thenComparingLong(KeyedElement::getIndex);
+        final Collector<KeyedElement, TopK, TopK> collector = Collector.of(
+                () -> new TopK(orderedComparator, limit, deduplicate),
+                TopK::add,
+                (left, right) -> {
+                    right.elements.forEach(left::add);
+                    return left;
+                });
+
+        final TopK sorted = execute(pool, () -> {
+            try (final Stream<KeyedElement> stream = Streams.toParallelStream(new IndexedElements(elements))) {
+                return stream.filter(Objects::nonNull)
+                        .map(comparator::extractKeys)
+                        .collect(collector);
+            }
+        });
+
+        final List<Element> result = new ArrayList<>(sorted.elements.size());
+        for (final KeyedElement keyedElement : sorted.elements) {
+            result.add(keyedElement.element);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the maximum element, in the same way as the {@link MaxHandler}.
+     *
+     * @param elements    the elements to search
+     * @param comparators the comparators to compare the elements with
+     * @param pool        the pool to search the elements in
+     * @return the maximum element, or null if there is none
+     * @throws OperationException if the search fails
+     */
+    public static Element max(final Iterable<? extends Element> elements,
+                              final List<Comparator<Element>> comparators,
+                              final ForkJoinPool pool) throws OperationException {
+        final KeyedElementComparator comparator = new KeyedElementComparator(comparators);
+        return reduce(elements, comparator, pool, (a, b) -> maxOf(comparator, a, b));
+    }
+
+    /**
+     * Finds the minimum element, in the same way as the {@link MinHandler}.
+     *
+     * @param elements    the elements to search
+     * @param comparators the comparators to compare the elements with
+     * @param pool        the pool to search the elements in
+     * @return the minimum element, or null if there is none
+     * @throws OperationException if the search fails
+     */
+    public static Element min(final Iterable<? extends Element> elements,
+                              final List<Comparator<Element>> comparators,
+                              final ForkJoinPool pool) throws OperationException {
+        final KeyedElementComparator comparator = new KeyedElementComparator(comparators);
+        return reduce(elements, comparator, pool, (a, b) -> minOf(comparator, a, b));
+    }
+
+    private static Element reduce(final Iterable<? extends Element> elements,
+                                  final KeyedElementComparator comparator,
+                                  final ForkJoinPool pool,
+                                  final BinaryOperator<KeyedElement> reducer) throws OperationException {
+        final KeyedElement result = execute(pool, () -> {
+            try (final Stream<KeyedElement> stream = Streams.toParallelStream(new IndexedElements(elements))) {
+                return stream.filter(Objects::nonNull)
+                        .map(comparator::extractKeys)
+                        .filter(comparator::isComparable)
+                        .reduce(reducer)
+                        .orElse(null);
+            }
+        });
+        return null != result ? result.element : null;
+    }
+
+    // The first element encountered wins a tie, as it does in the MaxHandler and MinHandler
+    private static KeyedElement maxOf(final KeyedElementComparator comparator, final KeyedElement a, final KeyedElement b) {
+        final int result = comparator.compare(b, a);
+        return 0 < result || (0 == result && b.index < a.index) ? b : a;
+    }
+
+    private static KeyedElement minOf(final KeyedElementComparator comparator, final KeyedElement a, final KeyedElement b) {
+        final int result = comparator.compare(b, a);
+        return 0 > result || (0 == result && b.index < a.index) ? b : a;
+    }
+
+    private static <T> T execute(final ForkJoinPool pool, final Callable<T> task) throws OperationException {
+        try {
+            return pool.submit(task).get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OperationException("Interrupted while comparing elements", e);
+        } catch (final ExecutionException e) {
+            throw new OperationException("Unable to compare elements: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * The best elements seen so far, ordered by the comparators and then by
+     * encounter index. When deduplicating, only the first encountered of a set
+     * of equal elements is kept. As the order is total, the elements kept when
+     * the limit is reached do not depend on how the input was split between
+     * threads.
+     */
+    private static final class TopK {
+        private final TreeSet<KeyedElement> elements;
+        private final Map<Element, KeyedElement> firstEncountered;
+        private final Integer limit;
+
+        private TopK(final Comparator<KeyedElement> comparator, final Integer limit, final boolean deduplicate) {
+            this.elements = new TreeSet<>(comparator);
+            this.firstEncountered = deduplicate ? new HashMap<>() : null;
+            this.limit = limit;
+        }
+
+        private void add(final KeyedElement keyedElement) {
+            if (null != limit && elements.size() >= limit
+                    && 0 <= elements.comparator().compare(keyedElement, elements.last())) {
+                return;
+            }
+            if (null != firstEncountered) {
+                final KeyedElement existing = firstEncountered.get(keyedElement.element);
+                if (null != existing) {
+                    if (existing.index <= keyedElement.index) {
+                        return;
+                    }
+                    elements.remove(existing);
+                }
+                firstEncountered.put(keyedElement.element, keyedElement);
+            }
+            elements.add(keyedElement);
+            if (null != limit && elements.size() > limit) {
+                final KeyedElement evicted = elements.pollLast();
+                if (null != firstEncountered) {
+                    firstEncountered.remove(evicted.element);
+                }
+            }
+        }
+    }
+
+    /**
+     * An {@link Element} along with its encounter index and the values extracted
+     * for each of the {@link ElementPropertyComparator}s. Equality is delegated
+     * to the element.
+     */
+    private static final class KeyedElement {
+        private final Element element;
+        private final long index;
+        private Object[] keys;
+
+        private KeyedElement(final Element element, final long index) {
+            this.element = element;
+            this.index = index;
+        }
+
+        private long getIndex() {
+            return index;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return this == obj
+                    || (null != obj && getClass() == obj.getClass() && element.equals(((KeyedElement) obj).element));
+        }
+
+        @Override
+        public int hashCode() {
+            return element.hashCode();
+        }
+    }
+
+    /**
+     * Wraps each non-null element of the input in a {@link KeyedElement} with its
+     * encounter index. The index is assigned as the element is read from the input,
+     * which happens in encounter order even when the stream is parallel.
+     */
+    private static final class IndexedElements extends TransformIterable<Element, KeyedElement> {
+        private final AtomicLong nextIndex = new AtomicLong();
+
+        private IndexedElements(final Iterable<? extends Element> input) {
+            super(input);
+        }
+
+        @Override
+        protected KeyedElement transform(final Element element) {
+            return null != element ? new KeyedElement(element, nextIndex.getAndIncrement()) : null;
+        }
+    }
+
+    private static final class KeyedElementComparator implements Comparator<KeyedElement> {
+        private final List<Comparator<Element>> comparators;
+
+        private KeyedElementComparator(final List<Comparator<Element>> comparators) {
+            this.comparators = comparators.stream()
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+
+        private KeyedElement extractKeys(final KeyedElement keyedElement) {
+            final Element element = keyedElement.element;
+            final Object[] keys = new Object[comparators.size()];
+            for (int i = 0; i < keys.length; i++) {
+                final Comparator<Element> comparator = comparators.get(i);
+                if (comparator instanceof ElementPropertyComparator) {
+                    final ElementPropertyComparator propertyComparator = (ElementPropertyComparator) comparator;
+                    keys[i] = propertyComparator.getGroups().contains(element.getGroup())
+                            ? element.getProperty(propertyComparator.getProperty())
+                            : NOT_IN_GROUP;
+                }
+            }
+            keyedElement.keys = keys;
+            return keyedElement;
+        }
+
+        // Mirrors the MaxHandler and MinHandler, which ignore elements without
+        // the property when there is a single ElementPropertyComparator.
+        private boolean isComparable(final KeyedElement keyedElement) {
+            if (1 == comparators.size() && comparators.get(0) instanceof ElementPropertyComparator) {
+                return null != keyedElement.keys[0] && NOT_IN_GROUP != keyedElement.keys[0];
+            }
+            return true;
+        }
+
+        @Override
+        public int compare(final KeyedElement e1, final KeyedElement e2) {
+            for (int i = 0; i < comparators.size(); i++) {
+                final Comparator<Element> comparator = comparators.get(i);
+                final int result;
+                if (comparator instanceof ElementPropertyComparator) {
+                    result = compareKeys((ElementPropertyComparator) comparator, e1.keys[i], e2.keys[i]);
+                } else {
+                    result = comparator.compare(e1.element, e2.element);
+                }
+                if (0 != result) {
+                    return result;
+                }
+            }
+            return 0;
+        }
+
+        private int compareKeys(final ElementPropertyComparator comparator, final Object key1, final Object key2) {
+            if (NOT_IN_GROUP == key1) {
+                return NOT_IN_GROUP == key2 ? 0 : 1;
+            }
+            if (NOT_IN_GROUP == key2) {
+                return -1;
+            }
+            return comparator._compare(key1, key2);
+        }
+    }
+}
@@ -25,19 +25,44 @@ import uk.gov.gchq.gaffer.operation.impl.compare.Sort;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
+import uk.gov.gchq.gaffer.store.serialiser.ElementSerialiser;
+import uk.gov.gchq.gaffer.store.util.ExternalSortedIterable;
 
 import java.util.Collections;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 
 /**
- * A {@code SortHandler} handles the {@link Sort} operation. It does that
+ * A {@code SortHandler} handles the {@link Sort} operation. By default it does that
  * in memory using the {@link uk.gov.gchq.gaffer.commonutil.iterable.LimitedInMemorySortedIterable}.
  * If the resultLimit is set to one that it just deletes the operation to the
  * {@link MaxHandler}.
+ * <p>
+ * The handler has two settings which can be overridden by system administrators
+ * by supplying an operationDeclarations.json file: <ul> <li>maxInMemorySortSize -
+ * the maximum number of elements to sort in memory. If this is set and the
+ * resultLimit is not set or is greater than this value, then the elements are
+ * sorted externally using an {@link ExternalSortedIterable}. Runs of up to
+ * maxInMemorySortSize elements are sorted in memory, serialised to temporary files
+ * using an {@link ElementSerialiser} for the store's schema and then lazily merged.
+ * This requires the elements to be sorted to conform to the store schema, so
+ * the operation fails if there is no store schema.</li>
+ * <li>tempDirectory - the directory to write the temporary files to. If not set
+ * the default temporary-file directory is used.</li> <li>parallelism - the
+ * number of threads to use when sorting in memory. If this is set the elements
+ * are sorted using {@link ParallelTopK}, in a pool that is created on first use
+ * and shared by all the operations the handler handles, otherwise they are
+ * sorted on the calling thread.</li> </ul>
+ * <p>
+ * Neither maxInMemorySortSize nor parallelism are set by default, so all sorting
+ * is done in memory on the calling thread.
  */
 public class SortHandler implements OutputOperationHandler<Sort, Iterable<? extends Element>> {
-    private static final MaxHandler MAX_HANDLER = new MaxHandler();
+    private Integer maxInMemorySortSize = null;
+    private String tempDirectory = null;
+    private Integer parallelism = null;
+    private ForkJoinPool pool = null;
 
     @Override
     public Iterable<? extends Element> doOperation(final Sort operation, final Context context, final Store store) throws OperationException {
@@ -50,16 +75,56 @@ public class SortHandler implements OutputOperationHandler<Sort, Iterable<? exte
 
         // If the result limit is set to 1 then we can just delegate the operation to the MaxHandler.
         if (null != operation.getResultLimit() && 1 == operation.getResultLimit()) {
-            final Element max = MAX_HANDLER.doOperation(new Max.Builder()
-                    .comparators(operation.getComparators())
-                    .input(operation.getInput())
-                    .build(), context, store);
+            final Element max;
+            if (null != parallelism) {
+                try {
+                    max = ParallelTopK.max(operation.getInput(), operation.getComparators(), getPool());
+                } finally {
+                    CloseableUtil.close(operation);
+                }
+            } else {
+                max = new MaxHandler().doOperation(new Max.Builder()
+                        .comparators(operation.getComparators())
+                        .input(operation.getInput())
+                        .build(), context, store);
+            }
             if (null == max) {
                 return Collections.emptyList();
             }
             return Collections.singletonList(max);
         }
 
+        if (isExternalSortRequired(operation)) {
+            if (null == store || null == store.getSchema()) {
+                CloseableUtil.close(operation);
+                throw new OperationException("maxInMemorySortSize is set but the elements cannot be sorted externally"
+                        + " as there is no store schema to serialise them with");
+            }
+            return new ExternalSortedIterable<>(
+                    operation.getInput(),
+                    operation.getCombinedComparator(),
+                    new ElementSerialiser(store.getSchema()),
+                    maxInMemorySortSize,
+                    operation.getResultLimit(),
+                    operation.isDeduplicate(),
+                    tempDirectory
+            );
+        }
+
+        if (null != parallelism) {
+            try {
+                return ParallelTopK.sort(
+                        operation.getInput(),
+                        operation.getComparators(),
+                        operation.getResultLimit(),
+                        operation.isDeduplicate(),
+                        getPool()
+                );
+            } finally {
+                CloseableUtil.close(operation);
+            }
+        }
+
         try (final Stream<? extends Element> stream =
                      Streams.toStream(operation.getInput())
                              .filter(Objects::nonNull)) {
@@ -74,4 +139,44 @@ public class SortHandler implements OutputOperationHandler<Sort, Iterable<? exte
             CloseableUtil.close(operation);
         }
     }
+
+    public Integer getMaxInMemorySortSize() {
+        return maxInMemorySortSize;
+    }
+
+    public void setMaxInMemorySortSize(final Integer maxInMemorySortSize) {
+        this.maxInMemorySortSize = maxInMemorySortSize;
+    }
+
+    public String getTempDirectory() {
+        return tempDirectory;
+    }
+
+    public void setTempDirectory(final String tempDirectory) {
+        this.tempDirectory = tempDirectory;
+    }
+
+    public Integer getParallelism() {
+        return parallelism;
+    }
+
+    public synchronized void setParallelism(final Integer parallelism) {
+        this.parallelism = parallelism;
+        if (null != pool) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    private synchronized ForkJoinPool getPool() {
+        if (null == pool) {
+            pool = ParallelTopK.createPool(parallelism);
+        }
+        return pool;
+    }
+
+    private boolean isExternalSortRequired(final Sort operation) {
+        return null != maxInMemorySortSize
+                && (null == operation.getResultLimit() || operation.getResultLimit() > maxInMemorySortSize);
+    }
 }
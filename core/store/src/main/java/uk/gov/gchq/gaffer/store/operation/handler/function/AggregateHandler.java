@@ -28,13 +28,31 @@ import uk.gov.gchq.gaffer.store.operation.validator.function.AggregateValidator;
 import uk.gov.gchq.gaffer.store.operation.validator.function.FunctionValidator;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.store.util.AggregatorUtil;
+import uk.gov.gchq.gaffer.store.util.ParallelHashAggregator;
 import uk.gov.gchq.koryphe.ValidationResult;
 
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * An {@code AggregateHandler} handles the {@link Aggregate} operation. By default
+ * the elements are aggregated in memory on the calling thread using
+ * {@link AggregatorUtil#queryAggregate(Iterable, Schema, View)}.
+ * <p>
+ * The handler has settings which can be overridden by system administrators by
+ * supplying an operationDeclarations.json file: <ul> <li>parallelism - the number
+ * of threads to aggregate the elements with.</li> <li>maxInMemoryElements - the
+ * maximum number of partially aggregated elements each thread holds in memory
+ * before spilling them to disk.</li> <li>tempDirectory - the directory to spill
+ * to. If not set the default temporary-file directory is used.</li> </ul>
+ * If either parallelism or maxInMemoryElements is set then the elements are
+ * aggregated using a {@link ParallelHashAggregator}.
+ */
 public class AggregateHandler implements OutputOperationHandler<Aggregate, Iterable<? extends Element>> {
     private final FunctionValidator<Aggregate> validator = new AggregateValidator();
+    private Integer parallelism = null;
+    private Integer maxInMemoryElements = null;
+    private String tempDirectory = null;
 
     @Override
     public Iterable<? extends Element> doOperation(final Aggregate operation, final Context context, final Store store) throws OperationException {
@@ -63,9 +81,43 @@ public class AggregateHandler implements OutputOperationHandler<Aggregate, Itera
             throw new OperationException("Aggregate operation is invalid. " + result.getErrorString());
         }
 
+        if (null != parallelism || null != maxInMemoryElements) {
+            return new ParallelHashAggregator(
+                    schema,
+                    buildView(operation),
+                    null != parallelism ? parallelism : 1,
+                    null != maxInMemoryElements ? maxInMemoryElements : Integer.MAX_VALUE,
+                    tempDirectory
+            ).aggregate(operation.getInput());
+        }
+
         return AggregatorUtil.queryAggregate(operation.getInput(), schema, buildView(operation));
     }
 
+    public Integer getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(final Integer parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public Integer getMaxInMemoryElements() {
+        return maxInMemoryElements;
+    }
+
+    public void setMaxInMemoryElements(final Integer maxInMemoryElements) {
+        this.maxInMemoryElements = maxInMemoryElements;
+    }
+
+    public String getTempDirectory() {
+        return tempDirectory;
+    }
+
+    public void setTempDirectory(final String tempDirectory) {
+        this.tempDirectory = tempDirectory;
+    }
+
     private View buildView(final Aggregate operation) {
         View.Builder builder = new View.Builder();
         if (null != operation.getEntities()) {
@@ -15,7 +15,13 @@
  */
 package uk.gov.gchq.gaffer.store.operation.handler.output;
 
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
 import uk.gov.gchq.gaffer.commonutil.iterable.ChainedIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.commonutil.iterable.TransformIterable;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.generator.CsvGenerator;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.output.ToCsv;
 import uk.gov.gchq.gaffer.store.Context;
@@ -28,6 +34,11 @@ import java.util.Collections;
  * A {@code ToCsvHandler} handles {@link ToCsv} operations by applying the provided
  * {@link uk.gov.gchq.gaffer.data.generator.ElementGenerator} to each item in the
  * input {@link Iterable}.
+ * <p>
+ * The CSV lines are generated lazily as the result is iterated. Each iterator
+ * appends its lines to a single reused {@link StringBuilder}, so the result can
+ * be streamed without building a new buffer for every element.
+ * </p>
  */
 public class ToCsvHandler implements OutputOperationHandler<ToCsv, Iterable<? extends String>> {
     @Override
@@ -40,11 +51,39 @@ public class ToCsvHandler implements OutputOperationHandler<ToCsv, Iterable<? ex
             throw new IllegalArgumentException("ToCsv operation requires a generator");
         }
 
-        final Iterable<? extends String> csv = operation.getElementGenerator().apply(operation.getInput());
+        final Iterable<? extends String> csv = new CsvIterable(operation.getInput(), operation.getElementGenerator());
         if (operation.isIncludeHeader()) {
             return new ChainedIterable<>(Collections.singletonList(operation.getElementGenerator().getHeader()), csv);
         }
 
         return csv;
     }
+
+    private static final class CsvIterable implements CloseableIterable<String> {
+        private final Iterable<? extends Element> input;
+        private final CsvGenerator generator;
+
+        private CsvIterable(final Iterable<? extends Element> input, final CsvGenerator generator) {
+            this.input = input;
+            this.generator = generator;
+        }
+
+        @Override
+        public CloseableIterator<String> iterator() {
+            final StringBuilder strBuilder = new StringBuilder();
+            return new TransformIterable<Element, String>(input) {
+                @Override
+                protected String transform(final Element element) {
+                    strBuilder.setLength(0);
+                    generator.append(element, strBuilder);
+                    return strBuilder.toString();
+                }
+            }.iterator();
+        }
+
+        @Override
+        public void close() {
+            CloseableUtil.close(input);
+        }
+    }
 }
@@ -0,0 +1,530 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * <p>
+ * A {@code ExternalSortedIterable} is a {@link CloseableIterable} which sorts,
+ * limits and deduplicates its input without holding it all in memory.
+ * </p>
+ * <p>
+ * The input is consumed the first time the iterable is iterated over. It is
+ * split into runs of at most {@code maxRunSize} items, each run is sorted in
+ * memory using the provided {@link Comparator} and, if there is more than one
+ * run, written to a temporary file using the provided {@link ToBytesSerialiser}.
+ * The runs are then lazily merged together with a k-way merge as the iterator
+ * is consumed. If the whole input fits into a single run then no files are
+ * written.
+ * </p>
+ * <p>
+ * At most {@code maxOpenRuns} run files are merged at once. If more runs than
+ * that are written then they are merged into larger runs in further passes
+ * before the final merge, so the number of open files is bounded.
+ * </p>
+ * <p>
+ * When deduplicating runs written to files, items that the comparator considers
+ * equal are ordered by their serialised form, so duplicates are adjacent in the
+ * merged output and only the last item returned needs to be held in memory.
+ * This relies on equal items having equal serialised forms.
+ * </p>
+ * <p>
+ * The temporary files are deleted when the iterable is closed.
+ * </p>
+ *
+ * @param <E> the type of object to sort
+ */
+public class ExternalSortedIterable<E> implements CloseableIterable<E> {
+    public static final int DEFAULT_MAX_OPEN_RUNS = 64;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExternalSortedIterable.class);
+    private static final String TEMP_FILE_PREFIX = "gaffer-sort-";
+    private static final String TEMP_FILE_SUFFIX = ".run";
+
+    private final Iterable<? extends E> input;
+    private final Comparator<E> comparator;
+    private final ToBytesSerialiser<E> serialiser;
+    private final int maxRunSize;
+    private final Integer limit;
+    private final boolean deduplicate;
+    private final Path tempDirectory;
+    private final int maxOpenRuns;
+
+    private final List<Path> runFiles = new ArrayList<>();
+    private int numberOfRunFiles;
+    private List<E> inMemoryRun;
+    private boolean sorted;
+
+    public ExternalSortedIterable(final Iterable<? extends E> input,
+                                  final Comparator<E> comparator,
+                                  final ToBytesSerialiser<E> serialiser,
+                                  final int maxRunSize) {
+        this(input, comparator, serialiser, maxRunSize, null, false, null);
+    }
+
+    public ExternalSortedIterable(final Iterable<? extends E> input,
+                                  final Comparator<E> comparator,
+                                  final ToBytesSerialiser<E> serialiser,
+                                  final int maxRunSize,
+                                  final Integer limit,
+                                  final boolean deduplicate,
+                                  final String tempDirectory) {
+        this(input, comparator, serialiser, maxRunSize, limit, deduplicate, tempDirectory, DEFAULT_MAX_OPEN_RUNS);
+    }
+
+    public ExternalSortedIterable(final Iterable<? extends E> input,
+                                  final Comparator<E> comparator,
+                                  final ToBytesSerialiser<E> serialiser,
+                                  final int maxRunSize,
+                                  final Integer limit,
+                                  final boolean deduplicate,
+                                  final String tempDirectory,
+                                  final int maxOpenRuns) {
+        if (null == comparator) {
+            throw new IllegalArgumentException("Comparator is required");
+        }
+        if (null == serialiser) {
+            throw new IllegalArgumentException("Serialiser is required");
+        }
+        if (1 > maxRunSize) {
+            throw new IllegalArgumentException("Max run size cannot be less than or equal to 0");
+        }
+        if (null != limit && 1 > limit) {
+            throw new IllegalArgumentException("Limit cannot be less than or equal to 0");
+        }
+        if (2 > maxOpenRuns) {
+            throw new IllegalArgumentException("Max open runs cannot be less than 2");
+        }
+
+        this.input = null != input ? input : Collections.emptyList();
+        this.comparator = comparator;
+        this.serialiser = serialiser;
+        this.maxRunSize = maxRunSize;
+        this.limit = limit;
+        this.deduplicate = deduplicate;
+        this.tempDirectory = null != tempDirectory ? new File(tempDirectory).toPath() : null;
+        this.maxOpenRuns = maxOpenRuns;
+    }
+
+    @Override
+    public CloseableIterator<E> iterator() {
+        synchronized (this) {
+            if (!sorted) {
+                sortRuns();
+                mergeRunsUntilWithinMaxOpenRuns();
+                sorted = true;
+            }
+        }
+
+        if (null != inMemoryRun) {
+            return new InMemoryRunIterator(inMemoryRun.iterator());
+        }
+        return new MergeIterator(openRuns(runFiles));
+    }
+
+    @Override
+    public void close() {
+        CloseableUtil.close(input);
+        deleteRunFiles(runFiles);
+        runFiles.clear();
+        inMemoryRun = null;
+    }
+
+    /**
+     * @return the number of runs that were written to temporary files, not
+     * including the runs written when merging runs together.
+     */
+    public int getNumberOfRunFiles() {
+        return numberOfRunFiles;
+    }
+
+    private void sortRuns() {
+        try {
+            List<E> run = new ArrayList<>();
+            for (final E item : input) {
+                if (null == item) {
+                    continue;
+                }
+                run.add(item);
+                if (run.size() >= maxRunSize) {
+                    writeRun(run);
+                    run = new ArrayList<>();
+                }
+            }
+
+            if (runFiles.isEmpty()) {
+                inMemoryRun = sortInMemoryRun(run);
+            } else if (!run.isEmpty()) {
+                writeRun(run);
+            }
+        } finally {
+            CloseableUtil.close(input);
+        }
+    }
+
+    private List<E> sortInMemoryRun(final List<E> run) {
+        run.sort(comparator);
+        final List<E> sortedRun = deduplicate ? deduplicateSortedRun(run) : run;
+        if (null != limit && sortedRun.size() > limit) {
+            return new ArrayList<>(sortedRun.subList(0, limit));
+        }
+        return sortedRun;
+    }
+
+    private List<E> deduplicateSortedRun(final List<E> run) {
+        // Items that are equal must have a comparator score of 0, so they
+        // will be adjacent within the sorted run.
+        final List<E> deduplicated = new ArrayList<>(run.size());
+        final Set<E> tieGroup = new HashSet<>();
+        E previous = null;
+        for (final E item : run) {
+            if (null == previous || 0 != comparator.compare(previous, item)) {
+                tieGroup.clear();
+            }
+            if (tieGroup.add(item)) {
+                deduplicated.add(item);
+            }
+            previous = item;
+        }
+        return deduplicated;
+    }
+
+    private void writeRun(final List<E> run) {
+        final List<SerialisedItem<E>> sortedRun = new ArrayList<>(run.size());
+        for (final E item : run) {
+            try {
+                sortedRun.add(new SerialisedItem<>(item, serialiser.serialise(item)));
+            } catch (final SerialisationException e) {
+                throw new GafferRuntimeException("Unable to serialise item for sorting", e);
+            }
+        }
+        sortedRun.sort(this::compareItems);
+
+        final Path runFile = createRunFile();
+        runFiles.add(runFile);
+        numberOfRunFiles++;
+        int count = 0;
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(runFile)))) {
+            byte[] lastWritten = null;
+            for (final SerialisedItem<E> item : sortedRun) {
+                if (null != limit && count >= limit) {
+                    break;
+                }
+                if (deduplicate && Arrays.equals(lastWritten, item.bytes)) {
+                    continue;
+                }
+                write(out, item.bytes);
+                lastWritten = item.bytes;
+                count++;
+            }
+        } catch (final IOException e) {
+            throw new GafferRuntimeException("Unable to write sorted run to temporary file " + runFile, e);
+        }
+        LOGGER.debug("Written sorted run of {} items to {}", count, runFile);
+    }
+
+    private void mergeRunsUntilWithinMaxOpenRuns() {
+        while (runFiles.size() > maxOpenRuns) {
+            LOGGER.debug("Merging {} sorted runs in groups of {}", runFiles.size(), maxOpenRuns);
+            final List<Path> currentRunFiles = new ArrayList<>(runFiles);
+            final List<Path> mergedRunFiles = new ArrayList<>();
+            for (int i = 0; i < currentRunFiles.size(); i += maxOpenRuns) {
+                final List<Path> group = currentRunFiles.subList(i, Math.min(i + maxOpenRuns, currentRunFiles.size()));
+                if (1 == group.size()) {
+                    mergedRunFiles.add(group.get(0));
+                    continue;
+                }
+                final Path mergedRunFile = createRunFile();
+                // Track the merged run straight away so that it is deleted on close if the merge fails
+                runFiles.add(mergedRunFile);
+                mergedRunFiles.add(mergedRunFile);
+                try (final MergeIterator merge = new MergeIterator(openRuns(group));
+                     final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(mergedRunFile)))) {
+                    while (merge.hasNext()) {
+                        write(out, merge.nextSerialised().bytes);
+                    }
+                } catch (final IOException e) {
+                    throw new GafferRuntimeException("Unable to write merged run to temporary file " + mergedRunFile, e);
+                }
+                deleteRunFiles(group);
+                runFiles.removeAll(group);
+            }
+            // Keep the runs in input order so that the merge remains stable
+            runFiles.clear();
+            runFiles.addAll(mergedRunFiles);
+        }
+    }
+
+    private Path createRunFile() {
+        final Path runFile;
+        try {
+            runFile = null != tempDirectory
+                    ? Files.createTempFile(tempDirectory, TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX)
+                    : Files.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+        } catch (final IOException e) {
+            throw new GafferRuntimeException("Unable to create temporary file for sorting", e);
+        }
+        runFile.toFile().deleteOnExit();
+        return runFile;
+    }
+
+    private static void write(final DataOutputStream out, final byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void deleteRunFiles(final List<Path> files) {
+        for (final Path runFile : files) {
+            try {
+                Files.deleteIfExists(runFile);
+            } catch (final IOException e) {
+                LOGGER.warn("Unable to delete temporary sort file {}", runFile, e);
+            }
+        }
+    }
+
+    private List<RunFileReader> openRuns(final List<Path> files) {
+        final List<RunFileReader> runs = new ArrayList<>(files.size());
+        for (final Path runFile : files) {
+            runs.add(new RunFileReader(runFile));
+        }
+        return runs;
+    }
+
+    private int compareItems(final SerialisedItem<E> first, final SerialisedItem<E> second) {
+        final int result = comparator.compare(first.item, second.item);
+        if (0 != result || !deduplicate) {
+            return result;
+        }
+        // Order ties by their serialised form so that duplicates are adjacent
+        return compareBytes(first.bytes, second.bytes);
+    }
+
+    private static int compareBytes(final byte[] first, final byte[] second) {
+        final int length = Math.min(first.length, second.length);
+        for (int i = 0; i < length; i++) {
+            final int result = Integer.compare(first[i] & 0xff, second[i] & 0xff);
+            if (0 != result) {
+                return result;
+            }
+        }
+        return Integer.compare(first.length, second.length);
+    }
+
+    private static final class SerialisedItem<E> {
+        private final E item;
+        private final byte[] bytes;
+
+        private SerialisedItem(final E item, final byte[] bytes) {
+            this.item = item;
+            this.bytes = bytes;
+        }
+    }
+
+    private final class InMemoryRunIterator implements CloseableIterator<E> {
+        private final Iterator<E> run;
+
+        private InMemoryRunIterator(final Iterator<E> run) {
+            this.run = run;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return run.hasNext();
+        }
+
+        @Override
+        public E next() {
+            return run.next();
+        }
+
+        @Override
+        public void close() {
+            // Nothing to close
+        }
+    }
+
+    private final class RunFileReader {
+        private final Path runFile;
+        private DataInputStream in;
+
+        private RunFileReader(final Path runFile) {
+            this.runFile = runFile;
+        }
+
+        private SerialisedItem<E> read() {
+            try {
+                if (null == in) {
+                    in = new DataInputStream(new BufferedInputStream(Files.newInputStream(runFile)));
+                }
+                final int length;
+                try {
+                    length = in.readInt();
+                } catch (final EOFException e) {
+                    close();
+                    return null;
+                }
+                final byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                return new SerialisedItem<>(serialiser.deserialise(bytes), bytes);
+            } catch (final SerialisationException e) {
+                close();
+                throw new GafferRuntimeException("Unable to deserialise item from temporary file " + runFile, e);
+            } catch (final IOException e) {
+                close();
+                throw new GafferRuntimeException("Unable to read from temporary file " + runFile, e);
+            }
+        }
+
+        private void close() {
+            CloseableUtil.close(in);
+        }
+    }
+
+    private final class MergeIterator implements CloseableIterator<E> {
+        private final List<RunFileReader> runs;
+        private final PriorityQueue<RunHead> heads;
+        private SerialisedItem<E> next;
+        private byte[] lastReturned;
+        private int count;
+
+        private MergeIterator(final List<RunFileReader> runs) {
+            this.runs = runs;
+            this.heads = new PriorityQueue<>(Math.max(1, runs.size()));
+            for (int i = 0; i < runs.size(); i++) {
+                advance(i);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (null == next) {
+                next = poll();
+            }
+            return null != next;
+        }
+
+        @Override
+        public E next() {
+            return nextSerialised().item;
+        }
+
+        private SerialisedItem<E> nextSerialised() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final SerialisedItem<E> item = next;
+            next = null;
+            return item;
+        }
+
+        private SerialisedItem<E> poll() {
+            if (null != limit && count >= limit) {
+                close();
+                return null;
+            }
+
+            while (!heads.isEmpty()) {
+                final RunHead head = heads.poll();
+                advance(head.runIndex);
+                // Duplicates are adjacent as ties are ordered by their serialised form
+                if (deduplicate && Arrays.equals(lastReturned, head.item.bytes)) {
+                    continue;
+                }
+                lastReturned = head.item.bytes;
+                count++;
+                return head.item;
+            }
+
+            close();
+            return null;
+        }
+
+        private void advance(final int runIndex) {
+            final SerialisedItem<E> item = runs.get(runIndex).read();
+            if (null != item) {
+                heads.add(new RunHead(item, runIndex));
+            }
+        }
+
+        @Override
+        public void close() {
+            heads.clear();
+            for (final RunFileReader run : runs) {
+                run.close();
+            }
+        }
+    }
+
+    private final class RunHead implements Comparable<RunHead> {
+        private final SerialisedItem<E> item;
+        private final int runIndex;
+
+        private RunHead(final SerialisedItem<E> item, final int runIndex) {
+            this.item = item;
+            this.runIndex = runIndex;
+        }
+
+        @Override
+        public int compareTo(final RunHead other) {
+            final int result = compareItems(item, other.item);
+            if (0 != result) {
+                return result;
+            }
+            // Fall back to the run index so that the merge is stable
+            return Integer.compare(runIndex, other.runIndex);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return this == obj;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+}
@@ -0,0 +1,543 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.util;
+
+import com.google.common.primitives.UnsignedBytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.iterable.ChainedIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.serialiser.ElementSerialiser;
+import uk.gov.gchq.gaffer.store.util.AggregatorUtil.QueryElementBinaryOperator;
+import uk.gov.gchq.gaffer.store.util.AggregatorUtil.ToQueryElementKey;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * A {@code ParallelHashAggregator} applies query time aggregation to an iterable of
+ * {@link Element}s using multiple threads and a bounded amount of memory. The
+ * result is the same as {@link AggregatorUtil#queryAggregate(Iterable, Schema, View)}.
+ * </p>
+ * <p>
+ * Elements in aggregated groups are hash partitioned on their group and identifiers,
+ * so all elements with the same key are aggregated by the same worker thread. Each
+ * worker aggregates its elements in an in-memory map keyed by the query time element
+ * key. If a worker's map grows beyond {@code maxInMemoryElements} the partial
+ * aggregates are sorted by their serialised key and spilled to a temporary file.
+ * When the results are read the spilled files of each partition are lazily merged
+ * and any partial aggregates with the same key are aggregated together.
+ * </p>
+ * <p>
+ * Elements in non aggregated groups are passed through and are also spilled to
+ * a temporary file once there are more than {@code maxInMemoryElements} of them.
+ * </p>
+ * <p>
+ * Spilling requires the elements to conform to the {@link Schema}, as they are
+ * serialised using an {@link ElementSerialiser}. The temporary files are deleted
+ * when the returned iterable is closed.
+ * </p>
+ */
+public class ParallelHashAggregator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelHashAggregator.class);
+    private static final String TEMP_FILE_PREFIX = "gaffer-aggregate-";
+    private static final String TEMP_FILE_SUFFIX = ".spill";
+    private static final int QUEUE_SIZE = 1000;
+    private static final Element END_OF_INPUT = new Entity("END_OF_INPUT");
+    private static final Comparator<byte[]> KEY_COMPARATOR = UnsignedBytes.lexicographicalComparator();
+
+    private final Schema schema;
+    private final View view;
+    private final int parallelism;
+    private final int maxInMemoryElements;
+    private final Path tempDirectory;
+
+    public ParallelHashAggregator(final Schema schema, final View view, final int parallelism, final int maxInMemoryElements) {
+        this(schema, view, parallelism, maxInMemoryElements, null);
+    }
+
+    public ParallelHashAggregator(final Schema schema, final View view, final int parallelism, final int maxInMemoryElements, final String tempDirectory) {
+        if (null == schema) {
+            throw new IllegalArgumentException("Schema is required");
+        }
+        if (null == view) {
+            throw new IllegalArgumentException("View is required");
+        }
+        if (1 > parallelism) {
+            throw new IllegalArgumentException("Parallelism must be greater than 0");
+        }
+        if (1 > maxInMemoryElements) {
+            throw new IllegalArgumentException("Max in memory elements must be greater than 0");
+        }
+        this.schema = schema;
+        this.view = view;
+        this.parallelism = parallelism;
+        this.maxInMemoryElements = maxInMemoryElements;
+        this.tempDirectory = null != tempDirectory ? new File(tempDirectory).toPath() : null;
+    }
+
+    /**
+     * Aggregates the provided elements. The elements are consumed before this
+     * method returns.
+     *
+     * @param elements the elements to aggregate
+     * @return the aggregated elements, which must be closed to delete any temporary files
+     * @throws OperationException if the aggregation fails
+     */
+    public CloseableIterable<Element> aggregate(final Iterable<? extends Element> elements) throws OperationException {
+        final Collection<String> aggregatedGroups = schema.getAggregatedGroups();
+        final List<Partition> partitions = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            partitions.add(new Partition());
+        }
+        final PassThrough passThrough = new PassThrough(new ElementSerialiser(schema));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            final List<Future<?>> futures = new ArrayList<>(parallelism);
+            for (final Partition partition : partitions) {
+                futures.add(executor.submit(partition));
+            }
+
+            try {
+                for (final Element element : elements) {
+                    if (null == element) {
+                        continue;
+                    }
+                    if (aggregatedGroups.contains(element.getGroup())) {
+                        final Partition partition = partitions.get(Math.floorMod(hashIdentifiers(element), parallelism));
+                        put(partition, element, futures);
+                    } else {
+                        passThrough.add(element);
+                    }
+                }
+                for (final Partition partition : partitions) {
+                    put(partition, END_OF_INPUT, futures);
+                }
+                for (final Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                CloseableUtil.close(elements);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            deleteAll(partitions, passThrough);
+            throw new OperationException("Interrupted while aggregating elements", e);
+        } catch (final ExecutionException e) {
+            deleteAll(partitions, passThrough);
+            throw new OperationException("Unable to aggregate elements: " + e.getCause().getMessage(), e.getCause());
+        } catch (final RuntimeException e) {
+            deleteAll(partitions, passThrough);
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return new AggregatedIterable(partitions, passThrough);
+    }
+
+    private void put(final Partition partition, final Element element, final List<Future<?>> futures) throws InterruptedException, ExecutionException {
+        // Offer with a timeout so that a failed worker does not block the input forever
+        while (!partition.queue.offer(element, 1, TimeUnit.SECONDS)) {
+            for (final Future<?> future : futures) {
+                if (future.isDone()) {
+                    future.get();
+                }
+            }
+        }
+    }
+
+    private static int hashIdentifiers(final Element element) {
+        if (element instanceof Entity) {
+            return Objects.hash(element.getGroup(), ((Entity) element).getVertex());
+        }
+        final Edge edge = (Edge) element;
+        return Objects.hash(edge.getGroup(), edge.getSource(), edge.getDestination(), edge.isDirected());
+    }
+
+    private static void deleteAll(final List<Partition> partitions, final PassThrough passThrough) {
+        for (final Partition partition : partitions) {
+            deleteFiles(partition.spillFiles);
+        }
+        deleteFiles(passThrough.spillFiles);
+    }
+
+    private static void deleteFiles(final List<Path> files) {
+        for (final Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (final IOException e) {
+                LOGGER.warn("Unable to delete temporary aggregation file {}", file, e);
+            }
+        }
+        files.clear();
+    }
+
+    private Path createTempFile() {
+        final Path file;
+        try {
+            file = null != tempDirectory
+                    ? Files.createTempFile(tempDirectory, TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX)
+                    : Files.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+        } catch (final IOException e) {
+            throw new GafferRuntimeException("Unable to create temporary file for aggregation", e);
+        }
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    /**
+     * A worker that aggregates a single partition of the elements. The schema
+     * and view are cloned as the aggregators they contain are not thread safe.
+     */
+    private final class Partition implements Runnable {
+        private final BlockingQueue<Element> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+        private final Map<Element, Element> aggregates = new HashMap<>();
+        private final List<Path> spillFiles = new ArrayList<>();
+        private final Schema partitionSchema = schema.clone();
+        private final ToQueryElementKey toKey = new ToQueryElementKey(partitionSchema, view);
+        private final QueryElementBinaryOperator aggregator = new QueryElementBinaryOperator(partitionSchema, view.clone());
+        private final ElementSerialiser serialiser = new ElementSerialiser(partitionSchema);
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    final Element element = queue.take();
+                    if (END_OF_INPUT == element) {
+                        break;
+                    }
+                    aggregates.merge(toKey.apply(element), element, aggregator);
+                    if (aggregates.size() > maxInMemoryElements) {
+                        spill();
+                    }
+                }
+                if (!spillFiles.isEmpty() && !aggregates.isEmpty()) {
+                    spill();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new GafferRuntimeException("Interrupted while aggregating elements", e);
+            }
+        }
+
+        private void spill() {
+            final List<Map.Entry<byte[], Element>> sorted = new ArrayList<>(aggregates.size());
+            try {
+                for (final Map.Entry<Element, Element> entry : aggregates.entrySet()) {
+                    sorted.add(new SimpleImmutableEntry<>(serialiser.serialise(entry.getKey()), entry.getValue()));
+                }
+            } catch (final SerialisationException e) {
+                throw new GafferRuntimeException("Unable to serialise element key: " + e.getMessage(), e);
+            }
+            sorted.sort((a, b) -> KEY_COMPARATOR.compare(a.getKey(), b.getKey()));
+
+            final Path file = createTempFile();
+            spillFiles.add(file);
+            try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                for (final Map.Entry<byte[], Element> entry : sorted) {
+                    writeBytes(out, entry.getKey());
+                    writeBytes(out, serialiser.serialise(entry.getValue()));
+                }
+            } catch (final IOException e) {
+                throw new GafferRuntimeException("Unable to write partial aggregates to temporary file " + file, e);
+            }
+            LOGGER.debug("Spilled {} partial aggregates to {}", sorted.size(), file);
+            aggregates.clear();
+        }
+
+        private Iterable<Element> results() {
+            if (spillFiles.isEmpty()) {
+                return aggregates.values();
+            }
+            return () -> new SpillMergeIterator(spillFiles, serialiser, aggregator);
+        }
+    }
+
+    /**
+     * Holds the elements that do not need aggregating, spilling them to a
+     * temporary file if there are too many of them.
+     */
+    private final class PassThrough {
+        private final List<Element> elements = new ArrayList<>();
+        private final List<Path> spillFiles = new ArrayList<>();
+        private final ElementSerialiser serialiser;
+
+        private PassThrough(final ElementSerialiser serialiser) {
+            this.serialiser = serialiser;
+        }
+
+        private void add(final Element element) {
+            elements.add(element);
+            if (elements.size() > maxInMemoryElements) {
+                final Path file = createTempFile();
+                spillFiles.add(file);
+                try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                    for (final Element item : elements) {
+                        writeBytes(out, serialiser.serialise(item));
+                    }
+                } catch (final IOException e) {
+                    throw new GafferRuntimeException("Unable to write elements to temporary file " + file, e);
+                }
+                elements.clear();
+            }
+        }
+
+        private Iterable<Element> results() {
+            if (spillFiles.isEmpty()) {
+                return elements;
+            }
+            final List<Iterable<Element>> iterables = new ArrayList<>(spillFiles.size() + 1);
+            for (final Path file : spillFiles) {
+                iterables.add(() -> new ElementFileIterator(file, serialiser));
+            }
+            iterables.add(elements);
+            return new ChainedIterable<>(iterables.toArray(new Iterable[iterables.size()]));
+        }
+    }
+
+    private static final class AggregatedIterable implements CloseableIterable<Element> {
+        private final List<Partition> partitions;
+        private final PassThrough passThrough;
+
+        private AggregatedIterable(final List<Partition> partitions, final PassThrough passThrough) {
+            this.partitions = partitions;
+            this.passThrough = passThrough;
+        }
+
+        @Override
+        public CloseableIterator<Element> iterator() {
+            final Iterable[] iterables = new Iterable[partitions.size() + 1];
+            for (int i = 0; i < partitions.size(); i++) {
+                iterables[i] = partitions.get(i).results();
+            }
+            iterables[partitions.size()] = passThrough.results();
+            return new ChainedIterable<Element>(iterables).iterator();
+        }
+
+        @Override
+        public void close() {
+            deleteAll(partitions, passThrough);
+        }
+    }
+
+    /**
+     * Merges the sorted spill files of a partition, aggregating together any
+     * partial aggregates with the same serialised key.
+     */
+    private static final class SpillMergeIterator implements CloseableIterator<Element> {
+        private final List<KeyedElementFileIterator> files = new ArrayList<>();
+        private final PriorityQueue<KeyedElementFileIterator> heads;
+        private final ElementSerialiser serialiser;
+        private final QueryElementBinaryOperator aggregator;
+
+        private SpillMergeIterator(final List<Path> spillFiles, final ElementSerialiser serialiser, final QueryElementBinaryOperator aggregator) {
+            this.serialiser = serialiser;
+            this.aggregator = aggregator;
+            this.heads = new PriorityQueue<>(spillFiles.size(), (a, b) -> KEY_COMPARATOR.compare(a.key, b.key));
+            for (final Path file : spillFiles) {
+                final KeyedElementFileIterator iterator = new KeyedElementFileIterator(file);
+                files.add(iterator);
+                if (iterator.advance()) {
+                    heads.add(iterator);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (heads.isEmpty()) {
+                close();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public Element next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final KeyedElementFileIterator first = heads.poll();
+            final byte[] key = first.key;
+            Element aggregate = deserialise(first.value);
+            if (first.advance()) {
+                heads.add(first);
+            }
+            while (!heads.isEmpty() && 0 == KEY_COMPARATOR.compare(key, heads.peek().key)) {
+                final KeyedElementFileIterator other = heads.poll();
+                aggregate = aggregator.apply(aggregate, deserialise(other.value));
+                if (other.advance()) {
+                    heads.add(other);
+                }
+            }
+            return aggregate;
+        }
+
+        private Element deserialise(final byte[] bytes) {
+            try {
+                return serialiser.deserialise(bytes);
+            } catch (final SerialisationException e) {
+                throw new GafferRuntimeException("Unable to deserialise partial aggregate: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void close() {
+            heads.clear();
+            for (final KeyedElementFileIterator file : files) {
+                file.close();
+            }
+        }
+    }
+
+    private static final class KeyedElementFileIterator {
+        private final Path file;
+        private DataInputStream in;
+        private byte[] key;
+        private byte[] value;
+
+        private KeyedElementFileIterator(final Path file) {
+            this.file = file;
+        }
+
+        private boolean advance() {
+            try {
+                if (null == in) {
+                    in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+                }
+                key = readBytes(in);
+                if (null == key) {
+                    close();
+                    return false;
+                }
+                value = readBytes(in);
+                return true;
+            } catch (final IOException e) {
+                close();
+                throw new GafferRuntimeException("Unable to read from temporary file " + file, e);
+            }
+        }
+
+        private void close() {
+            CloseableUtil.close(in);
+        }
+    }
+
+    private static final class ElementFileIterator implements CloseableIterator<Element> {
+        private final Path file;
+        private final ElementSerialiser serialiser;
+        private DataInputStream in;
+        private boolean finished;
+        private Element next;
+
+        private ElementFileIterator(final Path file, final ElementSerialiser serialiser) {
+            this.file = file;
+            this.serialiser = serialiser;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (null == next && !finished) {
+                try {
+                    if (null == in) {
+                        in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+                    }
+                    final byte[] bytes = readBytes(in);
+                    if (null == bytes) {
+                        close();
+                    } else {
+                        next = serialiser.deserialise(bytes);
+                    }
+                } catch (final IOException e) {
+                    close();
+                    throw new GafferRuntimeException("Unable to read from temporary file " + file, e);
+                }
+            }
+            return null != next;
+        }
+
+        @Override
+        public Element next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Element element = next;
+            next = null;
+            return element;
+        }
+
+        @Override
+        public void close() {
+            finished = true;
+            CloseableUtil.close(in);
+        }
+    }
+
+    private static void writeBytes(final DataOutputStream out, final byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(final DataInputStream in) throws IOException {
+        final int length;
+        try {
+            length = in.readInt();
+        } catch (final EOFException e) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
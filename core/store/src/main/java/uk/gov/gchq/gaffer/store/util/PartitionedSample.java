@@ -0,0 +1,92 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.store.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A {@code PartitionedSample} combines uniform samples taken separately from
+ * several partitions of a population, for example the tablets or regions of a
+ * table, into a single uniform sample of the whole population.
+ * <p>
+ * Each partition is added with its population and a uniform sample of at least
+ * as many items as will be drawn from it. Items are drawn without replacement:
+ * each draw picks a partition in proportion to its remaining population and then
+ * takes the next of its sampled items, which are shuffled first.
+ * </p>
+ *
+ * @param <T> the type of the sampled items
+ */
+public class PartitionedSample<T> {
+    private final List<Partition<T>> partitions = new ArrayList<>();
+
+    /**
+     * Adds the sample of a partition.
+     *
+     * @param population the number of items in the partition
+     * @param sample     a uniform sample of the items in the partition, which
+     *                   will be shuffled when items are drawn
+     */
+    public void add(final long population, final List<T> sample) {
+        partitions.add(new Partition<>(population, sample));
+    }
+
+    /**
+     * Draws up to sampleSize items, so that every item in the whole population
+     * is equally likely to be drawn. This can only be called once.
+     *
+     * @param sampleSize the maximum number of items to draw
+     * @param random     the source of randomness
+     * @return the drawn items
+     */
+    public List<T> draw(final int sampleSize, final Random random) {
+        long remaining = 0;
+        for (final Partition<T> partition : partitions) {
+            Collections.shuffle(partition.sample, random);
+            remaining += partition.population;
+        }
+
+        final List<T> drawn = new ArrayList<>();
+        while (drawn.size() < sampleSize && remaining > 0) {
+            long index = (long) (random.nextDouble() * remaining);
+            for (final Partition<T> partition : partitions) {
+                if (index < partition.population) {
+                    drawn.add(partition.sample.get(partition.drawn++));
+                    partition.population--;
+                    break;
+                }
+                index -= partition.population;
+            }
+            remaining--;
+        }
+        return drawn;
+    }
+
+    private static final class Partition<T> {
+        private final List<T> sample;
+        private long population;
+        private int drawn;
+
+        private Partition(final long population, final List<T> sample) {
+            this.population = population;
+            this.sample = sample;
+        }
+    }
+}
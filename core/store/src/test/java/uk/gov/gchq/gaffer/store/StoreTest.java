@@ -68,6 +68,7 @@ import uk.gov.gchq.gaffer.operation.impl.If;
 import uk.gov.gchq.gaffer.operation.impl.Limit;
 import uk.gov.gchq.gaffer.operation.impl.Map;
 import uk.gov.gchq.gaffer.operation.impl.Reduce;
+import uk.gov.gchq.gaffer.operation.impl.SampleElements;
 import uk.gov.gchq.gaffer.operation.impl.SetVariable;
 import uk.gov.gchq.gaffer.operation.impl.Validate;
 import uk.gov.gchq.gaffer.operation.impl.ValidateOperationChain;
@@ -547,6 +548,7 @@ public class StoreTest {
                 Count.class,
                 CountGroups.class,
                 Limit.class,
+                SampleElements.class,
                 DiscardOutput.class,
                 GetSchema.class,
                 Map.class,
@@ -657,6 +659,7 @@ public class StoreTest {
                 Count.class,
                 CountGroups.class,
                 Limit.class,
+                SampleElements.class,
                 DiscardOutput.class,
                 GetSchema.class,
                 GetTraits.class,
@@ -28,9 +28,13 @@ import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.CountGroups;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.schema.Schema;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -145,6 +149,54 @@ public class CountGroupsHandlerTest {
         verify(countGroups).close();
     }
 
+    @Test
+    public void shouldReturnAllPrecomputedCountsWhenLimitIsHitUnlikeCountingElements() throws OperationException {
+        // Given
+        final Schema schema = mock(Schema.class);
+        given(schema.isEntity(GROUP1)).willReturn(true);
+        final Entity entity = mock(Entity.class);
+        given(entity.getGroup()).willReturn(GROUP1);
+        final Edge edge = mock(Edge.class);
+        given(edge.getGroup()).willReturn(GROUP2);
+        final CountGroups countGroups = new CountGroups.Builder()
+                .input(Arrays.asList(entity, entity, entity, entity, edge, edge, edge))
+                .limit(5)
+                .build();
+        final Map<String, Long> precomputed = new HashMap<>();
+        precomputed.put(GROUP1, 4L);
+        precomputed.put(GROUP2, 3L);
+
+        // When
+        final GroupCounts counted = new CountGroupsHandler().doOperation(countGroups, new Context(), null);
+        final GroupCounts converted = new CountGroupsHandler().toGroupCounts(precomputed, countGroups.getLimit(), schema);
+
+        // Then
+        // Both flag the limit as hit, but counting the elements stops at the
+        // limit whereas the precomputed counts are returned in full
+        assertTrue(counted.isLimitHit());
+        assertEquals(Collections.singletonMap(GROUP1, 4), counted.getEntityGroups());
+        assertEquals(Collections.singletonMap(GROUP2, 1), counted.getEdgeGroups());
+
+        assertTrue(converted.isLimitHit());
+        assertEquals(Collections.singletonMap(GROUP1, 4), converted.getEntityGroups());
+        assertEquals(Collections.singletonMap(GROUP2, 3), converted.getEdgeGroups());
+    }
+
+    @Test
+    public void shouldSaturatePrecomputedCountsLargerThanAnInteger() {
+        // Given
+        final Schema schema = mock(Schema.class);
+        given(schema.isEntity(GROUP1)).willReturn(true);
+        final Map<String, Long> precomputed = Collections.singletonMap(GROUP1, Integer.MAX_VALUE + 10L);
+
+        // When
+        final GroupCounts counts = new CountGroupsHandler().toGroupCounts(precomputed, null, schema);
+
+        // Then
+        assertFalse(counts.isLimitHit());
+        assertEquals(Integer.MAX_VALUE, (int) counts.getEntityGroups().get(GROUP1));
+    }
+
     static CloseableIterable<Element> getElements() {
         final Entity entity1 = mock(Entity.class);
         final Entity entity2 = mock(Entity.class);
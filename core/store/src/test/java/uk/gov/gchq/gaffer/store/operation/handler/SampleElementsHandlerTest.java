@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.store.operation.handler;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.SampleElements;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SampleElementsHandlerTest {
+
+    @Test
+    public void shouldReturnAllElementsIfFewerThanSampleSize() throws OperationException {
+        // Given
+        final List<Element> input = createEntities(TestGroups.ENTITY, 5);
+        final SampleElements sample = new SampleElements.Builder()
+                .input(input)
+                .sampleSize(10)
+                .build();
+
+        // When
+        final Iterable<? extends Element> result = new SampleElementsHandler().doOperation(sample, null, null);
+
+        // Then
+        assertEquals(input, Lists.newArrayList(result));
+    }
+
+    @Test
+    public void shouldReturnSampleOfDistinctInputElements() throws OperationException {
+        // Given
+        final List<Element> input = createEntities(TestGroups.ENTITY, 1000);
+        final SampleElements sample = new SampleElements.Builder()
+                .input(input)
+                .sampleSize(50)
+                .seed(1L)
+                .build();
+
+        // When
+        final List<Element> result = Lists.newArrayList(new SampleElementsHandler().doOperation(sample, null, null));
+
+        // Then
+        assertEquals(50, result.size());
+        assertEquals(50, new HashSet<>(result).size());
+        assertTrue(input.containsAll(result));
+    }
+
+    @Test
+    public void shouldReturnTheSameSampleForTheSameSeed() throws OperationException {
+        // Given
+        final List<Element> input = createEntities(TestGroups.ENTITY, 1000);
+
+        // When
+        final List<Element> result1 = Lists.newArrayList(sample(input, 20, false, 3L));
+        final List<Element> result2 = Lists.newArrayList(sample(input, 20, false, 3L));
+
+        // Then
+        assertEquals(result1, result2);
+    }
+
+    @Test
+    public void shouldSampleUniformlyAcrossTheInput() throws OperationException {
+        // Given
+        final List<Element> input = createEntities(TestGroups.ENTITY, 100);
+        final int[] counts = new int[input.size()];
+
+        // When
+        for (long seed = 0; seed < 1000; seed++) {
+            for (final Element element : sample(input, 10, false, seed)) {
+                counts[input.indexOf(element)]++;
+            }
+        }
+
+        // Then - each element is expected to be sampled 100 times
+        for (final int count : counts) {
+            assertTrue(count > 50 && count < 150, "Element sampled " + count + " times");
+        }
+    }
+
+    @Test
+    public void shouldSampleEachGroupWhenStratified() throws OperationException {
+        // Given
+        final List<Element> input = new ArrayList<>(createEntities(TestGroups.ENTITY, 1000));
+        input.addAll(createEntities(TestGroups.ENTITY_2, 3));
+
+        // When
+        final Map<String, Long> countsByGroup = Lists.newArrayList(sample(input, 10, true, 1L)).stream()
+                .collect(Collectors.groupingBy(Element::getGroup, Collectors.counting()));
+
+        // Then
+        assertEquals(10L, (long) countsByGroup.get(TestGroups.ENTITY));
+        assertEquals(3L, (long) countsByGroup.get(TestGroups.ENTITY_2));
+    }
+
+    @Test
+    public void shouldHandleNullInput() throws OperationException {
+        // Given
+        final SampleElements sample = new SampleElements.Builder()
+                .sampleSize(10)
+                .build();
+
+        // When
+        final Iterable<? extends Element> result = new SampleElementsHandler().doOperation(sample, null, null);
+
+        // Then
+        assertNull(result);
+    }
+
+    @Test
+    public void shouldThrowExceptionIfSampleSizeIsNotSet() {
+        // Given
+        final SampleElements sample = new SampleElements.Builder()
+                .input(createEntities(TestGroups.ENTITY, 1))
+                .build();
+
+        // When / Then
+        final Exception exception = assertThrows(OperationException.class, () -> new SampleElementsHandler().doOperation(sample, null, null));
+        assertEquals("SampleElements operation requires a sampleSize greater than 0", exception.getMessage());
+    }
+
+    private Iterable<? extends Element> sample(final List<Element> input, final int sampleSize, final boolean stratified, final long seed) throws OperationException {
+        return new SampleElementsHandler().doOperation(new SampleElements.Builder()
+                .input(input)
+                .sampleSize(sampleSize)
+                .stratified(stratified)
+                .seed(seed)
+                .build(), null, null);
+    }
+
+    private List<Element> createEntities(final String group, final int size) {
+        final List<Element> entities = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entities.add(new Entity(group, "vertex" + i));
+        }
+        return entities;
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.store.operation.handler.compare;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.comparison.ElementPropertyComparator;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.compare.Max;
+import uk.gov.gchq.gaffer.operation.impl.compare.Min;
+import uk.gov.gchq.gaffer.operation.impl.compare.Sort;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ParallelTopKTest {
+    private static final int PARALLELISM = 4;
+    private static final ForkJoinPool POOL = ParallelTopK.createPool(PARALLELISM);
+
+    private final ElementPropertyComparator comparator = new ElementPropertyComparator.Builder()
+            .groups(TestGroups.ENTITY)
+            .property("property")
+            .build();
+
+    @Test
+    public void shouldSortAndLimitInParallel() throws OperationException {
+        // Given
+        final List<Element> input = createEntities(10000);
+        final List<Element> expected = new ArrayList<>(input);
+        expected.sort(comparator);
+
+        // When
+        final List<Element> result = ParallelTopK.sort(input, Collections.singletonList(comparator), 100, false, POOL);
+
+        // Then
+        assertEquals(expected.subList(0, 100), result);
+    }
+
+    @Test
+    public void shouldSortAndDeduplicateInParallel() throws OperationException {
+        // Given
+        final List<Element> input = new ArrayList<>(createEntities(1000));
+        input.addAll(createEntities(1000));
+        final List<Element> expected = createEntities(1000);
+        expected.sort(comparator);
+
+        // When
+        final List<Element> result = ParallelTopK.sort(input, Collections.singletonList(comparator), null, true, POOL);
+
+        // Then
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void shouldSortElementsNotInGroupLast() throws OperationException {
+        // Given
+        final Entity otherGroup = new Entity.Builder().group(TestGroups.ENTITY_2).property("property", 0).build();
+        final Entity withoutProperty = new Entity.Builder().group(TestGroups.ENTITY).build();
+        final Entity entity1 = makeEntity(1);
+        final Entity entity2 = makeEntity(2);
+
+        // When
+        final List<Element> result = ParallelTopK.sort(Lists.newArrayList(otherGroup, entity2, withoutProperty, entity1),
+                Collections.singletonList(comparator), null, false, POOL);
+
+        // Then
+        assertEquals(Lists.newArrayList(entity1, entity2, withoutProperty, otherGroup), result);
+    }
+
+    @Test
+    public void shouldFindMaxAndMinInParallel() throws OperationException {
+        // Given
+        final List<Element> input = createEntities(10000);
+        input.add(new Entity.Builder().group(TestGroups.ENTITY).build());
+        final List<Comparator<Element>> comparators = Collections.singletonList(comparator);
+
+        // When
+        final Element max = ParallelTopK.max(input, comparators, POOL);
+        final Element min = ParallelTopK.min(input, comparators, POOL);
+
+        // Then
+        assertEquals(9999, max.getProperty("property"));
+        assertEquals(0, min.getProperty("property"));
+    }
+
+    @Test
+    public void shouldResolveTiesInTheSameWayAsTheSequentialHandlers() throws OperationException {
+        // Given
+        final List<Element> input = IntStream.range(0, 10000)
+                .mapToObj(i -> new Entity.Builder().group(TestGroups.ENTITY).vertex("vertex" + i).property("property", i % 10).build())
+                .collect(Collectors.toList());
+        final List<Comparator<Element>> comparators = Collections.singletonList(comparator);
+        final List<Element> expectedSorted = new ArrayList<>(input);
+        expectedSorted.sort(comparator);
+
+        // When
+        final Element max = ParallelTopK.max(input, comparators, POOL);
+        final Element min = ParallelTopK.min(input, comparators, POOL);
+        final List<Element> sorted = ParallelTopK.sort(input, comparators, 50, false, POOL);
+        final List<Element> sortedAndDeduplicated = ParallelTopK.sort(input, comparators, null, true, POOL);
+
+        // Then
+        assertEquals(new MaxHandler().doOperation(new Max.Builder().input(input).comparators(comparator).build(), null, null), max);
+        assertEquals(new MinHandler().doOperation(new Min.Builder().input(input).comparators(comparator).build(), null, null), min);
+        assertEquals("vertex9", ((Entity) max).getVertex());
+        assertEquals("vertex0", ((Entity) min).getVertex());
+        assertEquals(expectedSorted.subList(0, 50), sorted);
+        assertEquals(expectedSorted, sortedAndDeduplicated);
+    }
+
+    @Test
+    public void shouldDeduplicateAndLimitTiesDeterministically() throws OperationException {
+        // Given
+        final List<Element> input = IntStream.range(0, 20000)
+                .mapToObj(i -> new Entity.Builder().group(TestGroups.ENTITY).vertex("vertex" + (i % 5000)).property("property", i % 3).build())
+                .collect(Collectors.toList());
+        final List<Comparator<Element>> comparators = Collections.singletonList(comparator);
+        final List<Element> expected = new ArrayList<>(new LinkedHashSet<>(input));
+        expected.sort(comparator);
+
+        for (int i = 0; i < 10; i++) {
+            // When
+            final List<Element> result = ParallelTopK.sort(input, comparators, 100, true, POOL);
+
+            // Then
+            assertEquals(expected.subList(0, 100), result);
+        }
+    }
+
+    @Test
+    public void shouldReturnNullMaxIfNoElementsHaveTheProperty() throws OperationException {
+        // Given
+        final List<Element> input = Lists.newArrayList(new Entity.Builder().group(TestGroups.ENTITY).build());
+
+        // When
+        final Element result = ParallelTopK.max(input, Collections.singletonList(comparator), POOL);
+
+        // Then
+        assertNull(result);
+    }
+
+    @Test
+    public void shouldUseParallelismInHandlers() throws OperationException {
+        // Given
+        final List<Element> input = createEntities(1000);
+        final MaxHandler maxHandler = new MaxHandler();
+        maxHandler.setParallelism(PARALLELISM);
+        final MinHandler minHandler = new MinHandler();
+        minHandler.setParallelism(PARALLELISM);
+        final SortHandler sortHandler = new SortHandler();
+        sortHandler.setParallelism(PARALLELISM);
+
+        // When
+        final Element max = maxHandler.doOperation(new Max.Builder().input(input).comparators(comparator).build(), null, null);
+        final Element min = minHandler.doOperation(new Min.Builder().input(input).comparators(comparator).build(), null, null);
+        final Iterable<? extends Element> sorted = sortHandler.doOperation(new Sort.Builder().input(input).comparators(comparator).resultLimit(3).build(), null, null);
+
+        // Then
+        assertEquals(999, max.getProperty("property"));
+        assertEquals(0, min.getProperty("property"));
+        assertEquals(Lists.newArrayList(makeEntity(0), makeEntity(1), makeEntity(2)), Lists.newArrayList(sorted));
+    }
+
+    private List<Element> createEntities(final int size) {
+        final List<Integer> values = IntStream.range(0, size).boxed().collect(Collectors.toList());
+        Collections.shuffle(values, new Random(size));
+        return values.stream().map(this::makeEntity).collect(Collectors.toList());
+    }
+
+    private Entity makeEntity(final int value) {
+        return new Entity.Builder()
+                .group(TestGroups.ENTITY)
+                .vertex("vertex" + value)
+                .property("property", value)
+                .build();
+    }
+}
@@ -27,6 +27,13 @@ import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.data.element.comparison.ElementPropertyComparator;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.compare.Sort;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.ordered.OrderedIntegerSerialiser;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.gaffer.store.util.ExternalSortedIterable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -39,7 +46,10 @@ import java.util.stream.Stream;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
 
 public class SortHandlerTest {
 
@@ -290,6 +300,59 @@ public class SortHandlerTest {
                 assertEquals(resultLimit, Iterables.size(result));
         }
 
+        @Test
+        public void shouldFailToSortExternallyWithoutAStoreSchema() {
+                // Given
+                final Sort sort = new Sort.Builder()
+                                .input(Arrays.asList(new Entity.Builder().group(TestGroups.ENTITY).vertex("a").build()))
+                                .comparators(new ElementPropertyComparator.Builder()
+                                                .groups(TestGroups.ENTITY).property("property").build())
+                                .build();
+                final SortHandler handler = new SortHandler();
+                handler.setMaxInMemorySortSize(100);
+
+                // When / Then
+                final OperationException exception = assertThrows(OperationException.class,
+                                () -> handler.doOperation(sort, null, null));
+                assertTrue(exception.getMessage().contains("maxInMemorySortSize"));
+        }
+
+        @Test
+        public void shouldSortExternallyWhenMaxInMemorySortSizeIsExceeded() throws OperationException {
+                // Given
+                final Schema schema = new Schema.Builder()
+                                .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                                                .vertex("string").property("property", "int").build())
+                                .type("string", new TypeDefinition.Builder().clazz(String.class)
+                                                .serialiser(new StringSerialiser()).build())
+                                .type("int", new TypeDefinition.Builder().clazz(Integer.class)
+                                                .serialiser(new OrderedIntegerSerialiser()).build())
+                                .vertexSerialiser(new StringSerialiser()).build();
+                final Store store = mock(Store.class);
+                given(store.getSchema()).willReturn(schema);
+
+                final List<Entity> input = new Random().ints(1000).boxed().map(i -> new Entity.Builder()
+                                .group(TestGroups.ENTITY).vertex("vertex" + i).property("property", i).build())
+                                .collect(Collectors.toList());
+                final ElementPropertyComparator comparator = new ElementPropertyComparator.Builder()
+                                .groups(TestGroups.ENTITY).property("property").build();
+
+                final Sort sort = new Sort.Builder().input(input).comparators(comparator).build();
+
+                final SortHandler handler = new SortHandler();
+                handler.setMaxInMemorySortSize(100);
+
+                // When
+                final Iterable<? extends Element> result = handler.doOperation(sort, null, store);
+
+                // Then
+                assertTrue(result instanceof ExternalSortedIterable);
+                final List<Element> expected = new ArrayList<>(input);
+                expected.sort(comparator);
+                assertEquals(expected, Lists.newArrayList(result));
+                ((ExternalSortedIterable) result).close();
+        }
+
         private static class ElementComparatorImpl implements Comparator<Element> {
                 @Override
                 public int compare(final Element o1, final Element o2) {
@@ -28,6 +28,7 @@ import uk.gov.gchq.gaffer.operation.impl.output.ToCsv;
 import uk.gov.gchq.gaffer.store.Context;
 
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -146,6 +147,66 @@ public class ToCsvHandlerTest {
         assertEquals(expected, resultList);
     }
 
+    @Test
+    public void shouldQuoteAndEscapeValuesContainingCommasQuotesAndLineBreaks() throws OperationException {
+        // Given
+        final List<Element> elements = Lists.newArrayList(
+                makeEntity("vertex1,with comma", "count", 1),
+                makeEntity("vertex2 \"with quotes\""),
+                makeEntity("vertex3\nwith new line"),
+                makeEntity("vertex4\r\nwith carriage return")
+        );
+
+        final ToCsv operation = new ToCsv.Builder()
+                .input(elements)
+                .generator(new CsvGenerator.Builder()
+                        .vertex("Vertex Label")
+                        .property("count", "Count Label")
+                        .quoted(false)
+                        .commaReplacement(null)
+                        .build())
+                .includeHeader(false)
+                .build();
+
+        final ToCsvHandler handler = new ToCsvHandler();
+
+        //When
+        final Iterable<? extends String> results = handler.doOperation(operation, new Context(), null);
+
+        //Then
+        final List<String> resultList = Lists.newArrayList(results);
+        final List<String> expected = Arrays.asList(
+                "\"vertex1,with comma\",1",
+                "\"vertex2 \"\"with quotes\"\"\",",
+                "\"vertex3\nwith new line\",",
+                "\"vertex4\r\nwith carriage return\","
+        );
+        assertEquals(expected, resultList);
+    }
+
+    @Test
+    public void shouldEscapeQuotesInQuotedCsv() throws OperationException {
+        // Given
+        final List<Element> elements = Lists.newArrayList(makeEntity("vertex1 \"with quotes\", and comma"));
+
+        final ToCsv operation = new ToCsv.Builder()
+                .input(elements)
+                .generator(new CsvGenerator.Builder()
+                        .vertex("Vertex Label")
+                        .quoted(true)
+                        .build())
+                .includeHeader(false)
+                .build();
+
+        final ToCsvHandler handler = new ToCsvHandler();
+
+        //When
+        final Iterable<? extends String> results = handler.doOperation(operation, new Context(), null);
+
+        //Then
+        assertEquals(Arrays.asList("\"vertex1 \"\"with quotes\"\"  and comma\""), Lists.newArrayList(results));
+    }
+
     @Test
     public void shouldConvertToCsvWithHeader() throws OperationException {
         // Given
@@ -186,6 +247,41 @@ public class ToCsvHandlerTest {
         assertEquals(expected, resultList);
     }
 
+    @Test
+    public void shouldGenerateEachLineIndependentlyWhenIteratorsAreInterleaved() throws OperationException {
+        // Given
+        final List<Element> elements = Lists.newArrayList(
+                makeEntity("vertex1", "count", 1),
+                makeEntity("vertex2")
+        );
+
+        final ToCsv operation = new ToCsv.Builder()
+                .input(elements)
+                .generator(new CsvGenerator.Builder()
+                        .vertex("Vertex Label")
+                        .property("count", "Count Label")
+                        .quoted(false)
+                        .build())
+                .includeHeader(false)
+                .build();
+
+        final ToCsvHandler handler = new ToCsvHandler();
+
+        //When
+        final Iterable<? extends String> results = handler.doOperation(operation, new Context(), null);
+        final Iterator<? extends String> itr1 = results.iterator();
+        final Iterator<? extends String> itr2 = results.iterator();
+        final String first1 = itr1.next();
+        final String first2 = itr2.next();
+        final String second1 = itr1.next();
+
+        //Then
+        assertEquals("vertex1,1", first1);
+        assertEquals("vertex1,1", first2);
+        assertEquals("vertex2,", second1);
+        assertEquals("vertex2,", itr2.next());
+    }
+
     private Entity makeEntity(final String vertex, final String propertyName, final int propertyValue) {
         return new Entity.Builder()
                 .group("Foo")
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.store.util;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import uk.gov.gchq.gaffer.serialisation.implementation.ordered.OrderedIntegerSerialiser;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ExternalSortedIterableTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    public void shouldSortInMemoryWhenInputFitsInOneRun() {
+        // Given
+        final List<Integer> input = Arrays.asList(5, 3, 1, 4, 2);
+
+        // When
+        final ExternalSortedIterable<Integer> sorted = createIterable(input, 10, null, false);
+        final List<Integer> result = Lists.newArrayList(sorted);
+
+        // Then
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), result);
+        assertEquals(0, sorted.getNumberOfRunFiles());
+        assertEquals(0, tempDir.listFiles().length);
+    }
+
+    @Test
+    public void shouldSortUsingMultipleRunFiles() {
+        // Given
+        final List<Integer> input = new Random(1).ints(1000).boxed().collect(Collectors.toList());
+        final List<Integer> expected = new ArrayList<>(input);
+        Collections.sort(expected);
+
+        // When
+        final ExternalSortedIterable<Integer> sorted = createIterable(input, 100, null, false);
+        final List<Integer> result = Lists.newArrayList(sorted);
+
+        // Then
+        assertEquals(expected, result);
+        assertEquals(10, sorted.getNumberOfRunFiles());
+    }
+
+    @Test
+    public void shouldBeAbleToIterateMultipleTimes() {
+        // Given
+        final List<Integer> input = IntStream.range(0, 50).map(i -> 49 - i).boxed().collect(Collectors.toList());
+        final ExternalSortedIterable<Integer> sorted = createIterable(input, 7, null, false);
+
+        // When
+        final List<Integer> result1 = Lists.newArrayList(sorted);
+        final List<Integer> result2 = Lists.newArrayList(sorted);
+
+        // Then
+        assertEquals(IntStream.range(0, 50).boxed().collect(Collectors.toList()), result1);
+        assertEquals(result1, result2);
+    }
+
+    @Test
+    public void shouldLimitAndDeduplicateAcrossRuns() {
+        // Given
+        final List<Integer> input = Arrays.asList(3, 3, 1, 1, 2, 2, 5, 4, 1, 3, 2, 5);
+
+        // When
+        final List<Integer> result = Lists.newArrayList(createIterable(input, 2, 4, true));
+
+        // Then
+        assertEquals(Arrays.asList(1, 2, 3, 4), result);
+    }
+
+    @Test
+    public void shouldLimitWithoutDeduplicating() {
+        // Given
+        final List<Integer> input = Arrays.asList(3, 3, 1, 1, 2, 2, 5, 4);
+
+        // When
+        final List<Integer> result = Lists.newArrayList(createIterable(input, 3, 3, false));
+
+        // Then
+        assertEquals(Arrays.asList(1, 1, 2), result);
+    }
+
+    @Test
+    public void shouldDeleteRunFilesOnClose() {
+        // Given
+        final List<Integer> input = IntStream.range(0, 30).boxed().collect(Collectors.toList());
+        final ExternalSortedIterable<Integer> sorted = createIterable(input, 10, null, false);
+        Lists.newArrayList(sorted);
+        assertEquals(3, tempDir.listFiles().length);
+
+        // When
+        sorted.close();
+
+        // Then
+        assertEquals(0, tempDir.listFiles().length);
+    }
+
+    @Test
+    public void shouldMergeInMultiplePassesWhenThereAreMoreRunsThanMaxOpenRuns() {
+        // Given
+        final List<Integer> input = new Random(1).ints(1000).boxed().collect(Collectors.toList());
+        final List<Integer> expected = new ArrayList<>(input);
+        Collections.sort(expected);
+        final ExternalSortedIterable<Integer> sorted = new ExternalSortedIterable<>(input, Comparator.naturalOrder(),
+                new OrderedIntegerSerialiser(), 10, null, false, tempDir.getAbsolutePath(), 3);
+
+        // When
+        final List<Integer> result = Lists.newArrayList(sorted);
+
+        // Then
+        assertEquals(expected, result);
+        assertEquals(100, sorted.getNumberOfRunFiles());
+        // 100 runs are merged into 34, then 12, then 4 and finally 2 runs
+        assertEquals(2, tempDir.listFiles().length);
+        sorted.close();
+        assertEquals(0, tempDir.listFiles().length);
+    }
+
+    @Test
+    public void shouldDeduplicateItemsThatTieAcrossRuns() {
+        // Given
+        final List<Integer> input = IntStream.range(0, 1000).map(i -> i % 50).boxed().collect(Collectors.toList());
+        final Comparator<Integer> allEqual = (first, second) -> 0;
+
+        // When
+        final List<Integer> result = Lists.newArrayList(new ExternalSortedIterable<>(input, allEqual,
+                new OrderedIntegerSerialiser(), 30, null, true, tempDir.getAbsolutePath(), 4));
+
+        // Then
+        assertEquals(IntStream.range(0, 50).boxed().collect(Collectors.toSet()), new HashSet<>(result));
+        assertEquals(50, result.size());
+    }
+
+    @Test
+    public void shouldThrowExceptionIfMaxOpenRunsIsInvalid() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ExternalSortedIterable<>(Collections.<Integer>emptyList(), Comparator.<Integer>naturalOrder(), new OrderedIntegerSerialiser(), 10, null, false, null, 1));
+    }
+
+    @Test
+    public void shouldThrowExceptionIfMaxRunSizeIsInvalid() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ExternalSortedIterable<>(Collections.<Integer>emptyList(), Comparator.<Integer>naturalOrder(), new OrderedIntegerSerialiser(), 0));
+    }
+
+    private ExternalSortedIterable<Integer> createIterable(final List<Integer> input, final int maxRunSize, final Integer limit, final boolean deduplicate) {
+        return new ExternalSortedIterable<>(input, Comparator.naturalOrder(), new OrderedIntegerSerialiser(),
+                maxRunSize, limit, deduplicate, tempDir.getAbsolutePath());
+    }
+}
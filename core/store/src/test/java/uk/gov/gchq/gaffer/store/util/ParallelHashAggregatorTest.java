@@ -0,0 +1,179 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.store.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.ordered.OrderedLongSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelHashAggregatorTest {
+    private static final String VERTEX = "vertex";
+    private static final String LONG = "long";
+    private static final String TIMESTAMP = "timestamp";
+    private static final String COUNT = "count";
+
+    @TempDir
+    File tempDir;
+
+    private final Schema schema = new Schema.Builder()
+            .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                    .vertex(VERTEX)
+                    .property(TIMESTAMP, LONG)
+                    .property(COUNT, LONG)
+                    .groupBy(TIMESTAMP)
+                    .build())
+            .edge(TestGroups.EDGE, new SchemaEdgeDefinition.Builder()
+                    .source(VERTEX)
+                    .destination(VERTEX)
+                    .directed("true")
+                    .property(COUNT, LONG)
+                    .aggregate(false)
+                    .build())
+            .type(VERTEX, new TypeDefinition.Builder()
+                    .clazz(String.class)
+                    .serialiser(new StringSerialiser())
+                    .build())
+            .type(LONG, new TypeDefinition.Builder()
+                    .clazz(Long.class)
+                    .aggregateFunction(new Sum())
+                    .serialiser(new OrderedLongSerialiser())
+                    .build())
+            .type("true", Boolean.class)
+            .vertexSerialiser(new StringSerialiser())
+            .build();
+
+    @Test
+    public void shouldAggregateTheSameAsAggregatorUtilWithoutSpilling() throws OperationException {
+        // Given
+        final View view = new View.Builder().entity(TestGroups.ENTITY).build();
+
+        // When
+        final Set<Element> result = aggregate(new ParallelHashAggregator(schema, view, 4, Integer.MAX_VALUE));
+
+        // Then
+        assertEquals(expected(view), result);
+        assertEquals(0, tempDir.listFiles().length);
+    }
+
+    @Test
+    public void shouldAggregateTheSameAsAggregatorUtilWhenSpilling() throws OperationException {
+        // Given
+        final View view = new View.Builder().entity(TestGroups.ENTITY).build();
+        final ParallelHashAggregator aggregator = new ParallelHashAggregator(schema, view, 3, 10, tempDir.getAbsolutePath());
+
+        // When
+        final CloseableIterable<Element> aggregated = aggregator.aggregate(createInput());
+        final Set<Element> result = toSet(aggregated);
+
+        // Then
+        assertEquals(expected(view), result);
+        assertTrue(tempDir.listFiles().length > 0);
+        aggregated.close();
+        assertEquals(0, tempDir.listFiles().length);
+    }
+
+    @Test
+    public void shouldAggregateUsingTheViewGroupBy() throws OperationException {
+        // Given
+        final View view = new View.Builder()
+                .entity(TestGroups.ENTITY, new ViewElementDefinition.Builder()
+                        .groupBy()
+                        .build())
+                .build();
+
+        // When
+        final Set<Element> result = aggregate(new ParallelHashAggregator(schema, view, 2, 5, tempDir.getAbsolutePath()));
+
+        // Then
+        assertEquals(expected(view), result);
+    }
+
+    @Test
+    public void shouldThrowExceptionIfParallelismIsInvalid() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelHashAggregator(schema, new View(), 0, 10));
+    }
+
+    private Set<Element> aggregate(final ParallelHashAggregator aggregator) throws OperationException {
+        try (final CloseableIterable<Element> aggregated = aggregator.aggregate(createInput())) {
+            return toSet(aggregated);
+        }
+    }
+
+    private Set<Element> expected(final View view) {
+        return toSet(AggregatorUtil.queryAggregate(createInput(), schema, view));
+    }
+
+    private Set<Element> toSet(final Iterable<Element> elements) {
+        final Set<Element> set = new HashSet<>();
+        for (final Element element : elements) {
+            assertTrue(set.add(element), "Duplicate element " + element);
+        }
+        return set;
+    }
+
+    private List<Element> createInput() {
+        final Random random = new Random(1);
+        final List<Element> input = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            input.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex(VERTEX + random.nextInt(40))
+                    .property(TIMESTAMP, (long) random.nextInt(3))
+                    .property(COUNT, 1L)
+                    .build());
+        }
+        for (int i = 0; i < 30; i++) {
+            input.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source(VERTEX + i)
+                    .dest(VERTEX + (i + 1))
+                    .directed(true)
+                    .property(COUNT, (long) i)
+                    .build());
+        }
+        Collections.shuffle(input, random);
+        return input;
+    }
+}
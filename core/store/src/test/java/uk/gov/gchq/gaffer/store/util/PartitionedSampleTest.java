@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.store.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PartitionedSampleTest {
+
+    @Test
+    public void shouldDrawEveryItemWhenSampleSizeIsAtLeastThePopulation() {
+        // Given
+        final PartitionedSample<String> sample = new PartitionedSample<>();
+        sample.add(2, new ArrayList<>(Arrays.asList("a1", "a2")));
+        sample.add(3, new ArrayList<>(Arrays.asList("b1", "b2", "b3")));
+
+        // When
+        final List<String> drawn = sample.draw(10, new Random(1));
+
+        // Then
+        assertEquals(new HashSet<>(Arrays.asList("a1", "a2", "b1", "b2", "b3")), new HashSet<>(drawn));
+        assertEquals(5, drawn.size());
+    }
+
+    @Test
+    public void shouldDrawNothingWhenThereAreNoPartitions() {
+        // Given
+        final PartitionedSample<String> sample = new PartitionedSample<>();
+
+        // When
+        final List<String> drawn = sample.draw(10, new Random(1));
+
+        // Then
+        assertTrue(drawn.isEmpty());
+    }
+
+    @Test
+    public void shouldDrawFromEachPartitionInProportionToItsPopulation() {
+        // Given
+        final Random random = new Random(1);
+        final int sampleSize = 100;
+        final int draws = 200;
+        long drawnFromLargePartition = 0;
+
+        // When
+        for (int i = 0; i < draws; i++) {
+            final PartitionedSample<String> sample = new PartitionedSample<>();
+            sample.add(900, createSample("large", sampleSize));
+            sample.add(100, createSample("small", sampleSize));
+            final List<String> drawn = sample.draw(sampleSize, random);
+            assertEquals(sampleSize, drawn.size());
+            assertEquals(sampleSize, new HashSet<>(drawn).size());
+            drawnFromLargePartition += drawn.stream().filter(item -> item.startsWith("large")).count();
+        }
+
+        // Then
+        final double proportion = (double) drawnFromLargePartition / (draws * sampleSize);
+        assertEquals(0.9, proportion, 0.01);
+    }
+
+    private List<String> createSample(final String prefix, final int size) {
+        final List<String> sample = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            sample.add(prefix + i);
+        }
+        return sample;
+    }
+}
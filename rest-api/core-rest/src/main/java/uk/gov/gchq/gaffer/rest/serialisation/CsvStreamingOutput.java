@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.rest.serialisation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link StreamingResultOutput} that writes each item on its own line, as
+ * produced by {@link uk.gov.gchq.gaffer.operation.impl.output.ToCsv}.
+ * Items are written as they are, so they should already be CSV encoded.
+ */
+public class CsvStreamingOutput extends StreamingResultOutput {
+    public static final String TEXT_CSV = "text/csv";
+
+    private static final char NEW_LINE = '\n';
+
+    public CsvStreamingOutput(final Object result, final boolean gzip) {
+        super(result, gzip);
+    }
+
+    @Override
+    protected void writeItems(final Iterable<?> items, final OutputStream output) throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        for (final Object item : items) {
+            if (item instanceof CharSequence) {
+                writer.append((CharSequence) item);
+            } else if (null != item) {
+                writer.write(String.valueOf(item));
+            }
+            writer.write(NEW_LINE);
+        }
+        writer.flush();
+    }
+}
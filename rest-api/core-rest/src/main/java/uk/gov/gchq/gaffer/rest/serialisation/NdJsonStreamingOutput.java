@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.rest.serialisation;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A {@link StreamingResultOutput} that writes each item as a JSON object on its
+ * own line (newline delimited JSON). A single {@link JsonGenerator} is used for
+ * the whole result, rather than serialising each item to a separate String.
+ */
+public class NdJsonStreamingOutput extends StreamingResultOutput {
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private static final String NEW_LINE = "\n";
+
+    private final ObjectMapper mapper;
+
+    public NdJsonStreamingOutput(final ObjectMapper mapper, final Object result, final boolean gzip) {
+        super(result, gzip);
+        this.mapper = mapper;
+    }
+
+    @Override
+    protected void writeItems(final Iterable<?> items, final OutputStream output) throws IOException {
+        final ObjectWriter writer = mapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(SerializationFeature.INDENT_OUTPUT);
+        try (final JsonGenerator generator = mapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setPrettyPrinter(new MinimalPrettyPrinter(NEW_LINE));
+            for (final Object item : items) {
+                writer.writeValue(generator, item);
+            }
+            generator.writeRaw(NEW_LINE);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.rest.serialisation;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A {@link StreamingOutput} that writes an operation result directly to the
+ * response, one item at a time, so that large results are never held in memory.
+ * The output is buffered and can optionally be gzip compressed. If the result is
+ * {@link java.io.Closeable} it is closed once it has been written.
+ */
+public abstract class StreamingResultOutput implements StreamingOutput {
+    public static final String GZIP = "gzip";
+    protected static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String WILDCARD_ENCODING = "*";
+    private static final String QUALITY_PARAM = "q";
+
+    private final Object result;
+    private final boolean gzip;
+
+    protected StreamingResultOutput(final Object result, final boolean gzip) {
+        this.result = result;
+        this.gzip = gzip;
+    }
+
+    @Override
+    public void write(final OutputStream output) throws IOException {
+        try {
+            final GZIPOutputStream gzipOutput = gzip ? new GZIPOutputStream(output, BUFFER_SIZE) : null;
+            final OutputStream bufferedOutput = new BufferedOutputStream(null != gzipOutput ? gzipOutput : output, BUFFER_SIZE);
+            writeItems(getItems(), bufferedOutput);
+            bufferedOutput.flush();
+            if (null != gzipOutput) {
+                gzipOutput.finish();
+            }
+            output.flush();
+        } finally {
+            CloseableUtil.close(result);
+        }
+    }
+
+    /**
+     * Writes the items to the output stream. The stream is already buffered
+     * and should not be closed.
+     *
+     * @param items  the items to write
+     * @param output the output stream to write to
+     * @throws IOException if the items could not be written
+     */
+    protected abstract void writeItems(final Iterable<?> items, final OutputStream output) throws IOException;
+
+    /**
+     * Checks whether gzip is an acceptable content coding for an
+     * Accept-Encoding header, as described in RFC 7231. A coding is acceptable
+     * if it, or the {@code *} wildcard when it is not listed, has a quality
+     * value greater than 0.
+     *
+     * @param acceptEncoding the value of the Accept-Encoding header, may be null
+     * @return true if the response may be gzip compressed
+     */
+    public static boolean isGzipAccepted(final String acceptEncoding) {
+        final double quality = getQuality(acceptEncoding, GZIP);
+        if (quality < 0) {
+            return getQuality(acceptEncoding, WILDCARD_ENCODING) > 0;
+        }
+        return quality > 0;
+    }
+
+    /**
+     * Gets the quality value that an Accept or Accept-Encoding header gives to a
+     * value. Wildcards are not expanded, so they only match themselves.
+     *
+     * @param header the value of the header, may be null
+     * @param value  the media type or content coding to look for
+     * @return the quality value, 1 if the value is listed without one, or -1
+     * if the value is not listed or its quality value cannot be parsed
+     */
+    public static double getQuality(final String header, final String value) {
+        if (null == header) {
+            return -1;
+        }
+        for (final String entry : header.split(",")) {
+            final String[] parts = entry.split(";");
+            if (!value.equalsIgnoreCase(parts[0].trim())) {
+                continue;
+            }
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                final String[] param = parts[i].split("=", 2);
+                if (2 == param.length && QUALITY_PARAM.equalsIgnoreCase(param[0].trim())) {
+                    try {
+                        quality = Double.parseDouble(param[1].trim());
+                    } catch (final NumberFormatException e) {
+                        return -1;
+                    }
+                }
+            }
+            return quality;
+        }
+        return -1;
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    private Iterable<?> getItems() {
+        if (null == result) {
+            return Collections.emptyList();
+        }
+        if (result instanceof Iterable) {
+            return (Iterable<?>) result;
+        }
+        return Collections.singletonList(result);
+    }
+}
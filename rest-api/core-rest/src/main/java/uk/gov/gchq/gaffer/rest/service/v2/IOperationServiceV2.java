@@ -29,12 +29,15 @@ import uk.gov.gchq.gaffer.operation.OperationChain;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Response;
 
+import static javax.ws.rs.core.HttpHeaders.ACCEPT;
+import static javax.ws.rs.core.HttpHeaders.ACCEPT_ENCODING;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import static javax.ws.rs.core.MediaType.TEXT_PLAIN;
 import static uk.gov.gchq.gaffer.rest.ServiceConstants.BAD_REQUEST;
@@ -47,6 +50,8 @@ import static uk.gov.gchq.gaffer.rest.ServiceConstants.JOB_ID_HEADER_DESCRIPTION
 import static uk.gov.gchq.gaffer.rest.ServiceConstants.OK;
 import static uk.gov.gchq.gaffer.rest.ServiceConstants.OPERATION_NOT_FOUND;
 import static uk.gov.gchq.gaffer.rest.ServiceConstants.OPERATION_NOT_IMPLEMENTED;
+import static uk.gov.gchq.gaffer.rest.serialisation.CsvStreamingOutput.TEXT_CSV;
+import static uk.gov.gchq.gaffer.rest.serialisation.NdJsonStreamingOutput.APPLICATION_NDJSON;
 
 /**
  * An {@code IOperationServiceV2} has methods to execute {@link uk.gov.gchq.gaffer.operation.Operation}s on the
@@ -103,17 +108,23 @@ public interface IOperationServiceV2 {
 
     @POST
     @Path("/execute/chunked")
-    @Produces({APPLICATION_JSON, TEXT_PLAIN})
+    @Produces({APPLICATION_JSON, TEXT_PLAIN, TEXT_CSV, APPLICATION_NDJSON})
     @ApiOperation(value = "Performs the given operation on the graph, returning a chunked output",
-            notes = "<b>WARNING</b> - This does not work in Swagger.",
+            notes = "<b>WARNING</b> - This does not work in Swagger. "
+                    + "By default each item is returned as a JSON chunk. Use an Accept header of " + TEXT_CSV
+                    + " to stream the output of a ToCsv operation one line per item, or " + APPLICATION_NDJSON
+                    + " to stream one JSON object per line. Streamed output is gzip compressed if the "
+                    + "Accept-Encoding header accepts gzip.",
             response = Object.class,
-            produces = (APPLICATION_JSON + "," + TEXT_PLAIN))
+            produces = (APPLICATION_JSON + "," + TEXT_PLAIN + "," + TEXT_CSV + "," + APPLICATION_NDJSON))
     @ApiResponses(value = {@ApiResponse(code = 202, message = OK, response = Object.class),
             @ApiResponse(code = 400, message = BAD_REQUEST),
             @ApiResponse(code = 403, message = FORBIDDEN),
             @ApiResponse(code = 500, message = INTERNAL_SERVER_ERROR),
             @ApiResponse(code = 501, message = OPERATION_NOT_IMPLEMENTED)})
-    Response executeChunked(@ApiParam(value = "The operation to be performed, returning a chunked output") final Operation operation);
+    Response executeChunked(@ApiParam(value = "The operation to be performed, returning a chunked output") final Operation operation,
+                            @ApiParam(hidden = true) @HeaderParam(ACCEPT) final String accept,
+                            @ApiParam(hidden = true) @HeaderParam(ACCEPT_ENCODING) final String acceptEncoding);
 
     @SuppressFBWarnings
     Response executeChunkedChain(@ApiParam(value = "The operation chain to be performed, returning a chunked output") final OperationChain opChain);
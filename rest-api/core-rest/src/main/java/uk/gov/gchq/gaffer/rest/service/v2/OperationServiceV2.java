@@ -33,6 +33,9 @@ import uk.gov.gchq.gaffer.rest.factory.ExamplesFactory;
 import uk.gov.gchq.gaffer.rest.factory.GraphFactory;
 import uk.gov.gchq.gaffer.rest.factory.UserFactory;
 import uk.gov.gchq.gaffer.rest.model.OperationDetail;
+import uk.gov.gchq.gaffer.rest.serialisation.CsvStreamingOutput;
+import uk.gov.gchq.gaffer.rest.serialisation.NdJsonStreamingOutput;
+import uk.gov.gchq.gaffer.rest.serialisation.StreamingResultOutput;
 import uk.gov.gchq.gaffer.store.Context;
 
 import javax.inject.Inject;
@@ -40,12 +43,16 @@ import javax.ws.rs.core.Response;
 
 import java.io.IOException;
 
+import static javax.ws.rs.core.HttpHeaders.CONTENT_ENCODING;
 import static javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
 import static javax.ws.rs.core.Response.Status.NOT_FOUND;
 import static uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser.createDefaultMapper;
 import static uk.gov.gchq.gaffer.rest.ServiceConstants.GAFFER_MEDIA_TYPE;
 import static uk.gov.gchq.gaffer.rest.ServiceConstants.GAFFER_MEDIA_TYPE_HEADER;
 import static uk.gov.gchq.gaffer.rest.ServiceConstants.JOB_ID_HEADER;
+import static uk.gov.gchq.gaffer.rest.serialisation.CsvStreamingOutput.TEXT_CSV;
+import static uk.gov.gchq.gaffer.rest.serialisation.NdJsonStreamingOutput.APPLICATION_NDJSON;
+import static uk.gov.gchq.gaffer.rest.serialisation.StreamingResultOutput.GZIP;
 
 /**
  * An implementation of {@link IOperationServiceV2}. By default it will use a singleton
@@ -92,8 +99,30 @@ public class OperationServiceV2 extends AbstractOperationService implements IOpe
     }
 
     @Override
-    public Response executeChunked(final Operation operation) {
-        return executeChunkedChain(OperationChain.wrap(operation));
+    public Response executeChunked(final Operation operation, final String accept, final String acceptEncoding) {
+        final double csvQuality = StreamingResultOutput.getQuality(accept, TEXT_CSV);
+        final double ndjsonQuality = StreamingResultOutput.getQuality(accept, APPLICATION_NDJSON);
+        if (csvQuality <= 0 && ndjsonQuality <= 0) {
+            return executeChunkedChain(OperationChain.wrap(operation));
+        }
+
+        // The operation is executed before the response is returned so that
+        // any errors are reported with the correct status code. Only the
+        // iteration of the result is deferred until the response is written.
+        final Pair<Object, String> resultAndJobId = _execute(operation, userFactory.createContext());
+        final boolean gzip = StreamingResultOutput.isGzipAccepted(acceptEncoding);
+        final boolean ndjson = ndjsonQuality > csvQuality;
+
+        final StreamingResultOutput output = ndjson
+                ? new NdJsonStreamingOutput(mapper, resultAndJobId.getFirst(), gzip)
+                : new CsvStreamingOutput(resultAndJobId.getFirst(), gzip);
+        final Response.ResponseBuilder response = Response.ok(output, ndjson ? APPLICATION_NDJSON : TEXT_CSV)
+                .header(GAFFER_MEDIA_TYPE_HEADER, GAFFER_MEDIA_TYPE)
+                .header(JOB_ID_HEADER, resultAndJobId.getSecond());
+        if (gzip) {
+            response.header(CONTENT_ENCODING, GZIP);
+        }
+        return response.build();
     }
 
     @SuppressFBWarnings
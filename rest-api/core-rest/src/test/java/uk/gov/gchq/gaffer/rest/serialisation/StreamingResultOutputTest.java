@@ -0,0 +1,151 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.rest.serialisation;
+
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+public class StreamingResultOutputTest {
+
+    @Test
+    public void shouldWriteCsvLines() throws IOException {
+        // Given
+        final CsvStreamingOutput output = new CsvStreamingOutput(Arrays.asList("a,b", new StringBuilder("c,d"), 1), false);
+
+        // When
+        final String result = write(output, false);
+
+        // Then
+        assertEquals("a,b\nc,d\n1\n", result);
+    }
+
+    @Test
+    public void shouldWriteGzippedCsvLines() throws IOException {
+        // Given
+        final CsvStreamingOutput output = new CsvStreamingOutput(Arrays.asList("a,b", "c,d"), true);
+
+        // When
+        final String result = write(output, true);
+
+        // Then
+        assertEquals("a,b\nc,d\n", result);
+    }
+
+    @Test
+    public void shouldWriteSingleResultAsOneLine() throws IOException {
+        // Given
+        final CsvStreamingOutput output = new CsvStreamingOutput(5L, false);
+
+        // When
+        final String result = write(output, false);
+
+        // Then
+        assertEquals("5\n", result);
+    }
+
+    @Test
+    public void shouldWriteNewlineDelimitedJson() throws IOException {
+        // Given
+        final Entity entity1 = new Entity.Builder()
+                .group(TestGroups.ENTITY)
+                .vertex("vertex1")
+                .property(TestPropertyNames.COUNT, 1)
+                .build();
+        final Entity entity2 = new Entity.Builder()
+                .group(TestGroups.ENTITY)
+                .vertex("vertex2")
+                .build();
+        final NdJsonStreamingOutput output = new NdJsonStreamingOutput(JSONSerialiser.createDefaultMapper(), Arrays.asList(entity1, entity2), true);
+
+        // When
+        final String[] lines = write(output, true).split("\n");
+
+        // Then
+        assertEquals(2, lines.length);
+        assertEquals(entity1, JSONSerialiser.deserialise(lines[0], Entity.class));
+        assertEquals(entity2, JSONSerialiser.deserialise(lines[1], Entity.class));
+    }
+
+    @Test
+    public void shouldCloseResultAfterWriting() throws IOException {
+        // Given
+        final CloseableIterable<String> result = spy(new WrappedCloseableIterable<>(Arrays.asList("a", "b")));
+        final CsvStreamingOutput output = new CsvStreamingOutput(result, false);
+
+        // When
+        write(output, false);
+
+        // Then
+        verify(result).close();
+    }
+
+    @Test
+    public void shouldAcceptGzipOnlyWhenItsQualityIsMoreThanZero() {
+        assertTrue(StreamingResultOutput.isGzipAccepted("gzip"));
+        assertTrue(StreamingResultOutput.isGzipAccepted("deflate, GZIP;q=0.5"));
+        assertTrue(StreamingResultOutput.isGzipAccepted("identity, *"));
+        assertFalse(StreamingResultOutput.isGzipAccepted(null));
+        assertFalse(StreamingResultOutput.isGzipAccepted("gzip;q=0"));
+        assertFalse(StreamingResultOutput.isGzipAccepted("gzip; q=0.0, *"));
+        assertFalse(StreamingResultOutput.isGzipAccepted("x-gzip-like, deflate"));
+        assertFalse(StreamingResultOutput.isGzipAccepted("gzip;q=invalid"));
+    }
+
+    @Test
+    public void shouldGetQualityOfMediaType() {
+        assertEquals(1, StreamingResultOutput.getQuality("text/csv", CsvStreamingOutput.TEXT_CSV));
+        assertEquals(0.8, StreamingResultOutput.getQuality("application/json, text/csv;charset=utf-8;q=0.8", CsvStreamingOutput.TEXT_CSV));
+        assertEquals(0, StreamingResultOutput.getQuality("text/csv;q=0", CsvStreamingOutput.TEXT_CSV));
+        assertEquals(-1, StreamingResultOutput.getQuality("*/*", CsvStreamingOutput.TEXT_CSV));
+    }
+
+    private String write(final StreamingResultOutput output, final boolean gzip) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        output.write(bytes);
+        if (gzip) {
+            final ByteArrayOutputStream unzipped = new ByteArrayOutputStream();
+            try (final GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                final byte[] buffer = new byte[1024];
+                int read;
+                while (-1 != (read = input.read(buffer))) {
+                    unzipped.write(buffer, 0, read);
+                }
+            }
+            return new String(unzipped.toByteArray(), StandardCharsets.UTF_8);
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -45,26 +45,40 @@ public class AccumuloProperties extends StoreProperties {
     public static final String NAMESPACE = "accumulo.namespace";
     public static final String THREADS_FOR_BATCH_SCANNER = "accumulo.batchScannerThreads";
     public static final String MAX_ENTRIES_FOR_BATCH_SCANNER = "accumulo.entriesForBatchScanner";
+    public static final String BATCH_SCANNERS_IN_FLIGHT = "accumulo.batchScannersInFlight";
+    public static final String RETRIEVER_QUEUE_SIZE = "accumulo.retrieverQueueSize";
+    public static final String INGEST_THREADS = "accumulo.ingestThreads";
+    public static final String INGEST_BATCH_SIZE = "accumulo.ingestBatchSize";
+    public static final String INGEST_PRE_AGGREGATION = "accumulo.ingestPreAggregation";
     public static final String CLIENT_SIDE_BLOOM_FILTER_SIZE = "accumulo.clientSideBloomFilterSize";
     public static final String FALSE_POSITIVE_RATE = "accumulo.falsePositiveRate";
     public static final String MAX_BLOOM_FILTER_TO_PASS_TO_AN_ITERATOR = "accumulo.maxBloomFilterToPassToAnIterator";
+    public static final String MAX_BLOOM_FILTER_PARTITIONS = "accumulo.maxBloomFilterPartitions";
     public static final String MAX_BUFFER_SIZE_FOR_BATCH_WRITER = "accumulo.maxBufferSizeForBatchWriterInBytes";
     public static final String MAX_TIME_OUT_FOR_BATCH_WRITER = "accumulo.maxTimeOutForBatchWriterInMilliseconds";
     public static final String NUM_THREADS_FOR_BATCH_WRITER = "accumulo.numThreadsForBatchWriter";
     public static final String TABLE_REPLICATION_FACTOR = "accumulo.file.replication";
     public static final String ENABLE_VALIDATOR_ITERATOR = "gaffer.store.accumulo.enable.validator.iterator";
+    public static final String ENABLE_GROUP_STATISTICS = "accumulo.enableGroupStatistics";
     public static final String HDFS_SKIP_PERMISSIONS = "accumulostore.operation.hdfs.skip_permissions";
 
     // default values
     private static final String NUM_THREADS_FOR_BATCH_WRITER_DEFAULT = "10";
     private static final String MAX_ENTRIES_FOR_BATCH_SCANNER_DEFAULT = "50000";
+    private static final String BATCH_SCANNERS_IN_FLIGHT_DEFAULT = "1";
+    private static final String RETRIEVER_QUEUE_SIZE_DEFAULT = "10000";
+    private static final String INGEST_THREADS_DEFAULT = "1";
+    private static final String INGEST_BATCH_SIZE_DEFAULT = "10000";
+    private static final String INGEST_PRE_AGGREGATION_DEFAULT = "false";
     private static final String CLIENT_SIDE_BLOOM_FILTER_SIZE_DEFAULT = "838860800";
     private static final String FALSE_POSITIVE_RATE_DEFAULT = "0.0002";
     private static final String MAX_BLOOM_FILTER_TO_PASS_TO_AN_ITERATOR_DEFAULT = "8388608";
+    private static final String MAX_BLOOM_FILTER_PARTITIONS_DEFAULT = "1";
     private static final String MAX_BUFFER_SIZE_FOR_BATCH_WRITER_DEFAULT = "100000000";
     private static final String MAX_TIME_OUT_FOR_BATCH_WRITER_DEFAULT = "1000";
     private static final String THREADS_FOR_BATCH_SCANNER_DEFAULT = "10";
     public static final String ENABLE_VALIDATOR_ITERATOR_DEFAULT = "true";
+    private static final String ENABLE_GROUP_STATISTICS_DEFAULT = "false";
 
     public AccumuloProperties() {
         super(AccumuloStore.class);
@@ -303,6 +317,109 @@ public class AccumuloProperties extends StoreProperties {
         set(MAX_ENTRIES_FOR_BATCH_SCANNER, maxEntriesForBatchScanner);
     }
 
+    /**
+     * Gets the number of batches of seeds that should be scanned at the same
+     * time when retrieving elements for seeds. If this is greater than 1 then
+     * the next batches are fetched while the results of the current batch are
+     * being consumed.
+     *
+     * @return the number of batch scanners to have open at any one time.
+     */
+    public int getBatchScannersInFlight() {
+        return Integer.parseInt(get(BATCH_SCANNERS_IN_FLIGHT, BATCH_SCANNERS_IN_FLIGHT_DEFAULT));
+    }
+
+    /**
+     * Sets the number of batches of seeds that should be scanned at the same
+     * time when retrieving elements for seeds.
+     *
+     * @param batchScannersInFlight the number of batch scanners to have open at any one time.
+     */
+    public void setBatchScannersInFlight(final String batchScannersInFlight) {
+        set(BATCH_SCANNERS_IN_FLIGHT, batchScannersInFlight);
+    }
+
+    /**
+     * Gets the maximum number of retrieved items that can be buffered, waiting
+     * to be consumed, when more than 1 batch scanner is in flight.
+     *
+     * @return the maximum number of items to buffer.
+     */
+    public int getRetrieverQueueSize() {
+        return Integer.parseInt(get(RETRIEVER_QUEUE_SIZE, RETRIEVER_QUEUE_SIZE_DEFAULT));
+    }
+
+    /**
+     * Sets the maximum number of retrieved items that can be buffered, waiting
+     * to be consumed, when more than 1 batch scanner is in flight.
+     *
+     * @param retrieverQueueSize the maximum number of items to buffer.
+     */
+    public void setRetrieverQueueSize(final String retrieverQueueSize) {
+        set(RETRIEVER_QUEUE_SIZE, retrieverQueueSize);
+    }
+
+    /**
+     * Gets the number of threads that should be used to validate and convert
+     * elements into mutations when adding elements. If this is 1 then the
+     * elements are converted on the thread adding them.
+     *
+     * @return the number of threads to convert elements on.
+     */
+    public int getIngestThreads() {
+        return Integer.parseInt(get(INGEST_THREADS, INGEST_THREADS_DEFAULT));
+    }
+
+    /**
+     * Sets the number of threads that should be used to validate and convert
+     * elements into mutations when adding elements.
+     *
+     * @param ingestThreads the number of threads to convert elements on.
+     */
+    public void setIngestThreads(final String ingestThreads) {
+        set(INGEST_THREADS, ingestThreads);
+    }
+
+    /**
+     * Gets the number of elements that are handed to an ingest thread at a
+     * time, when more than 1 ingest thread is used.
+     *
+     * @return the number of elements in each batch.
+     */
+    public int getIngestBatchSize() {
+        return Integer.parseInt(get(INGEST_BATCH_SIZE, INGEST_BATCH_SIZE_DEFAULT));
+    }
+
+    /**
+     * Sets the number of elements that are handed to an ingest thread at a
+     * time, when more than 1 ingest thread is used.
+     *
+     * @param ingestBatchSize the number of elements in each batch.
+     */
+    public void setIngestBatchSize(final String ingestBatchSize) {
+        set(INGEST_BATCH_SIZE, ingestBatchSize);
+    }
+
+    /**
+     * Gets whether each batch of elements should be aggregated by the ingest
+     * threads before it is written, when more than 1 ingest thread is used.
+     *
+     * @return true if batches of elements should be aggregated before they are written.
+     */
+    public boolean getIngestPreAggregation() {
+        return Boolean.parseBoolean(get(INGEST_PRE_AGGREGATION, INGEST_PRE_AGGREGATION_DEFAULT));
+    }
+
+    /**
+     * Sets whether each batch of elements should be aggregated by the ingest
+     * threads before it is written, when more than 1 ingest thread is used.
+     *
+     * @param ingestPreAggregation true if batches of elements should be aggregated before they are written.
+     */
+    public void setIngestPreAggregation(final String ingestPreAggregation) {
+        set(INGEST_PRE_AGGREGATION, ingestPreAggregation);
+    }
+
     /**
      * Gets the size that should be used for the creation of bloom filters on the
      * client side.
@@ -369,6 +486,28 @@ public class AccumuloProperties extends StoreProperties {
         set(MAX_BLOOM_FILTER_TO_PASS_TO_AN_ITERATOR, maxBloomFilterToPassToAnIterator);
     }
 
+    /**
+     * Gets the maximum number of bloom filters that a large set of seeds may be
+     * partitioned into when querying for elements between two sets. All the
+     * partitions are passed to a single iterator, so the iterator options may be
+     * up to this many times the maximum bloom filter size.
+     *
+     * @return the maximum number of bloom filter partitions.
+     */
+    public int getMaxBloomFilterPartitions() {
+        return Integer.parseInt(get(MAX_BLOOM_FILTER_PARTITIONS, MAX_BLOOM_FILTER_PARTITIONS_DEFAULT));
+    }
+
+    /**
+     * Sets the maximum number of bloom filters that a large set of seeds may be
+     * partitioned into when querying for elements between two sets.
+     *
+     * @param maxBloomFilterPartitions the maximum number of bloom filter partitions.
+     */
+    public void setMaxBloomFilterPartitions(final String maxBloomFilterPartitions) {
+        set(MAX_BLOOM_FILTER_PARTITIONS, maxBloomFilterPartitions);
+    }
+
     /**
      * Gets the key package that should be used in conjunction with this table.
      *
@@ -431,6 +570,26 @@ public class AccumuloProperties extends StoreProperties {
         set(ENABLE_VALIDATOR_ITERATOR, Boolean.toString(enableValidatorIterator));
     }
 
+    /**
+     * Gets the flag determining whether statistics about each group should be
+     * maintained in a statistics table as elements are added.
+     *
+     * @return true if group statistics should be maintained.
+     */
+    public boolean getEnableGroupStatistics() {
+        return Boolean.parseBoolean(get(ENABLE_GROUP_STATISTICS, ENABLE_GROUP_STATISTICS_DEFAULT));
+    }
+
+    /**
+     * Sets the flag determining whether statistics about each group should be
+     * maintained in a statistics table as elements are added.
+     *
+     * @param enableGroupStatistics true if group statistics should be maintained.
+     */
+    public void setEnableGroupStatistics(final boolean enableGroupStatistics) {
+        set(ENABLE_GROUP_STATISTICS, Boolean.toString(enableGroupStatistics));
+    }
+
     @Override
     public String getJsonSerialiserModules() {
         return new StringDeduplicateConcat().apply(
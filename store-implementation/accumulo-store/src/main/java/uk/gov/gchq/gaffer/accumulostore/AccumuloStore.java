@@ -38,11 +38,16 @@ import org.apache.hadoop.io.Text;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import uk.gov.gchq.gaffer.accumulostore.data.GroupStatistics;
 import uk.gov.gchq.gaffer.accumulostore.inputformat.ElementInputFormat;
 import uk.gov.gchq.gaffer.accumulostore.key.AccumuloKeyPackage;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
+import uk.gov.gchq.gaffer.accumulostore.operation.handler.AccumuloCountGroupsHandler;
+import uk.gov.gchq.gaffer.accumulostore.operation.handler.AccumuloCountHandler;
+import uk.gov.gchq.gaffer.accumulostore.operation.handler.AccumuloSampleElementsHandler;
 import uk.gov.gchq.gaffer.accumulostore.operation.handler.AddElementsHandler;
+import uk.gov.gchq.gaffer.accumulostore.operation.handler.BulkImportElementsHandler;
 import uk.gov.gchq.gaffer.accumulostore.operation.handler.GenerateSplitPointsFromSampleHandler;
 import uk.gov.gchq.gaffer.accumulostore.operation.handler.GetAdjacentIdsHandler;
 import uk.gov.gchq.gaffer.accumulostore.operation.handler.GetAllElementsHandler;
@@ -50,6 +55,8 @@ import uk.gov.gchq.gaffer.accumulostore.operation.handler.GetElementsBetweenSets
 import uk.gov.gchq.gaffer.accumulostore.operation.handler.GetElementsHandler;
 import uk.gov.gchq.gaffer.accumulostore.operation.handler.GetElementsInRangesHandler;
 import uk.gov.gchq.gaffer.accumulostore.operation.handler.GetElementsWithinSetHandler;
+import uk.gov.gchq.gaffer.accumulostore.operation.handler.GetGroupStatisticsHandler;
+import uk.gov.gchq.gaffer.accumulostore.operation.handler.RebalanceSplitsHandler;
 import uk.gov.gchq.gaffer.accumulostore.operation.handler.SampleElementsForSplitPointsHandler;
 import uk.gov.gchq.gaffer.accumulostore.operation.handler.SummariseGroupOverRangesHandler;
 import uk.gov.gchq.gaffer.accumulostore.operation.hdfs.handler.AddElementsFromHdfsHandler;
@@ -58,11 +65,16 @@ import uk.gov.gchq.gaffer.accumulostore.operation.hdfs.handler.SampleDataForSpli
 import uk.gov.gchq.gaffer.accumulostore.operation.hdfs.handler.SplitStoreFromIterableHandler;
 import uk.gov.gchq.gaffer.accumulostore.operation.hdfs.handler.SplitStoreHandler;
 import uk.gov.gchq.gaffer.accumulostore.operation.hdfs.operation.ImportAccumuloKeyValueFiles;
+import uk.gov.gchq.gaffer.accumulostore.operation.impl.BulkImportElements;
 import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetElementsBetweenSets;
 import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetElementsInRanges;
 import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetElementsWithinSet;
+import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetGroupStatistics;
+import uk.gov.gchq.gaffer.accumulostore.operation.impl.RebalanceSplits;
 import uk.gov.gchq.gaffer.accumulostore.operation.impl.SummariseGroupOverRanges;
 import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.GroupStatisticsUtils;
+import uk.gov.gchq.gaffer.accumulostore.utils.ParallelElementWriter;
 import uk.gov.gchq.gaffer.accumulostore.utils.TableUtils;
 import uk.gov.gchq.gaffer.commonutil.CommonConstants;
 import uk.gov.gchq.gaffer.commonutil.iterable.ChainedIterable;
@@ -78,7 +90,10 @@ import uk.gov.gchq.gaffer.hdfs.operation.SampleDataForSplitPoints;
 import uk.gov.gchq.gaffer.hdfs.operation.handler.HdfsSplitStoreFromFileHandler;
 import uk.gov.gchq.gaffer.operation.Operation;
 import uk.gov.gchq.gaffer.operation.graph.GraphFilters;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
 import uk.gov.gchq.gaffer.operation.impl.GenerateSplitPointsFromSample;
+import uk.gov.gchq.gaffer.operation.impl.SampleElements;
 import uk.gov.gchq.gaffer.operation.impl.SampleElementsForSplitPoints;
 import uk.gov.gchq.gaffer.operation.impl.SplitStore;
 import uk.gov.gchq.gaffer.operation.impl.SplitStoreFromFile;
@@ -104,10 +119,14 @@ import uk.gov.gchq.koryphe.ValidationResult;
 import uk.gov.gchq.koryphe.impl.binaryoperator.Max;
 
 import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Properties;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -151,6 +170,7 @@ public class AccumuloStore extends Store {
             ));
     public static final String FAILED_TO_CREATE_AN_ACCUMULO_FROM_ELEMENT_OF_TYPE_WHEN_TRYING_TO_INSERT_ELEMENTS = "Failed to create an accumulo {} from element of type {} when trying to insert elements";
     private static final Logger LOGGER = LoggerFactory.getLogger(AccumuloStore.class);
+    private static final List<String> HADOOP_PROPERTY_PREFIXES = Arrays.asList("fs.", "dfs.", "hadoop.");
     private AccumuloKeyPackage keyPackage;
     private Connector connection = null;
 
@@ -215,6 +235,28 @@ public class AccumuloStore extends Store {
         return getGraphId();
     }
 
+    /**
+     * Creates the Hadoop {@link Configuration} used by operations that read or
+     * write files directly, such as bulk imports. It is loaded from the Hadoop
+     * configuration files on the classpath, then any store properties starting
+     * with {@code fs.}, {@code dfs.} or {@code hadoop.} are set on it, so
+     * Hadoop settings such as {@code fs.defaultFS} can be given in the store
+     * properties. No other store properties, such as the Accumulo password,
+     * are added.
+     *
+     * @return A new {@link Configuration}.
+     */
+    public Configuration getConfiguration() {
+        final Configuration conf = new Configuration();
+        final Properties properties = getProperties().getProperties();
+        for (final String name : properties.stringPropertyNames()) {
+            if (HADOOP_PROPERTY_PREFIXES.stream().anyMatch(name::startsWith)) {
+                conf.set(name, properties.getProperty(name));
+            }
+        }
+        return conf;
+    }
+
     @Override
     protected void validateSchema(final ValidationResult validationResult, final Serialiser serialiser) {
         super.validateSchema(validationResult, serialiser);
@@ -379,6 +421,14 @@ public class AccumuloStore extends Store {
         addOperationHandler(GenerateSplitPointsFromSample.class, new GenerateSplitPointsFromSampleHandler());
         addOperationHandler(SampleDataForSplitPoints.class, new SampleDataForSplitPointsHandler());
         addOperationHandler(ImportAccumuloKeyValueFiles.class, new ImportAccumuloKeyValueFilesHandler());
+        addOperationHandler(BulkImportElements.class, new BulkImportElementsHandler());
+        addOperationHandler(RebalanceSplits.class, new RebalanceSplitsHandler());
+        addOperationHandler(Count.class, new AccumuloCountHandler<>());
+        addOperationHandler(CountGroups.class, new AccumuloCountGroupsHandler());
+        addOperationHandler(SampleElements.class, new AccumuloSampleElementsHandler());
+        if (getProperties().getEnableGroupStatistics()) {
+            addOperationHandler(GetGroupStatistics.class, new GetGroupStatisticsHandler());
+        }
 
         if (null == getSchema().getVertexSerialiser() || getSchema().getVertexSerialiser().preservesObjectOrdering()) {
             addOperationHandler(SummariseGroupOverRanges.class, new SummariseGroupOverRangesHandler());
@@ -425,8 +475,14 @@ public class AccumuloStore extends Store {
     }
 
     protected void insertGraphElements(final Iterable<? extends Element> elements) throws StoreException {
+        if (1 < getProperties().getIngestThreads()) {
+            new ParallelElementWriter(this).write(elements, false, false);
+            return;
+        }
+
         // Create BatchWriter
         final BatchWriter writer = TableUtils.createBatchWriter(this);
+        final Map<String, GroupStatistics> statistics = getProperties().getEnableGroupStatistics() ? new HashMap<>() : null;
         // Loop through elements, convert to mutations, and add to
         // BatchWriter.as
         // The BatchWriter takes care of batching them up, sending them without
@@ -457,6 +513,9 @@ public class AccumuloStore extends Store {
                     LOGGER.error("Failed to create an accumulo key mutation");
                     continue;
                 }
+                if (null != statistics) {
+                    GroupStatisticsUtils.add(statistics, element.getGroup(), keys.getFirst().getTimestamp());
+                }
                 // If the GraphElement is a Vertex then there will only be 1 key,
                 // and the second will be null.
                 // If the GraphElement is an Edge then there will be 2 keys.
@@ -480,6 +539,9 @@ public class AccumuloStore extends Store {
         } catch (final MutationsRejectedException e) {
             LOGGER.warn("Accumulo batch writer failed to close", e);
         }
+        if (null != statistics) {
+            GroupStatisticsUtils.write(this, statistics);
+        }
     }
 
     /**
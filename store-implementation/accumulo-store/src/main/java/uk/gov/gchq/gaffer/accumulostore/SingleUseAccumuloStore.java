@@ -20,6 +20,7 @@ import org.apache.accumulo.core.client.AccumuloException;
 import org.apache.accumulo.core.client.AccumuloSecurityException;
 import org.apache.accumulo.core.client.TableNotFoundException;
 
+import uk.gov.gchq.gaffer.accumulostore.utils.GroupStatisticsUtils;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.store.StoreProperties;
 import uk.gov.gchq.gaffer.store.schema.Schema;
@@ -47,6 +48,13 @@ public class SingleUseAccumuloStore extends AccumuloStore {
         } catch (final StoreException | AccumuloException | AccumuloSecurityException | TableNotFoundException e) {
             // no action required
         }
+        try {
+            if (getConnection().tableOperations().exists(GroupStatisticsUtils.getStatisticsTableName(this))) {
+                getConnection().tableOperations().delete(GroupStatisticsUtils.getStatisticsTableName(this));
+            }
+        } catch (final StoreException | AccumuloException | AccumuloSecurityException | TableNotFoundException e) {
+            // no action required
+        }
         super.preInitialise(graphId, schema, properties);
     }
 
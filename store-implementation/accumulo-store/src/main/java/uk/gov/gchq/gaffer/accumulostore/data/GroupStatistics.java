@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.data;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+import uk.gov.gchq.gaffer.commonutil.ToStringBuilder;
+
+/**
+ * Statistics about the elements that have been added to a group: the number of
+ * elements and the minimum and maximum Accumulo timestamps of their keys.
+ * <p>
+ * The statistics are maintained as elements are added, so they are estimates:
+ * elements that are later aggregated together, aged off or deleted are still
+ * counted, and visibilities are not taken into account.
+ * </p>
+ */
+public class GroupStatistics {
+    private long count;
+    private long minTimestamp = Long.MAX_VALUE;
+    private long maxTimestamp = Long.MIN_VALUE;
+
+    public GroupStatistics() {
+    }
+
+    public GroupStatistics(final long count, final long minTimestamp, final long maxTimestamp) {
+        this.count = count;
+        this.minTimestamp = minTimestamp;
+        this.maxTimestamp = maxTimestamp;
+    }
+
+    /**
+     * Updates the statistics with an element that has keys with the given
+     * timestamp.
+     *
+     * @param timestamp the timestamp of the element's keys
+     */
+    public void add(final long timestamp) {
+        count++;
+        minTimestamp = Math.min(minTimestamp, timestamp);
+        maxTimestamp = Math.max(maxTimestamp, timestamp);
+    }
+
+    /**
+     * Merges other statistics for the same group into these statistics.
+     *
+     * @param statistics the statistics to merge in
+     */
+    public void merge(final GroupStatistics statistics) {
+        count += statistics.getCount();
+        minTimestamp = Math.min(minTimestamp, statistics.getMinTimestamp());
+        maxTimestamp = Math.max(maxTimestamp, statistics.getMaxTimestamp());
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(final long count) {
+        this.count = count;
+    }
+
+    public long getMinTimestamp() {
+        return minTimestamp;
+    }
+
+    public void setMinTimestamp(final long minTimestamp) {
+        this.minTimestamp = minTimestamp;
+    }
+
+    public long getMaxTimestamp() {
+        return maxTimestamp;
+    }
+
+    public void setMaxTimestamp(final long maxTimestamp) {
+        this.maxTimestamp = maxTimestamp;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (null == obj || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        final GroupStatistics statistics = (GroupStatistics) obj;
+
+        return new EqualsBuilder()
+                .append(count, statistics.count)
+                .append(minTimestamp, statistics.minTimestamp)
+                .append(maxTimestamp, statistics.maxTimestamp)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(31, 7)
+                .append(count)
+                .append(minTimestamp)
+                .append(maxTimestamp)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("count", count)
+                .append("minTimestamp", minTimestamp)
+                .append("maxTimestamp", maxTimestamp)
+                .build();
+    }
+}
@@ -30,7 +30,7 @@ import uk.gov.gchq.gaffer.accumulostore.data.element.AccumuloEdgeValueLoader;
 import uk.gov.gchq.gaffer.accumulostore.data.element.AccumuloEntityValueLoader;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.ElementFilterException;
 import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
-import uk.gov.gchq.gaffer.commonutil.StringUtil;
+import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionCache;
 import uk.gov.gchq.gaffer.commonutil.iterable.ChainedIterable;
 import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
@@ -95,7 +95,7 @@ public abstract class AbstractElementFilter extends Filter {
                      final Map<String, String> options,
                      final IteratorEnvironment env) throws IOException {
         super.init(source, options, env);
-        schema = Schema.fromJson(StringUtil.toBytes(options.get(AccumuloStoreConstants.SCHEMA)));
+        schema = IteratorOptionCache.SCHEMAS.get(options.get(AccumuloStoreConstants.SCHEMA));
         LOGGER.debug("Initialising AbstractElementFilter with Schema {}", schema);
 
         final String elementConverterClass = options.get(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS);
@@ -120,7 +120,7 @@ public abstract class AbstractElementFilter extends Filter {
             if (null == viewJson) {
                 throw new IllegalArgumentException("Must specify the " + AccumuloStoreConstants.VIEW);
             }
-            final View view = View.fromJson(StringUtil.toBytes(viewJson));
+            final View view = IteratorOptionCache.VIEWS.get(viewJson);
             LOGGER.debug("Determining groups that don't need to be filtered based on view {}", view);
             if (filterType == ElementValidator.FilterType.PRE_AGGREGATION_FILTER) {
                 updateViewGroupsWithoutFilters(view, ViewElementDefinition::hasPreAggregationFilters);
@@ -144,6 +144,7 @@ public abstract class AbstractElementFilter extends Filter {
         newInstance.schema = schema;
         newInstance.elementConverter = elementConverter;
         newInstance.elementPredicate = elementPredicate;
+        newInstance.groupsWithoutFilters = groupsWithoutFilters;
         return newInstance;
     }
 
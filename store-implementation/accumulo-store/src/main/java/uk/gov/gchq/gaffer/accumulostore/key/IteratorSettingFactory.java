@@ -24,6 +24,8 @@ import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.operation.graph.GraphFilters;
 
+import java.util.List;
+
 /**
  * The iterator settings factory is designed to enable the AccumuloStore to
  * easily set all iterators that will be commonly required by different
@@ -46,6 +48,32 @@ public interface IteratorSettingFactory {
      */
     IteratorSetting getBloomFilterIteratorSetting(final BloomFilter filter) throws IteratorSettingException;
 
+    /**
+     * Returns an {@link org.apache.accumulo.core.client.IteratorSetting} that
+     * can be used to apply an iterator that will filter elements based on
+     * checking their serialised form for membership of a set of vertices that
+     * has been hash partitioned across several
+     * {@link org.apache.hadoop.util.bloom.BloomFilter}s. Each vertex is tested
+     * against the bloom filter for its partition.
+     *
+     * @param partitionFilters the bloom filters for each partition
+     * @return A new {@link IteratorSetting} for an Iterator capable of filtering elements based on checking its serialised form for membership in the {@link BloomFilter} for its partition
+     * @throws IteratorSettingException if an iterator setting could not be created
+     */
+    IteratorSetting getBloomFilterIteratorSetting(final List<BloomFilter> partitionFilters) throws IteratorSettingException;
+
+    /**
+     * Returns an {@link org.apache.accumulo.core.client.IteratorSetting} that
+     * can be used to apply an iterator that will filter elements based on
+     * checking their serialised form for membership of an exact set of
+     * vertices.
+     *
+     * @param sortedVertices the serialised vertices, sorted in unsigned lexicographical order
+     * @return A new {@link IteratorSetting} for an Iterator capable of filtering elements based on checking its serialised form for membership of a set of vertices
+     * @throws IteratorSettingException if an iterator setting could not be created
+     */
+    IteratorSetting getVertexSetFilterIteratorSetting(final byte[][] sortedVertices) throws IteratorSettingException;
+
     /**
      * Returns an {@link org.apache.accumulo.core.client.IteratorSetting} that
      * can be used to apply an iterator that will filter elements based on
@@ -72,6 +100,52 @@ public interface IteratorSettingFactory {
     IteratorSetting getElementPostAggregationFilterIteratorSetting(final View view, final AccumuloStore store)
             throws IteratorSettingException;
 
+    /**
+     * Returns an {@link org.apache.accumulo.core.client.IteratorSetting} that
+     * can be used to apply an iterator that will only return the keys of edges,
+     * skipping any that lead to an adjacent vertex that has already been returned.
+     * This is used when running a {@link uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentIds}
+     * query, so the serialised properties are not sent back to the client.
+     *
+     * @param view  the operation view
+     * @param store the accumulo store
+     * @return A new {@link IteratorSetting} for an Iterator capable of projecting edges to their adjacent vertices
+     * @throws IteratorSettingException if an iterator setting could not be created
+     */
+    IteratorSetting getAdjacentIdProjectionIteratorSetting(final View view, final AccumuloStore store)
+            throws IteratorSettingException;
+
+    /**
+     * Returns an {@link org.apache.accumulo.core.client.IteratorSetting} that
+     * can be used to apply an iterator that will count the elements in each
+     * group on the tablet servers, rather than returning them.
+     *
+     * @return A new {@link IteratorSetting} for an Iterator capable of counting elements
+     */
+    IteratorSetting getElementCountIteratorSetting();
+
+    /**
+     * Returns an {@link org.apache.accumulo.core.client.IteratorSetting} that
+     * can be used to apply an iterator that will take a random sample of the
+     * elements on the tablet servers, rather than returning all of them.
+     *
+     * @param sampleSize the maximum number of elements to sample from each range
+     * @param stratified true if up to sampleSize elements should be sampled from each group
+     * @param seed       an optional seed to make the sample repeatable
+     * @return A new {@link IteratorSetting} for an Iterator capable of sampling elements
+     */
+    IteratorSetting getElementSampleIteratorSetting(final int sampleSize, final boolean stratified, final Long seed);
+
+    /**
+     * Returns an {@link org.apache.accumulo.core.client.IteratorSetting} that
+     * can be used to apply an iterator that will only return every nth key
+     * on the tablet servers, without its value.
+     *
+     * @param sampleEvery the number of keys between each sampled key
+     * @return A new {@link IteratorSetting} for an Iterator capable of sampling keys
+     */
+    IteratorSetting getKeySampleIteratorSetting(final long sampleEvery);
+
     /**
      * Returns an Iterator that will filter out
      * Edges/Entities/Undirected/Directed Edges based on the options in the
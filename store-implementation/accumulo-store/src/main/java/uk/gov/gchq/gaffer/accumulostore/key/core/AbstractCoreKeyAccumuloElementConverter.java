@@ -47,15 +47,27 @@ import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @SuppressWarnings("unchecked")
 public abstract class AbstractCoreKeyAccumuloElementConverter implements AccumuloElementConverter {
+    // Buffers larger than this are not kept for reuse, so a single large
+    // element does not hold on to memory for the life of the thread.
+    private static final int MAX_REUSED_BUFFER_SIZE = 1024 * 1024;
+
+    // Keys and Values copy the bytes they are constructed with, so the bytes
+    // for column qualifiers and values can be built in a reused buffer.
+    private static final ThreadLocal<ByteArrayOutputStream> BUFFERS = ThreadLocal.withInitial(ByteArrayOutputStream::new);
+
     protected final Schema schema;
     private final String timestampProperty;
     private final Set<String> aggregatedGroups;
+    private final Map<String, GroupEncoding> groupEncodings = new ConcurrentHashMap<>();
 
     public AbstractCoreKeyAccumuloElementConverter(final Schema schema) {
         this.schema = schema;
@@ -87,9 +99,10 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
     public Pair<Key, Key> getKeysFromEdge(final Edge edge) {
         // Get pair of row keys
         final Pair<byte[], byte[]> rowKeys = getRowKeysFromEdge(edge);
-        final byte[] columnFamily = buildColumnFamily(edge.getGroup());
-        final byte[] columnQualifier = buildColumnQualifier(edge.getGroup(), edge.getProperties());
-        final byte[] columnVisibility = buildColumnVisibility(edge.getGroup(), edge.getProperties());
+        final GroupEncoding encoding = getGroupEncoding(edge.getGroup());
+        final byte[] columnFamily = encoding.columnFamily;
+        final byte[] columnQualifier = buildColumnQualifier(encoding, edge.getProperties());
+        final byte[] columnVisibility = buildColumnVisibility(encoding, edge.getProperties());
         final long timeStamp = buildTimestamp(edge.getGroup(), edge.getProperties());
         // Create Accumulo keys - note that second row key may be null (if it's
         // a self-edge) and
@@ -105,11 +118,12 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
     public Key getKeyFromEntity(final Entity entity) {
         // Row key is formed from vertex
         final byte[] rowKey = getRowKeyFromEntity(entity);
-        final byte[] columnFamily = buildColumnFamily(entity.getGroup());
-        final byte[] columnQualifier = buildColumnQualifier(entity.getGroup(), entity.getProperties());
+        final GroupEncoding encoding = getGroupEncoding(entity.getGroup());
+        final byte[] columnFamily = encoding.columnFamily;
+        final byte[] columnQualifier = buildColumnQualifier(encoding, entity.getProperties());
 
         // Column visibility is formed from the visibility
-        final byte[] columnVisibility = buildColumnVisibility(entity.getGroup(), entity.getProperties());
+        final byte[] columnVisibility = buildColumnVisibility(encoding, entity.getProperties());
 
         final long timeStamp = buildTimestamp(entity.getGroup(), entity.getProperties());
 
@@ -117,19 +131,10 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
         return new Key(rowKey, columnFamily, columnQualifier, columnVisibility, timeStamp);
     }
 
-    @SuppressWarnings("Convert2streamapi")
     @Override
     public Value getValueFromProperties(final String group, final Properties properties) {
-        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
-        final SchemaElementDefinition elementDefinition = getSchemaElementDefinition(group);
-
-        for (final String propertyName : elementDefinition.getProperties()) {
-            if (isStoredInValue(propertyName, elementDefinition)) {
-                serialiseSizeAndPropertyValue(propertyName, elementDefinition, properties, stream);
-            }
-        }
-
-        return new Value(stream.toByteArray());
+        final GroupEncoding encoding = getGroupEncoding(group);
+        return new Value(serialiseProperties(encoding.valueProperties, encoding.valueSerialisers, properties), false);
     }
 
     @Override
@@ -141,21 +146,8 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
     public Properties getPropertiesFromValue(final String group, final Value value) {
         final Properties properties = new Properties();
         if (isNotEmpty(value)) {
-            final byte[] bytes = value.get();
-            int delimiterPosition = 0;
-            final int arrayLength = bytes.length;
-            final SchemaElementDefinition elementDefinition = getSchemaElementDefinition(group);
-            final Iterator<String> propertyNames = elementDefinition.getProperties().iterator();
-            while (propertyNames.hasNext() && delimiterPosition < arrayLength) {
-                final String propertyName = propertyNames.next();
-                try {
-                    if (isStoredInValue(propertyName, elementDefinition)) {
-                        delimiterPosition = addDeserialisedProperty(bytes, delimiterPosition, properties, elementDefinition, propertyName);
-                    }
-                } catch (final SerialisationException e) {
-                    throw new AccumuloElementConversionException("Failed to deserialise property " + propertyName, e);
-                }
-            }
+            final GroupEncoding encoding = getGroupEncoding(group);
+            deserialiseProperties(encoding.valueProperties, encoding.valueSerialisers, value.get(), properties);
         }
         return properties;
     }
@@ -173,7 +165,12 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
     @Override
     public Element getFullElement(final Key key, final Value value, final boolean includeMatchedVertex) {
         final Element element = getElementFromKey(key, includeMatchedVertex);
-        element.copyProperties(getPropertiesFromValue(element.getGroup(), value));
+        if (isNotEmpty(value)) {
+            // The value properties are added straight to the element, rather than
+            // being deserialised into a new Properties and copied across.
+            final GroupEncoding encoding = getGroupEncoding(element.getGroup());
+            deserialiseProperties(encoding.valueProperties, encoding.valueSerialisers, value.get(), element.getProperties());
+        }
         return element;
     }
 
@@ -207,65 +204,66 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
 
     @Override
     public byte[] buildColumnVisibility(final String group, final Properties properties) {
-        byte[] rtn = AccumuloStoreConstants.EMPTY_BYTES;
-        final SchemaElementDefinition elementDefinition = getSchemaElementDefinition(group);
-        if (null != schema.getVisibilityProperty()) {
-            final TypeDefinition propertyDef = elementDefinition.getPropertyTypeDef(schema.getVisibilityProperty());
-            if (null != propertyDef) {
-                final Object property = properties.get(schema.getVisibilityProperty());
-                final ToBytesSerialiser serialiser = (ToBytesSerialiser) propertyDef.getSerialiser();
-                if (null != property) {
-                    try {
-                        rtn = serialiser.serialise(property);
-                    } catch (final SerialisationException e) {
-                        throw new AccumuloElementConversionException(e.getMessage(), e);
-                    }
-                } else {
-                    rtn = serialiser.serialiseNull();
-                }
-            }
-        }
-        return rtn;
+        return buildColumnVisibility(getGroupEncoding(group), properties);
     }
 
     @Override
     public Properties getPropertiesFromColumnVisibility(final String group, final byte[] columnVisibility) {
         final Properties properties = new Properties();
+        addPropertiesFromColumnVisibility(getGroupEncoding(group), columnVisibility, properties);
+        return properties;
+    }
 
-        final SchemaElementDefinition elementDefinition = getSchemaElementDefinition(group);
+    @Override
+    public byte[] buildColumnQualifier(final String group, final Properties properties) {
+        return buildColumnQualifier(getGroupEncoding(group), properties);
+    }
 
-        if (null != schema.getVisibilityProperty()) {
-            final TypeDefinition propertyDef = elementDefinition.getPropertyTypeDef(schema.getVisibilityProperty());
-            if (null != propertyDef) {
-                final ToBytesSerialiser serialiser = (ToBytesSerialiser) propertyDef.getSerialiser();
+    private byte[] buildColumnVisibility(final GroupEncoding encoding, final Properties properties) {
+        byte[] rtn = AccumuloStoreConstants.EMPTY_BYTES;
+        if (null != encoding.visibilitySerialiser) {
+            final Object property = properties.get(schema.getVisibilityProperty());
+            if (null != property) {
                 try {
-                    if (null == columnVisibility || columnVisibility.length == 0) {
-                        final Object value = serialiser.deserialiseEmpty();
-                        if (null != value) {
-                            properties.put(schema.getVisibilityProperty(), value);
-                        }
-                    } else {
-                        properties.put(schema.getVisibilityProperty(), serialiser.deserialise(columnVisibility));
-                    }
+                    rtn = encoding.visibilitySerialiser.serialise(property);
                 } catch (final SerialisationException e) {
                     throw new AccumuloElementConversionException(e.getMessage(), e);
                 }
+            } else {
+                rtn = encoding.visibilitySerialiser.serialiseNull();
             }
         }
+        return rtn;
+    }
 
-        return properties;
+    private void addPropertiesFromColumnVisibility(final GroupEncoding encoding, final byte[] columnVisibility, final Properties properties) {
+        if (null != encoding.visibilitySerialiser) {
+            try {
+                if (null == columnVisibility || columnVisibility.length == 0) {
+                    final Object value = encoding.visibilitySerialiser.deserialiseEmpty();
+                    if (null != value) {
+                        properties.put(schema.getVisibilityProperty(), value);
+                    }
+                } else {
+                    properties.put(schema.getVisibilityProperty(), encoding.visibilitySerialiser.deserialise(columnVisibility));
+                }
+            } catch (final SerialisationException e) {
+                throw new AccumuloElementConversionException(e.getMessage(), e);
+            }
+        }
     }
 
-    @Override
-    public byte[] buildColumnQualifier(final String group, final Properties properties) {
-        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
-        final SchemaElementDefinition elementDefinition = getSchemaElementDefinition(group);
+    private byte[] buildColumnQualifier(final GroupEncoding encoding, final Properties properties) {
+        return serialiseProperties(encoding.groupBy, encoding.groupBySerialisers, properties);
+    }
 
-        for (final String groupByPropertyName : elementDefinition.getGroupBy()) {
-            serialiseSizeAndPropertyValue(groupByPropertyName, elementDefinition, properties, stream);
+    private GroupEncoding getGroupEncoding(final String group) {
+        GroupEncoding encoding = groupEncodings.get(group);
+        if (null == encoding) {
+            encoding = new GroupEncoding(group, getSchemaElementDefinition(group));
+            groupEncodings.put(group, encoding);
         }
-
-        return stream.toByteArray();
+        return encoding;
     }
 
     private SchemaElementDefinition getSchemaElementDefinition(final String group) {
@@ -277,14 +275,42 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
     }
 
     protected void serialiseSizeAndPropertyValue(final String propertyName, final SchemaElementDefinition elementDefinition, final Properties properties, final ByteArrayOutputStream stream) {
+        final TypeDefinition typeDefinition = elementDefinition.getPropertyTypeDef(propertyName);
+        final ToBytesSerialiser serialiser = (null == typeDefinition) ? null : (ToBytesSerialiser) typeDefinition.getSerialiser();
+        serialiseSizeAndPropertyValue(propertyName, serialiser, properties, stream);
+    }
+
+    @Override
+    public Properties getPropertiesFromColumnQualifier(final String group, final byte[] bytes) {
+        final Properties properties = new Properties();
+        if (null != bytes && bytes.length != 0) {
+            final GroupEncoding encoding = getGroupEncoding(group);
+            deserialiseProperties(encoding.groupBy, encoding.groupBySerialisers, bytes, properties);
+        }
+        return properties;
+    }
+
+    private byte[] serialiseProperties(final String[] propertyNames, final ToBytesSerialiser[] serialisers, final Properties properties) {
+        final ByteArrayOutputStream stream = BUFFERS.get();
+        stream.reset();
+        for (int i = 0; i < propertyNames.length; i++) {
+            serialiseSizeAndPropertyValue(propertyNames[i], serialisers[i], properties, stream);
+        }
+
+        final byte[] serialised = stream.toByteArray();
+        if (serialised.length > MAX_REUSED_BUFFER_SIZE) {
+            BUFFERS.remove();
+        }
+        return serialised;
+    }
+
+    private void serialiseSizeAndPropertyValue(final String propertyName, final ToBytesSerialiser serialiser, final Properties properties, final ByteArrayOutputStream stream) {
         try {
-            final TypeDefinition typeDefinition = elementDefinition.getPropertyTypeDef(propertyName);
-            final ToBytesSerialiser serialiser = (null == typeDefinition) ? null : (ToBytesSerialiser) typeDefinition.getSerialiser();
-            byte[] bytes;
+            final byte[] bytes;
             if (null == serialiser) {
                 bytes = AccumuloStoreConstants.EMPTY_BYTES;
             } else {
-                Object value = properties.get(propertyName);
+                final Object value = properties.get(propertyName);
                 //serialiseNull could be different to AccumuloStoreConstants.EMPTY_BYTES
                 bytes = (null == value) ? serialiser.serialiseNull() : serialiser.serialise(value);
             }
@@ -294,39 +320,23 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
         }
     }
 
-    @Override
-    public Properties getPropertiesFromColumnQualifier(final String group, final byte[] bytes) {
-        final Properties properties = new Properties();
-        if (null != bytes && bytes.length != 0) {
-            int delimiterPosition = 0;
-            final int arrayLength = bytes.length;
-            final SchemaElementDefinition elementDefinition = getSchemaElementDefinition(group);
-            final Iterator<String> propertyNames = elementDefinition.getGroupBy().iterator();
-            while (propertyNames.hasNext() && delimiterPosition < arrayLength) {
-                final String propertyName = propertyNames.next();
+    private void deserialiseProperties(final String[] propertyNames, final ToBytesSerialiser[] serialisers, final byte[] bytes, final Properties properties) {
+        int delimiterPosition = 0;
+        final int arrayLength = bytes.length;
+        for (int i = 0; i < propertyNames.length && delimiterPosition < arrayLength; i++) {
+            final ToBytesSerialiser serialiser = serialisers[i];
+            if (null != serialiser) {
                 try {
-                    delimiterPosition = addDeserialisedProperty(bytes, delimiterPosition, properties, elementDefinition, propertyName);
+                    final int numBytesForLength = CompactRawSerialisationUtils.decodeVIntSize(bytes[delimiterPosition]);
+                    final int currentPropLength = getCurrentPropLength(bytes, delimiterPosition);
+                    final int from = delimiterPosition + numBytesForLength;
+                    delimiterPosition = from + currentPropLength;
+                    properties.put(propertyNames[i], getDeserialisedObject(serialiser, bytes, from, currentPropLength));
                 } catch (final SerialisationException e) {
-                    throw new AccumuloElementConversionException("Failed to deserialise property " + propertyName, e);
+                    throw new AccumuloElementConversionException("Failed to deserialise property " + propertyNames[i], e);
                 }
             }
         }
-        return properties;
-    }
-
-    private int addDeserialisedProperty(final byte[] bytes, final int carriage, final Properties properties, final SchemaElementDefinition elementDefinition, final String propertyName) throws SerialisationException {
-        int rtn = carriage;
-        final TypeDefinition typeDefinition = elementDefinition.getPropertyTypeDef(propertyName);
-        final ToBytesSerialiser serialiser = (null != typeDefinition) ? (ToBytesSerialiser) typeDefinition.getSerialiser() : null;
-        if (null != serialiser) {
-            final int numBytesForLength = CompactRawSerialisationUtils.decodeVIntSize(bytes[rtn]);
-            final int currentPropLength = getCurrentPropLength(bytes, rtn);
-            int from = rtn += numBytesForLength;
-            rtn += currentPropLength;
-            Object deserialisedObject = getDeserialisedObject(serialiser, bytes, from, currentPropLength);
-            properties.put(propertyName, deserialisedObject);
-        }
-        return rtn;
     }
 
     @Override
@@ -386,11 +396,9 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
      */
     @Override
     public Properties getPropertiesFromTimestamp(final String group, final long timestamp) {
-        final SchemaElementDefinition elementDefinition = getSchemaElementDefinition(group);
-
         final Properties properties = new Properties();
         // If the element group requires a timestamp property then add it.
-        if (null != timestampProperty && elementDefinition.containsProperty(timestampProperty)) {
+        if (getGroupEncoding(group).hasTimestampProperty) {
             properties.put(timestampProperty, timestamp);
         }
         return properties;
@@ -443,12 +451,16 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
     }
 
     protected void addPropertiesToElement(final Element element, final Key key) {
-        element.copyProperties(
-                getPropertiesFromColumnQualifier(element.getGroup(), key.getColumnQualifierData().getBackingArray()));
-        element.copyProperties(
-                getPropertiesFromColumnVisibility(element.getGroup(), key.getColumnVisibilityData().getBackingArray()));
-        element.copyProperties(
-                getPropertiesFromTimestamp(element.getGroup(), key.getTimestamp()));
+        final GroupEncoding encoding = getGroupEncoding(element.getGroup());
+        final Properties properties = element.getProperties();
+        final byte[] columnQualifier = key.getColumnQualifierData().getBackingArray();
+        if (0 != columnQualifier.length) {
+            deserialiseProperties(encoding.groupBy, encoding.groupBySerialisers, columnQualifier, properties);
+        }
+        addPropertiesFromColumnVisibility(encoding, key.getColumnVisibilityData().getBackingArray(), properties);
+        if (encoding.hasTimestampProperty) {
+            properties.put(timestampProperty, key.getTimestamp());
+        }
     }
 
     @SuppressWarnings("WeakerAccess")
@@ -491,6 +503,29 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
         }
     }
 
+    /**
+     * Serialises the source and destination of an {@link Edge} without
+     * escaping them, so they can be escaped directly into the row keys using
+     * {@link ByteArrayEscapeUtils#escape(byte[], byte[], int)}.
+     *
+     * @param edge the edge to serialise the vertices of
+     * @return the serialised source and destination
+     */
+    protected Pair<byte[], byte[]> getUnescapedSourceAndDestination(final Edge edge) {
+        final ToBytesSerialiser vertexSerialiser = (ToBytesSerialiser) schema.getVertexSerialiser();
+        final byte[] source;
+        try {
+            source = vertexSerialiser.serialise(edge.getSource());
+        } catch (final SerialisationException e) {
+            throw new AccumuloElementConversionException("Failed to serialise Edge Source", e);
+        }
+        try {
+            return new Pair<>(source, vertexSerialiser.serialise(edge.getDestination()));
+        } catch (final SerialisationException e) {
+            throw new AccumuloElementConversionException("Failed to serialise Edge Destination", e);
+        }
+    }
+
     protected String getGroupFromKey(final Key key) {
         try {
             return new String(key.getColumnFamilyData().getBackingArray(), CommonConstants.UTF_8);
@@ -535,4 +570,45 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
         }
     }
 
+    // The serialisers and property names for a group, in the order their
+    // serialised values are written, looked up from the schema once per group
+    // rather than once per element.
+    private final class GroupEncoding {
+        private final byte[] columnFamily;
+        private final String[] groupBy;
+        private final ToBytesSerialiser[] groupBySerialisers;
+        private final String[] valueProperties;
+        private final ToBytesSerialiser[] valueSerialisers;
+        private final ToBytesSerialiser visibilitySerialiser;
+        private final boolean hasTimestampProperty;
+
+        private GroupEncoding(final String group, final SchemaElementDefinition elementDefinition) {
+            columnFamily = buildColumnFamily(group);
+            groupBy = elementDefinition.getGroupBy().toArray(new String[0]);
+            groupBySerialisers = getSerialisers(groupBy, elementDefinition);
+
+            final List<String> valuePropertyList = new ArrayList<>();
+            for (final String propertyName : elementDefinition.getProperties()) {
+                if (isStoredInValue(propertyName, elementDefinition)) {
+                    valuePropertyList.add(propertyName);
+                }
+            }
+            valueProperties = valuePropertyList.toArray(new String[0]);
+            valueSerialisers = getSerialisers(valueProperties, elementDefinition);
+
+            final TypeDefinition visibilityTypeDef = null != schema.getVisibilityProperty()
+                    ? elementDefinition.getPropertyTypeDef(schema.getVisibilityProperty()) : null;
+            visibilitySerialiser = null != visibilityTypeDef ? (ToBytesSerialiser) visibilityTypeDef.getSerialiser() : null;
+            hasTimestampProperty = null != timestampProperty && elementDefinition.containsProperty(timestampProperty);
+        }
+
+        private ToBytesSerialiser[] getSerialisers(final String[] propertyNames, final SchemaElementDefinition elementDefinition) {
+            final ToBytesSerialiser[] serialisers = new ToBytesSerialiser[propertyNames.length];
+            for (int i = 0; i < propertyNames.length; i++) {
+                final TypeDefinition typeDefinition = elementDefinition.getPropertyTypeDef(propertyNames[i]);
+                serialisers[i] = (null != typeDefinition) ? (ToBytesSerialiser) typeDefinition.getSerialiser() : null;
+            }
+            return serialisers;
+        }
+    }
 }
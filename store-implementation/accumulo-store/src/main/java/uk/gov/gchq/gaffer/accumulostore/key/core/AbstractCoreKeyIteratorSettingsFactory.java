@@ -25,10 +25,15 @@ import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.key.IteratorSettingFactory;
 import uk.gov.gchq.gaffer.accumulostore.key.core.impl.CoreKeyBloomFilterIterator;
 import uk.gov.gchq.gaffer.accumulostore.key.core.impl.CoreKeyGroupByAggregatorIterator;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.CoreKeyVertexSetFilterIterator;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
+import uk.gov.gchq.gaffer.accumulostore.key.impl.AdjacentIdProjectionIterator;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.AggregatorIterator;
+import uk.gov.gchq.gaffer.accumulostore.key.impl.ElementCountIterator;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.ElementPostAggregationFilter;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.ElementPreAggregationFilter;
+import uk.gov.gchq.gaffer.accumulostore.key.impl.ElementSampleIterator;
+import uk.gov.gchq.gaffer.accumulostore.key.impl.KeySampleIterator;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.RowIDAggregator;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.ValidatorFilter;
 import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
@@ -39,14 +44,22 @@ import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
 import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
 
+import java.util.Collections;
+import java.util.List;
+
 public abstract class AbstractCoreKeyIteratorSettingsFactory implements IteratorSettingFactory {
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractCoreKeyIteratorSettingsFactory.class);
 
     @Override
     public IteratorSetting getBloomFilterIteratorSetting(final BloomFilter filter) throws IteratorSettingException {
+        return getBloomFilterIteratorSetting(Collections.singletonList(filter));
+    }
+
+    @Override
+    public IteratorSetting getBloomFilterIteratorSetting(final List<BloomFilter> partitionFilters) throws IteratorSettingException {
         final IteratorSetting is = new IteratorSettingBuilder(AccumuloStoreConstants.BLOOM_FILTER_ITERATOR_PRIORITY,
                 AccumuloStoreConstants.BLOOM_FILTER_ITERATOR_NAME, CoreKeyBloomFilterIterator.class)
-                .bloomFilter(filter)
+                .bloomFilterPartitions(partitionFilters)
                 .build();
         LOGGER.debug("Creating IteratorSetting for iterator class {} with priority = {}",
                 CoreKeyBloomFilterIterator.class.getName(),
@@ -54,6 +67,18 @@ public abstract class AbstractCoreKeyIteratorSettingsFactory implements Iterator
         return is;
     }
 
+    @Override
+    public IteratorSetting getVertexSetFilterIteratorSetting(final byte[][] sortedVertices) throws IteratorSettingException {
+        final IteratorSetting is = new IteratorSettingBuilder(AccumuloStoreConstants.VERTEX_SET_FILTER_ITERATOR_PRIORITY,
+                AccumuloStoreConstants.VERTEX_SET_FILTER_ITERATOR_NAME, CoreKeyVertexSetFilterIterator.class)
+                .vertexSet(sortedVertices)
+                .build();
+        LOGGER.debug("Creating IteratorSetting for iterator class {} with priority = {}",
+                CoreKeyVertexSetFilterIterator.class.getName(),
+                AccumuloStoreConstants.VERTEX_SET_FILTER_ITERATOR_PRIORITY);
+        return is;
+    }
+
     @Override
     public IteratorSetting getElementPreAggregationFilterIteratorSetting(final View view, final AccumuloStore store)
             throws IteratorSettingException {
@@ -100,6 +125,62 @@ public abstract class AbstractCoreKeyIteratorSettingsFactory implements Iterator
         return is;
     }
 
+    @Override
+    public IteratorSetting getAdjacentIdProjectionIteratorSetting(final View view, final AccumuloStore store)
+            throws IteratorSettingException {
+        final IteratorSetting is = new IteratorSettingBuilder(AccumuloStoreConstants.ADJACENT_ID_PROJECTION_ITERATOR_PRIORITY,
+                AccumuloStoreConstants.ADJACENT_ID_PROJECTION_ITERATOR_NAME, AdjacentIdProjectionIterator.class)
+                .schema(store.getSchema())
+                .view(view)
+                .keyConverter(store.getKeyPackage().getKeyConverter())
+                .build();
+        LOGGER.debug("Creating IteratorSetting for iterator class {} with priority = {}, "
+                        + "schema = {}, view = {}, keyConverter = {}",
+                AdjacentIdProjectionIterator.class.getName(),
+                AccumuloStoreConstants.ADJACENT_ID_PROJECTION_ITERATOR_PRIORITY,
+                store.getSchema(), view, store.getKeyPackage().getKeyConverter());
+        return is;
+    }
+
+    @Override
+    public IteratorSetting getElementCountIteratorSetting() {
+        final IteratorSetting is = new IteratorSettingBuilder(AccumuloStoreConstants.ELEMENT_COUNT_ITERATOR_PRIORITY,
+                AccumuloStoreConstants.ELEMENT_COUNT_ITERATOR_NAME, ElementCountIterator.class)
+                .build();
+        LOGGER.debug("Creating IteratorSetting for iterator class {} with priority = {}",
+                ElementCountIterator.class.getName(),
+                AccumuloStoreConstants.ELEMENT_COUNT_ITERATOR_PRIORITY);
+        return is;
+    }
+
+    @Override
+    public IteratorSetting getElementSampleIteratorSetting(final int sampleSize, final boolean stratified, final Long seed) {
+        final IteratorSettingBuilder builder = new IteratorSettingBuilder(AccumuloStoreConstants.ELEMENT_SAMPLE_ITERATOR_PRIORITY,
+                AccumuloStoreConstants.ELEMENT_SAMPLE_ITERATOR_NAME, ElementSampleIterator.class)
+                .option(AccumuloStoreConstants.SAMPLE_SIZE, Integer.toString(sampleSize))
+                .option(AccumuloStoreConstants.SAMPLE_STRATIFIED, Boolean.toString(stratified));
+        if (null != seed) {
+            builder.option(AccumuloStoreConstants.SAMPLE_SEED, Long.toString(seed));
+        }
+        final IteratorSetting is = builder.build();
+        LOGGER.debug("Creating IteratorSetting for iterator class {} with priority = {}, sampleSize = {}, stratified = {}",
+                ElementSampleIterator.class.getName(),
+                AccumuloStoreConstants.ELEMENT_SAMPLE_ITERATOR_PRIORITY, sampleSize, stratified);
+        return is;
+    }
+
+    @Override
+    public IteratorSetting getKeySampleIteratorSetting(final long sampleEvery) {
+        final IteratorSetting is = new IteratorSettingBuilder(AccumuloStoreConstants.KEY_SAMPLE_ITERATOR_PRIORITY,
+                AccumuloStoreConstants.KEY_SAMPLE_ITERATOR_NAME, KeySampleIterator.class)
+                .option(AccumuloStoreConstants.SAMPLE_EVERY, Long.toString(sampleEvery))
+                .build();
+        LOGGER.debug("Creating IteratorSetting for iterator class {} with priority = {}, sampleEvery = {}",
+                KeySampleIterator.class.getName(),
+                AccumuloStoreConstants.KEY_SAMPLE_ITERATOR_PRIORITY, sampleEvery);
+        return is;
+    }
+
     @Override
     public IteratorSetting getAggregatorIteratorSetting(final AccumuloStore store) throws IteratorSettingException {
         final IteratorSetting is = new IteratorSettingBuilder(AccumuloStoreConstants.AGGREGATOR_ITERATOR_PRIORITY,
@@ -27,6 +27,7 @@ import org.slf4j.LoggerFactory;
 
 import uk.gov.gchq.gaffer.accumulostore.key.exception.BloomFilterIteratorException;
 import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.BloomFilterUtils;
 import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsBuilder;
 import uk.gov.gchq.gaffer.commonutil.ByteArrayEscapeUtils;
 
@@ -41,17 +42,24 @@ import java.util.Map;
 /**
  * The CoreKeyBloomFilterIterator filters out Edges based on their non searched
  * for vertex's membership of the provided {@link BloomFilter}.
+ * <p>
+ * If a set of vertices has been hash partitioned across several bloom filters,
+ * then all the partitions are passed to the iterator and each vertex is tested
+ * against the bloom filter for its partition, so a single scan filters by the
+ * whole set.
+ * </p>
  */
 public class CoreKeyBloomFilterIterator extends Filter {
     private static final Logger LOGGER = LoggerFactory.getLogger(CoreKeyBloomFilterIterator.class);
 
     protected BloomFilter filter;
+    protected BloomFilter[] partitionFilters;
 
     @Override
     public boolean accept(final Key key, final Value value) {
         byte[] vertices = key.getRowData().getBackingArray();
         int pos = -1;
-        for (int i = vertices.length - 3; i > 0; --i) {
+        for (int i = vertices.length - 3; i >= 0; --i) {
             if (vertices[i] == ByteArrayEscapeUtils.DELIMITER) {
                 pos = i;
                 break;
@@ -60,7 +68,10 @@ public class CoreKeyBloomFilterIterator extends Filter {
         if (pos == -1) {
             return true;
         }
-        return filter.membershipTest(new org.apache.hadoop.util.bloom.Key(Arrays.copyOfRange(vertices, pos + 1, vertices.length - 2)));
+        final byte[] vertex = Arrays.copyOfRange(vertices, pos + 1, vertices.length - 2);
+        final BloomFilter vertexFilter = null == partitionFilters
+                ? filter : partitionFilters[BloomFilterUtils.getPartition(vertex, partitionFilters.length)];
+        return vertexFilter.membershipTest(new org.apache.hadoop.util.bloom.Key(vertex));
     }
 
     @Override
@@ -68,19 +79,13 @@ public class CoreKeyBloomFilterIterator extends Filter {
                      final IteratorEnvironment env) throws IOException {
         super.init(source, options, env);
 
-        filter = new BloomFilter();
-        final byte[] bytes;
-        try {
-            bytes = options.get(AccumuloStoreConstants.BLOOM_FILTER).getBytes(AccumuloStoreConstants.BLOOM_FILTER_CHARSET);
-        } catch (final UnsupportedEncodingException e) {
-            throw new BloomFilterIteratorException("Failed to re-create serialised bloom filter", e);
-        }
-
-        try (final InputStream inStream = new ByteArrayInputStream(bytes);
-             final DataInputStream dataStream = new DataInputStream(inStream)) {
-            filter.readFields(dataStream);
-        } catch (final IOException e) {
-            throw new BloomFilterIteratorException("Failed to re-create serialised bloom filter", e);
+        if (options.containsKey(AccumuloStoreConstants.BLOOM_FILTER_NUM_PARTITIONS)) {
+            partitionFilters = new BloomFilter[Integer.parseInt(options.get(AccumuloStoreConstants.BLOOM_FILTER_NUM_PARTITIONS))];
+            for (int i = 0; i < partitionFilters.length; i++) {
+                partitionFilters[i] = readBloomFilter(options.get(AccumuloStoreConstants.BLOOM_FILTER_PARTITION + i));
+            }
+        } else {
+            filter = readBloomFilter(options.get(AccumuloStoreConstants.BLOOM_FILTER));
         }
         LOGGER.debug("Initialised CoreKeyBloomFilterIterator");
     }
@@ -90,7 +95,15 @@ public class CoreKeyBloomFilterIterator extends Filter {
         if (!super.validateOptions(options)) {
             return false;
         }
-        if (!options.containsKey(AccumuloStoreConstants.BLOOM_FILTER)) {
+        if (options.containsKey(AccumuloStoreConstants.BLOOM_FILTER_NUM_PARTITIONS)) {
+            final int numPartitions = Integer.parseInt(options.get(AccumuloStoreConstants.BLOOM_FILTER_NUM_PARTITIONS));
+            for (int i = 0; i < numPartitions; i++) {
+                if (!options.containsKey(AccumuloStoreConstants.BLOOM_FILTER_PARTITION + i)) {
+                    throw new BloomFilterIteratorException("Must set the " + AccumuloStoreConstants.BLOOM_FILTER_PARTITION + i
+                            + " option for each of the " + numPartitions + " partitions");
+                }
+            }
+        } else if (!options.containsKey(AccumuloStoreConstants.BLOOM_FILTER)) {
             throw new BloomFilterIteratorException("Must set the " + AccumuloStoreConstants.BLOOM_FILTER + " option");
         }
 
@@ -101,8 +114,29 @@ public class CoreKeyBloomFilterIterator extends Filter {
     public IteratorOptions describeOptions() {
         return new IteratorOptionsBuilder(AccumuloStoreConstants.BLOOM_FILTER_ITERATOR_NAME, "Bloom Filter")
                 .addNamedOption(AccumuloStoreConstants.BLOOM_FILTER,
-                        "Required: The serialised form of the bloom filter that keys will be tested against")
+                        "Required unless the vertices are partitioned: The serialised form of the bloom filter that keys will be tested against")
+                .addNamedOption(AccumuloStoreConstants.BLOOM_FILTER_NUM_PARTITIONS,
+                        "Optional: The number of partitions the vertices have been split into")
+                .addNamedOption(AccumuloStoreConstants.BLOOM_FILTER_PARTITION + "<n>",
+                        "Required for each partition n if the vertices are partitioned: The serialised form of the bloom filter for the partition")
                 .build();
     }
 
+    private BloomFilter readBloomFilter(final String serialisedFilter) {
+        final BloomFilter bloomFilter = new BloomFilter();
+        final byte[] bytes;
+        try {
+            bytes = serialisedFilter.getBytes(AccumuloStoreConstants.BLOOM_FILTER_CHARSET);
+        } catch (final UnsupportedEncodingException e) {
+            throw new BloomFilterIteratorException("Failed to re-create serialised bloom filter", e);
+        }
+
+        try (final InputStream inStream = new ByteArrayInputStream(bytes);
+             final DataInputStream dataStream = new DataInputStream(inStream)) {
+            bloomFilter.readFields(dataStream);
+        } catch (final IOException e) {
+            throw new BloomFilterIteratorException("Failed to re-create serialised bloom filter", e);
+        }
+        return bloomFilter;
+    }
 }
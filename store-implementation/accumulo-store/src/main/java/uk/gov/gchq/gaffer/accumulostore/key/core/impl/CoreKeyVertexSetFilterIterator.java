@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.key.core.impl;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.Filter;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.hadoop.io.WritableComparator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.accumulostore.key.IteratorException;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsBuilder;
+import uk.gov.gchq.gaffer.commonutil.ByteArrayEscapeUtils;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The CoreKeyVertexSetFilterIterator filters out Edges whose non searched for
+ * vertex is not in the provided set of serialised vertices. Unlike the
+ * {@link CoreKeyBloomFilterIterator} there are no false positives, so it is
+ * used instead of a bloom filter when the set is small enough to be passed to
+ * the iterator.
+ * <p>
+ * The set is passed as the sorted, escaped serialised vertices separated by
+ * {@link ByteArrayEscapeUtils#DELIMITER} and the vertex of each edge is found
+ * by a binary search, without copying it out of the key.
+ * </p>
+ */
+public class CoreKeyVertexSetFilterIterator extends Filter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CoreKeyVertexSetFilterIterator.class);
+
+    protected byte[][] vertices;
+
+    @Override
+    public boolean accept(final Key key, final Value value) {
+        final byte[] row = key.getRowData().getBackingArray();
+        int pos = -1;
+        for (int i = row.length - 3; i >= 0; --i) {
+            if (row[i] == ByteArrayEscapeUtils.DELIMITER) {
+                pos = i;
+                break;
+            }
+        }
+        if (pos == -1) {
+            return true;
+        }
+        return contains(row, pos + 1, row.length - 2 - (pos + 1));
+    }
+
+    @Override
+    public void init(final SortedKeyValueIterator<Key, Value> source, final Map<String, String> options,
+                     final IteratorEnvironment env) throws IOException {
+        super.init(source, options, env);
+
+        final byte[] bytes;
+        try {
+            bytes = options.get(AccumuloStoreConstants.VERTEX_SET).getBytes(AccumuloStoreConstants.BLOOM_FILTER_CHARSET);
+        } catch (final UnsupportedEncodingException e) {
+            throw new IteratorException("Failed to re-create serialised vertex set", e);
+        }
+
+        // The set is never empty, so an empty option is a single empty vertex.
+        final List<byte[]> vertexList = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= bytes.length; i++) {
+            if (i == bytes.length || bytes[i] == ByteArrayEscapeUtils.DELIMITER) {
+                final byte[] vertex = new byte[i - start];
+                System.arraycopy(bytes, start, vertex, 0, vertex.length);
+                vertexList.add(vertex);
+                start = i + 1;
+            }
+        }
+        vertices = vertexList.toArray(new byte[vertexList.size()][]);
+        LOGGER.debug("Initialised CoreKeyVertexSetFilterIterator with {} vertices", vertices.length);
+    }
+
+    @Override
+    public boolean validateOptions(final Map<String, String> options) {
+        if (!super.validateOptions(options)) {
+            return false;
+        }
+        if (!options.containsKey(AccumuloStoreConstants.VERTEX_SET)) {
+            throw new IteratorException("Must set the " + AccumuloStoreConstants.VERTEX_SET + " option");
+        }
+
+        return true;
+    }
+
+    @Override
+    public IteratorOptions describeOptions() {
+        return new IteratorOptionsBuilder(AccumuloStoreConstants.VERTEX_SET_FILTER_ITERATOR_NAME, "Vertex Set Filter")
+                .addNamedOption(AccumuloStoreConstants.VERTEX_SET,
+                        "Required: The sorted, delimited, serialised vertices that keys will be tested against")
+                .build();
+    }
+
+    private boolean contains(final byte[] bytes, final int offset, final int length) {
+        int low = 0;
+        int high = vertices.length - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int comparison = WritableComparator.compareBytes(vertices[mid], 0, vertices[mid].length, bytes, offset, length);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -31,8 +31,6 @@ import uk.gov.gchq.gaffer.operation.data.EntitySeed;
 import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 
-import java.util.Arrays;
-
 /**
  * The ByteEntityAccumuloElementConverter converts Gaffer Elements to Accumulo
  * Keys and Values.
@@ -62,8 +60,7 @@ public class ByteEntityAccumuloElementConverter extends AbstractCoreKeyAccumuloE
     protected EntityId getEntityId(final byte[] row) {
         try {
             return new EntitySeed(((ToBytesSerialiser) schema.getVertexSerialiser())
-                    .deserialise(ByteArrayEscapeUtils.unEscape(Arrays.copyOfRange(row, 0,
-                            row.length - 2))));
+                    .deserialise(ByteArrayEscapeUtils.unEscape(row, 0, row.length - 2)));
         } catch (final SerialisationException e) {
             throw new AccumuloElementConversionException("Failed to create EntityId from Accumulo row key", e);
         }
@@ -83,8 +80,10 @@ public class ByteEntityAccumuloElementConverter extends AbstractCoreKeyAccumuloE
 
     @Override
     protected Pair<byte[], byte[]> getRowKeysFromEdge(final Edge edge) {
-        byte[] source = getSerialisedSource(edge);
-        byte[] destination = getSerialisedDestination(edge);
+        // The vertices are escaped straight into the row keys
+        final Pair<byte[], byte[]> vertices = getUnescapedSourceAndDestination(edge);
+        final byte[] source = vertices.getFirst();
+        final byte[] destination = vertices.getSecond();
 
         byte directionFlag = edge.isDirected() ? ByteEntityPositions.CORRECT_WAY_DIRECTED_EDGE : ByteEntityPositions.UNDIRECTED_EDGE;
         final byte[] rowKey1 = getRowKey(source, destination, directionFlag);
@@ -99,15 +98,12 @@ public class ByteEntityAccumuloElementConverter extends AbstractCoreKeyAccumuloE
     }
 
     private byte[] getRowKey(final byte[] first, final byte[] second, final byte directionFlag) {
-        int carriage = first.length;
-        int secondLen = second.length;
-        byte[] rowKey = new byte[carriage + secondLen + 5];
-        System.arraycopy(first, 0, rowKey, 0, carriage);
+        byte[] rowKey = new byte[ByteArrayEscapeUtils.escapedLength(first) + ByteArrayEscapeUtils.escapedLength(second) + 5];
+        int carriage = ByteArrayEscapeUtils.escape(first, rowKey, 0);
         rowKey[carriage++] = ByteArrayEscapeUtils.DELIMITER;
         rowKey[carriage++] = directionFlag;
         rowKey[carriage++] = ByteArrayEscapeUtils.DELIMITER;
-        System.arraycopy(second, 0, rowKey, carriage, secondLen);
-        carriage += secondLen;
+        carriage = ByteArrayEscapeUtils.escape(second, rowKey, carriage);
         rowKey[carriage++] = ByteArrayEscapeUtils.DELIMITER;
         rowKey[carriage] = directionFlag;
         return rowKey;
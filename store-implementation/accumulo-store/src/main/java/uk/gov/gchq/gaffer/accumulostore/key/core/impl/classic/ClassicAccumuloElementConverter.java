@@ -68,9 +68,11 @@ public class ClassicAccumuloElementConverter extends AbstractCoreKeyAccumuloElem
         // in the key is the source, i.e. they need flipping around.
         byte directionFlag = edge.isDirected() ? ClassicBytePositions.CORRECT_WAY_DIRECTED_EDGE : ClassicBytePositions.UNDIRECTED_EDGE;
 
-        // Serialise source and destination to byte arrays, escaping if necessary
-        final byte[] source = getSerialisedSource(edge);
-        final byte[] destination = getSerialisedDestination(edge);
+        // Serialise source and destination to byte arrays, they are escaped
+        // straight into the row keys
+        final Pair<byte[], byte[]> vertices = getUnescapedSourceAndDestination(edge);
+        final byte[] source = vertices.getFirst();
+        final byte[] destination = vertices.getSecond();
 
         // Create first key: source DELIMITER destination
         // DELIMITER (CORRECT_WAY_DIRECTED_EDGE or UNDIRECTED_EDGE)
@@ -90,17 +92,14 @@ public class ClassicAccumuloElementConverter extends AbstractCoreKeyAccumuloElem
     }
 
     private byte[] getRowKey(final byte[] first, final byte[] second, final byte invertDirectedFlag) {
-        // Length of row key is the length of the first plus the length of the second
+        // Length of row key is the escaped length of the first plus the escaped length of the second
         // plus one for the delimiter in between the first and second
         // plus one for the delimiter in between the second and the direction flag
         // plus one for the direction flag at the end.
-        int carriage = first.length;
-        int secondLen = second.length;
-        final byte[] rowKey = new byte[carriage + secondLen + 3];
-        System.arraycopy(first, 0, rowKey, 0, carriage);
+        final byte[] rowKey = new byte[ByteArrayEscapeUtils.escapedLength(first) + ByteArrayEscapeUtils.escapedLength(second) + 3];
+        int carriage = ByteArrayEscapeUtils.escape(first, rowKey, 0);
         rowKey[carriage++] = ByteArrayEscapeUtils.DELIMITER;
-        System.arraycopy(second, 0, rowKey, carriage, secondLen);
-        carriage += second.length;
+        carriage = ByteArrayEscapeUtils.escape(second, rowKey, carriage);
         rowKey[carriage++] = ByteArrayEscapeUtils.DELIMITER;
         rowKey[carriage] = invertDirectedFlag;
         //carriage++;
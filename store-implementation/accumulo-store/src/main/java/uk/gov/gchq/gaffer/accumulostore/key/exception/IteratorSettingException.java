@@ -21,6 +21,10 @@ import uk.gov.gchq.gaffer.accumulostore.key.AccumuloException;
 public class IteratorSettingException extends AccumuloException {
     private static final long serialVersionUID = -7500248684483372945L;
 
+    public IteratorSettingException(final String message) {
+        super(message);
+    }
+
     public IteratorSettingException(final String message, final Throwable e) {
         super(message, e);
     }
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.key.impl;
+
+import org.apache.accumulo.core.data.ArrayByteSequence;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.Filter;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.exception.ElementFilterException;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionCache;
+import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsBuilder;
+import uk.gov.gchq.gaffer.commonutil.iterable.ChainedIterable;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId;
+import uk.gov.gchq.gaffer.data.element.id.ElementId;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The AdjacentIdProjectionIterator is applied last when running a
+ * {@link uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentIds} query, so only
+ * the adjacent vertices of the edges are sent back to the client.
+ * <p>
+ * The keys of edges are returned unchanged, as the client extracts the adjacent
+ * vertex from them, but the values are replaced with an empty value so the
+ * serialised properties are not transferred. Edges within the same row that lead
+ * to an adjacent vertex that has already been returned are skipped. Edges in
+ * groups with post transform filters in the {@link View} are returned in full,
+ * as those filters have to be applied on the client.
+ * </p>
+ */
+public class AdjacentIdProjectionIterator extends Filter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdjacentIdProjectionIterator.class);
+    private static final Value EMPTY_VALUE = new Value(AccumuloStoreConstants.EMPTY_BYTES);
+
+    /**
+     * The maximum number of adjacent vertices remembered for a single row.
+     * Once this is reached, the remaining edges in the row are not deduplicated.
+     */
+    private static final int MAX_ADJACENT_IDS_PER_ROW = 100000;
+
+    private Schema schema;
+    private View view;
+    private AccumuloElementConverter elementConverter;
+    private Set<String> groupsWithTransforms;
+
+    private ByteSequence currentRow;
+    private final Set<Object> adjacentIds = new HashSet<>();
+    private boolean projectTop;
+
+    @Override
+    public boolean accept(final Key key, final Value value) {
+        final String group = elementConverter.getGroupFromColumnFamily(key.getColumnFamilyData().getBackingArray());
+        projectTop = schema.isEdge(group) && !groupsWithTransforms.contains(group);
+        if (!projectTop) {
+            return true;
+        }
+
+        final ByteSequence row = key.getRowData();
+        if (null == currentRow || !currentRow.equals(row)) {
+            currentRow = new ArrayByteSequence(row.toArray());
+            adjacentIds.clear();
+        }
+
+        final ElementId elementId = elementConverter.getElementId(key, true);
+        if (!(elementId instanceof EdgeId)) {
+            return true;
+        }
+
+        final EdgeId edgeId = (EdgeId) elementId;
+        final Object adjacentId = EdgeId.MatchedVertex.DESTINATION == edgeId.getMatchedVertex()
+                ? edgeId.getSource() : edgeId.getDestination();
+        if (adjacentIds.contains(adjacentId)) {
+            return false;
+        }
+        if (adjacentIds.size() < MAX_ADJACENT_IDS_PER_ROW) {
+            adjacentIds.add(adjacentId);
+        }
+        return true;
+    }
+
+    @Override
+    public Value getTopValue() {
+        return projectTop ? EMPTY_VALUE : super.getTopValue();
+    }
+
+    @Override
+    public void seek(final Range range, final Collection<ByteSequence> columnFamilies, final boolean inclusive) throws IOException {
+        currentRow = null;
+        adjacentIds.clear();
+        super.seek(range, columnFamilies, inclusive);
+    }
+
+    @Override
+    public void init(final SortedKeyValueIterator<Key, Value> source,
+                     final Map<String, String> options,
+                     final IteratorEnvironment env) throws IOException {
+        super.init(source, options, env);
+        schema = IteratorOptionCache.SCHEMAS.get(options.get(AccumuloStoreConstants.SCHEMA));
+        view = IteratorOptionCache.VIEWS.get(options.get(AccumuloStoreConstants.VIEW));
+
+        final String elementConverterClass = options.get(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS);
+        try {
+            elementConverter = Class
+                    .forName(elementConverterClass)
+                    .asSubclass(AccumuloElementConverter.class)
+                    .getConstructor(Schema.class)
+                    .newInstance(schema);
+            LOGGER.debug("Creating AccumuloElementConverter of class {}", elementConverterClass);
+        } catch (final ClassNotFoundException | InstantiationException | IllegalAccessException | IllegalArgumentException
+                | InvocationTargetException | NoSuchMethodException | SecurityException e) {
+            throw new ElementFilterException("Failed to create element converter of the class name provided ("
+                    + elementConverterClass + ")", e);
+        }
+
+        groupsWithTransforms = new HashSet<>();
+        for (final Map.Entry<String, ViewElementDefinition> entry : new ChainedIterable<Map.Entry<String, ViewElementDefinition>>(view.getEntities().entrySet(), view.getEdges().entrySet())) {
+            if (null != entry.getValue() && entry.getValue().hasPostTransformFilters()) {
+                groupsWithTransforms.add(entry.getKey());
+            }
+        }
+    }
+
+    @Override
+    public SortedKeyValueIterator<Key, Value> deepCopy(final IteratorEnvironment env) {
+        final AdjacentIdProjectionIterator newInstance = new AdjacentIdProjectionIterator();
+        newInstance.setSource(getSource().deepCopy(env));
+        newInstance.schema = schema;
+        newInstance.view = view;
+        newInstance.elementConverter = elementConverter;
+        newInstance.groupsWithTransforms = groupsWithTransforms;
+        return newInstance;
+    }
+
+    @Override
+    public boolean validateOptions(final Map<String, String> options) {
+        if (!super.validateOptions(options)) {
+            return false;
+        }
+        if (!options.containsKey(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS)) {
+            throw new IllegalArgumentException("Must specify the " + AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS);
+        }
+        if (!options.containsKey(AccumuloStoreConstants.SCHEMA)) {
+            throw new IllegalArgumentException("Must specify the " + AccumuloStoreConstants.SCHEMA);
+        }
+        if (!options.containsKey(AccumuloStoreConstants.VIEW)) {
+            throw new IllegalArgumentException("Must specify the " + AccumuloStoreConstants.VIEW);
+        }
+        return true;
+    }
+
+    @Override
+    public IteratorOptions describeOptions() {
+        return new IteratorOptionsBuilder(super.describeOptions()).addViewNamedOption().addSchemaNamedOption()
+                .addElementConverterClassNamedOption().setIteratorName(AccumuloStoreConstants.ADJACENT_ID_PROJECTION_ITERATOR_NAME)
+                .setIteratorDescription("Only returns the keys of edges, skipping edges to adjacent vertices already returned in the same row").build();
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.key.impl;
+
+import org.apache.accumulo.core.data.ArrayByteSequence;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.accumulo.core.iterators.OptionDescriber;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.accumulo.core.iterators.WrappingIterator;
+
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsBuilder;
+import uk.gov.gchq.gaffer.commonutil.CommonConstants;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The ElementCountIterator counts the number of entries in each column family,
+ * i.e. the number of elements in each group, rather than returning them.
+ * <p>
+ * When seeked, it consumes all entries in the range from the iterators below it
+ * and returns a single entry containing the counts, keyed by the last key in the
+ * range. If it is applied after all other scan time iterators, then the counts are
+ * the same as the number of elements that would have been returned. As each tablet
+ * server only returns its own partial counts, these need to be summed on the
+ * client using {@link #getCounts(Value)}.
+ * </p>
+ */
+public class ElementCountIterator extends WrappingIterator implements OptionDescriber {
+    private final Key lastKey = new Key();
+    private Key topKey;
+    private Value topValue;
+
+    @Override
+    public void seek(final Range range, final Collection<ByteSequence> columnFamilies, final boolean inclusive) throws IOException {
+        super.seek(range, columnFamilies, inclusive);
+        count();
+    }
+
+    @Override
+    public boolean hasTop() {
+        return null != topKey;
+    }
+
+    @Override
+    public Key getTopKey() {
+        return topKey;
+    }
+
+    @Override
+    public Value getTopValue() {
+        return topValue;
+    }
+
+    @Override
+    public void next() throws IOException {
+        topKey = null;
+        topValue = null;
+    }
+
+    @Override
+    public SortedKeyValueIterator<Key, Value> deepCopy(final IteratorEnvironment env) {
+        final ElementCountIterator newInstance = new ElementCountIterator();
+        newInstance.setSource(getSource().deepCopy(env));
+        return newInstance;
+    }
+
+    @Override
+    public IteratorOptions describeOptions() {
+        return new IteratorOptionsBuilder(AccumuloStoreConstants.ELEMENT_COUNT_ITERATOR_NAME,
+                "Returns the number of elements in each group rather than the elements").build();
+    }
+
+    @Override
+    public boolean validateOptions(final Map<String, String> options) {
+        return true;
+    }
+
+    /**
+     * Reads the counts, keyed by group, from a value returned by this iterator.
+     *
+     * @param value the value returned by the iterator
+     * @return the number of elements in each group
+     * @throws IOException if the value could not be read
+     */
+    public static Map<String, Long> getCounts(final Value value) throws IOException {
+        final Map<String, Long> counts = new HashMap<>();
+        try (final DataInputStream input = new DataInputStream(new ByteArrayInputStream(value.get()))) {
+            final int numGroups = input.readInt();
+            for (int i = 0; i < numGroups; i++) {
+                final byte[] group = new byte[input.readInt()];
+                input.readFully(group);
+                counts.put(new String(group, CommonConstants.UTF_8), input.readLong());
+            }
+        }
+        return counts;
+    }
+
+    private void count() throws IOException {
+        topKey = null;
+        topValue = null;
+
+        // The column family of the source's key is only used for lookups, so
+        // a copy is only made when a new group is found.
+        final Map<ByteSequence, long[]> counts = new HashMap<>();
+        final SortedKeyValueIterator<Key, Value> source = getSource();
+        while (source.hasTop()) {
+            final Key key = source.getTopKey();
+            final ByteSequence columnFamily = key.getColumnFamilyData();
+            final long[] count = counts.get(columnFamily);
+            if (null == count) {
+                counts.put(new ArrayByteSequence(columnFamily.toArray()), new long[]{1});
+            } else {
+                count[0]++;
+            }
+            lastKey.set(key);
+            source.next();
+        }
+
+        if (!counts.isEmpty()) {
+            topKey = new Key(lastKey);
+            topValue = toValue(counts);
+        }
+    }
+
+    private Value toValue(final Map<ByteSequence, long[]> counts) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(counts.size());
+            for (final Map.Entry<ByteSequence, long[]> entry : counts.entrySet()) {
+                output.writeInt(entry.getKey().length());
+                output.write(entry.getKey().toArray());
+                output.writeLong(entry.getValue()[0]);
+            }
+        }
+        return new Value(bytes.toByteArray());
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.key.impl;
+
+import org.apache.accumulo.core.data.ArrayByteSequence;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.accumulo.core.iterators.OptionDescriber;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.accumulo.core.iterators.WrappingIterator;
+
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsBuilder;
+import uk.gov.gchq.gaffer.commonutil.CommonConstants;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The ElementSampleIterator takes a uniform random sample of the entries in
+ * each range, rather than returning them all.
+ * <p>
+ * When seeked, it consumes all entries in the range from the iterators below
+ * it, keeping a reservoir sample of up to {@link AccumuloStoreConstants#SAMPLE_SIZE}
+ * entries, either from all of the entries or from each column family, i.e.
+ * group, separately. It then returns a single entry, keyed by the last key in
+ * the range, containing the number of entries in each group followed by the
+ * sampled entries. Only the samples are sent back to the client, which
+ * combines the partial samples from each tablet server using the counts, see
+ * {@link #getSample(Value)}.
+ * </p>
+ * <p>
+ * If a {@link AccumuloStoreConstants#SAMPLE_SEED} is set, it is combined with
+ * the start of the range so that each range is sampled differently but
+ * repeatably.
+ * </p>
+ */
+public class ElementSampleIterator extends WrappingIterator implements OptionDescriber {
+    private static final ByteSequence ALL_GROUPS = new ArrayByteSequence(AccumuloStoreConstants.EMPTY_BYTES);
+
+    private final Key lastKey = new Key();
+    private int sampleSize;
+    private boolean stratified;
+    private Long seed;
+    private Key topKey;
+    private Value topValue;
+
+    @Override
+    public void init(final SortedKeyValueIterator<Key, Value> source,
+                     final Map<String, String> options,
+                     final IteratorEnvironment env) throws IOException {
+        super.init(source, options, env);
+        validateOptions(options);
+        sampleSize = Integer.parseInt(options.get(AccumuloStoreConstants.SAMPLE_SIZE));
+        stratified = Boolean.parseBoolean(options.get(AccumuloStoreConstants.SAMPLE_STRATIFIED));
+        final String seedOption = options.get(AccumuloStoreConstants.SAMPLE_SEED);
+        seed = null != seedOption ? Long.parseLong(seedOption) : null;
+    }
+
+    @Override
+    public void seek(final Range range, final Collection<ByteSequence> columnFamilies, final boolean inclusive) throws IOException {
+        super.seek(range, columnFamilies, inclusive);
+        final Random random;
+        if (null != seed) {
+            random = new Random(31 * seed + (range.isInfiniteStartKey() ? 0 : range.getStartKey().hashCode()));
+        } else {
+            random = new Random();
+        }
+        sample(random);
+    }
+
+    @Override
+    public boolean hasTop() {
+        return null != topKey;
+    }
+
+    @Override
+    public Key getTopKey() {
+        return topKey;
+    }
+
+    @Override
+    public Value getTopValue() {
+        return topValue;
+    }
+
+    @Override
+    public void next() throws IOException {
+        topKey = null;
+        topValue = null;
+    }
+
+    @Override
+    public SortedKeyValueIterator<Key, Value> deepCopy(final IteratorEnvironment env) {
+        final ElementSampleIterator newInstance = new ElementSampleIterator();
+        newInstance.setSource(getSource().deepCopy(env));
+        newInstance.sampleSize = sampleSize;
+        newInstance.stratified = stratified;
+        newInstance.seed = seed;
+        return newInstance;
+    }
+
+    @Override
+    public IteratorOptions describeOptions() {
+        return new IteratorOptionsBuilder(AccumuloStoreConstants.ELEMENT_SAMPLE_ITERATOR_NAME,
+                "Returns a random sample of the elements and the number of elements in each group rather than the elements")
+                .addNamedOption(AccumuloStoreConstants.SAMPLE_SIZE, "The maximum number of elements to sample")
+                .addNamedOption(AccumuloStoreConstants.SAMPLE_STRATIFIED, "True if the elements in each group should be sampled separately")
+                .addNamedOption(AccumuloStoreConstants.SAMPLE_SEED, "Optional seed for the random sample")
+                .build();
+    }
+
+    @Override
+    public boolean validateOptions(final Map<String, String> options) {
+        if (!options.containsKey(AccumuloStoreConstants.SAMPLE_SIZE)) {
+            throw new IllegalArgumentException("Must specify the " + AccumuloStoreConstants.SAMPLE_SIZE);
+        }
+        if (Integer.parseInt(options.get(AccumuloStoreConstants.SAMPLE_SIZE)) < 1) {
+            throw new IllegalArgumentException(AccumuloStoreConstants.SAMPLE_SIZE + " must be greater than 0");
+        }
+        return true;
+    }
+
+    /**
+     * Reads the counts and the sampled entries from a value returned by this
+     * iterator.
+     *
+     * @param value the value returned by the iterator
+     * @return the counts and the sampled entries
+     * @throws IOException if the value could not be read
+     */
+    public static Sample getSample(final Value value) throws IOException {
+        final Sample sample = new Sample();
+        try (final DataInputStream input = new DataInputStream(new ByteArrayInputStream(value.get()))) {
+            final int numGroups = input.readInt();
+            for (int i = 0; i < numGroups; i++) {
+                final byte[] group = new byte[input.readInt()];
+                input.readFully(group);
+                sample.counts.put(new String(group, CommonConstants.UTF_8), input.readLong());
+            }
+            final int numEntries = input.readInt();
+            for (int i = 0; i < numEntries; i++) {
+                final Key key = new Key();
+                key.readFields(input);
+                final Value entryValue = new Value();
+                entryValue.readFields(input);
+                sample.entries.add(new AbstractMap.SimpleImmutableEntry<>(key, entryValue));
+            }
+        }
+        return sample;
+    }
+
+    private void sample(final Random random) throws IOException {
+        topKey = null;
+        topValue = null;
+
+        // The column family of the source's key is only used for lookups, so
+        // a copy is only made when a new group is found.
+        final Map<ByteSequence, long[]> counts = new HashMap<>();
+        final Map<ByteSequence, Reservoir> reservoirs = new HashMap<>();
+        final SortedKeyValueIterator<Key, Value> source = getSource();
+        while (source.hasTop()) {
+            final Key key = source.getTopKey();
+            ByteSequence columnFamily = key.getColumnFamilyData();
+            final long[] count = counts.get(columnFamily);
+            if (null == count) {
+                columnFamily = new ArrayByteSequence(columnFamily.toArray());
+                counts.put(columnFamily, new long[]{1});
+            } else {
+                count[0]++;
+            }
+
+            final ByteSequence stratum = stratified ? columnFamily : ALL_GROUPS;
+            Reservoir reservoir = reservoirs.get(stratum);
+            if (null == reservoir) {
+                reservoir = new Reservoir(random);
+                reservoirs.put(new ArrayByteSequence(stratum.toArray()), reservoir);
+            }
+            reservoir.offer(key, source.getTopValue());
+
+            lastKey.set(key);
+            source.next();
+        }
+
+        if (!counts.isEmpty()) {
+            topKey = new Key(lastKey);
+            topValue = toValue(counts, reservoirs.values());
+        }
+    }
+
+    private Value toValue(final Map<ByteSequence, long[]> counts, final Collection<Reservoir> reservoirs) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(counts.size());
+            for (final Map.Entry<ByteSequence, long[]> entry : counts.entrySet()) {
+                output.writeInt(entry.getKey().length());
+                output.write(entry.getKey().toArray());
+                output.writeLong(entry.getValue()[0]);
+            }
+
+            int numEntries = 0;
+            for (final Reservoir reservoir : reservoirs) {
+                numEntries += reservoir.keys.size();
+            }
+            output.writeInt(numEntries);
+            for (final Reservoir reservoir : reservoirs) {
+                for (int i = 0; i < reservoir.keys.size(); i++) {
+                    reservoir.keys.get(i).write(output);
+                    reservoir.values.get(i).write(output);
+                }
+            }
+        }
+        return new Value(bytes.toByteArray());
+    }
+
+    /**
+     * The number of entries in each group of a range and a uniform random
+     * sample of those entries.
+     */
+    public static final class Sample {
+        private final Map<String, Long> counts = new HashMap<>();
+        private final List<Map.Entry<Key, Value>> entries = new ArrayList<>();
+
+        public Map<String, Long> getCounts() {
+            return Collections.unmodifiableMap(counts);
+        }
+
+        public List<Map.Entry<Key, Value>> getEntries() {
+            return Collections.unmodifiableList(entries);
+        }
+    }
+
+    // A fixed size reservoir, which replaces its sampled entries with
+    // decreasing probability so that each offered entry is equally likely to
+    // be kept. Entries are copied when kept, as the source reuses them.
+    private final class Reservoir {
+        private final Random random;
+        private final List<Key> keys = new ArrayList<>();
+        private final List<Value> values = new ArrayList<>();
+        private long offered;
+
+        private Reservoir(final Random random) {
+            this.random = random;
+        }
+
+        private void offer(final Key key, final Value value) {
+            offered++;
+            if (keys.size() < sampleSize) {
+                keys.add(new Key(key));
+                values.add(new Value(value));
+            } else {
+                final long index = (long) (random.nextDouble() * offered);
+                if (index < sampleSize) {
+                    keys.set((int) index, new Key(key));
+                    values.set((int) index, new Value(value));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.key.impl;
+
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.accumulo.core.iterators.OptionDescriber;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.accumulo.core.iterators.WrappingIterator;
+
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsBuilder;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The KeySampleIterator only returns every nth key in each range, starting
+ * with the first, where n is set by the {@link AccumuloStoreConstants#SAMPLE_EVERY}
+ * option. The values are replaced with empty values, so only the sampled keys
+ * are sent back to the client.
+ */
+public class KeySampleIterator extends WrappingIterator implements OptionDescriber {
+    private static final Value EMPTY_VALUE = new Value(AccumuloStoreConstants.EMPTY_BYTES);
+
+    private long sampleEvery;
+    private long index;
+
+    @Override
+    public void init(final SortedKeyValueIterator<Key, Value> source,
+                     final Map<String, String> options,
+                     final IteratorEnvironment env) throws IOException {
+        super.init(source, options, env);
+        validateOptions(options);
+        sampleEvery = Long.parseLong(options.get(AccumuloStoreConstants.SAMPLE_EVERY));
+    }
+
+    @Override
+    public void seek(final Range range, final Collection<ByteSequence> columnFamilies, final boolean inclusive) throws IOException {
+        super.seek(range, columnFamilies, inclusive);
+        index = 0;
+        findTop();
+    }
+
+    @Override
+    public void next() throws IOException {
+        super.next();
+        findTop();
+    }
+
+    @Override
+    public Value getTopValue() {
+        return EMPTY_VALUE;
+    }
+
+    @Override
+    public SortedKeyValueIterator<Key, Value> deepCopy(final IteratorEnvironment env) {
+        final KeySampleIterator newInstance = new KeySampleIterator();
+        newInstance.setSource(getSource().deepCopy(env));
+        newInstance.sampleEvery = sampleEvery;
+        return newInstance;
+    }
+
+    @Override
+    public IteratorOptions describeOptions() {
+        return new IteratorOptionsBuilder(AccumuloStoreConstants.KEY_SAMPLE_ITERATOR_NAME,
+                "Only returns every nth key, with an empty value")
+                .addNamedOption(AccumuloStoreConstants.SAMPLE_EVERY, "The number of keys to skip between each sampled key")
+                .build();
+    }
+
+    @Override
+    public boolean validateOptions(final Map<String, String> options) {
+        if (!options.containsKey(AccumuloStoreConstants.SAMPLE_EVERY)) {
+            throw new IllegalArgumentException("Must specify the " + AccumuloStoreConstants.SAMPLE_EVERY);
+        }
+        if (Long.parseLong(options.get(AccumuloStoreConstants.SAMPLE_EVERY)) < 1) {
+            throw new IllegalArgumentException(AccumuloStoreConstants.SAMPLE_EVERY + " must be greater than 0");
+        }
+        return true;
+    }
+
+    private void findTop() throws IOException {
+        final SortedKeyValueIterator<Key, Value> source = getSource();
+        while (source.hasTop() && 0 != index % sampleEvery) {
+            index++;
+            source.next();
+        }
+        index++;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.operation.handler;
+
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.retriever.AccumuloItemRetriever;
+import uk.gov.gchq.gaffer.accumulostore.retriever.RetrieverException;
+import uk.gov.gchq.gaffer.accumulostore.retriever.impl.AccumuloAllElementsRetriever;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.data.GroupCounts;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.operation.handler.CountGroupsHandler;
+
+import java.util.Map;
+
+/**
+ * An {@code AccumuloCountGroupsHandler} handles {@link CountGroups} operations
+ * on the {@link uk.gov.gchq.gaffer.accumulostore.AccumuloStore}.
+ * <p>
+ * If the input to the {@link CountGroups} is the output of a get operation, such as
+ * {@link uk.gov.gchq.gaffer.operation.impl.get.GetElements} or
+ * {@link uk.gov.gchq.gaffer.operation.impl.get.GetAllElements}, then the
+ * elements are counted on the tablet servers and only the counts are sent back
+ * to the client. If the total count is more than the limit, then the full
+ * counts are returned with the limit flagged as hit. If the input is not the
+ * output of a get operation, then the groups are counted in the same way as
+ * the {@link CountGroupsHandler}.
+ * </p>
+ * <p>
+ * If group statistics are enabled on the store, the input is the output of a
+ * {@link uk.gov.gchq.gaffer.operation.impl.get.GetAllElements} and the
+ * {@link AccumuloStoreConstants#COUNT_GROUPS_ESTIMATE} option is set to true,
+ * then the counts are estimated from the group statistics without scanning the
+ * table. The estimate ignores the filters in the view, aggregation and
+ * age-off, so it is an upper bound on the real counts. The limit is flagged as
+ * hit if the total estimate is more than the limit. The statistics count
+ * elements of every visibility, so if the schema has a visibility property
+ * the option is ignored and the groups are counted on the tablet servers.
+ * </p>
+ */
+public class AccumuloCountGroupsHandler extends CountGroupsHandler {
+    @Override
+    public GroupCounts doOperation(final CountGroups operation, final Context context, final Store store)
+            throws OperationException {
+        if (canEstimate(operation, store)) {
+            final Map<String, Long> counts;
+            try {
+                counts = ((AccumuloAllElementsRetriever) operation.getInput()).estimateGroupCounts();
+            } catch (final RetrieverException e) {
+                CloseableUtil.close(operation);
+                throw new OperationException("Failed to estimate group counts", e);
+            }
+            CloseableUtil.close(operation);
+            return toGroupCounts(counts, operation.getLimit(), store.getSchema());
+        }
+
+        if (operation.getInput() instanceof AccumuloItemRetriever
+                && ((AccumuloItemRetriever<?, ?>) operation.getInput()).canCountGroups()) {
+            final Map<String, Long> counts;
+            try {
+                counts = ((AccumuloItemRetriever<?, ?>) operation.getInput()).countGroups();
+            } catch (final RetrieverException e) {
+                throw new OperationException("Failed to count groups", e);
+            } finally {
+                CloseableUtil.close(operation);
+            }
+            return toGroupCounts(counts, operation.getLimit(), store.getSchema());
+        }
+
+        return super.doOperation(operation, context, store);
+    }
+
+    private boolean canEstimate(final CountGroups operation, final Store store) {
+        return Boolean.parseBoolean(operation.getOption(AccumuloStoreConstants.COUNT_GROUPS_ESTIMATE))
+                && operation.getInput() instanceof AccumuloAllElementsRetriever
+                && ((AccumuloStore) store).getProperties().getEnableGroupStatistics()
+                && null == store.getSchema().getVisibilityProperty();
+    }
+}
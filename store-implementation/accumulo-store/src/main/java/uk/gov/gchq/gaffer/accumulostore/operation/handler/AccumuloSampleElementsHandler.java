@@ -0,0 +1,59 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.operation.handler;
+
+import uk.gov.gchq.gaffer.accumulostore.retriever.AccumuloItemRetriever;
+import uk.gov.gchq.gaffer.accumulostore.retriever.RetrieverException;
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.SampleElements;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.operation.handler.SampleElementsHandler;
+
+/**
+ * An {@code AccumuloSampleElementsHandler} handles {@link SampleElements}
+ * operations on the {@link uk.gov.gchq.gaffer.accumulostore.AccumuloStore}.
+ * <p>
+ * If the input to the {@link SampleElements} is the output of a get operation,
+ * such as {@link uk.gov.gchq.gaffer.operation.impl.get.GetElements} or
+ * {@link uk.gov.gchq.gaffer.operation.impl.get.GetAllElements}, then each
+ * tablet server samples its own elements and only the samples are sent back
+ * to the client, where they are combined. Otherwise the input is sampled in
+ * the same way as the {@link SampleElementsHandler}.
+ * </p>
+ */
+public class AccumuloSampleElementsHandler extends SampleElementsHandler {
+    @Override
+    public Iterable<? extends Element> doOperation(final SampleElements operation, final Context context, final Store store)
+            throws OperationException {
+        if (null != operation.getSampleSize() && operation.getSampleSize() > 0
+                && operation.getInput() instanceof AccumuloItemRetriever
+                && ((AccumuloItemRetriever<?, ?>) operation.getInput()).canCountGroups()) {
+            final AccumuloItemRetriever<?, ?> retriever = (AccumuloItemRetriever<?, ?>) operation.getInput();
+            try {
+                return retriever.sample(operation.getSampleSize(), operation.isStratified(), operation.getSeed());
+            } catch (final RetrieverException e) {
+                throw new OperationException("Failed to sample elements", e);
+            } finally {
+                CloseableUtil.close(retriever);
+            }
+        }
+
+        return super.doOperation(operation, context, store);
+    }
+}
@@ -0,0 +1,360 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.operation.handler;
+
+import org.apache.accumulo.core.client.AccumuloException;
+import org.apache.accumulo.core.client.AccumuloSecurityException;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.client.rfile.RFile;
+import org.apache.accumulo.core.client.rfile.RFileWriter;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.util.ToolRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.data.GroupStatistics;
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
+import uk.gov.gchq.gaffer.accumulostore.operation.hdfs.handler.job.tool.ImportElementsToAccumuloTool;
+import uk.gov.gchq.gaffer.accumulostore.operation.impl.BulkImportElements;
+import uk.gov.gchq.gaffer.accumulostore.utils.GroupStatisticsUtils;
+import uk.gov.gchq.gaffer.accumulostore.utils.TableUtils;
+import uk.gov.gchq.gaffer.commonutil.pair.Pair;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.ValidatedElements;
+import uk.gov.gchq.gaffer.store.operation.handler.OperationHandler;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static uk.gov.gchq.gaffer.accumulostore.AccumuloStore.FAILED_TO_CREATE_AN_ACCUMULO_FROM_ELEMENT_OF_TYPE_WHEN_TRYING_TO_INSERT_ELEMENTS;
+
+/**
+ * A {@code BulkImportElementsHandler} handles {@link BulkImportElements}
+ * operations by converting the elements into keys and values, sorting them into
+ * an RFile for each tablet and then bulk importing the RFiles into the table.
+ * <p>
+ * Key-values are sorted in memory in batches of
+ * {@link BulkImportElements#getMaxEntriesInMemory()}. If there is more than one
+ * batch, each batch is written to a run file per tablet in the working path and
+ * the runs for each tablet are merged when all the elements have been read.
+ * If group statistics are enabled, they are written once the files have been
+ * imported.
+ * </p>
+ * <p>
+ * The working path is deleted once the operation finishes, whether or not it
+ * succeeds, as is the failure path unless Accumulo has moved files into it
+ * that it could not import.
+ * </p>
+ * <p>
+ * Elements that cannot be converted into keys and values cause the operation
+ * to fail if it is validated and invalid elements are not skipped. Otherwise
+ * they are logged and skipped.
+ * </p>
+ */
+public class BulkImportElementsHandler implements OperationHandler<BulkImportElements> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkImportElementsHandler.class);
+    private static final String RUNS_DIRECTORY = "runs";
+    private static final String FILES_DIRECTORY = "files";
+
+    @Override
+    public Void doOperation(final BulkImportElements operation,
+                            final Context context, final Store store)
+            throws OperationException {
+        doOperation(operation, (AccumuloStore) store);
+        return null;
+    }
+
+    public void doOperation(final BulkImportElements operation, final AccumuloStore store) throws OperationException {
+        if (null == operation.getInput()) {
+            throw new IllegalArgumentException("Could not find any elements to add to graph.");
+        }
+        if (operation.getMaxEntriesInMemory() < 1) {
+            throw new IllegalArgumentException("maxEntriesInMemory must be at least 1");
+        }
+
+        final Configuration conf = store.getConfiguration();
+        final Path workingPath = new Path(operation.getWorkingPath());
+        final Path failurePath = new Path(operation.getFailurePath());
+        final FileSystem fs;
+        try {
+            fs = FileSystem.get(conf);
+            checkWorkingPath(workingPath, fs);
+        } catch (final IOException e) {
+            throw new OperationException("Failed to create working path " + workingPath, e);
+        }
+
+        try {
+            importElements(operation, store, conf, fs, workingPath, failurePath);
+        } finally {
+            delete(workingPath, fs);
+            deleteIfEmpty(failurePath, fs);
+        }
+    }
+
+    private void importElements(final BulkImportElements operation, final AccumuloStore store, final Configuration conf,
+                                final FileSystem fs, final Path workingPath, final Path failurePath) throws OperationException {
+        final RFileSorter sorter;
+        try {
+            TableUtils.ensureTableExists(store);
+            final Iterable<? extends Element> elements = operation.isValidate()
+                    ? new ValidatedElements(operation.getInput(), store.getSchema(), operation.isSkipInvalidElements())
+                    : operation.getInput();
+            final boolean throwOnInvalid = operation.isValidate() && !operation.isSkipInvalidElements();
+            sorter = new RFileSorter(store, fs, workingPath, operation.getMaxEntriesInMemory(), throwOnInvalid);
+            sorter.sort(elements);
+        } catch (final StoreException | IOException | AccumuloException | AccumuloSecurityException | TableNotFoundException
+                | AccumuloElementConversionException e) {
+            throw new OperationException("Failed to write elements to RFiles in " + workingPath, e);
+        }
+
+        if (0 == sorter.numEntries) {
+            // No RFiles have been written, so there is nothing to import
+            LOGGER.info("No elements to bulk import");
+            return;
+        }
+
+        final ImportElementsToAccumuloTool importTool = new ImportElementsToAccumuloTool(
+                new Path(workingPath, FILES_DIRECTORY).toString(), failurePath.toString(), store, operation.getOptions());
+        try {
+            ToolRunner.run(conf, importTool, new String[0]);
+        } catch (final Exception e) {
+            throw new OperationException(e.getMessage(), e);
+        }
+
+        try {
+            if (fs.exists(failurePath) && fs.listFiles(failurePath, true).hasNext()) {
+                throw new OperationException("Some RFiles could not be imported into table " + store.getTableName()
+                        + ", they have been moved to " + failurePath);
+            }
+        } catch (final IOException e) {
+            throw new OperationException("Failed to check failure path " + failurePath, e);
+        }
+
+        if (null != sorter.statistics) {
+            try {
+                GroupStatisticsUtils.write(store, sorter.statistics);
+            } catch (final StoreException e) {
+                throw new OperationException("Failed to write group statistics", e);
+            }
+        }
+    }
+
+    private void delete(final Path path, final FileSystem fs) {
+        try {
+            fs.delete(path, true);
+        } catch (final IOException e) {
+            LOGGER.warn("Failed to delete {}", path, e);
+        }
+    }
+
+    // Files that Accumulo failed to import are left in the failure path
+    private void deleteIfEmpty(final Path path, final FileSystem fs) {
+        try {
+            if (fs.exists(path) && !fs.listFiles(path, true).hasNext()) {
+                fs.delete(path, true);
+            }
+        } catch (final IOException e) {
+            LOGGER.warn("Failed to delete {}", path, e);
+        }
+    }
+
+    private void checkWorkingPath(final Path workingPath, final FileSystem fs) throws IOException {
+        if (fs.exists(workingPath) && fs.listFiles(workingPath, true).hasNext()) {
+            LOGGER.error("Working directory exists and is not empty: {}", workingPath);
+            throw new IllegalArgumentException("Working directory is not empty: " + workingPath);
+        }
+        fs.mkdirs(workingPath);
+    }
+
+    // Converts elements into key-values and writes them, sorted, into an RFile
+    // per tablet.
+    private static final class RFileSorter {
+        private final AccumuloElementConverter elementConverter;
+        private final FileSystem fs;
+        private final Path runsPath;
+        private final Path filesPath;
+        private final int maxEntriesInMemory;
+        private final Map<String, String> tableProperties;
+        private final Text[] splits;
+        private final Map<String, GroupStatistics> statistics;
+        private final boolean throwOnInvalid;
+        private int numRuns;
+        private long numEntries;
+
+        private RFileSorter(final AccumuloStore store, final FileSystem fs, final Path workingPath, final int maxEntriesInMemory,
+                            final boolean throwOnInvalid)
+                throws StoreException, AccumuloException, AccumuloSecurityException, TableNotFoundException {
+            this.elementConverter = store.getKeyPackage().getKeyConverter();
+            this.throwOnInvalid = throwOnInvalid;
+            this.fs = fs;
+            this.runsPath = new Path(workingPath, RUNS_DIRECTORY);
+            this.filesPath = new Path(workingPath, FILES_DIRECTORY);
+            this.maxEntriesInMemory = maxEntriesInMemory;
+            this.tableProperties = new HashMap<>();
+            for (final Map.Entry<String, String> property : store.getConnection().tableOperations().getProperties(store.getTableName())) {
+                tableProperties.put(property.getKey(), property.getValue());
+            }
+            // listSplits returns the split points in sorted order
+            this.splits = store.getConnection().tableOperations().listSplits(store.getTableName()).toArray(new Text[0]);
+            this.statistics = store.getProperties().getEnableGroupStatistics() ? new HashMap<>() : null;
+        }
+
+        private void sort(final Iterable<? extends Element> elements) throws IOException {
+            List<Map.Entry<Key, Value>> entries = new ArrayList<>();
+            for (final Element element : elements) {
+                final Pair<Key, Key> keys;
+                final Value value;
+                try {
+                    keys = elementConverter.getKeysFromElement(element);
+                    value = elementConverter.getValueFromElement(element);
+                } catch (final AccumuloElementConversionException e) {
+                    if (throwOnInvalid) {
+                        throw e;
+                    }
+                    LOGGER.error(FAILED_TO_CREATE_AN_ACCUMULO_FROM_ELEMENT_OF_TYPE_WHEN_TRYING_TO_INSERT_ELEMENTS, "key value", element.getGroup());
+                    continue;
+                }
+                entries.add(new AbstractMap.SimpleEntry<>(keys.getFirst(), value));
+                numEntries++;
+                if (null != statistics) {
+                    GroupStatisticsUtils.add(statistics, element.getGroup(), keys.getFirst().getTimestamp());
+                }
+                if (null != keys.getSecond()) {
+                    entries.add(new AbstractMap.SimpleEntry<>(keys.getSecond(), value));
+                    numEntries++;
+                }
+                if (entries.size() >= maxEntriesInMemory) {
+                    writeRun(entries);
+                    entries = new ArrayList<>();
+                }
+            }
+
+            if (0 == numRuns) {
+                // Everything fitted in memory so there is nothing to merge
+                entries.sort(Map.Entry.comparingByKey());
+                write(entries.iterator(), filesPath, "");
+            } else {
+                if (!entries.isEmpty()) {
+                    writeRun(entries);
+                }
+                merge();
+            }
+        }
+
+        private void writeRun(final List<Map.Entry<Key, Value>> entries) throws IOException {
+            entries.sort(Map.Entry.comparingByKey());
+            write(entries.iterator(), runsPath, String.format("/run-%05d", numRuns));
+            LOGGER.debug("Spilled run {} of {} key-values", numRuns, entries.size());
+            numRuns++;
+        }
+
+        private void merge() throws IOException {
+            // Renaming a file does not create its parent directory
+            fs.mkdirs(filesPath);
+            for (final FileStatus partition : fs.listStatus(runsPath)) {
+                final List<String> runs = new ArrayList<>();
+                for (final FileStatus run : fs.listStatus(partition.getPath())) {
+                    runs.add(run.getPath().toString());
+                }
+                final Path mergedFile = new Path(filesPath, partition.getPath().getName() + ".rf");
+                if (1 == runs.size()) {
+                    if (!fs.rename(new Path(runs.get(0)), mergedFile)) {
+                        throw new IOException("Failed to move run " + runs.get(0) + " to " + mergedFile);
+                    }
+                    continue;
+                }
+
+                // An RFile scanner over several files merges their sorted key-values
+                final Scanner scanner = RFile.newScanner()
+                        .from(runs.toArray(new String[runs.size()]))
+                        .withFileSystem(fs)
+                        .withoutSystemIterators()
+                        .build();
+                try (final RFileWriter writer = createWriter(mergedFile)) {
+                    writer.append(scanner);
+                } finally {
+                    scanner.close();
+                }
+            }
+            fs.delete(runsPath, true);
+        }
+
+        // Writes sorted key-values to a file for each tablet. The files are
+        // named after the index of the tablet, with the suffix appended.
+        private void write(final Iterator<Map.Entry<Key, Value>> entries, final Path directory, final String suffix) throws IOException {
+            RFileWriter writer = null;
+            int partition = -1;
+            try {
+                while (entries.hasNext()) {
+                    final Map.Entry<Key, Value> entry = entries.next();
+                    final int entryPartition = findPartition(entry.getKey(), Math.max(partition, 0));
+                    if (entryPartition != partition) {
+                        if (null != writer) {
+                            writer.close();
+                        }
+                        partition = entryPartition;
+                        writer = createWriter(new Path(directory, String.format("part-%05d", partition) + suffix + ".rf"));
+                    }
+                    writer.append(entry.getKey(), entry.getValue());
+                }
+            } finally {
+                if (null != writer) {
+                    writer.close();
+                }
+            }
+        }
+
+        private int findPartition(final Key key, final int fromPartition) {
+            // The keys are sorted, so the partition only ever moves forwards.
+            // A tablet contains its end row, so rows equal to a split point
+            // belong to the tablet ending at that split point.
+            int partition = fromPartition;
+            while (partition < splits.length && 0 < key.compareRow(splits[partition])) {
+                partition++;
+            }
+            return partition;
+        }
+
+        private RFileWriter createWriter(final Path file) throws IOException {
+            final RFileWriter writer = RFile.newWriter()
+                    .to(file.toString())
+                    .withFileSystem(fs)
+                    .withTableProperties(tableProperties)
+                    .build();
+            writer.startDefaultLocalityGroup();
+            return writer;
+        }
+    }
+}
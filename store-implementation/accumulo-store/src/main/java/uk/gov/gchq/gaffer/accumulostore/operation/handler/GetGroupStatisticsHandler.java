@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.operation.handler;
+
+import org.apache.commons.lang.StringUtils;
+
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.data.GroupStatistics;
+import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetGroupStatistics;
+import uk.gov.gchq.gaffer.accumulostore.utils.GroupStatisticsUtils;
+import uk.gov.gchq.gaffer.commonutil.exception.UnauthorisedException;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
+import uk.gov.gchq.gaffer.user.User;
+
+import java.util.Map;
+
+/**
+ * A {@code GetGroupStatisticsHandler} handles {@link GetGroupStatistics}
+ * operations by reading the statistics table of an {@link AccumuloStore}.
+ * <p>
+ * The statistics count elements of every visibility, so if the schema has a
+ * visibility property only users with the store's admin auth, see
+ * {@link uk.gov.gchq.gaffer.store.StoreProperties#getAdminAuth()}, can get
+ * them. Other users are refused with an {@link UnauthorisedException}.
+ * </p>
+ * <p>
+ * The statistics are only updated by
+ * {@link uk.gov.gchq.gaffer.operation.impl.add.AddElements} and
+ * {@link uk.gov.gchq.gaffer.accumulostore.operation.impl.BulkImportElements}.
+ * Elements bulk imported by
+ * {@link uk.gov.gchq.gaffer.hdfs.operation.AddElementsFromHdfs} or
+ * {@link uk.gov.gchq.gaffer.accumulostore.operation.hdfs.operation.ImportAccumuloKeyValueFiles}
+ * are not counted.
+ * </p>
+ */
+public class GetGroupStatisticsHandler implements OutputOperationHandler<GetGroupStatistics, Map<String, GroupStatistics>> {
+    @Override
+    public Map<String, GroupStatistics> doOperation(final GetGroupStatistics operation,
+                                                    final Context context, final Store store)
+            throws OperationException {
+        if (null != store.getSchema().getVisibilityProperty()
+                && !isAdministrator(context.getUser(), store.getProperties().getAdminAuth())) {
+            throw new UnauthorisedException("User " + context.getUser().getUserId()
+                    + " does not have permission to get group statistics, as they count elements of every visibility");
+        }
+        try {
+            return GroupStatisticsUtils.read((AccumuloStore) store);
+        } catch (final StoreException e) {
+            throw new OperationException("Failed to get group statistics", e);
+        }
+    }
+
+    private boolean isAdministrator(final User user, final String adminAuth) {
+        return null != user
+                && StringUtils.isNotEmpty(adminAuth)
+                && user.getOpAuths().contains(adminAuth);
+    }
+}
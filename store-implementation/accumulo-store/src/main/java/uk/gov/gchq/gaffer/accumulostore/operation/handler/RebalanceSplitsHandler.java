@@ -0,0 +1,173 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.operation.handler;
+
+import org.apache.accumulo.core.client.AccumuloException;
+import org.apache.accumulo.core.client.AccumuloSecurityException;
+import org.apache.accumulo.core.client.BatchScanner;
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.hadoop.io.Text;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.key.impl.ElementCountIterator;
+import uk.gov.gchq.gaffer.accumulostore.operation.impl.RebalanceSplits;
+import uk.gov.gchq.gaffer.accumulostore.utils.TableUtils;
+import uk.gov.gchq.gaffer.commonutil.StringUtil;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.GenerateSplitPointsFromSample;
+import uk.gov.gchq.gaffer.operation.impl.SplitStoreFromIterable;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.operation.handler.OperationHandler;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@code RebalanceSplitsHandler} handles {@link RebalanceSplits} operations.
+ * <p>
+ * The entries in every tablet are counted in a single batch scan using the
+ * {@link ElementCountIterator}. The keys of each tablet with more than
+ * {@link RebalanceSplits#getMaxEntriesPerTablet()} entries are then sampled on
+ * the tablet servers using the
+ * {@link uk.gov.gchq.gaffer.accumulostore.key.impl.KeySampleIterator} and passed to
+ * {@link GenerateSplitPointsFromSample} to choose the new split points, which
+ * are added using {@link SplitStoreFromIterable}.
+ * </p>
+ */
+public class RebalanceSplitsHandler implements OperationHandler<RebalanceSplits> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RebalanceSplitsHandler.class);
+
+    // The number of keys sampled from a tablet for each split point added to it
+    private static final int SAMPLES_PER_SPLIT = 100;
+
+    @Override
+    public Void doOperation(final RebalanceSplits operation, final Context context, final Store store)
+            throws OperationException {
+        doOperation(operation, context, (AccumuloStore) store);
+        return null;
+    }
+
+    private void doOperation(final RebalanceSplits operation, final Context context, final AccumuloStore store)
+            throws OperationException {
+        if (operation.getMaxEntriesPerTablet() < 1) {
+            throw new OperationException("maxEntriesPerTablet must be at least 1, but was " + operation.getMaxEntriesPerTablet());
+        }
+
+        final List<String> newSplits = new ArrayList<>();
+        try {
+            final Connector connector = store.getConnection();
+            final Authorizations authorizations = TableUtils.getCurrentAuthorizations(connector);
+            // listSplits returns the split points in sorted order
+            final Text[] splits = connector.tableOperations().listSplits(store.getTableName()).toArray(new Text[0]);
+            final long[] counts = countEntries(store, connector, authorizations, splits);
+            for (int tablet = 0; tablet < counts.length; tablet++) {
+                if (counts[tablet] > operation.getMaxEntriesPerTablet()) {
+                    final int numSplits = (int) Math.min(Integer.MAX_VALUE, (counts[tablet] - 1) / operation.getMaxEntriesPerTablet());
+                    LOGGER.debug("Tablet {} of table {} has {} entries, adding {} splits", tablet, store.getTableName(), counts[tablet], numSplits);
+                    final List<String> sample = sampleRows(store, connector, authorizations, getTabletRange(splits, tablet), counts[tablet], numSplits);
+                    newSplits.addAll(store.execute(new GenerateSplitPointsFromSample.Builder<String>()
+                            .input(sample)
+                            .numSplits(numSplits)
+                            .build(), context));
+                }
+            }
+        } catch (final StoreException | AccumuloException | AccumuloSecurityException | TableNotFoundException | IOException e) {
+            throw new OperationException("Failed to rebalance the splits of table " + store.getTableName(), e);
+        }
+
+        if (newSplits.isEmpty()) {
+            LOGGER.info("No tablets in table {} have more than {} entries", store.getTableName(), operation.getMaxEntriesPerTablet());
+            return;
+        }
+        store.execute(new SplitStoreFromIterable.Builder<String>()
+                .input(newSplits)
+                .build(), context);
+    }
+
+    private long[] countEntries(final AccumuloStore store, final Connector connector, final Authorizations authorizations,
+                                final Text[] splits) throws TableNotFoundException, IOException {
+        final long[] counts = new long[splits.length + 1];
+        final List<Range> ranges = new ArrayList<>(counts.length);
+        for (int tablet = 0; tablet < counts.length; tablet++) {
+            ranges.add(getTabletRange(splits, tablet));
+        }
+
+        final BatchScanner scanner = connector.createBatchScanner(store.getTableName(), authorizations,
+                store.getProperties().getThreadsForBatchScanner());
+        try {
+            scanner.setRanges(ranges);
+            scanner.addScanIterator(store.getKeyPackage().getIteratorFactory().getElementCountIteratorSetting());
+            for (final Map.Entry<Key, Value> entry : scanner) {
+                // The counts are keyed by the last key counted, which is in
+                // the tablet that was counted.
+                final int tablet = getTablet(splits, entry.getKey().getRow());
+                for (final Long count : ElementCountIterator.getCounts(entry.getValue()).values()) {
+                    counts[tablet] += count;
+                }
+            }
+        } finally {
+            scanner.close();
+        }
+        return counts;
+    }
+
+    private List<String> sampleRows(final AccumuloStore store, final Connector connector, final Authorizations authorizations,
+                                    final Range range, final long count, final int numSplits) throws TableNotFoundException {
+        // Sampling every nth key, rather than every nth row, means rows with
+        // more entries are more likely to be chosen as split points.
+        final long sampleEvery = Math.max(1L, count / ((long) SAMPLES_PER_SPLIT * (numSplits + 1)));
+        final List<String> sample = new ArrayList<>();
+        final Scanner scanner = connector.createScanner(store.getTableName(), authorizations);
+        try {
+            scanner.setRange(range);
+            // The keys are sampled on the tablet server, so only the sampled
+            // keys are sent back.
+            scanner.addScanIterator(store.getKeyPackage().getIteratorFactory().getKeySampleIteratorSetting(sampleEvery));
+            for (final Map.Entry<Key, Value> entry : scanner) {
+                sample.add(StringUtil.toString(Base64.encodeBase64(entry.getKey().getRowData().toArray())));
+            }
+        } finally {
+            scanner.close();
+        }
+        return sample;
+    }
+
+    // A tablet contains the rows after the previous split point, up to and
+    // including its own split point.
+    private Range getTabletRange(final Text[] splits, final int tablet) {
+        return new Range(0 == tablet ? null : splits[tablet - 1], false,
+                tablet < splits.length ? splits[tablet] : null, true);
+    }
+
+    private int getTablet(final Text[] splits, final Text row) {
+        final int index = Arrays.binarySearch(splits, row);
+        return 0 <= index ? index : -(index + 1);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.operation.impl;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import uk.gov.gchq.gaffer.accumulostore.data.GroupStatistics;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.io.Output;
+import uk.gov.gchq.koryphe.Since;
+import uk.gov.gchq.koryphe.Summary;
+
+import java.util.Map;
+
+/**
+ * A {@code GetGroupStatistics} operation returns the {@link GroupStatistics}
+ * for each group in an Accumulo store, keyed by group.
+ * <p>
+ * The statistics are read from the store's statistics table, so this operation
+ * is only available if group statistics are enabled in the store properties.
+ * They do not account for aggregation, age-off, deletions or visibilities, so
+ * should be treated as estimates. If the schema has a visibility property,
+ * only users with the store's admin auth can run this operation.
+ * </p>
+ */
+@JsonPropertyOrder(value = {"class"}, alphabetic = true)
+@Since("1.21.2")
+@Summary("Gets the estimated number of elements and range of timestamps for each group")
+public class GetGroupStatistics implements Output<Map<String, GroupStatistics>> {
+    private Map<String, String> options;
+
+    @Override
+    public Map<String, String> getOptions() {
+        return options;
+    }
+
+    @Override
+    public void setOptions(final Map<String, String> options) {
+        this.options = options;
+    }
+
+    @Override
+    public GetGroupStatistics shallowClone() {
+        return new GetGroupStatistics.Builder()
+                .options(options)
+                .build();
+    }
+
+    @Override
+    public TypeReference<Map<String, GroupStatistics>> getOutputTypeReference() {
+        return new MapStringGroupStatistics();
+    }
+
+    public static class MapStringGroupStatistics extends TypeReference<Map<String, GroupStatistics>> {
+    }
+
+    public static class Builder extends Operation.BaseBuilder<GetGroupStatistics, Builder>
+            implements Output.Builder<GetGroupStatistics, Map<String, GroupStatistics>, Builder> {
+        public Builder() {
+            super(new GetGroupStatistics());
+        }
+    }
+}
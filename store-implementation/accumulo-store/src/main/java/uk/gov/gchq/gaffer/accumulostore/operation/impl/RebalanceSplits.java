@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.operation.impl;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.koryphe.Since;
+import uk.gov.gchq.koryphe.Summary;
+import uk.gov.gchq.koryphe.ValidationResult;
+
+import java.util.Map;
+
+/**
+ * A {@code RebalanceSplits} operation adds split points to an Accumulo store's
+ * table so that no tablet holds more than {@code maxEntriesPerTablet} entries.
+ * <p>
+ * The entries in each tablet are counted on the tablet servers. Each tablet
+ * that is over the limit is sampled and split into as many tablets as are
+ * needed to bring it under the limit, using the same logic as
+ * {@link uk.gov.gchq.gaffer.operation.impl.GenerateSplitPointsFromSample}.
+ * Existing split points are never removed. The operation can be run on demand
+ * or periodically, for example as a scheduled job.
+ * </p>
+ */
+@JsonPropertyOrder(value = {"class", "maxEntriesPerTablet"}, alphabetic = true)
+@Since("1.21.2")
+@Summary("Adds split points to tablets that have more than a maximum number of entries")
+public class RebalanceSplits implements Operation {
+    public static final long DEFAULT_MAX_ENTRIES_PER_TABLET = 10000000L;
+
+    private long maxEntriesPerTablet = DEFAULT_MAX_ENTRIES_PER_TABLET;
+    private Map<String, String> options;
+
+    public long getMaxEntriesPerTablet() {
+        return maxEntriesPerTablet;
+    }
+
+    public void setMaxEntriesPerTablet(final long maxEntriesPerTablet) {
+        this.maxEntriesPerTablet = maxEntriesPerTablet;
+    }
+
+    @Override
+    public ValidationResult validate() {
+        final ValidationResult result = Operation.super.validate();
+        if (maxEntriesPerTablet < 1) {
+            result.addError("maxEntriesPerTablet must be at least 1");
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, String> getOptions() {
+        return options;
+    }
+
+    @Override
+    public void setOptions(final Map<String, String> options) {
+        this.options = options;
+    }
+
+    @Override
+    public RebalanceSplits shallowClone() {
+        return new RebalanceSplits.Builder()
+                .maxEntriesPerTablet(maxEntriesPerTablet)
+                .options(options)
+                .build();
+    }
+
+    public static class Builder extends Operation.BaseBuilder<RebalanceSplits, Builder> {
+        public Builder() {
+            super(new RebalanceSplits());
+        }
+
+        public Builder maxEntriesPerTablet(final long maxEntriesPerTablet) {
+            _getOp().setMaxEntriesPerTablet(maxEntriesPerTablet);
+            return _self();
+        }
+    }
+}
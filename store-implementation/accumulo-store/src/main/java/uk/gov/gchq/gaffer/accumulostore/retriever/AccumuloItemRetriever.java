@@ -28,6 +28,8 @@ import org.slf4j.LoggerFactory;
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.RangeFactoryException;
+import uk.gov.gchq.gaffer.accumulostore.key.impl.ElementCountIterator;
+import uk.gov.gchq.gaffer.accumulostore.key.impl.ElementSampleIterator;
 import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
@@ -38,13 +40,20 @@ import uk.gov.gchq.gaffer.operation.graph.GraphFilters;
 import uk.gov.gchq.gaffer.operation.io.Input;
 import uk.gov.gchq.gaffer.operation.io.Output;
 import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.util.PartitionedSample;
 import uk.gov.gchq.gaffer.user.User;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.Set;
 
 public abstract class AccumuloItemRetriever<OP extends Output<CloseableIterable<? extends Element>> & GraphFilters, I_ITEM>
@@ -71,11 +80,16 @@ public abstract class AccumuloItemRetriever<OP extends Output<CloseableIterable<
     public CloseableIterator<Element> iterator() {
         CloseableUtil.close(iterator);
 
-        final Iterator<? extends I_ITEM> idIterator = null != ids ? ids.iterator() : Collections.emptyIterator();
+        final Iterator<? extends I_ITEM> idIterator = getIdIterator();
         if (!idIterator.hasNext()) {
             return new EmptyCloseableIterator<>();
         }
 
+        if (1 < store.getProperties().getBatchScannersInFlight()) {
+            iterator = new PrefetchingElementIterator(idIterator);
+            return iterator;
+        }
+
         try {
             iterator = new ElementIterator(idIterator);
         } catch (final RetrieverException e) {
@@ -86,8 +100,205 @@ public abstract class AccumuloItemRetriever<OP extends Output<CloseableIterable<
         return iterator;
     }
 
+    /**
+     * Checks whether the elements can be counted or sampled on the tablet
+     * servers using {@link #countGroups()} or {@link #sample(int, boolean, Long)}.
+     * This is not possible if the view has post transform filters, as these
+     * have to be applied on the client.
+     *
+     * @return true if the elements can be counted on the tablet servers
+     */
+    public boolean canCountGroups() {
+        return !operation.getView().hasPostTransformFilters();
+    }
+
+    /**
+     * Counts the elements in each group that would be returned by this
+     * retriever. The counting is done on the tablet servers, so only the
+     * counts are sent back to the client rather than the elements.
+     *
+     * @return the number of elements in each group
+     * @throws RetrieverException if the elements could not be counted
+     */
+    public Map<String, Long> countGroups() throws RetrieverException {
+        final Map<String, Long> counts = new HashMap<>();
+        try {
+            for (final Value value : summarise(iteratorSettingFactory.getElementCountIteratorSetting())) {
+                for (final Entry<String, Long> groupCount : ElementCountIterator.getCounts(value).entrySet()) {
+                    counts.merge(groupCount.getKey(), groupCount.getValue(), Long::sum);
+                }
+            }
+        } catch (final IOException e) {
+            throw new RetrieverException("Failed to count elements", e);
+        }
+        return counts;
+    }
+
+    /**
+     * Takes a uniform random sample of the elements that would be returned by
+     * this retriever. Each tablet server returns a reservoir sample of the
+     * elements in each of its ranges, along with how many elements it sampled
+     * from, and these are combined on the client so that every element is
+     * equally likely to be in the final sample.
+     *
+     * @param sampleSize the maximum number of elements to sample
+     * @param stratified true if up to sampleSize elements should be sampled
+     *                   from each group
+     * @param seed       an optional seed to make the sample repeatable
+     * @return the sampled elements
+     * @throws RetrieverException if the elements could not be sampled
+     */
+    public List<Element> sample(final int sampleSize, final boolean stratified, final Long seed) throws RetrieverException {
+        if (sampleSize < 1) {
+            throw new IllegalArgumentException("sampleSize must be greater than 0");
+        }
+
+        final Map<String, PartitionedSample<Entry<Key, Value>>> strata = new HashMap<>();
+        try {
+            for (final Value value : summarise(iteratorSettingFactory.getElementSampleIteratorSetting(sampleSize, stratified, seed))) {
+                final ElementSampleIterator.Sample sample = ElementSampleIterator.getSample(value);
+                if (stratified) {
+                    final Map<String, List<Entry<Key, Value>>> entriesByGroup = new HashMap<>();
+                    for (final Entry<Key, Value> entry : sample.getEntries()) {
+                        entriesByGroup.computeIfAbsent(entry.getKey().getColumnFamily().toString(), k -> new ArrayList<>()).add(entry);
+                    }
+                    for (final Entry<String, Long> groupCount : sample.getCounts().entrySet()) {
+                        strata.computeIfAbsent(groupCount.getKey(), k -> new PartitionedSample<>())
+                                .add(groupCount.getValue(), entriesByGroup.getOrDefault(groupCount.getKey(), new ArrayList<>()));
+                    }
+                } else {
+                    long population = 0;
+                    for (final Long count : sample.getCounts().values()) {
+                        population += count;
+                    }
+                    strata.computeIfAbsent("", k -> new PartitionedSample<>()).add(population, new ArrayList<>(sample.getEntries()));
+                }
+            }
+        } catch (final IOException e) {
+            throw new RetrieverException("Failed to sample elements", e);
+        }
+
+        final Random random = null != seed ? new Random(seed) : new Random();
+        final List<Element> elements = new ArrayList<>();
+        for (final PartitionedSample<Entry<Key, Value>> stratum : strata.values()) {
+            for (final Entry<Key, Value> entry : stratum.draw(sampleSize, random)) {
+                final Element element;
+                try {
+                    element = elementConverter.getFullElement(entry.getKey(), entry.getValue(), includeMatchedVertex);
+                } catch (final AccumuloElementConversionException e) {
+                    throw new RetrieverException("Failed to re-create a sampled element", e);
+                }
+                doTransformation(element);
+                ViewUtil.removeProperties(operation.getView(), element);
+                elements.add(element);
+            }
+        }
+        return elements;
+    }
+
+    protected Iterator<? extends I_ITEM> getIdIterator() {
+        return null != ids ? ids.iterator() : Collections.emptyIterator();
+    }
+
+    // Scans the ranges with the given summarising iterator, which returns a
+    // single entry per range, and returns the values of those entries.
+    private List<Value> summarise(final IteratorSetting summaryIteratorSetting) throws RetrieverException {
+        if (!canCountGroups()) {
+            throw new IllegalStateException("Elements cannot be summarised on the tablet servers when the view has post transform filters");
+        }
+
+        final List<Value> summaries = new ArrayList<>();
+        final Iterator<? extends I_ITEM> idIterator = getIdIterator();
+        try {
+            while (idIterator.hasNext()) {
+                int count = 0;
+                final Set<Range> ranges = new HashSet<>();
+                while (idIterator.hasNext() && count < store.getProperties().getMaxEntriesForBatchScanner()) {
+                    count++;
+                    try {
+                        addToRanges(idIterator.next(), ranges);
+                    } catch (final RangeFactoryException e) {
+                        LOGGER.error("Failed to create a range from given seed", e);
+                    }
+                }
+                if (ranges.isEmpty()) {
+                    continue;
+                }
+
+                final BatchScanner scanner = getScanner(ranges);
+                try {
+                    scanner.addScanIterator(summaryIteratorSetting);
+                    for (final Entry<Key, Value> entry : scanner) {
+                        summaries.add(entry.getValue());
+                    }
+                } finally {
+                    scanner.close();
+                }
+            }
+        } catch (final TableNotFoundException | StoreException e) {
+            throw new RetrieverException("Failed to summarise elements", e);
+        } finally {
+            CloseableUtil.close(idIterator);
+        }
+        return summaries;
+    }
+
     protected abstract void addToRanges(final I_ITEM seed, final Set<Range> ranges) throws RangeFactoryException;
 
+    /**
+     * An iterator that scans several batches of ids at the same time, using a
+     * {@link PrefetchingScannerIterator}. The Accumulo entries are converted
+     * into elements on the scanning threads and the view transformations and
+     * post filters are applied as the elements are consumed.
+     */
+    protected class PrefetchingElementIterator implements CloseableIterator<Element> {
+        private final PrefetchingScannerIterator<I_ITEM, Element> elements;
+        private Element nextElm;
+
+        public PrefetchingElementIterator(final Iterator<? extends I_ITEM> idIterator) {
+            elements = new PrefetchingScannerIterator<>(
+                    idIterator,
+                    AccumuloItemRetriever.this::addToRanges,
+                    AccumuloItemRetriever.this::getScanner,
+                    entry -> elementConverter.getFullElement(entry.getKey(), entry.getValue(), includeMatchedVertex),
+                    store.getProperties().getMaxEntriesForBatchScanner(),
+                    store.getProperties().getBatchScannersInFlight(),
+                    store.getProperties().getRetrieverQueueSize());
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (null != nextElm) {
+                return true;
+            }
+            while (elements.hasNext()) {
+                final Element element = elements.next();
+                doTransformation(element);
+                if (doPostFilter(element)) {
+                    ViewUtil.removeProperties(operation.getView(), element);
+                    nextElm = element;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Element next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Element nextReturn = nextElm;
+            nextElm = null;
+            return nextReturn;
+        }
+
+        @Override
+        public void close() {
+            elements.close();
+        }
+    }
+
     protected class ElementIterator implements CloseableIterator<Element> {
         private final Iterator<? extends I_ITEM> idsIterator;
         private int count;
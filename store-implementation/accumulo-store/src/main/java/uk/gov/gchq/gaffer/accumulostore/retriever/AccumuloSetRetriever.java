@@ -277,12 +277,22 @@ public abstract class AccumuloSetRetriever<OP extends InputOutput<Iterable<? ext
         private int count;
 
         public AbstractElementIteratorFromBatches() {
-            // Set up client side filter
-            clientSideFilter = BloomFilterUtils.getBloomFilter(store.getProperties().getClientSideBloomFilterSize());
-            // Create Bloom filter to be passed to iterators.
-            filter = BloomFilterUtils.getBloomFilter(store.getProperties().getFalsePositiveRate(),
-                    store.getProperties().getMaxEntriesForBatchScanner(),
-                    store.getProperties().getMaxBloomFilterToPassToAnIterator());
+            this(true);
+        }
+
+        /**
+         * @param createBloomFilters true if the client side and iterator bloom
+         *                           filters should be created
+         */
+        protected AbstractElementIteratorFromBatches(final boolean createBloomFilters) {
+            if (createBloomFilters) {
+                // Set up client side filter
+                clientSideFilter = BloomFilterUtils.getBloomFilter(store.getProperties().getClientSideBloomFilterSize());
+                // Create Bloom filter to be passed to iterators.
+                filter = BloomFilterUtils.getBloomFilter(store.getProperties().getFalsePositiveRate(),
+                        store.getProperties().getMaxEntriesForBatchScanner(),
+                        store.getProperties().getMaxBloomFilterToPassToAnIterator());
+            }
             currentSeeds = new HashSet<>();
         }
 
@@ -342,6 +352,22 @@ public abstract class AccumuloSetRetriever<OP extends InputOutput<Iterable<? ext
 
         protected abstract void updateBloomFilterIfRequired(final EntityId seed) throws RetrieverException;
 
+        /**
+         * Gets the filtering iterator to apply when scanning for the current
+         * batch of seeds. By default this is the bloom filter.
+         *
+         * @return the filtering iterator setting, or null if no filtering
+         * iterator should be applied
+         */
+        protected IteratorSetting getFilterIteratorSetting() {
+            try {
+                return iteratorSettingFactory.getBloomFilterIteratorSetting(filter);
+            } catch (final IteratorSettingException e) {
+                LOGGER.error("Failed to apply the bloom filter iterator setting continuing without bloom filter", e);
+                return null;
+            }
+        }
+
         protected void updateScanner() throws RetrieverException {
             // Read through the first N entities (where N =
             // maxEntriesForBatchScanner), create the associated ranges
@@ -367,10 +393,9 @@ public abstract class AccumuloSetRetriever<OP extends InputOutput<Iterable<? ext
                 CloseableUtil.close(operation);
                 throw new RetrieverException(e);
             }
-            try {
-                scanner.addScanIterator(iteratorSettingFactory.getBloomFilterIteratorSetting(filter));
-            } catch (final IteratorSettingException e) {
-                LOGGER.error("Failed to apply the bloom filter iterator setting continuing without bloom filter", e);
+            final IteratorSetting filterIteratorSetting = getFilterIteratorSetting();
+            if (null != filterIteratorSetting) {
+                scanner.addScanIterator(filterIteratorSetting);
             }
             scannerIterator = scanner.iterator();
         }
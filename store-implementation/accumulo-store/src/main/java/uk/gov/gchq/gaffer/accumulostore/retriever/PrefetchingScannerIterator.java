@@ -0,0 +1,271 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.retriever;
+
+import org.apache.accumulo.core.client.BatchScanner;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
+import uk.gov.gchq.gaffer.accumulostore.key.exception.RangeFactoryException;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.store.StoreException;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@code PrefetchingScannerIterator} splits the provided ids into batches of
+ * ranges and scans several batches at the same time, each with its own
+ * {@link BatchScanner}. The {@link Key}s and {@link Value}s are converted on the
+ * scanning threads and the results are passed to the consumer through a bounded
+ * queue, so the next batches are being fetched while the current results are
+ * being processed.
+ * <p>
+ * As with a single {@link BatchScanner}, the results are returned in no
+ * particular order.
+ * </p>
+ * <p>
+ * If any batch fails to be scanned the remaining batches are not started and
+ * {@link #hasNext()} and {@link #next()} throw a {@link RuntimeException}
+ * containing the cause, so a failed scan cannot be mistaken for a complete one.
+ * </p>
+ *
+ * @param <I> the type of ids used to create the ranges
+ * @param <T> the type of item returned
+ */
+public class PrefetchingScannerIterator<I, T> implements CloseableIterator<T> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrefetchingScannerIterator.class);
+    private static final Object END_OF_BATCHES = new Object();
+
+    private final Iterator<? extends I> idsIterator;
+    private final RangeAdder<I> rangeAdder;
+    private final ScannerFactory scannerFactory;
+    private final EntryConverter<T> converter;
+    private final int maxEntriesPerBatch;
+    private final int batchesInFlight;
+    private final BlockingQueue<Object> queue;
+    private final ExecutorService executor;
+
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+    private volatile boolean closed;
+    private boolean idsExhausted;
+    private int finishedScanners;
+    private T nextItem;
+
+    public PrefetchingScannerIterator(final Iterator<? extends I> idsIterator,
+                                      final RangeAdder<I> rangeAdder,
+                                      final ScannerFactory scannerFactory,
+                                      final EntryConverter<T> converter,
+                                      final int maxEntriesPerBatch,
+                                      final int batchesInFlight,
+                                      final int queueSize) {
+        if (1 > batchesInFlight) {
+            throw new IllegalArgumentException("The number of batches in flight must be greater than 0");
+        }
+        if (1 > queueSize) {
+            throw new IllegalArgumentException("The queue size must be greater than 0");
+        }
+        this.idsIterator = idsIterator;
+        this.rangeAdder = rangeAdder;
+        this.scannerFactory = scannerFactory;
+        this.converter = converter;
+        this.maxEntriesPerBatch = maxEntriesPerBatch;
+        this.batchesInFlight = batchesInFlight;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.executor = Executors.newFixedThreadPool(batchesInFlight, runnable -> {
+            final Thread thread = new Thread(runnable, "gaffer-accumulo-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < batchesInFlight; i++) {
+            executor.execute(this::scanBatches);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (null != nextItem) {
+            return true;
+        }
+        try {
+            while (finishedScanners < batchesInFlight) {
+                throwIfFailed();
+                final Object item = queue.take();
+                if (END_OF_BATCHES == item) {
+                    finishedScanners++;
+                } else {
+                    nextItem = (T) item;
+                    return true;
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new RuntimeException("Interrupted whilst waiting for scan results", e);
+        }
+        throwIfFailed();
+        executor.shutdown();
+        return false;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final T item = nextItem;
+        nextItem = null;
+        return item;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        executor.shutdownNow();
+        queue.clear();
+    }
+
+    private void throwIfFailed() {
+        if (null != failure.get()) {
+            close();
+            throw new RuntimeException("Failed to scan batch of ranges", failure.get());
+        }
+    }
+
+    private void scanBatches() {
+        boolean interrupted = false;
+        try {
+            Set<Range> ranges = nextRanges();
+            while (null != ranges && !closed) {
+                scanBatch(ranges);
+                ranges = nextRanges();
+            }
+        } catch (final InterruptedException e) {
+            interrupted = true;
+            if (!closed) {
+                fail(e);
+            }
+        } catch (final TableNotFoundException | StoreException | RuntimeException e) {
+            fail(e);
+        } finally {
+            if (!closed) {
+                try {
+                    queue.put(END_OF_BATCHES);
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void fail(final Exception e) {
+        LOGGER.error("Failed to scan batch of ranges", e);
+        failure.compareAndSet(null, e);
+        stopBatches();
+    }
+
+    private void scanBatch(final Set<Range> ranges) throws InterruptedException, TableNotFoundException, StoreException {
+        final BatchScanner scanner = scannerFactory.getScanner(ranges);
+        try {
+            for (final Entry<Key, Value> entry : scanner) {
+                if (closed) {
+                    break;
+                }
+                final T item;
+                try {
+                    item = converter.convert(entry);
+                } catch (final AccumuloElementConversionException e) {
+                    LOGGER.error("Failed to re-create an element from a key value entry set returning next element as null", e);
+                    continue;
+                }
+                if (null != item) {
+                    queue.put(item);
+                }
+            }
+        } finally {
+            scanner.close();
+        }
+    }
+
+    private Set<Range> nextRanges() {
+        synchronized (idsIterator) {
+            if (idsExhausted || !idsIterator.hasNext()) {
+                return null;
+            }
+            final Set<Range> ranges = new HashSet<>();
+            int count = 0;
+            while (idsIterator.hasNext() && count < maxEntriesPerBatch) {
+                count++;
+                try {
+                    rangeAdder.addToRanges(idsIterator.next(), ranges);
+                } catch (final RangeFactoryException e) {
+                    LOGGER.error("Failed to create a range from given seed", e);
+                }
+            }
+            return ranges;
+        }
+    }
+
+    private void stopBatches() {
+        synchronized (idsIterator) {
+            idsExhausted = true;
+        }
+    }
+
+    /**
+     * Adds the ranges for an id to a set of ranges.
+     *
+     * @param <I> the type of id
+     */
+    public interface RangeAdder<I> {
+        void addToRanges(final I id, final Set<Range> ranges) throws RangeFactoryException;
+    }
+
+    /**
+     * Creates a configured {@link BatchScanner} for a set of ranges.
+     */
+    public interface ScannerFactory {
+        BatchScanner getScanner(final Set<Range> ranges) throws TableNotFoundException, StoreException;
+    }
+
+    /**
+     * Converts a {@link Key} and {@link Value} into the item to return. This
+     * is called on the scanning threads so must be thread safe. Returning null
+     * skips the entry.
+     *
+     * @param <T> the type of item returned
+     */
+    public interface EntryConverter<T> {
+        T convert(final Entry<Key, Value> entry) throws AccumuloElementConversionException;
+    }
+}
@@ -29,6 +29,7 @@ import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionE
 import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.RangeFactoryException;
 import uk.gov.gchq.gaffer.accumulostore.retriever.AccumuloRetriever;
+import uk.gov.gchq.gaffer.accumulostore.retriever.PrefetchingScannerIterator;
 import uk.gov.gchq.gaffer.accumulostore.retriever.RetrieverException;
 import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
 import uk.gov.gchq.gaffer.commonutil.StringUtil;
@@ -66,7 +67,8 @@ public class AccumuloAdjacentIdRetriever extends AccumuloRetriever<GetAdjacentId
                 store.getKeyPackage().getIteratorFactory().getEdgeEntityDirectionFilterIteratorSetting(operation),
                 store.getKeyPackage().getIteratorFactory().getElementPreAggregationFilterIteratorSetting(operation.getView(), store),
                 store.getKeyPackage().getIteratorFactory().getQueryTimeAggregatorIteratorSetting(operation.getView(), store),
-                store.getKeyPackage().getIteratorFactory().getElementPostAggregationFilterIteratorSetting(operation.getView(), store));
+                store.getKeyPackage().getIteratorFactory().getElementPostAggregationFilterIteratorSetting(operation.getView(), store),
+                store.getKeyPackage().getIteratorFactory().getAdjacentIdProjectionIteratorSetting(operation.getView(), store));
         this.ids = operation.getInput();
         transformGroups = getGroupsWithTransforms(operation.getView());
     }
@@ -89,6 +91,11 @@ public class AccumuloAdjacentIdRetriever extends AccumuloRetriever<GetAdjacentId
             return new EmptyCloseableIterator<>();
         }
 
+        if (1 < store.getProperties().getBatchScannersInFlight()) {
+            iterator = new PrefetchingEntityIdIterator(idIterator);
+            return iterator;
+        }
+
         try {
             iterator = new EntityIdIterator(idIterator);
         } catch (final RetrieverException e) {
@@ -136,48 +143,16 @@ public class AccumuloAdjacentIdRetriever extends AccumuloRetriever<GetAdjacentId
                 return true;
             }
             while (scannerIterator.hasNext()) {
-                final Map.Entry<Key, Value> entry = scannerIterator.next();
-
-                final String group = StringUtil.toString(entry.getKey().getColumnFamilyData().getBackingArray());
-                ElementId elementId = null;
-                if (transformGroups.contains(group)) {
-                    final Element element;
-                    try {
-                        element = elementConverter.getFullElement(
-                                entry.getKey(),
-                                entry.getValue(),
-                                true);
-                    } catch (final AccumuloElementConversionException e) {
-                        LOGGER.error("Failed to re-create an element from a key value entry set returning next EntityId as null",
-                                e);
-                        continue;
-                    }
-                    if (null != element) {
-                        doTransformation(element);
-                        if (doPostFilter(element)) {
-                            elementId = element;
-                        }
-                    }
-                } else {
-                    try {
-                        elementId = elementConverter.getElementId(entry.getKey(), true);
-                    } catch (final AccumuloElementConversionException e) {
-                        LOGGER.error("Failed to create element id returning next EntityId as null", e);
-                        continue;
-                    }
+                final ElementId elementId;
+                try {
+                    elementId = toElementId(scannerIterator.next());
+                } catch (final AccumuloElementConversionException e) {
+                    LOGGER.error("Failed to create element id returning next EntityId as null", e);
+                    continue;
                 }
-
-                if (null != elementId) {
-                    if (elementId instanceof EdgeId) {
-                        if (EdgeId.MatchedVertex.DESTINATION == ((EdgeId) elementId).getMatchedVertex()) {
-                            nextId = new EntitySeed(((EdgeId) elementId).getSource());
-                        } else {
-                            nextId = new EntitySeed(((EdgeId) elementId).getDestination());
-                        }
-                        return true;
-                    } else {
-                        LOGGER.error("Unexpected EntityId returned, returning next result as null");
-                    }
+                nextId = toAdjacentId(elementId);
+                if (null != nextId) {
+                    return true;
                 }
             }
 
@@ -238,6 +213,80 @@ public class AccumuloAdjacentIdRetriever extends AccumuloRetriever<GetAdjacentId
         }
     }
 
+    private final class PrefetchingEntityIdIterator implements CloseableIterator<EntityId> {
+        private final PrefetchingScannerIterator<ElementId, ElementId> elementIds;
+        private EntityId nextId;
+
+        private PrefetchingEntityIdIterator(final Iterator<? extends ElementId> idIterator) {
+            elementIds = new PrefetchingScannerIterator<>(
+                    idIterator,
+                    AccumuloAdjacentIdRetriever.this::addToRanges,
+                    // getScanner is protected in another package, so can't be a method reference here
+                    ranges -> getScanner(ranges),
+                    AccumuloAdjacentIdRetriever.this::toElementId,
+                    store.getProperties().getMaxEntriesForBatchScanner(),
+                    store.getProperties().getBatchScannersInFlight(),
+                    store.getProperties().getRetrieverQueueSize());
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (null == nextId && elementIds.hasNext()) {
+                nextId = toAdjacentId(elementIds.next());
+            }
+            return null != nextId;
+        }
+
+        @Override
+        public EntityId next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final EntityId nextReturn = nextId;
+            nextId = null;
+            return nextReturn;
+        }
+
+        @Override
+        public void close() {
+            elementIds.close();
+        }
+    }
+
+    // Converts the entry to a full element if its group has transforms or
+    // post filters, otherwise just to its id. This may be called from
+    // multiple threads.
+    private ElementId toElementId(final Map.Entry<Key, Value> entry) throws AccumuloElementConversionException {
+        final String group = StringUtil.toString(entry.getKey().getColumnFamilyData().getBackingArray());
+        if (transformGroups.contains(group)) {
+            return elementConverter.getFullElement(entry.getKey(), entry.getValue(), true);
+        }
+        return elementConverter.getElementId(entry.getKey(), true);
+    }
+
+    private EntityId toAdjacentId(final ElementId elementId) {
+        if (null == elementId) {
+            return null;
+        }
+
+        if (elementId instanceof Element && transformGroups.contains(((Element) elementId).getGroup())) {
+            doTransformation((Element) elementId);
+            if (!doPostFilter((Element) elementId)) {
+                return null;
+            }
+        }
+
+        if (elementId instanceof EdgeId) {
+            if (EdgeId.MatchedVertex.DESTINATION == ((EdgeId) elementId).getMatchedVertex()) {
+                return new EntitySeed(((EdgeId) elementId).getSource());
+            }
+            return new EntitySeed(((EdgeId) elementId).getDestination());
+        }
+
+        LOGGER.error("Unexpected EntityId returned, returning next result as null");
+        return null;
+    }
+
     private void addToRanges(final ElementId seed, final Set<Range> ranges) throws RangeFactoryException {
         ranges.addAll(rangeFactory.getRange(seed, operation));
     }
@@ -22,10 +22,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.data.GroupStatistics;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.RangeFactoryException;
 import uk.gov.gchq.gaffer.accumulostore.retriever.AccumuloItemRetriever;
 import uk.gov.gchq.gaffer.accumulostore.retriever.RetrieverException;
+import uk.gov.gchq.gaffer.accumulostore.utils.GroupStatisticsUtils;
 import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
 import uk.gov.gchq.gaffer.commonutil.iterable.EmptyCloseableIterator;
@@ -36,6 +38,9 @@ import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.user.User;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -65,9 +70,7 @@ public class AccumuloAllElementsRetriever extends AccumuloItemRetriever<GetAllEl
         CloseableUtil.close(iterator);
 
         try {
-            //A seed must be entered so the below add to ranges is reached.
-            Set<EntitySeed> all = Sets.newHashSet(new EntitySeed());
-            iterator = new ElementIterator(all.iterator());
+            iterator = new ElementIterator(getIdIterator());
         } catch (final RetrieverException e) {
             LOGGER.error("{} returning empty iterator", e.getMessage(), e);
             return new EmptyCloseableIterator<>();
@@ -76,6 +79,41 @@ public class AccumuloAllElementsRetriever extends AccumuloItemRetriever<GetAllEl
         return iterator;
     }
 
+    /**
+     * Estimates the number of elements in each group in the view from the
+     * {@link GroupStatistics} maintained by the store, without scanning the
+     * table. The estimate ignores the filters in the view, aggregation,
+     * age-off and visibilities, so it is an upper bound on the number of
+     * elements that would be returned.
+     *
+     * @return the estimated number of elements in each group in the view
+     * @throws RetrieverException if the group statistics could not be read
+     */
+    public Map<String, Long> estimateGroupCounts() throws RetrieverException {
+        final Map<String, GroupStatistics> statistics;
+        try {
+            statistics = GroupStatisticsUtils.read(store);
+        } catch (final StoreException e) {
+            throw new RetrieverException(e.getMessage(), e);
+        }
+
+        final Map<String, Long> counts = new HashMap<>();
+        for (final String group : operation.getView().getGroups()) {
+            final GroupStatistics groupStatistics = statistics.get(group);
+            if (null != groupStatistics && 0 < groupStatistics.getCount()) {
+                counts.put(group, groupStatistics.getCount());
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    protected Iterator<? extends ElementId> getIdIterator() {
+        //A seed must be entered so the below add to ranges is reached.
+        final Set<EntitySeed> all = Sets.newHashSet(new EntitySeed());
+        return all.iterator();
+    }
+
     @Override
     protected void addToRanges(final ElementId seed, final Set<Range> ranges) throws RangeFactoryException {
         ranges.add(new Range());
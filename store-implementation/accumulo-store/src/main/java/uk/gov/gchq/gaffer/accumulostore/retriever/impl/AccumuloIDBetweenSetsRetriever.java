@@ -17,11 +17,15 @@
 package uk.gov.gchq.gaffer.accumulostore.retriever.impl;
 
 import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.hadoop.io.WritableComparator;
 import org.apache.hadoop.util.bloom.BloomFilter;
 import org.apache.hadoop.util.bloom.Key;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
+import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
 import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetElementsBetweenSets;
 import uk.gov.gchq.gaffer.accumulostore.retriever.AccumuloSetRetriever;
 import uk.gov.gchq.gaffer.accumulostore.retriever.RetrieverException;
@@ -34,7 +38,11 @@ import uk.gov.gchq.gaffer.data.element.id.EntityId;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.user.User;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -61,15 +69,32 @@ import java.util.Set;
  * This secondary check uses the in memory set of seeds (and hence there are
  * guaranteed to be no false positives returned to the user).
  * <p>
- * In the second mode, where there are too many seeds to be loaded into memory,
- * the seeds in set A are queried for in batches. The seeds in set B are loaded
- * into two {@link org.apache.hadoop.util.bloom.BloomFilter}s. The first of
- * these is relatively small and is passed to the filtering iterator to filter
- * out edges that are definitely not to set B. The second, larger,
- * {@link org.apache.hadoop.util.bloom.BloomFilter} is used client-side to
- * further reduce the chances of false positives making it to the user.
+ * In the second mode, where there are too many seeds in set A to be loaded into
+ * memory, the seeds in set A are queried for in batches. Set B is read once and
+ * each seed is serialised as it is read. While the serialised seeds fit in the
+ * memory given to the client side bloom filter, they are held client-side in a
+ * sorted array, which is used for the secondary check so that no false
+ * positives are returned to the user. If set B is small enough to be passed to
+ * an iterator it is passed in full, so the filtering iterator filters out
+ * exactly the edges that are not to set B. Otherwise set B is hash partitioned
+ * into {@link org.apache.hadoop.util.bloom.BloomFilter}s that are each sized for
+ * the false positive rate, up to the maximum size that can be passed to an
+ * iterator and the maximum number of partitions. All of the partitions are
+ * passed to a single filtering iterator, which tests the non-query end of each
+ * edge against the partition selected by the hash of that vertex, so each
+ * batch of set A is scanned only once.
+ * <p>
+ * If set B does not fit in that memory, the rest of set B is streamed into the
+ * maximum number of partitioned {@link org.apache.hadoop.util.bloom.BloomFilter}s
+ * and into a client side {@link org.apache.hadoop.util.bloom.BloomFilter}, which
+ * is used for the secondary check instead. In this case a small number of false
+ * positives may be returned to the user.
  */
 public class AccumuloIDBetweenSetsRetriever extends AccumuloSetRetriever<GetElementsBetweenSets> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AccumuloIDBetweenSetsRetriever.class);
+    private static final Comparator<byte[]> SERIALISED_VERTEX_COMPARATOR =
+            (first, second) -> WritableComparator.compareBytes(first, 0, first.length, second, 0, second.length);
+
     private Iterable<? extends EntityId> seedSetA;
     private Iterable<? extends EntityId> seedSetB;
     private Iterator<? extends EntityId> seedSetAIter;
@@ -120,6 +145,14 @@ public class AccumuloIDBetweenSetsRetriever extends AccumuloSetRetriever<GetElem
         return new ElementIteratorFromBatches();
     }
 
+    private byte[] serialiseVertex(final Object vertex) throws RetrieverException {
+        try {
+            return elementConverter.serialiseVertex(vertex);
+        } catch (final AccumuloElementConversionException e) {
+            throw new RetrieverException("Failed to serialise the identifier " + vertex, e);
+        }
+    }
+
     private class ElementIteratorReadIntoMemory extends AbstractElementIteratorReadIntoMemory {
         private final Set<Object> verticesA;
         private final Set<Object> verticesB;
@@ -149,9 +182,15 @@ public class AccumuloIDBetweenSetsRetriever extends AccumuloSetRetriever<GetElem
     }
 
     private class ElementIteratorFromBatches extends AbstractElementIteratorFromBatches {
+        // The sorted, serialised vertices in set B, or null if set B was too
+        // large to hold and the client side filter is used instead.
+        private byte[][] verticesB;
+        private IteratorSetting filterIteratorSetting;
+
         ElementIteratorFromBatches() throws RetrieverException {
+            super(false);
             try {
-                addToBloomFilter(seedSetBIter, filter, clientSideFilter);
+                filterIteratorSetting = readSetB();
                 idsAIterator = seedSetAIter;
                 updateScanner();
             } catch (final Exception e) {
@@ -167,6 +206,119 @@ public class AccumuloIDBetweenSetsRetriever extends AccumuloSetRetriever<GetElem
             // no action required.
         }
 
+        @Override
+        protected IteratorSetting getFilterIteratorSetting() {
+            return filterIteratorSetting;
+        }
+
+        private IteratorSetting readSetB() throws RetrieverException {
+            // Set B is held exactly while it fits in the memory that would
+            // otherwise be used by the client side bloom filter.
+            final long maxSetBSize = store.getProperties().getClientSideBloomFilterSize() / Byte.SIZE;
+            List<byte[]> vertices = new ArrayList<>();
+            long setBSize = 0;
+            List<BloomFilter> partitionFilters = null;
+            try {
+                while (seedSetBIter.hasNext()) {
+                    final byte[] vertex = serialiseVertex(seedSetBIter.next().getVertex());
+                    if (null != partitionFilters) {
+                        addToFilters(vertex, partitionFilters);
+                        continue;
+                    }
+                    vertices.add(vertex);
+                    setBSize += vertex.length + 1;
+                    if (setBSize > maxSetBSize) {
+                        LOGGER.debug("Set B is larger than {} bytes, so it will be checked using bloom filters", maxSetBSize);
+                        clientSideFilter = BloomFilterUtils.getBloomFilter(store.getProperties().getClientSideBloomFilterSize());
+                        partitionFilters = createPartitionFilters(store.getProperties().getMaxBloomFilterPartitions());
+                        for (final byte[] heldVertex : vertices) {
+                            addToFilters(heldVertex, partitionFilters);
+                        }
+                        vertices = null;
+                    }
+                }
+            } finally {
+                CloseableUtil.close(seedSetBIter);
+            }
+
+            if (null != partitionFilters) {
+                return createBloomFilterIteratorSetting(partitionFilters);
+            }
+            verticesB = sortAndRemoveDuplicates(vertices);
+            return createFilterIteratorSetting(setBSize);
+        }
+
+        private IteratorSetting createFilterIteratorSetting(final long setBSize) throws RetrieverException {
+            // The maximum bloom filter size is in bits, so the set can be
+            // passed in full if it is no larger than that in bytes.
+            if (setBSize <= store.getProperties().getMaxBloomFilterToPassToAnIterator() / Byte.SIZE) {
+                try {
+                    return iteratorSettingFactory.getVertexSetFilterIteratorSetting(verticesB);
+                } catch (final IteratorSettingException e) {
+                    throw new RetrieverException("Failed to create the iterator settings to filter by set B", e);
+                }
+            }
+
+            final int numPartitions = BloomFilterUtils.calculateNumPartitions(store.getProperties().getFalsePositiveRate(),
+                    verticesB.length, store.getProperties().getMaxBloomFilterToPassToAnIterator(),
+                    store.getProperties().getMaxBloomFilterPartitions());
+            final List<List<byte[]>> partitions = new ArrayList<>(numPartitions);
+            for (int i = 0; i < numPartitions; i++) {
+                partitions.add(new ArrayList<>());
+            }
+            for (final byte[] vertex : verticesB) {
+                partitions.get(BloomFilterUtils.getPartition(vertex, numPartitions)).add(vertex);
+            }
+
+            final List<BloomFilter> partitionFilters = new ArrayList<>(numPartitions);
+            for (final List<byte[]> partition : partitions) {
+                final BloomFilter partitionFilter = BloomFilterUtils.getBloomFilter(store.getProperties().getFalsePositiveRate(),
+                        Math.max(1, partition.size()), store.getProperties().getMaxBloomFilterToPassToAnIterator());
+                for (final byte[] vertex : partition) {
+                    partitionFilter.add(new Key(vertex));
+                }
+                partitionFilters.add(partitionFilter);
+            }
+            LOGGER.debug("Partitioned {} seeds in set B into {} bloom filters", verticesB.length, numPartitions);
+            return createBloomFilterIteratorSetting(partitionFilters);
+        }
+
+        private List<BloomFilter> createPartitionFilters(final int numPartitions) {
+            final List<BloomFilter> partitionFilters = new ArrayList<>(numPartitions);
+            for (int i = 0; i < numPartitions; i++) {
+                partitionFilters.add(BloomFilterUtils.getBloomFilter(store.getProperties().getFalsePositiveRate(),
+                        store.getProperties().getMaxEntriesForBatchScanner(),
+                        store.getProperties().getMaxBloomFilterToPassToAnIterator()));
+            }
+            return partitionFilters;
+        }
+
+        private void addToFilters(final byte[] vertex, final List<BloomFilter> partitionFilters) {
+            final Key key = new Key(vertex);
+            partitionFilters.get(BloomFilterUtils.getPartition(vertex, partitionFilters.size())).add(key);
+            clientSideFilter.add(key);
+        }
+
+        private IteratorSetting createBloomFilterIteratorSetting(final List<BloomFilter> partitionFilters)
+                throws RetrieverException {
+            try {
+                return iteratorSettingFactory.getBloomFilterIteratorSetting(partitionFilters);
+            } catch (final IteratorSettingException e) {
+                throw new RetrieverException("Failed to create the iterator settings to filter by set B", e);
+            }
+        }
+
+        private byte[][] sortAndRemoveDuplicates(final List<byte[]> vertices) {
+            vertices.sort(SERIALISED_VERTEX_COMPARATOR);
+            final List<byte[]> distinct = new ArrayList<>(vertices.size());
+            for (final byte[] vertex : vertices) {
+                if (distinct.isEmpty() || 0 != SERIALISED_VERTEX_COMPARATOR.compare(distinct.get(distinct.size() - 1), vertex)) {
+                    distinct.add(vertex);
+                }
+            }
+            return distinct.toArray(new byte[distinct.size()][]);
+        }
+
         @Override
         protected boolean secondaryCheck(final Element elm) {
             if (Entity.class.isInstance(elm)) {
@@ -175,26 +327,20 @@ public class AccumuloIDBetweenSetsRetriever extends AccumuloSetRetriever<GetElem
             final Edge edge = (Edge) elm;
             final Object source = edge.getSource();
             final Object destination = edge.getDestination();
-            final boolean sourceIsInCurrent = currentSeeds.contains(source);
-            boolean destMatchesClientFilter;
             try {
-                destMatchesClientFilter = clientSideFilter.membershipTest(
-                        new Key(elementConverter.serialiseVertex(destination)));
+                return currentSeeds.contains(source) && isInSetB(destination)
+                        || currentSeeds.contains(destination) && isInSetB(source);
             } catch (final AccumuloElementConversionException e) {
                 return false;
             }
-            if (sourceIsInCurrent && destMatchesClientFilter) {
-                return true;
-            }
-            final boolean destIsInCurrent = currentSeeds.contains(destination);
-            boolean sourceMatchesClientFilter;
-            try {
-                sourceMatchesClientFilter = clientSideFilter.membershipTest(
-                        new Key(elementConverter.serialiseVertex(source)));
-            } catch (final AccumuloElementConversionException e) {
-                return false;
+        }
+
+        private boolean isInSetB(final Object vertex) {
+            final byte[] serialisedVertex = elementConverter.serialiseVertex(vertex);
+            if (null == verticesB) {
+                return clientSideFilter.membershipTest(new Key(serialisedVertex));
             }
-            return destIsInCurrent && sourceMatchesClientFilter;
+            return 0 <= Arrays.binarySearch(verticesB, serialisedVertex, SERIALISED_VERTEX_COMPARATOR);
         }
     }
 }
@@ -21,6 +21,7 @@ public final class AccumuloStoreConstants {
     public static final String VALIDATOR_ITERATOR_NAME = "Validator";
     public static final String AGGREGATOR_ITERATOR_NAME = "Aggregator";
     public static final String BLOOM_FILTER_ITERATOR_NAME = "Bloom_Filter";
+    public static final String VERTEX_SET_FILTER_ITERATOR_NAME = "Vertex_Set_Filter";
     public static final String ELEMENT_PRE_AGGREGATION_FILTER_ITERATOR_NAME = "Element_Pre_Aggregation_Filter";
     public static final String ELEMENT_POST_AGGREGATION_FILTER_ITERATOR_NAME = "Element_Post_Aggregation_Filter";
 
@@ -28,6 +29,10 @@ public final class AccumuloStoreConstants {
     public static final String COLUMN_QUALIFIER_AGGREGATOR_ITERATOR_NAME = "Column_Qualifier_Aggregator";
     public static final String ROW_ID_AGGREGATOR_ITERATOR_NAME = "Row_ID_Aggregator";
     public static final String RANGE_ELEMENT_PROPERTY_FILTER_ITERATOR_NAME = "Range_Element_Property_Filter";
+    public static final String ADJACENT_ID_PROJECTION_ITERATOR_NAME = "Adjacent_Id_Projection";
+    public static final String ELEMENT_COUNT_ITERATOR_NAME = "Element_Count";
+    public static final String ELEMENT_SAMPLE_ITERATOR_NAME = "Element_Sample";
+    public static final String KEY_SAMPLE_ITERATOR_NAME = "Key_Sample";
 
     // Converter class to be used in iterators must be on classpath of all
     // iterators
@@ -57,7 +62,14 @@ public final class AccumuloStoreConstants {
     public static final String DEDUPLICATE_UNDIRECTED_EDGES = "Deduplicate_Undirected_Edges";
     public static final String BLOOM_FILTER = "Bloom_Filter";
     public static final String BLOOM_FILTER_CHARSET = "ISO-8859-1";
+    public static final String BLOOM_FILTER_PARTITION = "Bloom_Filter_Partition_";
+    public static final String BLOOM_FILTER_NUM_PARTITIONS = "Bloom_Filter_Num_Partitions";
+    public static final String VERTEX_SET = "Vertex_Set";
     public static final String COLUMN_FAMILY = "columnFamily";
+    public static final String SAMPLE_SIZE = "Sample_Size";
+    public static final String SAMPLE_STRATIFIED = "Sample_Stratified";
+    public static final String SAMPLE_SEED = "Sample_Seed";
+    public static final String SAMPLE_EVERY = "Sample_Every";
 
     // Iterator priorities
     // Applied during major compactions, minor compactions  and scans.
@@ -66,6 +78,8 @@ public final class AccumuloStoreConstants {
     public static final int VALIDATOR_ITERATOR_PRIORITY = 20;
     // Applied only during scans.
     public static final int BLOOM_FILTER_ITERATOR_PRIORITY = 31;
+    // Applied only during scans, instead of the bloom filter iterator.
+    public static final int VERTEX_SET_FILTER_ITERATOR_PRIORITY = BLOOM_FILTER_ITERATOR_PRIORITY;
     // Applied only during scans.
     public static final int RANGE_ELEMENT_PROPERTY_FILTER_ITERATOR_PRIORITY = 32;
     // Applied only during scans.
@@ -78,9 +92,25 @@ public final class AccumuloStoreConstants {
     public static final int COLUMN_QUALIFIER_AGGREGATOR_ITERATOR_PRIORITY = 36;
     // Applied only during scans.
     public static final int ELEMENT_POST_AGGREGATION_FILTER_ITERATOR_PRIORITY = 37;
+    // Applied only during GetAdjacentIds scans, after all other filtering.
+    public static final int ADJACENT_ID_PROJECTION_ITERATOR_PRIORITY = 38;
+    // Applied only during scans that count elements, after all other iterators.
+    public static final int ELEMENT_COUNT_ITERATOR_PRIORITY = 39;
+    // Applied only during scans that sample elements, after all other iterators.
+    public static final int ELEMENT_SAMPLE_ITERATOR_PRIORITY = 39;
+    // Applied only during scans that sample keys, after all other iterators.
+    public static final int KEY_SAMPLE_ITERATOR_PRIORITY = 39;
 
     // Operations options
     public static final String ADD_ELEMENTS_FROM_HDFS_SKIP_IMPORT = "accumulostore.operation.hdfs.skip_import";
+    /**
+     * CountGroups option to estimate the counts from the group statistics
+     * rather than scanning the table. The statistics are only ever incremented
+     * as elements are added, and elements later aggregated together, aged off
+     * or deleted are still counted, so the estimate is an upper bound on the
+     * number of elements that would be returned.
+     */
+    public static final String COUNT_GROUPS_ESTIMATE = "accumulostore.operation.countGroups.estimate";
 
     // General use constants
     public static final byte[] EMPTY_BYTES = new byte[0];
@@ -19,11 +19,16 @@ package uk.gov.gchq.gaffer.accumulostore.utils;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.apache.hadoop.util.bloom.BloomFilter;
 import org.apache.hadoop.util.hash.Hash;
+import org.apache.hadoop.util.hash.MurmurHash;
 
 /**
  * Utilities for the creation of Bloom Filters
  */
 public final class BloomFilterUtils {
+    // The bloom filters hash keys with seeds from 0, so partitions use a
+    // different seed to keep them independent of the bloom filter hashes.
+    private static final int PARTITION_HASH_SEED = 0x5bd1e995;
+
     private BloomFilterUtils() {
         // private to prevent this class being instantiated.
         // All methods are static and should be called directly.
@@ -89,4 +94,39 @@ public final class BloomFilterUtils {
     public static BloomFilter getBloomFilter(final int size) {
         return new BloomFilter(size, 13, Hash.MURMUR_HASH);
     }
+
+    /**
+     * Calculates the number of {@link org.apache.hadoop.util.bloom.BloomFilter}s
+     * that the given number of items should be partitioned into so that each
+     * filter can achieve the desired false positive rate without exceeding the
+     * maximum size, subject to the maximum number of partitions.
+     *
+     * @param falsePositiveRate the false positive rate
+     * @param numItemsToBeAdded the number of items to be added
+     * @param maximumSize       the maximum size of each bloom filter
+     * @param maximumPartitions the maximum number of partitions
+     * @return the number of partitions, which is at least 1
+     */
+    public static int calculateNumPartitions(final double falsePositiveRate, final long numItemsToBeAdded,
+            final int maximumSize, final int maximumPartitions) {
+        final double size = -numItemsToBeAdded * Math.log(falsePositiveRate) / Math.pow(Math.log(2.0), 2.0);
+        final double numPartitions = Math.ceil(size / maximumSize);
+        return (int) Math.max(1, Math.min(numPartitions, maximumPartitions));
+    }
+
+    /**
+     * Returns the partition that a serialised vertex belongs to when a set of
+     * vertices is partitioned across several bloom filters.
+     *
+     * @param serialisedVertex the serialised vertex
+     * @param numPartitions    the number of partitions
+     * @return the partition, between 0 and numPartitions - 1
+     */
+    public static int getPartition(final byte[] serialisedVertex, final int numPartitions) {
+        if (numPartitions < 2) {
+            return 0;
+        }
+        final int hash = MurmurHash.getInstance().hash(serialisedVertex, serialisedVertex.length, PARTITION_HASH_SEED);
+        return (hash & Integer.MAX_VALUE) % numPartitions;
+    }
 }
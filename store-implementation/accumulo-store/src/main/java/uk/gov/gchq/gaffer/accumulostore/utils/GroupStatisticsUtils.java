@@ -0,0 +1,154 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.MutationsRejectedException;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.Authorizations;
+
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.data.GroupStatistics;
+import uk.gov.gchq.gaffer.store.StoreException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Static utilities for reading and writing the {@link GroupStatistics} that are
+ * maintained in a separate statistics table when
+ * {@link uk.gov.gchq.gaffer.accumulostore.AccumuloProperties#getEnableGroupStatistics()}
+ * is true.
+ * <p>
+ * The statistics table has a row for each group, with the count, minimum
+ * timestamp and maximum timestamp in separate column families. Combiners on the
+ * table sum the counts and keep the minimum and maximum timestamps, so each
+ * writer only needs to write the statistics for the elements it has added.
+ * </p>
+ */
+public final class GroupStatisticsUtils {
+    public static final String STATISTICS_TABLE_SUFFIX = "_statistics";
+    public static final String COUNT = "count";
+    public static final String MIN_TIMESTAMP = "minTimestamp";
+    public static final String MAX_TIMESTAMP = "maxTimestamp";
+
+    private GroupStatisticsUtils() {
+        // private to prevent this class being instantiated.
+        // All methods are static and should be called directly.
+    }
+
+    /**
+     * Gets the name of the statistics table for a store.
+     *
+     * @param store the accumulo store
+     * @return the name of the statistics table
+     */
+    public static String getStatisticsTableName(final AccumuloStore store) {
+        return store.getTableName() + STATISTICS_TABLE_SUFFIX;
+    }
+
+    /**
+     * Adds an element to the statistics for its group.
+     *
+     * @param statistics the statistics for each group
+     * @param group      the group of the element
+     * @param timestamp  the timestamp of the element's keys
+     */
+    public static void add(final Map<String, GroupStatistics> statistics, final String group, final long timestamp) {
+        statistics.computeIfAbsent(group, g -> new GroupStatistics()).add(timestamp);
+    }
+
+    /**
+     * Writes statistics to the statistics table, where they are combined with
+     * the statistics that have already been written.
+     *
+     * @param store      the accumulo store
+     * @param statistics the statistics for each group
+     * @throws StoreException if the statistics could not be written
+     */
+    public static void write(final AccumuloStore store, final Map<String, GroupStatistics> statistics) throws StoreException {
+        if (statistics.isEmpty()) {
+            return;
+        }
+
+        final BatchWriter writer = TableUtils.createStatisticsBatchWriter(store);
+        try {
+            for (final Map.Entry<String, GroupStatistics> entry : statistics.entrySet()) {
+                final Mutation mutation = new Mutation(entry.getKey());
+                mutation.put(COUNT, "", toValue(entry.getValue().getCount()));
+                mutation.put(MIN_TIMESTAMP, "", toValue(entry.getValue().getMinTimestamp()));
+                mutation.put(MAX_TIMESTAMP, "", toValue(entry.getValue().getMaxTimestamp()));
+                writer.addMutation(mutation);
+            }
+            writer.close();
+        } catch (final MutationsRejectedException e) {
+            throw new StoreException("Failed to write group statistics", e);
+        }
+    }
+
+    /**
+     * Reads the statistics for each group from the statistics table. The
+     * statistics count elements of every visibility, so callers must check
+     * the user is allowed to see them.
+     *
+     * @param store the accumulo store
+     * @return the statistics for each group that has had elements added
+     * @throws StoreException if the statistics could not be read
+     */
+    public static Map<String, GroupStatistics> read(final AccumuloStore store) throws StoreException {
+        final Map<String, GroupStatistics> statistics = new HashMap<>();
+        final Scanner scanner;
+        try {
+            scanner = store.getConnection().createScanner(getStatisticsTableName(store), new Authorizations());
+        } catch (final TableNotFoundException e) {
+            throw new StoreException("Group statistics table not found: " + getStatisticsTableName(store), e);
+        }
+        try {
+            for (final Map.Entry<Key, Value> entry : scanner) {
+                final GroupStatistics groupStatistics = statistics.computeIfAbsent(
+                        entry.getKey().getRow().toString(), g -> new GroupStatistics());
+                final long value = Long.parseLong(new String(entry.getValue().get(), StandardCharsets.UTF_8));
+                switch (entry.getKey().getColumnFamily().toString()) {
+                    case COUNT:
+                        groupStatistics.setCount(value);
+                        break;
+                    case MIN_TIMESTAMP:
+                        groupStatistics.setMinTimestamp(value);
+                        break;
+                    case MAX_TIMESTAMP:
+                        groupStatistics.setMaxTimestamp(value);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } finally {
+            scanner.close();
+        }
+        return statistics;
+    }
+
+    private static Value toValue(final long value) {
+        // The combiners on the statistics table use the string encoding
+        return new Value(Long.toString(value).getBytes(StandardCharsets.UTF_8));
+    }
+}
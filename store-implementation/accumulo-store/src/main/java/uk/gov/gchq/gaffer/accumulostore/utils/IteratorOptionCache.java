@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import uk.gov.gchq.gaffer.commonutil.StringUtil;
+import uk.gov.gchq.gaffer.data.elementdefinition.exception.SchemaException;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * A JVM wide cache of the parsed JSON of the {@link Schema}s and {@link View}s
+ * passed to the Gaffer Accumulo iterators as options. Iterators are
+ * initialised for every tablet of every scan, so without this the same JSON
+ * would be parsed many times.
+ * </p>
+ * <p>
+ * The cache is keyed on a SHA-256 digest of the JSON, computed on the tablet
+ * server, and holds at most {@code MAX_ENTRIES} parsed JSON trees, the least
+ * recently used being evicted first. Each call to {@link #get(String)} binds
+ * a new {@link Schema} or {@link View} from the cached tree, so every iterator
+ * has its own filters, transformers and aggregators and they do not need to
+ * be thread safe.
+ * </p>
+ *
+ * @param <T> the type of object deserialised from the JSON
+ */
+public final class IteratorOptionCache<T> {
+    public static final IteratorOptionCache<Schema> SCHEMAS = new IteratorOptionCache<>(
+            Schema.class, schema -> new Schema.Builder().merge(schema).build());
+    public static final IteratorOptionCache<View> VIEWS = new IteratorOptionCache<>(
+            View.class, view -> new View.Builder().merge(view).build());
+
+    static final int MAX_ENTRIES = 100;
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final Class<T> clazz;
+    private final Function<T, T> builder;
+    private final Map<ByteBuffer, JsonNode> trees;
+
+    IteratorOptionCache(final Class<T> clazz, final Function<T, T> builder) {
+        this.clazz = clazz;
+        this.builder = builder;
+        this.trees = new LinkedHashMap<ByteBuffer, JsonNode>(16, 0.75f, true) {
+            private static final long serialVersionUID = -1405640417566462237L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<ByteBuffer, JsonNode> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+    }
+
+    /**
+     * Deserialises a new instance from the provided JSON, parsing the JSON
+     * only if it is not already cached.
+     *
+     * @param json the JSON to deserialise
+     * @return a new instance, which is not shared with any other caller
+     */
+    public T get(final String json) {
+        if (null == json) {
+            throw new SchemaException("Unable to deserialise a " + clazz.getSimpleName() + " from null JSON");
+        }
+        try {
+            return builder.apply(JSONSerialiser.getMapper().treeToValue(getTree(json), clazz));
+        } catch (final IOException e) {
+            throw new SchemaException("Unable to deserialise a " + clazz.getSimpleName() + " from JSON", e);
+        }
+    }
+
+    JsonNode getTree(final String json) throws IOException {
+        final byte[] bytes = StringUtil.toBytes(json);
+        final ByteBuffer key = digest(bytes);
+        synchronized (trees) {
+            final JsonNode tree = trees.get(key);
+            if (null != tree) {
+                return tree;
+            }
+        }
+
+        final JsonNode tree = JSONSerialiser.getMapper().readTree(bytes);
+        synchronized (trees) {
+            trees.put(key, tree);
+        }
+        return tree;
+    }
+
+    private static ByteBuffer digest(final byte[] json) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance(DIGEST_ALGORITHM).digest(json));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not supported", e);
+        }
+    }
+}
@@ -26,6 +26,7 @@ import org.apache.hadoop.util.bloom.BloomFilter;
 
 import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
+import uk.gov.gchq.gaffer.commonutil.ByteArrayEscapeUtils;
 import uk.gov.gchq.gaffer.commonutil.CommonConstants;
 import uk.gov.gchq.gaffer.data.element.id.DirectedType;
 import uk.gov.gchq.gaffer.data.elementdefinition.exception.SchemaException;
@@ -76,17 +77,40 @@ public class IteratorSettingBuilder {
     }
 
     public IteratorSettingBuilder bloomFilter(final BloomFilter filter) throws IteratorSettingException {
+        setting.addOption(AccumuloStoreConstants.BLOOM_FILTER, serialise(filter));
+        return this;
+    }
+
+    public IteratorSettingBuilder bloomFilterPartitions(final List<BloomFilter> partitionFilters) throws IteratorSettingException {
+        if (1 == partitionFilters.size()) {
+            return bloomFilter(partitionFilters.get(0));
+        }
+        for (int i = 0; i < partitionFilters.size(); i++) {
+            setting.addOption(AccumuloStoreConstants.BLOOM_FILTER_PARTITION + i, serialise(partitionFilters.get(i)));
+        }
+        setting.addOption(AccumuloStoreConstants.BLOOM_FILTER_NUM_PARTITIONS, Integer.toString(partitionFilters.size()));
+        return this;
+    }
+
+    public IteratorSettingBuilder vertexSet(final byte[][] sortedVertices) throws IteratorSettingException {
+        // An empty set would be encoded in the same way as a set containing
+        // only an empty vertex, and a filter by it could never match anything.
+        if (0 == sortedVertices.length) {
+            throw new IteratorSettingException("Unable to filter by an empty vertex set");
+        }
+        // Escaped vertices never contain the delimiter, so it can separate them.
         final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try {
-            filter.write(new DataOutputStream(baos));
-        } catch (final IOException e) {
-            throw new IteratorSettingException("Failed to write bloom filter", e);
+        for (int i = 0; i < sortedVertices.length; i++) {
+            if (i > 0) {
+                baos.write(ByteArrayEscapeUtils.DELIMITER);
+            }
+            baos.write(sortedVertices[i], 0, sortedVertices[i].length);
         }
 
         try {
-            setting.addOption(AccumuloStoreConstants.BLOOM_FILTER, new String(baos.toByteArray(), AccumuloStoreConstants.BLOOM_FILTER_CHARSET));
+            setting.addOption(AccumuloStoreConstants.VERTEX_SET, new String(baos.toByteArray(), AccumuloStoreConstants.BLOOM_FILTER_CHARSET));
         } catch (final UnsupportedEncodingException e) {
-            throw new IteratorSettingException("Failed to encode the bloom filter to a string", e);
+            throw new IteratorSettingException("Failed to encode the vertex set to a string", e);
         }
 
         return this;
@@ -162,4 +186,19 @@ public class IteratorSettingBuilder {
     public IteratorSetting build() {
         return setting;
     }
+
+    private String serialise(final BloomFilter filter) throws IteratorSettingException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try {
+            filter.write(new DataOutputStream(baos));
+        } catch (final IOException e) {
+            throw new IteratorSettingException("Failed to write bloom filter", e);
+        }
+
+        try {
+            return new String(baos.toByteArray(), AccumuloStoreConstants.BLOOM_FILTER_CHARSET);
+        } catch (final UnsupportedEncodingException e) {
+            throw new IteratorSettingException("Failed to encode the bloom filter to a string", e);
+        }
+    }
 }
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.MutationsRejectedException;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.PartialKey;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.data.GroupStatistics;
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.pair.Pair;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
+import uk.gov.gchq.gaffer.core.exception.Status;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.ValidatedElements;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.util.AggregatorUtil;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static uk.gov.gchq.gaffer.accumulostore.AccumuloStore.FAILED_TO_CREATE_AN_ACCUMULO_FROM_ELEMENT_OF_TYPE_WHEN_TRYING_TO_INSERT_ELEMENTS;
+
+/**
+ * A {@code ParallelElementWriter} adds elements to an {@link AccumuloStore},
+ * validating and converting them into {@link Mutation}s on a pool of threads
+ * rather than on the thread adding them.
+ * <p>
+ * The elements are read on the calling thread and handed to the pool in
+ * batches of {@link uk.gov.gchq.gaffer.accumulostore.AccumuloProperties#getIngestBatchSize()}.
+ * If all the threads are busy, the calling thread converts the next batch
+ * itself, so the input is not read faster than it can be written. Each batch
+ * can optionally be aggregated first, then its keys are sorted and grouped
+ * into a single {@link Mutation} per row, so the mutations for a tablet are
+ * sent together. Each thread writes its batches with its own
+ * {@link BatchWriter}, so the threads do not contend for a single writer's
+ * buffer. The writers are configured from the batch writer store properties,
+ * except that the configured buffer size is shared between them. If group
+ * statistics are enabled, each batch's statistics are merged and written
+ * once all the batches have been written.
+ * </p>
+ */
+public class ParallelElementWriter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelElementWriter.class);
+
+    private final AccumuloStore store;
+    private final int numThreads;
+    private final int batchSize;
+    private final boolean preAggregate;
+    private final byte[] schemaJson;
+    private final Class<? extends AccumuloElementConverter> elementConverterClass;
+
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    private final List<BatchWriter> writers = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, GroupStatistics> statistics;
+
+    public ParallelElementWriter(final AccumuloStore store) {
+        this.store = store;
+        this.numThreads = store.getProperties().getIngestThreads();
+        this.batchSize = store.getProperties().getIngestBatchSize();
+        this.preAggregate = store.getProperties().getIngestPreAggregation();
+        this.schemaJson = store.getSchema().toCompactJson();
+        this.elementConverterClass = store.getKeyPackage().getKeyConverter().getClass();
+        this.statistics = store.getProperties().getEnableGroupStatistics() ? new HashMap<>() : null;
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("The number of ingest threads must be at least 1");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The ingest batch size must be at least 1");
+        }
+    }
+
+    /**
+     * Writes the elements to the store, returning once they have all been
+     * written.
+     *
+     * @param elements    the elements to write
+     * @param validate    true if the elements should be validated against the schema
+     * @param skipInvalid true if invalid elements should be skipped rather than
+     *                    causing an {@link IllegalArgumentException}
+     * @throws StoreException if the elements could not be written
+     */
+    public void write(final Iterable<? extends Element> elements, final boolean validate, final boolean skipInvalid) throws StoreException {
+        if (null == elements) {
+            throw new GafferRuntimeException("Could not find any elements to add to graph.", Status.BAD_REQUEST);
+        }
+
+        // Schemas are not thread safe, so each thread has its own copy. The
+        // calling thread can also convert batches, so it may need a worker too.
+        final long bufferSize = Math.max(1L, store.getProperties().getMaxBufferSizeForBatchWriterInBytes() / (numThreads + 1));
+        final ThreadLocal<Worker> workers = ThreadLocal.withInitial(() -> new Worker(bufferSize));
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(numThreads, numThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(numThreads), new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            List<Element> batch = new ArrayList<>(batchSize);
+            for (final Element element : elements) {
+                batch.add(element);
+                if (batch.size() >= batchSize) {
+                    submit(executor, workers, batch, validate, skipInvalid);
+                    batch = new ArrayList<>(batchSize);
+                    if (null != failure.get()) {
+                        break;
+                    }
+                }
+            }
+            if (!batch.isEmpty() && null == failure.get()) {
+                submit(executor, workers, batch, validate, skipInvalid);
+            }
+        } catch (final RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            executor.shutdown();
+        }
+
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new StoreException("Interrupted whilst waiting for elements to be written", e);
+        } finally {
+            closeWriters();
+        }
+
+        if (null != failure.get()) {
+            throw failure.get();
+        }
+        if (null != statistics) {
+            GroupStatisticsUtils.write(store, statistics);
+        }
+    }
+
+    private void closeWriters() {
+        synchronized (writers) {
+            for (final BatchWriter writer : writers) {
+                try {
+                    writer.close();
+                } catch (final MutationsRejectedException e) {
+                    LOGGER.warn("Accumulo batch writer failed to close", e);
+                }
+            }
+            writers.clear();
+        }
+    }
+
+    private synchronized void mergeStatistics(final Map<String, GroupStatistics> batchStatistics) {
+        for (final Map.Entry<String, GroupStatistics> entry : batchStatistics.entrySet()) {
+            statistics.computeIfAbsent(entry.getKey(), g -> new GroupStatistics()).merge(entry.getValue());
+        }
+    }
+
+    private void submit(final ThreadPoolExecutor executor, final ThreadLocal<Worker> workers, final List<Element> batch,
+                        final boolean validate, final boolean skipInvalid) {
+        executor.execute(() -> {
+            if (null != failure.get()) {
+                return;
+            }
+            try {
+                workers.get().write(batch, validate, skipInvalid);
+            } catch (final RuntimeException e) {
+                failure.compareAndSet(null, e);
+            }
+        });
+    }
+
+    private final class Worker {
+        private final Schema schema;
+        private final AccumuloElementConverter elementConverter;
+        private final BatchWriter writer;
+
+        private Worker(final long bufferSize) {
+            schema = Schema.fromJson(schemaJson);
+            try {
+                elementConverter = elementConverterClass.getConstructor(Schema.class).newInstance(schema);
+            } catch (final ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Failed to create element converter of the class name provided ("
+                        + elementConverterClass.getName() + ")", e);
+            }
+            try {
+                writer = TableUtils.createBatchWriter(store, bufferSize);
+            } catch (final StoreException e) {
+                throw new GafferRuntimeException("Failed to create a batch writer", e);
+            }
+            writers.add(writer);
+        }
+
+        private void write(final List<Element> batch, final boolean validate, final boolean skipInvalid) {
+            final Iterable<? extends Element> validated = validate ? new ValidatedElements(batch, schema, skipInvalid) : batch;
+            final List<Map.Entry<Key, Value>> entries = new ArrayList<>(2 * batch.size());
+            final Map<String, GroupStatistics> batchStatistics = null != statistics ? new HashMap<>() : null;
+            if (preAggregate && schema.isAggregationEnabled()) {
+                try (final CloseableIterable<Element> aggregated = AggregatorUtil.ingestAggregate(validated, schema)) {
+                    convert(aggregated, entries, batchStatistics);
+                }
+            } else {
+                convert(validated, entries, batchStatistics);
+            }
+            if (null != batchStatistics) {
+                mergeStatistics(batchStatistics);
+            }
+
+            try {
+                writer.addMutations(toMutations(entries));
+            } catch (final MutationsRejectedException e) {
+                LOGGER.error("Failed to create an accumulo key mutation");
+            }
+        }
+
+        private void convert(final Iterable<? extends Element> elements, final List<Map.Entry<Key, Value>> entries,
+                             final Map<String, GroupStatistics> batchStatistics) {
+            for (final Element element : elements) {
+                final Pair<Key, Key> keys;
+                final Value value;
+                try {
+                    keys = elementConverter.getKeysFromElement(element);
+                } catch (final AccumuloElementConversionException e) {
+                    LOGGER.error(FAILED_TO_CREATE_AN_ACCUMULO_FROM_ELEMENT_OF_TYPE_WHEN_TRYING_TO_INSERT_ELEMENTS, "key", element.getGroup());
+                    continue;
+                }
+                try {
+                    value = elementConverter.getValueFromElement(element);
+                } catch (final AccumuloElementConversionException e) {
+                    LOGGER.error(FAILED_TO_CREATE_AN_ACCUMULO_FROM_ELEMENT_OF_TYPE_WHEN_TRYING_TO_INSERT_ELEMENTS, "value", element.getGroup());
+                    continue;
+                }
+                entries.add(new AbstractMap.SimpleEntry<>(keys.getFirst(), value));
+                if (null != batchStatistics) {
+                    GroupStatisticsUtils.add(batchStatistics, element.getGroup(), keys.getFirst().getTimestamp());
+                }
+                // Entities only have 1 key, edges have 2.
+                if (null != keys.getSecond()) {
+                    entries.add(new AbstractMap.SimpleEntry<>(keys.getSecond(), value));
+                }
+            }
+        }
+
+        private List<Mutation> toMutations(final List<Map.Entry<Key, Value>> entries) {
+            // Sorting by row means each row only needs a single mutation and
+            // the mutations for each tablet are adjacent.
+            entries.sort((first, second) -> first.getKey().compareTo(second.getKey(), PartialKey.ROW));
+
+            final List<Mutation> mutations = new ArrayList<>();
+            Key previousKey = null;
+            Mutation mutation = null;
+            for (final Map.Entry<Key, Value> entry : entries) {
+                final Key key = entry.getKey();
+                if (null == previousKey || !key.equals(previousKey, PartialKey.ROW)) {
+                    mutation = new Mutation(key.getRow());
+                    mutations.add(mutation);
+                }
+                mutation.put(key.getColumnFamily(), key.getColumnQualifier(),
+                        new ColumnVisibility(key.getColumnVisibility()), key.getTimestamp(), entry.getValue());
+                previousKey = key;
+            }
+            return mutations;
+        }
+    }
+}
@@ -29,7 +29,12 @@ import org.apache.accumulo.core.client.TableNotFoundException;
 import org.apache.accumulo.core.client.ZooKeeperInstance;
 import org.apache.accumulo.core.client.security.tokens.PasswordToken;
 import org.apache.accumulo.core.conf.Property;
+import org.apache.accumulo.core.iterators.Combiner;
 import org.apache.accumulo.core.iterators.IteratorUtil.IteratorScope;
+import org.apache.accumulo.core.iterators.LongCombiner;
+import org.apache.accumulo.core.iterators.user.MaxCombiner;
+import org.apache.accumulo.core.iterators.user.MinCombiner;
+import org.apache.accumulo.core.iterators.user.SummingCombiner;
 import org.apache.accumulo.core.security.Authorizations;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.io.Text;
@@ -43,6 +48,7 @@ import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.koryphe.ValidationResult;
 
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -84,6 +90,9 @@ public final class TableUtils {
                 // Someone else got there first, never mind...
             }
         }
+        if (store.getProperties().getEnableGroupStatistics()) {
+            createStatisticsTable(store);
+        }
     }
 
     /**
@@ -169,6 +178,38 @@ public final class TableUtils {
         setLocalityGroups(store);
     }
 
+    /**
+     * Creates the table that holds the {@link uk.gov.gchq.gaffer.accumulostore.data.GroupStatistics}
+     * for a store, if it does not already exist. The versioning iterator is
+     * replaced with combiners that sum the counts and keep the minimum and
+     * maximum timestamps for each group.
+     *
+     * @param store the accumulo store
+     * @throws StoreException failure to create the table or add the combiners
+     */
+    public static synchronized void createStatisticsTable(final AccumuloStore store) throws StoreException {
+        final String tableName = GroupStatisticsUtils.getStatisticsTableName(store);
+        final Connector connector = store.getConnection();
+        if (connector.tableOperations().exists(tableName)) {
+            return;
+        }
+        try {
+            LOGGER.info("Creating group statistics table {} as user {}", tableName, connector.whoami());
+            connector.tableOperations().create(tableName);
+            connector.tableOperations().removeIterator(tableName, "vers", EnumSet.allOf(IteratorScope.class));
+            connector.tableOperations().attachIterator(tableName,
+                    createStatisticsCombinerSetting(10, GroupStatisticsUtils.COUNT, SummingCombiner.class));
+            connector.tableOperations().attachIterator(tableName,
+                    createStatisticsCombinerSetting(11, GroupStatisticsUtils.MIN_TIMESTAMP, MinCombiner.class));
+            connector.tableOperations().attachIterator(tableName,
+                    createStatisticsCombinerSetting(12, GroupStatisticsUtils.MAX_TIMESTAMP, MaxCombiner.class));
+        } catch (final TableExistsException e) {
+            // Someone else got there first, never mind...
+        } catch (final AccumuloSecurityException | TableNotFoundException | AccumuloException e) {
+            throw new StoreException(e.getMessage(), e);
+        }
+    }
+
     public static void setLocalityGroups(final AccumuloStore store) throws StoreException {
         final String tableName = store.getTableName();
         Map<String, Set<Text>> localityGroups =
@@ -196,7 +237,34 @@ public final class TableUtils {
      * @throws StoreException if the table could not be found or other table issues
      */
     public static BatchWriter createBatchWriter(final AccumuloStore store) throws StoreException {
-        return createBatchWriter(store, store.getTableName());
+        return createBatchWriter(store, store.getTableName(), store.getProperties().getMaxBufferSizeForBatchWriterInBytes());
+    }
+
+    /**
+     * Creates a {@link BatchWriter} with the given buffer size, for use when
+     * several writers share the buffer size configured in the properties.
+     *
+     * @param store         the accumulo store
+     * @param maxBufferSize the maximum memory in bytes to buffer mutations in
+     * @return A new BatchWriter with the given buffer size and the other
+     * settings defined in the gaffer.accumulostore properties
+     * @throws StoreException if the table could not be found or other table issues
+     */
+    public static BatchWriter createBatchWriter(final AccumuloStore store, final long maxBufferSize) throws StoreException {
+        return createBatchWriter(store, store.getTableName(), maxBufferSize);
+    }
+
+    /**
+     * Creates a {@link BatchWriter} for the group statistics table.
+     *
+     * @param store the accumulo store
+     * @return A new BatchWriter for the group statistics table with the
+     * settings defined in the gaffer.accumulostore properties
+     * @throws StoreException if the table could not be found or other table issues
+     */
+    public static BatchWriter createStatisticsBatchWriter(final AccumuloStore store) throws StoreException {
+        return createBatchWriter(store, GroupStatisticsUtils.getStatisticsTableName(store),
+                store.getProperties().getMaxBufferSizeForBatchWriterInBytes());
     }
 
     /**
@@ -241,17 +309,18 @@ public final class TableUtils {
      * specified table
      * <p>
      *
-     * @param store     the accumulo store
-     * @param tableName the table name
+     * @param store         the accumulo store
+     * @param tableName     the table name
+     * @param maxBufferSize the maximum memory in bytes to buffer mutations in
      * @return A new BatchWriter with the settings defined in the
      * gaffer.accumulostore properties
      * @throws StoreException if the table could not be found or other table issues
      */
 
-    private static BatchWriter createBatchWriter(final AccumuloStore store, final String tableName)
+    private static BatchWriter createBatchWriter(final AccumuloStore store, final String tableName, final long maxBufferSize)
             throws StoreException {
         final BatchWriterConfig batchConfig = new BatchWriterConfig();
-        batchConfig.setMaxMemory(store.getProperties().getMaxBufferSizeForBatchWriterInBytes());
+        batchConfig.setMaxMemory(maxBufferSize);
         batchConfig.setMaxLatency(store.getProperties().getMaxTimeOutForBatchWriterInMilliseconds(),
                 TimeUnit.MILLISECONDS);
         batchConfig.setMaxWriteThreads(store.getProperties().getNumThreadsForBatchWriter());
@@ -263,6 +332,14 @@ public final class TableUtils {
         }
     }
 
+    private static IteratorSetting createStatisticsCombinerSetting(final int priority, final String columnFamily,
+                                                                   final Class<? extends LongCombiner> combinerClass) {
+        final IteratorSetting setting = new IteratorSetting(priority, columnFamily, combinerClass);
+        LongCombiner.setEncodingType(setting, LongCombiner.Type.STRING);
+        Combiner.setColumns(setting, Collections.singletonList(new IteratorSetting.Column(columnFamily)));
+        return setting;
+    }
+
     private static void validateTable(final AccumuloStore store, final String tableName, final Connector connector) throws StoreException {
         final IteratorSetting requiredAggItrSetting;
         if (store.getSchema().isAggregationEnabled()) {
@@ -21,6 +21,7 @@ import org.apache.accumulo.core.client.AccumuloException;
 import org.apache.accumulo.core.client.AccumuloSecurityException;
 import org.apache.accumulo.core.client.Connector;
 import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.hadoop.conf.Configuration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -164,6 +165,23 @@ public class AccumuloStoreTest {
         assertEquals("graphId", store.getGraphId());
     }
 
+    @Test
+    public void shouldOnlySetHadoopStorePropertiesOnHadoopConfiguration() throws Exception {
+        // Given
+        final AccumuloProperties properties = PROPERTIES.clone();
+        properties.set("fs.defaultFS", "file:///");
+        final AccumuloStore store = new MiniAccumuloStore();
+        store.initialise("graphId", SCHEMA, properties);
+
+        // When
+        final Configuration conf = store.getConfiguration();
+
+        // Then
+        assertEquals("file:///", conf.get("fs.defaultFS"));
+        assertNull(conf.get(AccumuloProperties.ZOOKEEPERS));
+        assertNull(conf.get(AccumuloProperties.PASSWORD));
+    }
+
     @Test
     public void shouldBuildGraphAndGetGraphIdFromTableName() {
         // Given
@@ -22,6 +22,7 @@ import org.apache.accumulo.core.client.TableNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import uk.gov.gchq.gaffer.accumulostore.utils.GroupStatisticsUtils;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.store.StoreProperties;
 import uk.gov.gchq.gaffer.store.schema.Schema;
@@ -49,6 +50,13 @@ public class SingleUseMiniAccumuloStore extends MiniAccumuloStore {
         } catch (final StoreException | AccumuloException | AccumuloSecurityException | TableNotFoundException e) {
             LOGGER.info("Failed to delete the table", e);
         }
+        try {
+            if (getConnection().tableOperations().exists(GroupStatisticsUtils.getStatisticsTableName(this))) {
+                getConnection().tableOperations().delete(GroupStatisticsUtils.getStatisticsTableName(this));
+            }
+        } catch (final StoreException | AccumuloException | AccumuloSecurityException | TableNotFoundException e) {
+            LOGGER.info("Failed to delete the group statistics table", e);
+        }
         super.preInitialise(graphId, schema, properties);
     }
 }
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.key.impl;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.SortedMapIterator;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityAccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.commonutil.CommonConstants;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.pair.Pair;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+import uk.gov.gchq.koryphe.impl.predicate.Exists;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdjacentIdProjectionIteratorTest {
+    private static final String PROPERTY = "property";
+
+    private final Schema schema = new Schema.Builder()
+            .type("string", String.class)
+            .edge(TestGroups.EDGE, new SchemaEdgeDefinition.Builder()
+                    .source("string")
+                    .destination("string")
+                    .property(PROPERTY, "string")
+                    .build())
+            .edge(TestGroups.EDGE_2, new SchemaEdgeDefinition.Builder()
+                    .source("string")
+                    .destination("string")
+                    .property(PROPERTY, "string")
+                    .build())
+            .vertexSerialiser(new StringSerialiser())
+            .build();
+
+    private final ByteEntityAccumuloElementConverter converter = new ByteEntityAccumuloElementConverter(schema);
+
+    @Test
+    public void shouldReturnEmptyValuesAndSkipRepeatedAdjacentIdsInTheSameRow() throws IOException {
+        // Given
+        final View view = new View.Builder()
+                .edge(TestGroups.EDGE)
+                .edge(TestGroups.EDGE_2)
+                .build();
+
+        // When
+        final List<Map.Entry<Key, Value>> results = scan(view);
+
+        // Then
+        assertEquals(new HashSet<>(Arrays.asList("A>B", "A>C", "B>A", "C>A")), new HashSet<>(toAdjacentIds(results)));
+        assertEquals(4, results.size());
+        for (final Map.Entry<Key, Value> result : results) {
+            assertEquals(0, result.getValue().getSize());
+        }
+    }
+
+    @Test
+    public void shouldReturnFullValuesForGroupsWithPostTransformFilters() throws IOException {
+        // Given
+        final View view = new View.Builder()
+                .edge(TestGroups.EDGE)
+                .edge(TestGroups.EDGE_2, new ViewElementDefinition.Builder()
+                        .postTransformFilter(new ElementFilter.Builder()
+                                .select(PROPERTY)
+                                .execute(new Exists())
+                                .build())
+                        .build())
+                .build();
+
+        // When
+        final List<Map.Entry<Key, Value>> results = scan(view);
+
+        // Then
+        assertEquals(6, results.size());
+        for (final Map.Entry<Key, Value> result : results) {
+            final String group = converter.getGroupFromColumnFamily(result.getKey().getColumnFamilyData().getBackingArray());
+            if (TestGroups.EDGE_2.equals(group)) {
+                assertTrue(0 < result.getValue().getSize());
+            } else {
+                assertEquals(0, result.getValue().getSize());
+            }
+        }
+    }
+
+    @Test
+    public void shouldThrowIllegalArgumentExceptionWhenValidateOptionsWithNoView() throws IOException {
+        // Given
+        final AdjacentIdProjectionIterator iterator = new AdjacentIdProjectionIterator();
+        final Map<String, String> options = new HashMap<>();
+        options.put(AccumuloStoreConstants.SCHEMA, new String(schema.toCompactJson(), CommonConstants.UTF_8));
+        options.put(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS,
+                ByteEntityAccumuloElementConverter.class.getName());
+
+        // When / Then
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> iterator.validateOptions(options))
+                .withMessageContaining(AccumuloStoreConstants.VIEW);
+    }
+
+    private List<Map.Entry<Key, Value>> scan(final View view) throws IOException {
+        final SortedMap<Key, Value> data = new TreeMap<>();
+        addEdge(data, TestGroups.EDGE, "A", "B");
+        addEdge(data, TestGroups.EDGE, "A", "C");
+        addEdge(data, TestGroups.EDGE_2, "A", "B");
+
+        final Map<String, String> options = new HashMap<>();
+        options.put(AccumuloStoreConstants.SCHEMA, new String(schema.toCompactJson(), CommonConstants.UTF_8));
+        options.put(AccumuloStoreConstants.VIEW, new String(view.toCompactJson(), CommonConstants.UTF_8));
+        options.put(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS,
+                ByteEntityAccumuloElementConverter.class.getName());
+
+        final AdjacentIdProjectionIterator iterator = new AdjacentIdProjectionIterator();
+        iterator.validateOptions(options);
+        iterator.init(new SortedMapIterator(data), options, null);
+        iterator.seek(new Range(), Collections.emptyList(), false);
+
+        final List<Map.Entry<Key, Value>> results = new ArrayList<>();
+        while (iterator.hasTop()) {
+            results.add(new AbstractMap.SimpleEntry<>(new Key(iterator.getTopKey()), new Value(iterator.getTopValue())));
+            iterator.next();
+        }
+        return results;
+    }
+
+    private void addEdge(final SortedMap<Key, Value> data, final String group, final String source, final String dest) {
+        final Edge edge = new Edge.Builder()
+                .group(group)
+                .source(source)
+                .dest(dest)
+                .directed(true)
+                .property(PROPERTY, "value")
+                .build();
+        final Pair<Key, Key> keys = converter.getKeysFromElement(edge);
+        final Value value = converter.getValueFromElement(edge);
+        data.put(keys.getFirst(), value);
+        data.put(keys.getSecond(), value);
+    }
+
+    private List<String> toAdjacentIds(final List<Map.Entry<Key, Value>> results) {
+        final List<String> adjacentIds = new ArrayList<>();
+        for (final Map.Entry<Key, Value> result : results) {
+            final EdgeId edgeId = (EdgeId) converter.getElementId(result.getKey(), true);
+            if (EdgeId.MatchedVertex.DESTINATION == edgeId.getMatchedVertex()) {
+                adjacentIds.add(edgeId.getDestination() + ">" + edgeId.getSource());
+            } else {
+                adjacentIds.add(edgeId.getSource() + ">" + edgeId.getDestination());
+            }
+        }
+        return adjacentIds;
+    }
+}
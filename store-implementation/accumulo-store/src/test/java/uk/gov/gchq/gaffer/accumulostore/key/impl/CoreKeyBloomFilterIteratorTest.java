@@ -43,6 +43,36 @@ public class CoreKeyBloomFilterIteratorTest {
                 .withMessageContaining(AccumuloStoreConstants.BLOOM_FILTER);
     }
 
+    @Test
+    public void shouldThrowExceptionWhenValidateOptionsWithoutEveryPartition() throws OperationException, IOException {
+        // Given
+        final CoreKeyBloomFilterIterator filter = new CoreKeyBloomFilterIterator();
+        final Map<String, String> options = new HashMap<>();
+        options.put(AccumuloStoreConstants.BLOOM_FILTER_NUM_PARTITIONS, "2");
+        options.put(AccumuloStoreConstants.BLOOM_FILTER_PARTITION + "0", "some value");
+
+        // When / Then
+        assertThatExceptionOfType(BloomFilterIteratorException.class)
+                .isThrownBy(() -> filter.validateOptions(options))
+                .withMessageContaining(AccumuloStoreConstants.BLOOM_FILTER_PARTITION + "1");
+    }
+
+    @Test
+    public void shouldValidatePartitionedOptionsSuccessfully() throws OperationException, IOException {
+        // Given
+        final CoreKeyBloomFilterIterator filter = new CoreKeyBloomFilterIterator();
+        final Map<String, String> options = new HashMap<>();
+        options.put(AccumuloStoreConstants.BLOOM_FILTER_NUM_PARTITIONS, "2");
+        options.put(AccumuloStoreConstants.BLOOM_FILTER_PARTITION + "0", "some value");
+        options.put(AccumuloStoreConstants.BLOOM_FILTER_PARTITION + "1", "some value");
+
+        // When
+        final boolean result = filter.validateOptions(options);
+
+        // Then
+        assertTrue(result);
+    }
+
     @Test
     public void shouldValidateOptionsSuccessfully() throws OperationException, IOException {
         // Given
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.key.impl;
+
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.data.Key;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.IteratorException;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.CoreKeyVertexSetFilterIterator;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityAccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityIteratorSettingsFactory;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.classic.ClassicAccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.pair.Pair;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CoreKeyVertexSetFilterIteratorTest {
+    private static final Schema SCHEMA = new Schema.Builder()
+            .type("string", String.class)
+            .type("true", Boolean.class)
+            .edge(TestGroups.EDGE, new SchemaEdgeDefinition.Builder()
+                    .source("string")
+                    .destination("string")
+                    .directed("true")
+                    .build())
+            .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                    .vertex("string")
+                    .build())
+            .vertexSerialiser(new StringSerialiser())
+            .build();
+
+    @Test
+    public void shouldThrowExceptionWhenValidateOptionsWithoutVertexSet() {
+        // Given
+        final CoreKeyVertexSetFilterIterator filter = new CoreKeyVertexSetFilterIterator();
+        final Map<String, String> options = new HashMap<>();
+
+        // When / Then
+        assertThatExceptionOfType(IteratorException.class)
+                .isThrownBy(() -> filter.validateOptions(options))
+                .withMessageContaining(AccumuloStoreConstants.VERTEX_SET);
+    }
+
+    @Test
+    public void shouldOnlyAcceptEdgesToVerticesInTheSetWithByteEntityKeys() throws IOException, IteratorSettingException {
+        shouldOnlyAcceptEdgesToVerticesInTheSet(new ByteEntityAccumuloElementConverter(SCHEMA));
+    }
+
+    @Test
+    public void shouldOnlyAcceptEdgesToVerticesInTheSetWithClassicKeys() throws IOException, IteratorSettingException {
+        shouldOnlyAcceptEdgesToVerticesInTheSet(new ClassicAccumuloElementConverter(SCHEMA));
+    }
+
+    private void shouldOnlyAcceptEdgesToVerticesInTheSet(final AccumuloElementConverter converter) throws IOException, IteratorSettingException {
+        // Given
+        final byte[][] sortedVertices = {
+                converter.serialiseVertex(""),
+                converter.serialiseVertex("vertexB"),
+                converter.serialiseVertex("vertexD")
+        };
+        final IteratorSetting setting = new ByteEntityIteratorSettingsFactory().getVertexSetFilterIteratorSetting(sortedVertices);
+        final CoreKeyVertexSetFilterIterator filter = new CoreKeyVertexSetFilterIterator();
+        filter.init(null, setting.getOptions(), null);
+
+        final Pair<Key, Key> edgeKeys = converter.getKeysFromElement(new Edge.Builder()
+                .group(TestGroups.EDGE)
+                .source("vertexA")
+                .dest("vertexB")
+                .directed(true)
+                .build());
+        final Pair<Key, Key> edgeToEmptyVertexKeys = converter.getKeysFromElement(new Edge.Builder()
+                .group(TestGroups.EDGE)
+                .source("vertexC")
+                .dest("")
+                .directed(true)
+                .build());
+        final Pair<Key, Key> entityKeys = converter.getKeysFromElement(new Entity(TestGroups.ENTITY, "vertexE"));
+
+        // When / Then
+        assertTrue(filter.accept(edgeKeys.getFirst(), null));
+        assertFalse(filter.accept(edgeKeys.getSecond(), null));
+        assertTrue(filter.accept(edgeToEmptyVertexKeys.getFirst(), null));
+        assertFalse(filter.accept(edgeToEmptyVertexKeys.getSecond(), null));
+        assertTrue(filter.accept(entityKeys.getFirst(), null));
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.key.impl;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.SortedMapIterator;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ElementSampleIteratorTest {
+    @Test
+    public void shouldReturnASingleEntryWithTheCountsAndASampleOfEachRange() throws IOException {
+        // Given
+        final SortedMap<Key, Value> data = createData();
+
+        // When
+        final List<Map.Entry<Key, Value>> results = sample(data, 5, false, 1L);
+
+        // Then
+        assertEquals(1, results.size());
+        assertEquals(data.lastKey(), results.get(0).getKey());
+        final ElementSampleIterator.Sample sample = ElementSampleIterator.getSample(results.get(0).getValue());
+        final Map<String, Long> expectedCounts = new HashMap<>();
+        expectedCounts.put("A", 100L);
+        expectedCounts.put("B", 10L);
+        assertEquals(expectedCounts, sample.getCounts());
+        assertEquals(5, sample.getEntries().size());
+        for (final Map.Entry<Key, Value> entry : sample.getEntries()) {
+            assertEquals(data.get(entry.getKey()), entry.getValue());
+        }
+    }
+
+    @Test
+    public void shouldSampleEachGroupWhenStratified() throws IOException {
+        // Given
+        final SortedMap<Key, Value> data = createData();
+
+        // When
+        final List<Map.Entry<Key, Value>> results = sample(data, 5, true, 1L);
+
+        // Then
+        final Map<String, Integer> sampledPerGroup = new HashMap<>();
+        for (final Map.Entry<Key, Value> entry : ElementSampleIterator.getSample(results.get(0).getValue()).getEntries()) {
+            sampledPerGroup.merge(entry.getKey().getColumnFamily().toString(), 1, Integer::sum);
+        }
+        final Map<String, Integer> expected = new HashMap<>();
+        expected.put("A", 5);
+        expected.put("B", 5);
+        assertEquals(expected, sampledPerGroup);
+    }
+
+    @Test
+    public void shouldReturnAllEntriesWhenThereAreFewerThanTheSampleSize() throws IOException {
+        // Given
+        final SortedMap<Key, Value> data = createData();
+
+        // When
+        final List<Map.Entry<Key, Value>> results = sample(data, 200, false, null);
+
+        // Then
+        final ElementSampleIterator.Sample sample = ElementSampleIterator.getSample(results.get(0).getValue());
+        assertEquals(data.size(), sample.getEntries().size());
+        for (final Map.Entry<Key, Value> entry : sample.getEntries()) {
+            assertTrue(data.containsKey(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void shouldTakeTheSameSampleWithTheSameSeed() throws IOException {
+        // Given
+        final SortedMap<Key, Value> data = createData();
+
+        // When
+        final List<Map.Entry<Key, Value>> first = ElementSampleIterator.getSample(sample(data, 5, false, 3L).get(0).getValue()).getEntries();
+        final List<Map.Entry<Key, Value>> second = ElementSampleIterator.getSample(sample(data, 5, false, 3L).get(0).getValue()).getEntries();
+
+        // Then
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void shouldReturnNothingForAnEmptyRange() throws IOException {
+        // When
+        final List<Map.Entry<Key, Value>> results = sample(new TreeMap<>(), 5, false, null);
+
+        // Then
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    public void shouldThrowIllegalArgumentExceptionWhenValidateOptionsWithNoSampleSize() {
+        // Given
+        final ElementSampleIterator iterator = new ElementSampleIterator();
+
+        // When / Then
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> iterator.validateOptions(new HashMap<>()))
+                .withMessageContaining(AccumuloStoreConstants.SAMPLE_SIZE);
+    }
+
+    private List<Map.Entry<Key, Value>> sample(final SortedMap<Key, Value> data, final int sampleSize,
+                                               final boolean stratified, final Long seed) throws IOException {
+        final Map<String, String> options = new HashMap<>();
+        options.put(AccumuloStoreConstants.SAMPLE_SIZE, Integer.toString(sampleSize));
+        options.put(AccumuloStoreConstants.SAMPLE_STRATIFIED, Boolean.toString(stratified));
+        if (null != seed) {
+            options.put(AccumuloStoreConstants.SAMPLE_SEED, Long.toString(seed));
+        }
+
+        final ElementSampleIterator iterator = new ElementSampleIterator();
+        iterator.init(new SortedMapIterator(data), options, null);
+        iterator.seek(new Range(), Collections.emptyList(), false);
+
+        final List<Map.Entry<Key, Value>> results = new ArrayList<>();
+        while (iterator.hasTop()) {
+            results.add(new AbstractMap.SimpleEntry<>(new Key(iterator.getTopKey()), new Value(iterator.getTopValue())));
+            iterator.next();
+        }
+        assertFalse(iterator.hasTop());
+        return results;
+    }
+
+    private SortedMap<Key, Value> createData() {
+        final SortedMap<Key, Value> data = new TreeMap<>();
+        for (int i = 0; i < 100; i++) {
+            data.put(new Key(String.format("row%03d", i), "A", ""), new Value(("a" + i).getBytes()));
+        }
+        for (int i = 0; i < 10; i++) {
+            data.put(new Key(String.format("row%03d", i), "B", ""), new Value(("b" + i).getBytes()));
+        }
+        return data;
+    }
+}
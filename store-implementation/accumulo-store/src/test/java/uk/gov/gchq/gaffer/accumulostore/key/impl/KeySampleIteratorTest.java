@@ -0,0 +1,123 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.key.impl;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.SortedMapIterator;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class KeySampleIteratorTest {
+    @Test
+    public void shouldReturnEveryNthKeyWithAnEmptyValue() throws IOException {
+        // Given
+        final SortedMap<Key, Value> data = createData(10);
+
+        // When
+        final List<Key> keys = new ArrayList<>();
+        final KeySampleIterator iterator = createIterator(data, 4);
+        iterator.seek(new Range(), Collections.emptyList(), false);
+        while (iterator.hasTop()) {
+            keys.add(new Key(iterator.getTopKey()));
+            assertEquals(0, iterator.getTopValue().getSize());
+            iterator.next();
+        }
+
+        // Then
+        assertEquals(Arrays.asList(key(0), key(4), key(8)), keys);
+    }
+
+    @Test
+    public void shouldRestartTheSampleWhenSeeked() throws IOException {
+        // Given
+        final KeySampleIterator iterator = createIterator(createData(10), 4);
+
+        // When
+        iterator.seek(new Range(key(3), null), Collections.emptyList(), false);
+
+        // Then
+        assertTrue(iterator.hasTop());
+        assertEquals(key(3), iterator.getTopKey());
+        iterator.next();
+        assertEquals(key(7), iterator.getTopKey());
+    }
+
+    @Test
+    public void shouldReturnEveryKeyWhenSamplingEveryKey() throws IOException {
+        // Given
+        final SortedMap<Key, Value> data = createData(5);
+        final KeySampleIterator iterator = createIterator(data, 1);
+
+        // When
+        final List<Key> keys = new ArrayList<>();
+        iterator.seek(new Range(), Collections.emptyList(), false);
+        while (iterator.hasTop()) {
+            keys.add(new Key(iterator.getTopKey()));
+            iterator.next();
+        }
+
+        // Then
+        assertEquals(new ArrayList<>(data.keySet()), keys);
+    }
+
+    @Test
+    public void shouldThrowIllegalArgumentExceptionWhenValidateOptionsWithNoSampleEvery() {
+        // Given
+        final KeySampleIterator iterator = new KeySampleIterator();
+
+        // When / Then
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> iterator.validateOptions(new HashMap<>()))
+                .withMessageContaining(AccumuloStoreConstants.SAMPLE_EVERY);
+    }
+
+    private KeySampleIterator createIterator(final SortedMap<Key, Value> data, final long sampleEvery) throws IOException {
+        final Map<String, String> options = new HashMap<>();
+        options.put(AccumuloStoreConstants.SAMPLE_EVERY, Long.toString(sampleEvery));
+        final KeySampleIterator iterator = new KeySampleIterator();
+        iterator.init(new SortedMapIterator(data), options, null);
+        return iterator;
+    }
+
+    private SortedMap<Key, Value> createData(final int numKeys) {
+        final SortedMap<Key, Value> data = new TreeMap<>();
+        for (int i = 0; i < numKeys; i++) {
+            data.put(key(i), new Value(("value" + i).getBytes()));
+        }
+        return data;
+    }
+
+    private Key key(final int i) {
+        return new Key(String.format("row%03d", i), "A", "");
+    }
+}
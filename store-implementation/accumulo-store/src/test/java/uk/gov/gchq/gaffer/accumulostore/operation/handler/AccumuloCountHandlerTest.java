@@ -0,0 +1,217 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.operation.handler;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.SingleUseMiniAccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.GroupCounts;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.operation.io.Output;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.operation.handler.CountGroupsHandler;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AccumuloCountHandlerTest {
+    private static final Schema SCHEMA = Schema.fromJson(StreamUtil.schemas(AccumuloCountHandlerTest.class));
+    private static final AccumuloProperties PROPERTIES = AccumuloProperties.loadStoreProperties(StreamUtil.storeProps(AccumuloCountHandlerTest.class));
+    private static final AccumuloProperties CLASSIC_PROPERTIES = AccumuloProperties.loadStoreProperties(StreamUtil.openStream(AccumuloCountHandlerTest.class, "/accumuloStoreClassicKeys.properties"));
+    private static final Context CONTEXT = new Context();
+
+    private AccumuloStore byteEntityStore;
+    private AccumuloStore classicStore;
+
+    @BeforeEach
+    public void reInitialise() throws StoreException, OperationException {
+        byteEntityStore = new SingleUseMiniAccumuloStore();
+        byteEntityStore.initialise("byteEntityGraph", SCHEMA, PROPERTIES);
+        classicStore = new SingleUseMiniAccumuloStore();
+        classicStore.initialise("classicGraph", SCHEMA, CLASSIC_PROPERTIES);
+
+        byteEntityStore.execute(new AddElements.Builder().input(createElements()).build(), CONTEXT);
+        classicStore.execute(new AddElements.Builder().input(createElements()).build(), CONTEXT);
+    }
+
+    @Test
+    public void shouldCountAllElementsOnTabletServers() throws OperationException {
+        shouldCountTheSameAsRetrievingTheElements(byteEntityStore, allElements());
+        shouldCountTheSameAsRetrievingTheElements(classicStore, allElements());
+    }
+
+    @Test
+    public void shouldCountSeededElementsWithQueryTimeAggregation() throws OperationException {
+        final View view = new View.Builder()
+                .entity(TestGroups.ENTITY, new ViewElementDefinition.Builder()
+                        .groupBy()
+                        .build())
+                .edge(TestGroups.EDGE, new ViewElementDefinition.Builder()
+                        .groupBy()
+                        .build())
+                .build();
+        final GetElements getElements = new GetElements.Builder()
+                .input(new EntitySeed("vertex1"), new EntitySeed("vertex2"), new EntitySeed("vertex3"))
+                .view(view)
+                .build();
+
+        shouldCountTheSameAsRetrievingTheElements(byteEntityStore, getElements);
+        shouldCountTheSameAsRetrievingTheElements(classicStore, getElements);
+    }
+
+    @Test
+    public void shouldCountElementsWithPostTransformFilters() throws OperationException {
+        final View view = new View.Builder()
+                .edge(TestGroups.EDGE, new ViewElementDefinition.Builder()
+                        .postTransformFilter(new ElementFilter.Builder()
+                                .select(AccumuloPropertyNames.COLUMN_QUALIFIER)
+                                .execute(new IsMoreThan(1))
+                                .build())
+                        .build())
+                .build();
+
+        shouldCountTheSameAsRetrievingTheElements(byteEntityStore, new GetAllElements.Builder().view(view).build());
+    }
+
+    @Test
+    public void shouldCountGroupsOnTabletServers() throws OperationException {
+        // Given
+        final GroupCounts expected = new CountGroupsHandler().doOperation(
+                new CountGroups.Builder().input(getElements(byteEntityStore, allElements())).build(), CONTEXT, byteEntityStore);
+
+        // When
+        final GroupCounts result = byteEntityStore.execute(new OperationChain.Builder()
+                .first(allElements())
+                .then(new CountGroups())
+                .build(), CONTEXT);
+
+        // Then
+        assertEquals(expected.getEntityGroups(), result.getEntityGroups());
+        assertEquals(expected.getEdgeGroups(), result.getEdgeGroups());
+        assertFalse(result.isLimitHit());
+    }
+
+    @Test
+    public void shouldReturnTabletServerCountsWhenLimitIsHit() throws OperationException {
+        // Given
+        final GroupCounts allCounts = byteEntityStore.execute(new OperationChain.Builder()
+                .first(allElements())
+                .then(new CountGroups())
+                .build(), CONTEXT);
+
+        // When
+        final GroupCounts result = byteEntityStore.execute(new OperationChain.Builder()
+                .first(allElements())
+                .then(new CountGroups(5))
+                .build(), CONTEXT);
+
+        // Then
+        // Counting on the client would stop after the limit, so the full
+        // counts can only have come from the tablet servers
+        assertTrue(result.isLimitHit());
+        assertEquals(allCounts.getEntityGroups(), result.getEntityGroups());
+        assertEquals(allCounts.getEdgeGroups(), result.getEdgeGroups());
+        assertTrue(5 < result.getEntityGroups().get(TestGroups.ENTITY));
+    }
+
+    private void shouldCountTheSameAsRetrievingTheElements(final AccumuloStore store, final Output<CloseableIterable<? extends Element>> getOperation) throws OperationException {
+        // Given
+        final long expected = getElements(store, getOperation).size();
+
+        // When
+        final Long count = store.execute(new OperationChain.Builder()
+                .first(getOperation)
+                .then(new Count<>())
+                .build(), CONTEXT);
+
+        // Then
+        assertTrue(0 < expected);
+        assertEquals(expected, (long) count);
+    }
+
+    private GetAllElements allElements() {
+        return new GetAllElements.Builder()
+                .view(new View.Builder()
+                        .entity(TestGroups.ENTITY)
+                        .edge(TestGroups.EDGE)
+                        .build())
+                .build();
+    }
+
+    private List<Element> getElements(final AccumuloStore store, final Output<CloseableIterable<? extends Element>> getOperation) throws OperationException {
+        try (final CloseableIterable<? extends Element> elements = store.execute(getOperation, CONTEXT)) {
+            return Lists.newArrayList(elements);
+        }
+    }
+
+    private List<Element> createElements() {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex("vertex" + i)
+                    .property(AccumuloPropertyNames.COLUMN_QUALIFIER, i % 3)
+                    .property(AccumuloPropertyNames.COUNT, 1)
+                    .build());
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source("vertex" + i)
+                    .dest("vertex" + ((i + 1) % 20))
+                    .directed(true)
+                    .property(AccumuloPropertyNames.COLUMN_QUALIFIER, i % 3)
+                    .property(AccumuloPropertyNames.COUNT, 1)
+                    .build());
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source("vertex" + i)
+                    .dest("vertex" + ((i + 7) % 20))
+                    .directed(false)
+                    .property(AccumuloPropertyNames.COLUMN_QUALIFIER, 1)
+                    .property(AccumuloPropertyNames.COUNT, 1)
+                    .build());
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.operation.handler;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.SingleUseMiniAccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.retriever.AccumuloItemRetriever;
+import uk.gov.gchq.gaffer.accumulostore.retriever.RetrieverException;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.SampleElements;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.io.Output;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AccumuloSampleElementsHandlerTest {
+    private static final Schema SCHEMA = Schema.fromJson(StreamUtil.schemas(AccumuloSampleElementsHandlerTest.class));
+    private static final AccumuloProperties PROPERTIES = AccumuloProperties.loadStoreProperties(StreamUtil.storeProps(AccumuloSampleElementsHandlerTest.class));
+    private static final AccumuloProperties CLASSIC_PROPERTIES = AccumuloProperties.loadStoreProperties(StreamUtil.openStream(AccumuloSampleElementsHandlerTest.class, "/accumuloStoreClassicKeys.properties"));
+    private static final Context CONTEXT = new Context();
+
+    private AccumuloStore byteEntityStore;
+    private AccumuloStore classicStore;
+
+    @BeforeEach
+    public void reInitialise() throws StoreException, OperationException {
+        byteEntityStore = new SingleUseMiniAccumuloStore();
+        byteEntityStore.initialise("byteEntityGraph", SCHEMA, PROPERTIES);
+        classicStore = new SingleUseMiniAccumuloStore();
+        classicStore.initialise("classicGraph", SCHEMA, CLASSIC_PROPERTIES);
+
+        byteEntityStore.execute(new AddElements.Builder().input(createElements()).build(), CONTEXT);
+        classicStore.execute(new AddElements.Builder().input(createElements()).build(), CONTEXT);
+    }
+
+    @Test
+    public void shouldSampleElementsOnTabletServers() throws OperationException, RetrieverException {
+        // Given
+        final List<Element> allElements = getElements(byteEntityStore, allElements());
+        final List<Element> tabletServerSample;
+        try (final AccumuloItemRetriever<?, ?> retriever = (AccumuloItemRetriever<?, ?>) byteEntityStore.execute(allElements(), CONTEXT)) {
+            tabletServerSample = retriever.sample(10, false, 1L);
+        }
+
+        // When
+        final List<Element> sample = sample(byteEntityStore, 10, false, 1L);
+
+        // Then
+        assertEquals(10, sample.size());
+        assertEquals(10, new HashSet<>(sample).size());
+        assertTrue(allElements.containsAll(sample));
+        assertEquals(tabletServerSample, sample);
+        assertEquals(sample, sample(byteEntityStore, 10, false, 1L));
+    }
+
+    @Test
+    public void shouldSampleEachGroupOnTabletServersWhenStratified() throws OperationException {
+        // When
+        final Map<String, Long> countsByGroup = sample(classicStore, 5, true, 2L).stream()
+                .collect(Collectors.groupingBy(Element::getGroup, Collectors.counting()));
+
+        // Then
+        assertEquals(5L, (long) countsByGroup.get(TestGroups.ENTITY));
+        assertEquals(5L, (long) countsByGroup.get(TestGroups.EDGE));
+    }
+
+    private List<Element> sample(final AccumuloStore store, final int sampleSize, final boolean stratified, final long seed) throws OperationException {
+        return Lists.newArrayList(store.execute(new OperationChain.Builder()
+                .first(allElements())
+                .then(new SampleElements.Builder()
+                        .sampleSize(sampleSize)
+                        .stratified(stratified)
+                        .seed(seed)
+                        .build())
+                .build(), CONTEXT));
+    }
+
+    private GetAllElements allElements() {
+        return new GetAllElements.Builder()
+                .view(new View.Builder()
+                        .entity(TestGroups.ENTITY)
+                        .edge(TestGroups.EDGE)
+                        .build())
+                .build();
+    }
+
+    private List<Element> getElements(final AccumuloStore store, final Output<CloseableIterable<? extends Element>> getOperation) throws OperationException {
+        try (final CloseableIterable<? extends Element> elements = store.execute(getOperation, CONTEXT)) {
+            return Lists.newArrayList(elements);
+        }
+    }
+
+    private List<Element> createElements() {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex("vertex" + i)
+                    .property(AccumuloPropertyNames.COLUMN_QUALIFIER, i % 3)
+                    .property(AccumuloPropertyNames.COUNT, 1)
+                    .build());
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source("vertex" + i)
+                    .dest("vertex" + ((i + 1) % 20))
+                    .directed(true)
+                    .property(AccumuloPropertyNames.COLUMN_QUALIFIER, i % 3)
+                    .property(AccumuloPropertyNames.COUNT, 1)
+                    .build());
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source("vertex" + i)
+                    .dest("vertex" + ((i + 7) % 20))
+                    .directed(false)
+                    .property(AccumuloPropertyNames.COLUMN_QUALIFIER, 1)
+                    .property(AccumuloPropertyNames.COUNT, 1)
+                    .build());
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.operation.handler;
+
+import org.apache.hadoop.io.Text;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.SingleUseMiniAccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.operation.impl.BulkImportElements;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BulkImportElementsHandlerTest {
+    private static final Schema SCHEMA = Schema.fromJson(StreamUtil.schemas(BulkImportElementsHandlerTest.class));
+    private static final AccumuloProperties PROPERTIES = AccumuloProperties.loadStoreProperties(StreamUtil.storeProps(BulkImportElementsHandlerTest.class));
+    private static final AccumuloProperties CLASSIC_PROPERTIES = AccumuloProperties.loadStoreProperties(StreamUtil.openStream(BulkImportElementsHandlerTest.class, "/accumuloStoreClassicKeys.properties"));
+    private static final Context CONTEXT = new Context();
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    public void shouldBulkImportTheSameElementsAsAddElementsWhenTheyFitInMemory() throws Exception {
+        shouldBulkImportTheSameElementsAsAddElements(PROPERTIES, BulkImportElements.DEFAULT_MAX_ENTRIES_IN_MEMORY);
+        shouldBulkImportTheSameElementsAsAddElements(CLASSIC_PROPERTIES, BulkImportElements.DEFAULT_MAX_ENTRIES_IN_MEMORY);
+    }
+
+    @Test
+    public void shouldBulkImportTheSameElementsAsAddElementsWhenMergingRuns() throws Exception {
+        shouldBulkImportTheSameElementsAsAddElements(PROPERTIES, 7);
+        shouldBulkImportTheSameElementsAsAddElements(CLASSIC_PROPERTIES, 7);
+    }
+
+    @Test
+    public void shouldThrowExceptionIfWorkingPathIsNotEmpty() throws Exception {
+        // Given
+        final AccumuloStore store = createStore("bulkImport", PROPERTIES);
+        final File workingPath = new File(tempDir, "working");
+        assertTrue(workingPath.mkdirs());
+        assertTrue(new File(workingPath, "existing").createNewFile());
+        final BulkImportElements bulkImport = new BulkImportElements.Builder()
+                .input(createElements())
+                .workingPath(workingPath.getAbsolutePath())
+                .failurePath(new File(tempDir, "failure").getAbsolutePath())
+                .build();
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> store.execute(bulkImport, CONTEXT));
+    }
+
+    @Test
+    public void shouldImportNothingWhenThereAreNoElements() throws Exception {
+        // Given
+        final AccumuloStore store = createStore("bulkImport", PROPERTIES);
+        final File workingPath = new File(tempDir, "working");
+
+        // When
+        store.execute(new BulkImportElements.Builder()
+                .input(new ArrayList<>())
+                .workingPath(workingPath.getAbsolutePath())
+                .failurePath(new File(tempDir, "failure").getAbsolutePath())
+                .build(), CONTEXT);
+
+        // Then
+        assertTrue(getAllElements(store).isEmpty());
+        assertFalse(workingPath.exists());
+    }
+
+    @Test
+    public void shouldThrowExceptionForInvalidElementsWhenValidating() throws Exception {
+        // Given
+        final AccumuloStore store = createStore("bulkImport", PROPERTIES);
+        final List<Element> elements = createElements();
+        elements.add(new Entity("Unknown group", "vertex"));
+        final File workingPath = new File(tempDir, "working");
+        final File failurePath = new File(tempDir, "failure");
+        final BulkImportElements bulkImport = new BulkImportElements.Builder()
+                .input(elements)
+                .workingPath(workingPath.getAbsolutePath())
+                .failurePath(failurePath.getAbsolutePath())
+                .validate(true)
+                .skipInvalidElements(false)
+                .build();
+
+        // When / Then
+        assertThrows(Exception.class, () -> store.execute(bulkImport, CONTEXT));
+        assertTrue(getAllElements(store).isEmpty());
+        assertFalse(workingPath.exists());
+        assertFalse(failurePath.exists());
+    }
+
+    @Test
+    public void shouldSkipInvalidElements() throws Exception {
+        shouldSkipInvalidElements(true, true);
+    }
+
+    @Test
+    public void shouldSkipElementsThatCannotBeConvertedWhenNotValidating() throws Exception {
+        shouldSkipInvalidElements(false, false);
+    }
+
+    private void shouldSkipInvalidElements(final boolean validate, final boolean skipInvalidElements) throws Exception {
+        // Given
+        final AccumuloStore expected = createStore("expected", PROPERTIES);
+        expected.execute(new AddElements.Builder().input(createElements()).build(), CONTEXT);
+        final AccumuloStore bulkImported = createStore("bulkImport", PROPERTIES);
+        final List<Element> elements = createElements();
+        elements.add(new Entity("Unknown group", "vertex"));
+
+        // When
+        bulkImported.execute(new BulkImportElements.Builder()
+                .input(elements)
+                .workingPath(new File(tempDir, "working").getAbsolutePath())
+                .failurePath(new File(tempDir, "failure").getAbsolutePath())
+                .validate(validate)
+                .skipInvalidElements(skipInvalidElements)
+                .build(), CONTEXT);
+
+        // Then
+        assertEquals(getAllElements(expected), getAllElements(bulkImported));
+    }
+
+    private void shouldBulkImportTheSameElementsAsAddElements(final AccumuloProperties properties, final int maxEntriesInMemory) throws Exception {
+        // Given
+        final AccumuloStore expected = createStore("expected", properties);
+        expected.execute(new AddElements.Builder().input(createElements()).build(), CONTEXT);
+        final AccumuloStore bulkImported = createStore("bulkImport", properties);
+        final TreeSet<Text> splits = new TreeSet<>();
+        splits.add(new Text("vertex3"));
+        splits.add(new Text("vertex6"));
+        bulkImported.getConnection().tableOperations().addSplits(bulkImported.getTableName(), splits);
+        final File workingPath = new File(tempDir, "working" + maxEntriesInMemory + properties.getKeyPackageClass().hashCode());
+        final File failurePath = new File(workingPath.getAbsolutePath() + "-failure");
+
+        // When
+        bulkImported.execute(new BulkImportElements.Builder()
+                .input(createElements())
+                .workingPath(workingPath.getAbsolutePath())
+                .failurePath(failurePath.getAbsolutePath())
+                .maxEntriesInMemory(maxEntriesInMemory)
+                .build(), CONTEXT);
+
+        // Then
+        assertEquals(getAllElements(expected), getAllElements(bulkImported));
+        assertFalse(workingPath.exists());
+        assertFalse(failurePath.exists());
+    }
+
+    private AccumuloStore createStore(final String graphId, final AccumuloProperties properties) throws Exception {
+        final AccumuloStore store = new SingleUseMiniAccumuloStore();
+        store.initialise(graphId, SCHEMA, properties);
+        return store;
+    }
+
+    private Set<Element> getAllElements(final AccumuloStore store) throws Exception {
+        final Set<Element> elements = new HashSet<>();
+        try (final CloseableIterable<? extends Element> results = store.execute(new GetAllElements.Builder()
+                .view(new View.Builder()
+                        .entity(TestGroups.ENTITY)
+                        .edge(TestGroups.EDGE)
+                        .build())
+                .build(), CONTEXT)) {
+            for (final Element element : results) {
+                elements.add(element);
+            }
+        }
+        return elements;
+    }
+
+    private List<Element> createElements() {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex("vertex" + (i % 10))
+                    .property(AccumuloPropertyNames.COLUMN_QUALIFIER, i % 3)
+                    .property(AccumuloPropertyNames.COUNT, 1)
+                    .build());
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source("vertex" + (i % 10))
+                    .dest("vertex" + ((i + 3) % 10))
+                    .directed(true)
+                    .property(AccumuloPropertyNames.COLUMN_QUALIFIER, i % 3)
+                    .property(AccumuloPropertyNames.COUNT, 1)
+                    .build());
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.operation.handler;
+
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.SingleUseMiniAccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.data.GroupStatistics;
+import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetGroupStatistics;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloPropertyNames;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.exception.UnauthorisedException;
+import uk.gov.gchq.gaffer.data.GroupCounts;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.user.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GetGroupStatisticsHandlerTest {
+    private static final Schema SCHEMA = Schema.fromJson(StreamUtil.schemas(GetGroupStatisticsHandlerTest.class));
+    private static final Schema VISIBILITY_SCHEMA = Schema.fromJson(StreamUtil.openStreams(GetGroupStatisticsHandlerTest.class, "schemaWithVisibilities"));
+    private static final Context CONTEXT = new Context();
+    private static final String ADMIN_AUTH = "admin";
+    private static final Context PUBLIC_CONTEXT = new Context(new User.Builder()
+            .userId("publicUser")
+            .dataAuth("public")
+            .build());
+    private static final Context ADMIN_CONTEXT = new Context(new User.Builder()
+            .userId("adminUser")
+            .dataAuth("public")
+            .opAuth(ADMIN_AUTH)
+            .build());
+
+    @Test
+    public void shouldGetStatisticsForElementsAddedByEachWriter() throws StoreException, OperationException {
+        shouldGetStatisticsForEachGroup("1");
+        shouldGetStatisticsForEachGroup("4");
+    }
+
+    @Test
+    public void shouldEstimateCountGroupsFromStatistics() throws StoreException, OperationException {
+        // Given
+        final AccumuloStore store = createStore("1");
+        store.execute(new AddElements.Builder().input(createElements(0)).build(), CONTEXT);
+
+        // When
+        final GroupCounts result = store.execute(new OperationChain.Builder()
+                .first(new GetAllElements.Builder()
+                        .view(new View.Builder()
+                                .edge(TestGroups.EDGE)
+                                .build())
+                        .build())
+                .then(new CountGroups.Builder()
+                        .option(AccumuloStoreConstants.COUNT_GROUPS_ESTIMATE, "true")
+                        .build())
+                .build(), CONTEXT);
+
+        // Then
+        assertEquals(10, (int) result.getEdgeGroups().get(TestGroups.EDGE));
+        assertTrue(result.getEntityGroups().isEmpty());
+    }
+
+    @Test
+    public void shouldFlagLimitHitWhenEstimateIsMoreThanTheLimit() throws StoreException, OperationException {
+        // Given
+        final AccumuloStore store = createStore("1");
+        store.execute(new AddElements.Builder().input(createElements(0)).build(), CONTEXT);
+
+        // When
+        final GroupCounts result = store.execute(new OperationChain.Builder()
+                .first(new GetAllElements.Builder()
+                        .view(new View.Builder()
+                                .edge(TestGroups.EDGE)
+                                .build())
+                        .build())
+                .then(new CountGroups.Builder()
+                        .limit(5)
+                        .option(AccumuloStoreConstants.COUNT_GROUPS_ESTIMATE, "true")
+                        .build())
+                .build(), CONTEXT);
+
+        // Then
+        assertTrue(result.isLimitHit());
+        assertEquals(10, (int) result.getEdgeGroups().get(TestGroups.EDGE));
+    }
+
+    @Test
+    public void shouldNotGetStatisticsForUserWithoutAdminAuthWhenSchemaHasVisibilities() throws StoreException, OperationException {
+        // Given
+        final AccumuloStore store = createStore(VISIBILITY_SCHEMA, "1");
+        store.execute(new AddElements.Builder().input(createElementsWithVisibilities()).build(), CONTEXT);
+
+        // When / Then
+        assertThrows(UnauthorisedException.class, () -> store.execute(new GetGroupStatistics(), PUBLIC_CONTEXT));
+    }
+
+    @Test
+    public void shouldGetStatisticsForUserWithAdminAuthWhenSchemaHasVisibilities() throws StoreException, OperationException {
+        // Given
+        final AccumuloStore store = createStore(VISIBILITY_SCHEMA, "1");
+        store.execute(new AddElements.Builder().input(createElementsWithVisibilities()).build(), CONTEXT);
+
+        // When
+        final Map<String, GroupStatistics> statistics = store.execute(new GetGroupStatistics(), ADMIN_CONTEXT);
+
+        // Then
+        assertEquals(10, statistics.get(TestGroups.ENTITY).getCount());
+    }
+
+    @Test
+    public void shouldCountGroupsInsteadOfEstimatingWhenSchemaHasVisibilities() throws StoreException, OperationException {
+        // Given
+        final AccumuloStore store = createStore(VISIBILITY_SCHEMA, "1");
+        store.execute(new AddElements.Builder().input(createElementsWithVisibilities()).build(), CONTEXT);
+
+        // When
+        final GroupCounts result = store.execute(new OperationChain.Builder()
+                .first(new GetAllElements.Builder()
+                        .view(new View.Builder()
+                                .entity(TestGroups.ENTITY)
+                                .build())
+                        .build())
+                .then(new CountGroups.Builder()
+                        .option(AccumuloStoreConstants.COUNT_GROUPS_ESTIMATE, "true")
+                        .build())
+                .build(), PUBLIC_CONTEXT);
+
+        // Then
+        assertEquals(5, (int) result.getEntityGroups().get(TestGroups.ENTITY));
+    }
+
+    @Test
+    public void shouldNotAddHandlerWhenStatisticsAreDisabled() throws StoreException {
+        // Given
+        final AccumuloProperties properties = AccumuloProperties.loadStoreProperties(StreamUtil.storeProps(GetGroupStatisticsHandlerTest.class));
+        final AccumuloStore store = new SingleUseMiniAccumuloStore();
+
+        // When
+        store.initialise("disabledGraph", SCHEMA, properties);
+
+        // Then
+        assertFalse(store.isSupported(GetGroupStatistics.class));
+    }
+
+    private void shouldGetStatisticsForEachGroup(final String ingestThreads) throws StoreException, OperationException {
+        // Given
+        final AccumuloStore store = createStore(ingestThreads);
+        store.execute(new AddElements.Builder().input(createElements(0)).build(), CONTEXT);
+        store.execute(new AddElements.Builder().input(createElements(10)).build(), CONTEXT);
+
+        // When
+        final Map<String, GroupStatistics> statistics = store.execute(new GetGroupStatistics(), CONTEXT);
+
+        // Then
+        assertEquals(20, statistics.get(TestGroups.ENTITY).getCount());
+        assertEquals(20, statistics.get(TestGroups.EDGE).getCount());
+        // The groups are aggregated, so all the keys have the default timestamp
+        assertEquals(AccumuloStoreConstants.DEFAULT_TIMESTAMP, statistics.get(TestGroups.EDGE).getMinTimestamp());
+        assertEquals(AccumuloStoreConstants.DEFAULT_TIMESTAMP, statistics.get(TestGroups.EDGE).getMaxTimestamp());
+    }
+
+    private AccumuloStore createStore(final String ingestThreads) throws StoreException {
+        return createStore(SCHEMA, ingestThreads);
+    }
+
+    private AccumuloStore createStore(final Schema schema, final String ingestThreads) throws StoreException {
+        final AccumuloProperties properties = AccumuloProperties.loadStoreProperties(StreamUtil.storeProps(GetGroupStatisticsHandlerTest.class));
+        properties.setEnableGroupStatistics(true);
+        properties.setIngestThreads(ingestThreads);
+        properties.setIngestBatchSize("7");
+        properties.setAdminAuth(ADMIN_AUTH);
+        final AccumuloStore store = new SingleUseMiniAccumuloStore();
+        store.initialise("statisticsGraph", schema, properties);
+        return store;
+    }
+
+    private List<Element> createElementsWithVisibilities() {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex("vertex" + i)
+                    .property(AccumuloPropertyNames.COLUMN_QUALIFIER, 1)
+                    .property(AccumuloPropertyNames.COUNT, 1)
+                    .property(AccumuloPropertyNames.VISIBILITY, 0 == i % 2 ? "public" : "private")
+                    .build());
+        }
+        return elements;
+    }
+
+    private List<Element> createElements(final int offset) {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = offset; i < offset + 10; i++) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex("vertex" + i)
+                    .property(AccumuloPropertyNames.COLUMN_QUALIFIER, 1)
+                    .property(AccumuloPropertyNames.COUNT, 1)
+                    .build());
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source("vertex" + i)
+                    .dest("vertex" + (i + 1))
+                    .directed(true)
+                    .property(AccumuloPropertyNames.COLUMN_QUALIFIER, 1)
+                    .property(AccumuloPropertyNames.COUNT, 1)
+                    .build());
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.operation.handler;
+
+import org.apache.accumulo.core.client.AccumuloException;
+import org.apache.accumulo.core.client.AccumuloSecurityException;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.hadoop.io.Text;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.SingleUseMiniAccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.operation.impl.RebalanceSplits;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RebalanceSplitsHandlerTest {
+    private static final Schema SCHEMA = Schema.fromJson(StreamUtil.schemas(RebalanceSplitsHandlerTest.class));
+    private static final AccumuloProperties PROPERTIES = AccumuloProperties.loadStoreProperties(StreamUtil.storeProps(RebalanceSplitsHandlerTest.class));
+    private static final Context CONTEXT = new Context();
+
+    private AccumuloStore store;
+
+    @BeforeEach
+    public void reInitialise() throws StoreException, OperationException {
+        store = new SingleUseMiniAccumuloStore();
+        store.initialise("rebalanceGraph", SCHEMA, PROPERTIES);
+        store.execute(new AddElements.Builder().input(createElements()).build(), CONTEXT);
+    }
+
+    @Test
+    public void shouldSplitTabletsWithTooManyEntries() throws Exception {
+        // When
+        store.execute(new RebalanceSplits.Builder()
+                .maxEntriesPerTablet(30L)
+                .build(), CONTEXT);
+
+        // Then
+        final Collection<Text> splits = getSplits();
+        assertEquals(3, splits.size());
+    }
+
+    @Test
+    public void shouldOnlySplitTabletsThatAreStillTooLarge() throws Exception {
+        // Given
+        store.execute(new RebalanceSplits.Builder()
+                .maxEntriesPerTablet(30L)
+                .build(), CONTEXT);
+        final Collection<Text> splits = getSplits();
+
+        // When
+        store.execute(new RebalanceSplits.Builder()
+                .maxEntriesPerTablet(30L)
+                .build(), CONTEXT);
+
+        // Then
+        assertEquals(splits, getSplits());
+    }
+
+    @Test
+    public void shouldNotSplitTabletsUnderTheLimit() throws Exception {
+        // When
+        store.execute(new RebalanceSplits.Builder()
+                .maxEntriesPerTablet(100L)
+                .build(), CONTEXT);
+
+        // Then
+        assertTrue(getSplits().isEmpty());
+    }
+
+    @Test
+    public void shouldThrowExceptionForInvalidMaxEntriesPerTablet() {
+        // Given
+        final RebalanceSplits op = new RebalanceSplits.Builder()
+                .maxEntriesPerTablet(0L)
+                .build();
+
+        // When / Then
+        assertThrows(OperationException.class, () -> new RebalanceSplitsHandler().doOperation(op, CONTEXT, store));
+    }
+
+    private Collection<Text> getSplits() throws StoreException, AccumuloException, AccumuloSecurityException, TableNotFoundException {
+        return store.getConnection().tableOperations().listSplits(store.getTableName());
+    }
+
+    private List<Element> createElements() {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex("vertex" + i)
+                    .property(AccumuloPropertyNames.COLUMN_QUALIFIER, 1)
+                    .property(AccumuloPropertyNames.COUNT, 1)
+                    .build());
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.operation.impl;
+
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.gaffer.operation.OperationTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+public class GetGroupStatisticsTest extends OperationTest<GetGroupStatistics> {
+
+    @Test
+    public void shouldJSONSerialiseAndDeserialise() throws SerialisationException {
+        // Given
+        final GetGroupStatistics op = new GetGroupStatistics.Builder()
+                .option("testOption", "true")
+                .build();
+
+        // When
+        final byte[] json = JSONSerialiser.serialise(op, true);
+        final GetGroupStatistics deserialisedOp = JSONSerialiser.deserialise(json, GetGroupStatistics.class);
+
+        // Then
+        assertNotNull(deserialisedOp);
+        assertEquals("true", deserialisedOp.getOption("testOption"));
+    }
+
+    @Test
+    @Override
+    public void builderShouldCreatePopulatedOperation() {
+        // When
+        final GetGroupStatistics op = new GetGroupStatistics.Builder()
+                .option("testOption", "true")
+                .build();
+
+        // Then
+        assertEquals("true", op.getOption("testOption"));
+    }
+
+    @Test
+    @Override
+    public void shouldShallowCloneOperation() {
+        // Given
+        final GetGroupStatistics op = new GetGroupStatistics.Builder()
+                .option("testOption", "true")
+                .build();
+
+        // When
+        final GetGroupStatistics clone = op.shallowClone();
+
+        // Then
+        assertNotSame(op, clone);
+        assertEquals("true", clone.getOption("testOption"));
+    }
+
+    @Override
+    protected GetGroupStatistics getTestObject() {
+        return new GetGroupStatistics();
+    }
+}
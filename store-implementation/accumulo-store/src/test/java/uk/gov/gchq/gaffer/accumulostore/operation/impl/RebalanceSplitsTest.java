@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.operation.impl;
+
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.gaffer.operation.OperationTest;
+import uk.gov.gchq.koryphe.ValidationResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RebalanceSplitsTest extends OperationTest<RebalanceSplits> {
+
+    @Test
+    public void shouldJSONSerialiseAndDeserialise() throws SerialisationException {
+        // Given
+        final RebalanceSplits op = new RebalanceSplits.Builder()
+                .maxEntriesPerTablet(100L)
+                .build();
+
+        // When
+        final byte[] json = JSONSerialiser.serialise(op, true);
+        final RebalanceSplits deserialisedOp = JSONSerialiser.deserialise(json, RebalanceSplits.class);
+
+        // Then
+        assertEquals(100L, deserialisedOp.getMaxEntriesPerTablet());
+    }
+
+    @Test
+    public void shouldUseDefaultMaxEntriesPerTablet() {
+        // When
+        final RebalanceSplits op = new RebalanceSplits();
+
+        // Then
+        assertEquals(RebalanceSplits.DEFAULT_MAX_ENTRIES_PER_TABLET, op.getMaxEntriesPerTablet());
+    }
+
+    @Test
+    public void shouldFailValidationIfMaxEntriesPerTabletIsLessThan1() {
+        // Given
+        final RebalanceSplits op = new RebalanceSplits.Builder()
+                .maxEntriesPerTablet(0L)
+                .build();
+
+        // When
+        final ValidationResult result = op.validate();
+
+        // Then
+        assertFalse(result.isValid());
+        assertTrue(result.getErrorString().contains("maxEntriesPerTablet must be at least 1"),
+                result.getErrorString());
+    }
+
+    @Test
+    @Override
+    public void builderShouldCreatePopulatedOperation() {
+        // When
+        final RebalanceSplits op = new RebalanceSplits.Builder()
+                .maxEntriesPerTablet(100L)
+                .option("testOption", "true")
+                .build();
+
+        // Then
+        assertEquals(100L, op.getMaxEntriesPerTablet());
+        assertEquals("true", op.getOption("testOption"));
+    }
+
+    @Test
+    @Override
+    public void shouldShallowCloneOperation() {
+        // Given
+        final RebalanceSplits op = new RebalanceSplits.Builder()
+                .maxEntriesPerTablet(100L)
+                .option("testOption", "true")
+                .build();
+
+        // When
+        final RebalanceSplits clone = op.shallowClone();
+
+        // Then
+        assertNotSame(op, clone);
+        assertEquals(100L, clone.getMaxEntriesPerTablet());
+        assertEquals("true", clone.getOption("testOption"));
+    }
+
+    @Override
+    protected RebalanceSplits getTestObject() {
+        return new RebalanceSplits();
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.retriever;
+
+import org.apache.accumulo.core.client.BatchScanner;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.accumulostore.retriever.PrefetchingScannerIterator.ScannerFactory;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class PrefetchingScannerIteratorTest {
+
+    @Test
+    public void shouldReturnEntriesFromEveryBatch() {
+        // Given
+        final List<String> ids = createIds(100);
+        final PrefetchingScannerIterator<String, String> iterator = createIterator(ids, ranges -> createScanner(ranges, null));
+
+        // When
+        final List<String> results = new ArrayList<>();
+        iterator.forEachRemaining(results::add);
+
+        // Then
+        assertThat(results).containsExactlyInAnyOrderElementsOf(ids);
+    }
+
+    @Test
+    public void shouldThrowExceptionIfScannerCannotBeCreated() {
+        // Given
+        final TableNotFoundException cause = new TableNotFoundException(null, "table", "Table not found");
+        final PrefetchingScannerIterator<String, String> iterator = createIterator(createIds(100), ranges -> {
+            if (ranges.contains(new Range("id50"))) {
+                throw cause;
+            }
+            return createScanner(ranges, null);
+        });
+
+        // When / Then
+        assertThatExceptionOfType(RuntimeException.class)
+                .isThrownBy(() -> iterator.forEachRemaining(item -> {
+                }))
+                .withCause(cause);
+    }
+
+    @Test
+    public void shouldThrowExceptionIfScanFailsPartWay() {
+        // Given
+        final RuntimeException cause = new RuntimeException("Tablet server failed");
+        final PrefetchingScannerIterator<String, String> iterator = createIterator(createIds(100),
+                ranges -> createScanner(ranges, ranges.contains(new Range("id50")) ? cause : null));
+
+        // When / Then
+        assertThatExceptionOfType(RuntimeException.class)
+                .isThrownBy(() -> iterator.forEachRemaining(item -> {
+                }))
+                .withCause(cause);
+    }
+
+    private static PrefetchingScannerIterator<String, String> createIterator(final List<String> ids, final ScannerFactory scannerFactory) {
+        return new PrefetchingScannerIterator<>(
+                ids.iterator(),
+                (id, ranges) -> ranges.add(new Range(id)),
+                scannerFactory,
+                entry -> entry.getKey().getRow().toString(),
+                10,
+                2,
+                5);
+    }
+
+    private static BatchScanner createScanner(final Set<Range> ranges, final RuntimeException failure) {
+        final List<Entry<Key, Value>> entries = ranges.stream()
+                .map(range -> new SimpleEntry<>(new Key(range.getStartKey().getRow()), new Value(new byte[0])))
+                .collect(Collectors.toList());
+        final Iterator<Entry<Key, Value>> entriesIterator = entries.iterator();
+        final Iterator<Entry<Key, Value>> iterator = new Iterator<Entry<Key, Value>>() {
+            @Override
+            public boolean hasNext() {
+                return entriesIterator.hasNext();
+            }
+
+            @Override
+            public Entry<Key, Value> next() {
+                final Entry<Key, Value> entry = entriesIterator.next();
+                if (null != failure && !entriesIterator.hasNext()) {
+                    throw failure;
+                }
+                return entry;
+            }
+        };
+        final BatchScanner scanner = mock(BatchScanner.class);
+        given(scanner.iterator()).willReturn(iterator);
+        return scanner;
+    }
+
+    private static List<String> createIds(final int size) {
+        return IntStream.range(0, size)
+                .mapToObj(i -> "id" + i)
+                .collect(Collectors.toList());
+    }
+}
@@ -441,6 +441,103 @@ public class AccumuloIDBetweenSetsRetrieverTest {
                 .contains(AccumuloTestData.A1_ENTITY);
     }
 
+    @Test
+    public void shouldGetCorrectEdgesWithSetBPartitionedIntoBloomFiltersByteEntityStore() throws StoreException {
+        shouldGetCorrectEdgesWithSetBPartitionedIntoBloomFilters(BYTE_ENTITY_STORE);
+    }
+
+    @Test
+    public void shouldGetCorrectEdgesWithSetBPartitionedIntoBloomFiltersGaffer1Store() throws StoreException {
+        shouldGetCorrectEdgesWithSetBPartitionedIntoBloomFilters(GAFFER_1_KEY_STORE);
+    }
+
+    private void shouldGetCorrectEdgesWithSetBPartitionedIntoBloomFilters(final AccumuloStore store) throws StoreException {
+        // Make the bloom filters too small to pass set B to the iterators in
+        // full, so it has to be partitioned into small bloom filters with lots
+        // of false positives.
+        final int maxBloomFilterSize = store.getProperties().getMaxBloomFilterToPassToAnIterator();
+        final int maxBloomFilterPartitions = store.getProperties().getMaxBloomFilterPartitions();
+        store.getProperties().setMaxBloomFilterToPassToAnIterator("16");
+        store.getProperties().setMaxBloomFilterPartitions("4");
+        try {
+            final Set<EntityId> seedsB = new HashSet<>(AccumuloTestData.SEED_A23_SET);
+            for (int i = 0; i < 20; i++) {
+                seedsB.add(new EntitySeed("abc" + i));
+            }
+            final GetElementsBetweenSets op = new GetElementsBetweenSets.Builder()
+                    .input(AccumuloTestData.SEED_A0_SET)
+                    .inputB(seedsB)
+                    .view(defaultView)
+                    .build();
+
+            // Set B is split across several bloom filter partitions, but the
+            // edge and entity should each be returned once
+            final Set<Element> results = returnElementsFromOperation(store, op, new User(), false);
+            assertThat(results).hasSize(2)
+                    .contains(AccumuloTestData.EDGE_A0_A23, AccumuloTestData.A0_ENTITY);
+        } finally {
+            store.getProperties().setMaxBloomFilterToPassToAnIterator(Integer.toString(maxBloomFilterSize));
+            store.getProperties().setMaxBloomFilterPartitions(Integer.toString(maxBloomFilterPartitions));
+        }
+    }
+
+    @Test
+    public void shouldGetCorrectEdgesWhenSetBIsTooLargeToHoldByteEntityStore() throws StoreException {
+        shouldGetCorrectEdgesWhenSetBIsTooLargeToHold(BYTE_ENTITY_STORE);
+    }
+
+    @Test
+    public void shouldGetCorrectEdgesWhenSetBIsTooLargeToHoldGaffer1Store() throws StoreException {
+        shouldGetCorrectEdgesWhenSetBIsTooLargeToHold(GAFFER_1_KEY_STORE);
+    }
+
+    private void shouldGetCorrectEdgesWhenSetBIsTooLargeToHold(final AccumuloStore store) throws StoreException {
+        // Make the client side bloom filter too small to hold set B exactly,
+        // so it is streamed into the bloom filters instead.
+        final int clientSideBloomFilterSize = store.getProperties().getClientSideBloomFilterSize();
+        store.getProperties().setClientSideBloomFilterSize("800");
+        try {
+            final Set<EntityId> seedsB = new HashSet<>(AccumuloTestData.SEED_A23_SET);
+            for (int i = 0; i < 20; i++) {
+                seedsB.add(new EntitySeed("abc" + i));
+            }
+            final GetElementsBetweenSets op = new GetElementsBetweenSets.Builder()
+                    .input(AccumuloTestData.SEED_A0_SET)
+                    .inputB(seedsB)
+                    .view(defaultView)
+                    .build();
+
+            final Set<Element> results = returnElementsFromOperation(store, op, new User(), false);
+            assertThat(results).hasSize(2)
+                    .contains(AccumuloTestData.EDGE_A0_A23, AccumuloTestData.A0_ENTITY);
+        } finally {
+            store.getProperties().setClientSideBloomFilterSize(Integer.toString(clientSideBloomFilterSize));
+        }
+    }
+
+    @Test
+    public void shouldReturnNothingWhenSetBIsEmptyByteEntityStore() throws StoreException {
+        shouldReturnNothingWhenSetBIsEmpty(false, BYTE_ENTITY_STORE);
+        shouldReturnNothingWhenSetBIsEmpty(true, BYTE_ENTITY_STORE);
+    }
+
+    @Test
+    public void shouldReturnNothingWhenSetBIsEmptyGaffer1Store() throws StoreException {
+        shouldReturnNothingWhenSetBIsEmpty(false, GAFFER_1_KEY_STORE);
+        shouldReturnNothingWhenSetBIsEmpty(true, GAFFER_1_KEY_STORE);
+    }
+
+    private void shouldReturnNothingWhenSetBIsEmpty(final boolean loadIntoMemory, final AccumuloStore store) throws StoreException {
+        final GetElementsBetweenSets op = new GetElementsBetweenSets.Builder()
+                .input(AccumuloTestData.SEED_A0_SET)
+                .inputB(new HashSet<EntityId>())
+                .view(defaultView)
+                .build();
+
+        final Set<Element> results = returnElementsFromOperation(store, op, new User(), loadIntoMemory);
+        assertThat(results).isEmpty();
+    }
+
     @Test
     public void testEdgesWithinSetAAreNotReturnedByteStoreInMemory() throws StoreException {
         testEdgesWithinSetAAreNotReturned(true, BYTE_ENTITY_STORE);
@@ -17,6 +17,7 @@
 package uk.gov.gchq.gaffer.accumulostore.retriever.impl;
 
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Sets;
 import org.apache.accumulo.core.client.AccumuloException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -32,12 +33,14 @@ import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.data.element.id.DirectedType;
 import uk.gov.gchq.gaffer.data.element.id.ElementId;
+import uk.gov.gchq.gaffer.data.element.id.EntityId;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.data.EdgeSeed;
 import uk.gov.gchq.gaffer.operation.data.EntitySeed;
 import uk.gov.gchq.gaffer.operation.graph.SeededGraphFilters.IncludeIncomingOutgoingType;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentIds;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.StoreException;
@@ -292,6 +295,46 @@ public class AccumuloSingleIDRetrieverTest {
         assertEquals(NUM_ENTRIES * 2, count);
     }
 
+    @Test
+    public void shouldRetrieveTheSameResultsWhenPrefetchingBatches() throws StoreException, IteratorSettingException {
+        // Given
+        final AccumuloProperties prefetchProperties = PROPERTIES.clone();
+        prefetchProperties.setMaxEntriesForBatchScanner("50");
+        prefetchProperties.setBatchScannersInFlight("4");
+        prefetchProperties.setRetrieverQueueSize("10");
+        final AccumuloStore prefetchStore = new SingleUseMiniAccumuloStore();
+        prefetchStore.initialise("prefetchGraph", SCHEMA, prefetchProperties);
+        setupGraph(prefetchStore, NUM_ENTRIES);
+
+        final Set<ElementId> ids = new HashSet<>();
+        for (int i = 0; i < NUM_ENTRIES; i++) {
+            ids.add(new EntitySeed("" + i));
+        }
+        final View view = new View.Builder().edge(TestGroups.EDGE).entity(TestGroups.ENTITY).build();
+        final GetElements operation = new GetElements.Builder().view(view).input(ids).build();
+
+        // When
+        final Set<Element> expected = new HashSet<>();
+        Iterables.addAll(expected, new AccumuloSingleIDRetriever<>(BYTE_ENTITY_STORE, operation, new User()));
+        final Set<Element> result = new HashSet<>();
+        Iterables.addAll(result, new AccumuloSingleIDRetriever<>(prefetchStore, operation, new User()));
+
+        // Then
+        assertEquals(NUM_ENTRIES * 3, expected.size());
+        assertEquals(expected, result);
+
+        // When
+        final GetAdjacentIds getAdjacentIds = new GetAdjacentIds.Builder().view(new View.Builder().edge(TestGroups.EDGE).build()).input(ids).build();
+        final Set<EntityId> expectedAdjacentIds = new HashSet<>();
+        Iterables.addAll(expectedAdjacentIds, new AccumuloAdjacentIdRetriever(BYTE_ENTITY_STORE, getAdjacentIds, new User()));
+        final Set<EntityId> adjacentIds = new HashSet<>();
+        Iterables.addAll(adjacentIds, new AccumuloAdjacentIdRetriever(prefetchStore, getAdjacentIds, new User()));
+
+        // Then
+        assertEquals(Sets.newHashSet(new EntitySeed("B"), new EntitySeed("C")), expectedAdjacentIds);
+        assertEquals(expectedAdjacentIds, adjacentIds);
+    }
+
     private static void setupGraph(final AccumuloStore store, final int numEntries) {
         final List<Element> elements = new ArrayList<>();
         for (int i = 0; i < numEntries; i++) {
@@ -22,11 +22,13 @@ import org.junit.jupiter.api.Test;
 
 import uk.gov.gchq.gaffer.commonutil.ByteArrayEscapeUtils;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -136,10 +138,26 @@ public class ByteArrayEscapeUtilsTest {
         }
     }
 
+    @Test
+    public void shouldEscapeIntoTargetAtPosition() {
+        // Given
+        final byte[] bytes = new byte[]{(byte) 10, ByteArrayEscapeUtils.DELIMITER, ESCAPE_CHAR, (byte) 40};
+        final byte[] target = new byte[ByteArrayEscapeUtils.escapedLength(bytes) + 2];
+
+        // When
+        final int position = ByteArrayEscapeUtils.escape(bytes, target, 1);
+
+        // Then
+        assertEquals(target.length - 1, position);
+        assertArrayEquals(ByteArrayEscapeUtils.escape(bytes), Arrays.copyOfRange(target, 1, position));
+        assertArrayEquals(bytes, ByteArrayEscapeUtils.unEscape(target, 1, position));
+    }
+
     private void check(final byte[] bytes) {
         byte[] escaped = ByteArrayEscapeUtils.escape(bytes);
         byte[] unescaped = ByteArrayEscapeUtils.unEscape(escaped);
         assertArrayEquals(bytes, unescaped);
+        assertEquals(escaped.length, ByteArrayEscapeUtils.escapedLength(bytes));
         for (final byte anEscaped : escaped) {
             assertNotEquals(ByteArrayEscapeUtils.DELIMITER, anEscaped);
         }
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.StringUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.elementdefinition.exception.SchemaException;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IteratorOptionCacheTest {
+    private static final String SCHEMA_JSON = StringUtil.toString(
+            Schema.fromJson(StreamUtil.schemas(IteratorOptionCacheTest.class)).toCompactJson());
+
+    @Test
+    public void shouldDeserialiseSchemaAndView() {
+        // Given
+        final View view = new View.Builder().entity(TestGroups.ENTITY).build();
+
+        // When
+        final Schema schema = IteratorOptionCache.SCHEMAS.get(SCHEMA_JSON);
+        final View cachedView = IteratorOptionCache.VIEWS.get(StringUtil.toString(view.toCompactJson()));
+
+        // Then
+        assertEquals(SCHEMA_JSON, StringUtil.toString(schema.toCompactJson()));
+        assertEquals(view, cachedView);
+    }
+
+    @Test
+    public void shouldDeserialiseNewInstanceForEachCall() {
+        // Given
+        final IteratorOptionCache<Schema> cache = createCache();
+
+        // When
+        final Schema schema1 = cache.get(SCHEMA_JSON);
+        final Schema schema2 = cache.get(SCHEMA_JSON);
+
+        // Then
+        assertNotSame(schema1, schema2);
+        assertNotSame(schema1.getElement(TestGroups.ENTITY).getIngestAggregator(),
+                schema2.getElement(TestGroups.ENTITY).getIngestAggregator());
+        assertEquals(StringUtil.toString(schema1.toCompactJson()), StringUtil.toString(schema2.toCompactJson()));
+    }
+
+    @Test
+    public void shouldOnlyParseTheSameJsonOnce() throws IOException {
+        // Given
+        final IteratorOptionCache<Schema> cache = createCache();
+
+        // When / Then
+        assertSame(cache.getTree(SCHEMA_JSON), cache.getTree(SCHEMA_JSON));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedJson() throws IOException {
+        // Given
+        final IteratorOptionCache<View> cache = new IteratorOptionCache<>(View.class, view -> view);
+        final String firstJson = createViewJson(0);
+        final String secondJson = createViewJson(1);
+        final Object first = cache.getTree(firstJson);
+        final Object second = cache.getTree(secondJson);
+
+        // When
+        for (int i = 2; i <= IteratorOptionCache.MAX_ENTRIES; i++) {
+            cache.getTree(createViewJson(i));
+            // Keep the second entry recently used
+            cache.getTree(secondJson);
+        }
+
+        // Then
+        assertSame(second, cache.getTree(secondJson));
+        assertNotSame(first, cache.getTree(firstJson));
+    }
+
+    @Test
+    public void shouldThrowExceptionForNullJson() {
+        // Given
+        final IteratorOptionCache<Schema> cache = createCache();
+
+        // When / Then
+        assertThrows(SchemaException.class, () -> cache.get(null));
+    }
+
+    private static IteratorOptionCache<Schema> createCache() {
+        return new IteratorOptionCache<>(Schema.class, schema -> new Schema.Builder().merge(schema).build());
+    }
+
+    private static String createViewJson(final int index) {
+        return StringUtil.toString(new View.Builder().entity(TestGroups.ENTITY + index).build().toCompactJson());
+    }
+}
@@ -19,12 +19,16 @@ package uk.gov.gchq.gaffer.accumulostore.utils;
 import org.apache.accumulo.core.client.IteratorSetting;
 import org.junit.jupiter.api.Test;
 
+import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
+import uk.gov.gchq.gaffer.commonutil.ByteArrayEscapeUtils;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 public class IteratorSettingBuilderTest {
 
@@ -59,4 +63,29 @@ public class IteratorSettingBuilderTest {
         // Then
         verify(setting).addOption(AccumuloStoreConstants.VIEW, compactSchemaJson);
     }
+
+    @Test
+    public void shouldAddDelimitedVertexSetToIteratorSetting() throws Exception {
+        // Given
+        final IteratorSetting setting = mock(IteratorSetting.class);
+        final byte[][] vertices = {"a".getBytes(), "b".getBytes()};
+
+        // When
+        new IteratorSettingBuilder(setting).vertexSet(vertices);
+
+        // Then
+        verify(setting).addOption(AccumuloStoreConstants.VERTEX_SET,
+                "a" + new String(new byte[]{ByteArrayEscapeUtils.DELIMITER}, AccumuloStoreConstants.BLOOM_FILTER_CHARSET) + "b");
+    }
+
+    @Test
+    public void shouldThrowExceptionForEmptyVertexSet() {
+        // Given
+        final IteratorSetting setting = mock(IteratorSetting.class);
+        final IteratorSettingBuilder builder = new IteratorSettingBuilder(setting);
+
+        // When / Then
+        assertThrows(IteratorSettingException.class, () -> builder.vertexSet(new byte[0][]));
+        verifyNoInteractions(setting);
+    }
 }
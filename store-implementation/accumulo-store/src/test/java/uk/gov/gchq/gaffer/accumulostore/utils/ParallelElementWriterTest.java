@@ -0,0 +1,155 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.SingleUseMiniAccumuloStore;
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ParallelElementWriterTest {
+    private static final Schema SCHEMA = Schema.fromJson(StreamUtil.schemas(ParallelElementWriterTest.class));
+    private static final Context CONTEXT = new Context();
+
+    @Test
+    public void shouldWriteTheSameElementsAsASingleThread() throws StoreException, OperationException {
+        // Given
+        final AccumuloStore expected = createStore("expected", "1", "false");
+        final AccumuloStore parallel = createStore("parallel", "4", "false");
+
+        // When
+        expected.execute(new AddElements.Builder().input(createElements()).build(), CONTEXT);
+        parallel.execute(new AddElements.Builder().input(createElements()).build(), CONTEXT);
+
+        // Then
+        assertEquals(getAllElements(expected), getAllElements(parallel));
+    }
+
+    @Test
+    public void shouldWriteTheSameElementsWhenPreAggregating() throws StoreException, OperationException {
+        // Given
+        final AccumuloStore expected = createStore("expected", "1", "false");
+        final AccumuloStore parallel = createStore("parallel", "3", "true");
+
+        // When
+        expected.execute(new AddElements.Builder().input(createElements()).build(), CONTEXT);
+        parallel.execute(new AddElements.Builder().input(createElements()).build(), CONTEXT);
+
+        // Then
+        assertEquals(getAllElements(expected), getAllElements(parallel));
+    }
+
+    @Test
+    public void shouldSkipInvalidElements() throws StoreException, OperationException {
+        // Given
+        final AccumuloStore parallel = createStore("parallel", "4", "false");
+        final List<Element> elements = createElements();
+        elements.add(new Entity(TestGroups.ENTITY_2, "vertex"));
+
+        // When
+        parallel.execute(new AddElements.Builder()
+                .input(elements)
+                .skipInvalidElements(true)
+                .build(), CONTEXT);
+
+        // Then
+        final AccumuloStore expected = createStore("expected", "1", "false");
+        expected.execute(new AddElements.Builder().input(createElements()).build(), CONTEXT);
+        assertEquals(getAllElements(expected), getAllElements(parallel));
+    }
+
+    @Test
+    public void shouldThrowExceptionForInvalidElements() throws StoreException {
+        // Given
+        final AccumuloStore parallel = createStore("parallel", "4", "false");
+        final List<Element> elements = createElements();
+        elements.add(new Entity(TestGroups.ENTITY_2, "vertex"));
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> parallel.execute(new AddElements.Builder()
+                .input(elements)
+                .build(), CONTEXT));
+    }
+
+    private AccumuloStore createStore(final String graphId, final String ingestThreads, final String preAggregation) throws StoreException {
+        final AccumuloProperties properties = AccumuloProperties.loadStoreProperties(StreamUtil.storeProps(ParallelElementWriterTest.class));
+        properties.setIngestThreads(ingestThreads);
+        properties.setIngestBatchSize("7");
+        properties.setIngestPreAggregation(preAggregation);
+        final AccumuloStore store = new SingleUseMiniAccumuloStore();
+        store.initialise(graphId, SCHEMA, properties);
+        return store;
+    }
+
+    private Set<Element> getAllElements(final AccumuloStore store) throws OperationException {
+        final Set<Element> elements = new HashSet<>();
+        try (final CloseableIterable<? extends Element> results = store.execute(new GetAllElements.Builder()
+                .view(new View.Builder()
+                        .entity(TestGroups.ENTITY)
+                        .edge(TestGroups.EDGE)
+                        .build())
+                .build(), CONTEXT)) {
+            for (final Element element : results) {
+                elements.add(element);
+            }
+        }
+        return elements;
+    }
+
+    private List<Element> createElements() {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex("vertex" + (i % 10))
+                    .property(AccumuloPropertyNames.COLUMN_QUALIFIER, i % 3)
+                    .property(AccumuloPropertyNames.COUNT, 1)
+                    .build());
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source("vertex" + (i % 10))
+                    .dest("vertex" + ((i + 1) % 10))
+                    .directed(true)
+                    .property(AccumuloPropertyNames.COLUMN_QUALIFIER, i % 3)
+                    .property(AccumuloPropertyNames.COUNT, 1)
+                    .build());
+        }
+        return elements;
+    }
+}
@@ -42,9 +42,15 @@ public class HBaseProperties extends StoreProperties {
     public static final String WRITE_BUFFER_SIZE = "hbase.writeBufferSize";
     public static final String DEPENDENCY_JARS_HDFS_DIR_PATH = "hbase.hdfs.jars.path";
     public static final String MAX_ENTRIES_FOR_BATCH_SCANNER = "hbase.entriesForBatchScanner";
+    public static final String THREADS_FOR_BATCH_SCANNER = "hbase.threadsForBatchScanner";
+    public static final String INGEST_THREADS = "hbase.ingestThreads";
+    public static final String INGEST_BUFFERED_BYTES = "hbase.ingestBufferedBytes";
 
     public static final int WRITE_BUFFER_SIZE_DEFAULT = 1000000;
     public static final String MAX_ENTRIES_FOR_BATCH_SCANNER_DEFAULT = "50000";
+    public static final String THREADS_FOR_BATCH_SCANNER_DEFAULT = "10";
+    public static final String INGEST_THREADS_DEFAULT = "1";
+    public static final String INGEST_BUFFERED_BYTES_DEFAULT = "67108864";
 
     public HBaseProperties() {
         super(HBaseStore.class);
@@ -164,6 +170,71 @@ public class HBaseProperties extends StoreProperties {
         set(MAX_ENTRIES_FOR_BATCH_SCANNER, maxEntriesForBatchScanner);
     }
 
+    /**
+     * Get the maximum number of region scans that should run in parallel when
+     * retrieving elements for seeds.
+     *
+     * @return the maximum number of region scans that should run in parallel
+     */
+    public int getThreadsForBatchScanner() {
+        return Integer.parseInt(get(THREADS_FOR_BATCH_SCANNER, THREADS_FOR_BATCH_SCANNER_DEFAULT));
+    }
+
+    /**
+     * Set the maximum number of region scans that should run in parallel when
+     * retrieving elements for seeds.
+     *
+     * @param threadsForBatchScanner the maximum number of region scans that
+     *                               should run in parallel
+     */
+    public void setThreadsForBatchScanner(final String threadsForBatchScanner) {
+        set(THREADS_FOR_BATCH_SCANNER, threadsForBatchScanner);
+    }
+
+    /**
+     * Get the number of threads used to convert elements into puts when adding
+     * elements. If this is more than 1, the puts are written asynchronously
+     * through a {@link org.apache.hadoop.hbase.client.BufferedMutator}.
+     *
+     * @return the number of threads used to convert elements into puts
+     */
+    public int getIngestThreads() {
+        return Integer.parseInt(get(INGEST_THREADS, INGEST_THREADS_DEFAULT));
+    }
+
+    /**
+     * Set the number of threads used to convert elements into puts when adding
+     * elements.
+     *
+     * @param ingestThreads the number of threads used to convert elements into
+     *                      puts
+     */
+    public void setIngestThreads(final String ingestThreads) {
+        set(INGEST_THREADS, ingestThreads);
+    }
+
+    /**
+     * Get the maximum number of bytes of puts that can be buffered before
+     * they are sent to the region servers, when using more than 1 ingest
+     * thread.
+     *
+     * @return the maximum number of bytes of puts to buffer
+     */
+    public long getIngestBufferedBytes() {
+        return Long.parseLong(get(INGEST_BUFFERED_BYTES, INGEST_BUFFERED_BYTES_DEFAULT));
+    }
+
+    /**
+     * Set the maximum number of bytes of puts that can be buffered before
+     * they are sent to the region servers, when using more than 1 ingest
+     * thread.
+     *
+     * @param ingestBufferedBytes the maximum number of bytes of puts to buffer
+     */
+    public void setIngestBufferedBytes(final String ingestBufferedBytes) {
+        set(INGEST_BUFFERED_BYTES, ingestBufferedBytes);
+    }
+
     @Override
     public String getJsonSerialiserModules() {
         return new StringDeduplicateConcat().apply(
@@ -31,19 +31,27 @@ import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.id.ElementId;
 import uk.gov.gchq.gaffer.data.element.id.EntityId;
 import uk.gov.gchq.gaffer.hbasestore.operation.handler.AddElementsHandler;
+import uk.gov.gchq.gaffer.hbasestore.operation.handler.BulkImportElementsHandler;
 import uk.gov.gchq.gaffer.hbasestore.operation.handler.GenerateSplitPointsFromSampleHandler;
 import uk.gov.gchq.gaffer.hbasestore.operation.handler.GetAdjacentIdsHandler;
 import uk.gov.gchq.gaffer.hbasestore.operation.handler.GetAllElementsHandler;
 import uk.gov.gchq.gaffer.hbasestore.operation.handler.GetElementsHandler;
+import uk.gov.gchq.gaffer.hbasestore.operation.handler.HBaseCountGroupsHandler;
+import uk.gov.gchq.gaffer.hbasestore.operation.handler.HBaseCountHandler;
+import uk.gov.gchq.gaffer.hbasestore.operation.handler.HBaseSampleElementsHandler;
 import uk.gov.gchq.gaffer.hbasestore.operation.handler.SampleElementsForSplitPointsHandler;
 import uk.gov.gchq.gaffer.hbasestore.operation.handler.SplitStoreFromIterableHandler;
 import uk.gov.gchq.gaffer.hbasestore.operation.hdfs.handler.AddElementsFromHdfsHandler;
+import uk.gov.gchq.gaffer.hbasestore.operation.impl.BulkImportElements;
 import uk.gov.gchq.gaffer.hbasestore.retriever.HBaseRetriever;
 import uk.gov.gchq.gaffer.hbasestore.utils.TableUtils;
 import uk.gov.gchq.gaffer.hdfs.operation.AddElementsFromHdfs;
 import uk.gov.gchq.gaffer.hdfs.operation.handler.HdfsSplitStoreFromFileHandler;
 import uk.gov.gchq.gaffer.operation.graph.GraphFilters;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
 import uk.gov.gchq.gaffer.operation.impl.GenerateSplitPointsFromSample;
+import uk.gov.gchq.gaffer.operation.impl.SampleElements;
 import uk.gov.gchq.gaffer.operation.impl.SampleElementsForSplitPoints;
 import uk.gov.gchq.gaffer.operation.impl.SplitStoreFromFile;
 import uk.gov.gchq.gaffer.operation.impl.SplitStoreFromIterable;
@@ -254,5 +262,9 @@ public class HBaseStore extends Store {
         addOperationHandler(AddElementsFromHdfs.class, new AddElementsFromHdfsHandler());
         addOperationHandler(SampleElementsForSplitPoints.class, new SampleElementsForSplitPointsHandler());
         addOperationHandler(GenerateSplitPointsFromSample.class, new GenerateSplitPointsFromSampleHandler());
+        addOperationHandler(BulkImportElements.class, new BulkImportElementsHandler());
+        addOperationHandler(Count.class, new HBaseCountHandler<>());
+        addOperationHandler(CountGroups.class, new HBaseCountGroupsHandler());
+        addOperationHandler(SampleElements.class, new HBaseSampleElementsHandler());
     }
 }
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.coprocessor;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.HRegionInfo;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.KeyValueUtil;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.regionserver.RegionScanner;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import uk.gov.gchq.gaffer.commonutil.CommonConstants;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.hbasestore.serialisation.ElementSerialisation;
+import uk.gov.gchq.gaffer.hbasestore.utils.HBaseStoreConstants;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * An {@code ElementSummariser} consumes the cells that a
+ * {@link uk.gov.gchq.gaffer.hbasestore.coprocessor.scanner.QueryScanner} would
+ * return from a region and summarises them, so only the summary is sent back
+ * to the client.
+ * <p>
+ * The summary always contains a single counts cell, holding the number of
+ * elements in each group. This has an empty column qualifier, which no element
+ * cell can have, and the row of the last cell in the region. If a sample size
+ * is set, the summary also contains a reservoir sample of the cells, taken
+ * either from all of the cells or from each group separately.
+ * </p>
+ * <p>
+ * Each region only returns its own partial counts and sample. These are
+ * combined on the client by {@link uk.gov.gchq.gaffer.hbasestore.retriever.HBaseRetriever}.
+ * </p>
+ */
+public class ElementSummariser {
+    private static final String ALL_GROUPS = "";
+
+    private final ElementSerialisation serialisation;
+    private final int sampleSize;
+    private final boolean stratified;
+    private final Random random;
+    private final Map<String, long[]> counts = new HashMap<>();
+    private final Map<String, Reservoir> reservoirs = new HashMap<>();
+    private Cell lastCell;
+
+    public ElementSummariser(final ElementSerialisation serialisation,
+                             final int sampleSize,
+                             final boolean stratified,
+                             final Random random) {
+        this.serialisation = serialisation;
+        this.sampleSize = sampleSize;
+        this.stratified = stratified;
+        this.random = random;
+    }
+
+    /**
+     * Creates a summariser from the summary attributes of a scan.
+     *
+     * @param scan          the scan
+     * @param serialisation the serialisation to read the groups with
+     * @param scanner       the region scanner, whose start key is combined
+     *                      with any seed so each region samples differently
+     * @return the summariser, or null if the scan does not request a summary
+     */
+    public static ElementSummariser create(final Scan scan, final ElementSerialisation serialisation, final RegionScanner scanner) {
+        final byte[] sampleSizeBytes = scan.getAttribute(HBaseStoreConstants.SAMPLE_SIZE);
+        final boolean countGroups = Boolean.parseBoolean(Bytes.toString(scan.getAttribute(HBaseStoreConstants.COUNT_GROUPS)));
+        if (!countGroups && null == sampleSizeBytes) {
+            return null;
+        }
+
+        final int sampleSize = null != sampleSizeBytes ? Integer.parseInt(Bytes.toString(sampleSizeBytes)) : 0;
+        final boolean stratified = Boolean.parseBoolean(Bytes.toString(scan.getAttribute(HBaseStoreConstants.SAMPLE_STRATIFIED)));
+        final byte[] seed = scan.getAttribute(HBaseStoreConstants.SAMPLE_SEED);
+        final Random random;
+        if (null != seed) {
+            final HRegionInfo regionInfo = scanner.getRegionInfo();
+            final byte[] regionKey = null != regionInfo ? regionInfo.getStartKey() : HBaseStoreConstants.EMPTY_BYTES;
+            random = new Random(31 * Long.parseLong(Bytes.toString(seed)) + Bytes.hashCode(regionKey));
+        } else {
+            random = new Random();
+        }
+        return new ElementSummariser(serialisation, sampleSize, stratified, random);
+    }
+
+    /**
+     * Checks whether a cell returned from a summarised scan is a counts cell.
+     *
+     * @param cell the cell
+     * @return true if the cell holds the group counts
+     */
+    public static boolean isCounts(final Cell cell) {
+        return 0 == cell.getQualifierLength();
+    }
+
+    /**
+     * Reads the counts, keyed by group, from a counts cell.
+     *
+     * @param cell the counts cell
+     * @return the number of elements in each group
+     * @throws IOException if the value could not be read
+     */
+    public static Map<String, Long> getCounts(final Cell cell) throws IOException {
+        final Map<String, Long> counts = new HashMap<>();
+        try (final DataInputStream input = new DataInputStream(
+                new ByteArrayInputStream(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength()))) {
+            final int numGroups = input.readInt();
+            for (int i = 0; i < numGroups; i++) {
+                final byte[] group = new byte[input.readInt()];
+                input.readFully(group);
+                counts.put(new String(group, CommonConstants.UTF_8), input.readLong());
+            }
+        }
+        return counts;
+    }
+
+    public void add(final List<Cell> cells) throws SerialisationException {
+        for (final Cell cell : cells) {
+            final String group = serialisation.getGroup(cell);
+            final long[] count = counts.get(group);
+            if (null == count) {
+                counts.put(group, new long[]{1});
+            } else {
+                count[0]++;
+            }
+
+            if (sampleSize > 0) {
+                reservoirs.computeIfAbsent(stratified ? group : ALL_GROUPS, k -> new Reservoir()).offer(cell);
+            }
+        }
+
+        if (!cells.isEmpty()) {
+            lastCell = KeyValueUtil.copyToNewKeyValue(cells.get(cells.size() - 1));
+        }
+    }
+
+    /**
+     * Adds the sampled cells, sorted, followed by the counts cell to the
+     * output. Nothing is added if no cells were summarised.
+     *
+     * @param output the list to add the summary to
+     * @throws IOException if the counts could not be written
+     */
+    public void writeSummary(final List<Cell> output) throws IOException {
+        if (null == lastCell) {
+            return;
+        }
+
+        final List<Cell> sample = new ArrayList<>();
+        for (final Reservoir reservoir : reservoirs.values()) {
+            sample.addAll(reservoir.cells);
+        }
+        sample.sort(KeyValue.COMPARATOR);
+        output.addAll(sample);
+        output.add(CellUtil.createCell(CellUtil.cloneRow(lastCell), CellUtil.cloneFamily(lastCell),
+                HBaseStoreConstants.EMPTY_BYTES, lastCell.getTimestamp(), KeyValue.Type.Put.getCode(), toValue()));
+    }
+
+    private byte[] toValue() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(counts.size());
+            for (final Map.Entry<String, long[]> entry : counts.entrySet()) {
+                final byte[] group = entry.getKey().getBytes(CommonConstants.UTF_8);
+                output.writeInt(group.length);
+                output.write(group);
+                output.writeLong(entry.getValue()[0]);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    // A fixed size reservoir, which replaces its sampled cells with
+    // decreasing probability so that each offered cell is equally likely to
+    // be kept. Cells are copied when kept, as scanned cells may share buffers.
+    private final class Reservoir {
+        private final List<Cell> cells = new ArrayList<>();
+        private long offered;
+
+        private void offer(final Cell cell) {
+            offered++;
+            if (cells.size() < sampleSize) {
+                cells.add(KeyValueUtil.copyToNewKeyValue(cell));
+            } else {
+                final long index = (long) (random.nextDouble() * offered);
+                if (index < sampleSize) {
+                    cells.set((int) index, KeyValueUtil.copyToNewKeyValue(cell));
+                }
+            }
+        }
+    }
+}
@@ -39,12 +39,14 @@ import java.io.IOException;
 public class GafferCoprocessor extends BaseRegionObserver {
     private Schema schema;
     private ElementSerialisation serialisation;
+    private ScannerProcessorCache processorCache;
 
     @Override
     public void start(final CoprocessorEnvironment e) throws IOException {
         final String schemaJson = StringUtil.unescapeComma(e.getConfiguration().get(HBaseStoreConstants.SCHEMA));
-        schema = Schema.fromJson(Bytes.toBytes(schemaJson));
-        serialisation = new ElementSerialisation(schema);
+        processorCache = ScannerProcessorCache.forSchema(Bytes.toBytes(schemaJson));
+        schema = processorCache.getSchema();
+        serialisation = processorCache.getSerialisation();
     }
 
     @Override
@@ -73,6 +75,6 @@ public class GafferCoprocessor extends BaseRegionObserver {
 
     @Override
     public RegionScanner postScannerOpen(final ObserverContext<RegionCoprocessorEnvironment> e, final Scan scan, final RegionScanner scanner) throws IOException {
-        return new QueryScanner(scanner, scan, schema, serialisation);
+        return new QueryScanner(scanner, scan, processorCache);
     }
 }
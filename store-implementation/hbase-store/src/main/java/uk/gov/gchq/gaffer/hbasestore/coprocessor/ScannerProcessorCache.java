@@ -0,0 +1,172 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.coprocessor;
+
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.GafferScannerProcessor;
+import uk.gov.gchq.gaffer.hbasestore.coprocessor.scanner.QueryScanner;
+import uk.gov.gchq.gaffer.hbasestore.serialisation.ElementSerialisation;
+import uk.gov.gchq.gaffer.hbasestore.utils.HBaseStoreConstants;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * A region server wide cache of the {@link Schema} for each Gaffer table and
+ * the chains of {@link GafferScannerProcessor}s built for its scans. The
+ * processors for a scan are built by parsing the view JSON sent as a scan
+ * attribute, and a scanner is opened for every region of every scan, so
+ * without this the same view would be parsed many times.
+ * </p>
+ * <p>
+ * Processor chains are keyed on a SHA-256 digest of the scan attributes they
+ * are built from. Views hold filters and aggregators that are not thread
+ * safe, so each chain is leased to one scanner at a time and only reused once
+ * it has been released, when its scanner is closed.
+ * </p>
+ */
+public final class ScannerProcessorCache {
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final int MAX_SCHEMAS = 16;
+    private static final int MAX_KEYS = 100;
+    private static final int MAX_CHAINS_PER_KEY = 64;
+    private static final Map<ByteBuffer, ScannerProcessorCache> CACHES = createLruMap(MAX_SCHEMAS);
+
+    private final Schema schema;
+    private final ElementSerialisation serialisation;
+    private final Map<ByteBuffer, Deque<List<GafferScannerProcessor>>> chains = createLruMap(MAX_KEYS);
+    private final Map<List<GafferScannerProcessor>, ByteBuffer> leased = new IdentityHashMap<>();
+
+    ScannerProcessorCache(final Schema schema) {
+        this.schema = schema;
+        this.serialisation = new ElementSerialisation(schema);
+    }
+
+    /**
+     * Gets the cache for the schema with the provided JSON, parsing the schema
+     * if it is not already cached.
+     *
+     * @param schemaJson the schema JSON
+     * @return the cache for the schema
+     */
+    public static ScannerProcessorCache forSchema(final byte[] schemaJson) {
+        final ByteBuffer key = digest(schemaJson);
+        synchronized (CACHES) {
+            ScannerProcessorCache cache = CACHES.get(key);
+            if (null == cache) {
+                cache = new ScannerProcessorCache(Schema.fromJson(schemaJson));
+                CACHES.put(key, cache);
+            }
+            return cache;
+        }
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    public ElementSerialisation getSerialisation() {
+        return serialisation;
+    }
+
+    /**
+     * Leases a chain of processors for the scan that is not in use by any
+     * other scanner, building a new one if required. The chain must be
+     * returned using {@link #release(List)} when the scanner is closed.
+     *
+     * @param scan the scan to get the processors for
+     * @return the processors for the scan
+     */
+    public List<GafferScannerProcessor> lease(final Scan scan) {
+        final ByteBuffer key = digest(scan.getAttribute(HBaseStoreConstants.VIEW),
+                scan.getAttribute(HBaseStoreConstants.DIRECTED_TYPE),
+                scan.getAttribute(HBaseStoreConstants.EXTRA_PROCESSORS));
+        synchronized (this) {
+            final Deque<List<GafferScannerProcessor>> cached = chains.get(key);
+            if (null != cached && !cached.isEmpty()) {
+                final List<GafferScannerProcessor> chain = cached.pop();
+                leased.put(chain, key);
+                return chain;
+            }
+        }
+
+        final List<GafferScannerProcessor> chain = QueryScanner.createProcessors(scan, schema, serialisation);
+        synchronized (this) {
+            leased.put(chain, key);
+        }
+        return chain;
+    }
+
+    /**
+     * Returns a chain of processors leased using {@link #lease(Scan)} so it
+     * can be used by another scanner. Releasing a chain more than once has no
+     * effect.
+     *
+     * @param chain the processors to release
+     */
+    public synchronized void release(final List<GafferScannerProcessor> chain) {
+        final ByteBuffer key = leased.remove(chain);
+        if (null != key) {
+            final Deque<List<GafferScannerProcessor>> cached = chains.computeIfAbsent(key, k -> new ArrayDeque<>());
+            if (cached.size() < MAX_CHAINS_PER_KEY) {
+                cached.push(chain);
+            }
+        }
+    }
+
+    private static ByteBuffer digest(final byte[]... values) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not supported", e);
+        }
+        for (final byte[] value : values) {
+            // Prefix each value with its length so the values cannot run
+            // into each other, using -1 for missing values.
+            if (null == value) {
+                digest.update(Bytes.toBytes(-1));
+            } else {
+                digest.update(Bytes.toBytes(value.length));
+                digest.update(value);
+            }
+        }
+        return ByteBuffer.wrap(digest.digest());
+    }
+
+    private static <K, V> Map<K, V> createLruMap(final int maxSize) {
+        return new LinkedHashMap<K, V>(16, 0.75f, true) {
+            private static final long serialVersionUID = 5297409925012851376L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+}
@@ -16,7 +16,9 @@
 package uk.gov.gchq.gaffer.hbasestore.coprocessor.scanner;
 
 import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
 import org.apache.hadoop.hbase.HRegionInfo;
+import org.apache.hadoop.hbase.KeyValueUtil;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.regionserver.RegionScanner;
 import org.apache.hadoop.hbase.regionserver.ScannerContext;
@@ -25,6 +27,8 @@ import org.apache.hadoop.hbase.util.Bytes;
 import uk.gov.gchq.gaffer.commonutil.StringUtil;
 import uk.gov.gchq.gaffer.data.element.id.DirectedType;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.hbasestore.coprocessor.ElementSummariser;
+import uk.gov.gchq.gaffer.hbasestore.coprocessor.ScannerProcessorCache;
 import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.ElementDedupeFilterProcessor;
 import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.GafferScannerProcessor;
 import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.GroupFilterProcessor;
@@ -44,14 +48,44 @@ import java.util.List;
 import java.util.Set;
 
 public class QueryScanner extends GafferScanner implements RegionScanner {
+    private final ScannerProcessorCache cache;
+    private final List<GafferScannerProcessor> processors;
+    private final ElementSummariser summariser;
+    private final List<Cell> heldBackCells = new ArrayList<>();
+
     public QueryScanner(final RegionScanner scanner,
                         final Scan scan,
                         final Schema schema,
                         final ElementSerialisation serialisation) {
-        super(scanner, serialisation, createProcessors(scan, schema, serialisation), isIncludeMatchedVertex(scan));
+        this(scanner, scan, serialisation, createProcessors(scan, schema, serialisation), null);
+    }
+
+    /**
+     * Creates a scanner using processors leased from the cache, which are
+     * released when the scanner is closed.
+     *
+     * @param scanner the scanner to wrap
+     * @param scan    the scan
+     * @param cache   the cache to lease the processors from
+     */
+    public QueryScanner(final RegionScanner scanner,
+                        final Scan scan,
+                        final ScannerProcessorCache cache) {
+        this(scanner, scan, cache.getSerialisation(), cache.lease(scan), cache);
     }
 
-    protected static List<GafferScannerProcessor> createProcessors(
+    private QueryScanner(final RegionScanner scanner,
+                         final Scan scan,
+                         final ElementSerialisation serialisation,
+                         final List<GafferScannerProcessor> processors,
+                         final ScannerProcessorCache cache) {
+        super(scanner, serialisation, processors, isIncludeMatchedVertex(scan));
+        this.cache = cache;
+        this.processors = processors;
+        this.summariser = ElementSummariser.create(scan, serialisation, scanner);
+    }
+
+    public static List<GafferScannerProcessor> createProcessors(
             final Scan scan,
             final Schema schema,
             final ElementSerialisation serialisation) {
@@ -121,6 +155,25 @@ public class QueryScanner extends GafferScanner implements RegionScanner {
         return null != attr && Boolean.parseBoolean(Bytes.toString(attr));
     }
 
+    @Override
+    public boolean next(final List<Cell> output) throws IOException {
+        if (null != summariser) {
+            return summariseAll(output, false);
+        }
+        return super.next(output);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            if (null != cache) {
+                cache.release(processors);
+            }
+        }
+    }
+
     @Override
     protected RegionScanner getScanner() {
         return (RegionScanner) super.getScanner();
@@ -158,6 +211,9 @@ public class QueryScanner extends GafferScanner implements RegionScanner {
 
     @Override
     public boolean nextRaw(final List<Cell> output) throws IOException {
+        if (null != summariser) {
+            return summariseAll(output, true);
+        }
         final List<Cell> input = new ArrayList<>();
         final boolean shouldContinue = getScanner().nextRaw(input);
         _next(input, output);
@@ -166,9 +222,58 @@ public class QueryScanner extends GafferScanner implements RegionScanner {
 
     @Override
     public boolean nextRaw(final List<Cell> output, final ScannerContext scannerContext) throws IOException {
-        final List<Cell> input = new ArrayList<>();
-        final boolean shouldContinue = getScanner().nextRaw(input);
-        _next(input, output);
-        return shouldContinue;
+        if (null != summariser) {
+            return summarise(output, true, scannerContext);
+        }
+        return nextRaw(output);
+    }
+
+    // Without a scanner context there are no limits to respect, so the rest
+    // of the region is consumed and its summary output in one call.
+    private boolean summariseAll(final List<Cell> output, final boolean raw) throws IOException {
+        boolean hasMore;
+        do {
+            hasMore = summarise(output, raw, null);
+        } while (hasMore);
+        return false;
+    }
+
+    // Summarises the next batch of cells the region scanner returns within the
+    // limits of the scanner context. Nothing is output until the region has
+    // been consumed, so when a size or time limit is reached the region server
+    // can send the client an empty heartbeat response and carry on from here
+    // on the next call. The cells of the last row read are held back until the
+    // row is complete, so a row split across batches is aggregated as a whole.
+    private boolean summarise(final List<Cell> output, final boolean raw, final ScannerContext scannerContext) throws IOException {
+        final List<Cell> input = new ArrayList<>(heldBackCells);
+        heldBackCells.clear();
+        final boolean hasMore;
+        if (null == scannerContext) {
+            hasMore = raw ? getScanner().nextRaw(input) : getScanner().next(input);
+        } else {
+            hasMore = raw ? getScanner().nextRaw(input, scannerContext) : getScanner().next(input, scannerContext);
+        }
+
+        if (hasMore && !input.isEmpty()) {
+            final Cell lastCell = input.get(input.size() - 1);
+            int rowStart = input.size() - 1;
+            while (rowStart > 0 && CellUtil.matchingRow(input.get(rowStart - 1), lastCell)) {
+                rowStart--;
+            }
+            final List<Cell> lastRow = input.subList(rowStart, input.size());
+            for (final Cell cell : lastRow) {
+                heldBackCells.add(KeyValueUtil.copyToNewKeyValue(cell));
+            }
+            lastRow.clear();
+        }
+
+        final List<Cell> elementCells = new ArrayList<>();
+        _next(input, elementCells);
+        summariser.add(elementCells);
+
+        if (!hasMore) {
+            summariser.writeSummary(output);
+        }
+        return hasMore;
     }
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.data.element;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.apache.hadoop.hbase.Cell;
+
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.hbasestore.serialisation.ElementSerialisation;
+
+public class HBaseEdgeValueLoader extends HBaseElementValueLoader {
+    private static final long serialVersionUID = -7245906137392047331L;
+    private final boolean includeMatchedVertex;
+
+    public HBaseEdgeValueLoader(final String group,
+                                final Cell cell,
+                                final ElementSerialisation serialisation,
+                                final boolean includeMatchedVertex) {
+        super(group, cell, serialisation);
+        this.includeMatchedVertex = includeMatchedVertex;
+    }
+
+    @SuppressFBWarnings(value = "BC_UNCONFIRMED_CAST", justification = "element provided should always be an Edge")
+    @Override
+    public void loadIdentifiers(final Element edge) {
+        try {
+            final EdgeId edgeId = (EdgeId) serialisation.getElementId(cell, includeMatchedVertex);
+            ((Edge) edge).setIdentifiers(edgeId.getSource(), edgeId.getDestination(), edgeId.isDirected(), edgeId.getMatchedVertex());
+        } catch (final SerialisationException e) {
+            throw new RuntimeException("Unable to deserialise edge identifiers", e);
+        }
+    }
+}
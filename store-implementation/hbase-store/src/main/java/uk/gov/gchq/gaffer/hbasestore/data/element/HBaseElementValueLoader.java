@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.data.element;
+
+import org.apache.hadoop.hbase.Cell;
+
+import uk.gov.gchq.gaffer.data.element.ElementValueLoader;
+import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.hbasestore.serialisation.ElementSerialisation;
+
+/**
+ * An {@link ElementValueLoader} that deserialises properties from an HBase
+ * {@link Cell} one at a time, as they are requested. Properties that are never
+ * requested are never deserialised.
+ */
+public abstract class HBaseElementValueLoader implements ElementValueLoader {
+    private static final long serialVersionUID = -1954340766128727536L;
+
+    protected final ElementSerialisation serialisation;
+    protected final Cell cell;
+
+    private final String group;
+
+    protected HBaseElementValueLoader(final String group,
+                                      final Cell cell,
+                                      final ElementSerialisation serialisation) {
+        this.group = group;
+        this.cell = cell;
+        this.serialisation = serialisation;
+    }
+
+    @Override
+    public Object getProperty(final String name, final Properties lazyProperties) {
+        try {
+            return serialisation.getProperty(group, name, cell);
+        } catch (final SerialisationException e) {
+            throw new RuntimeException("Unable to deserialise property " + name, e);
+        }
+    }
+}
@@ -24,6 +24,7 @@ import uk.gov.gchq.gaffer.commonutil.pair.Pair;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.hbasestore.HBaseStore;
 import uk.gov.gchq.gaffer.hbasestore.serialisation.ElementSerialisation;
+import uk.gov.gchq.gaffer.hbasestore.utils.ParallelElementWriter;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
 import uk.gov.gchq.gaffer.store.Context;
@@ -41,6 +42,11 @@ import java.util.List;
  * To work around this issue, we need to aggregate elements within each batch before adding them to HBase.
  * Due to this, optimising the batch size could have a big impact on performance.
  * Configure the batch size using store property: hbase.writeBufferSize
+ * <p>
+ * If the store property hbase.ingestThreads is more than 1, the elements are
+ * converted on a pool of threads and written asynchronously using a
+ * {@link ParallelElementWriter}.
+ * </p>
  */
 public class AddElementsHandler implements OperationHandler<AddElements> {
     @Override
@@ -57,6 +63,16 @@ public class AddElementsHandler implements OperationHandler<AddElements> {
             return;
         }
 
+        if (1 < store.getProperties().getIngestThreads()) {
+            try {
+                new ParallelElementWriter(store).write(addElementsOperation.getInput(),
+                        addElementsOperation.isValidate(), addElementsOperation.isSkipInvalidElements());
+            } catch (final StoreException e) {
+                throw new OperationException("Failed to add elements", e);
+            }
+            return;
+        }
+
         try {
             final Table table = store.getTable();
             final Iterator<? extends Element> elements = addElementsOperation.getInput().iterator();
@@ -0,0 +1,420 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.operation.handler;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.io.hfile.CacheConfig;
+import org.apache.hadoop.hbase.io.hfile.HFile;
+import org.apache.hadoop.hbase.io.hfile.HFileContextBuilder;
+import org.apache.hadoop.hbase.io.hfile.HFileScanner;
+import org.apache.hadoop.hbase.mapreduce.CellCreator;
+import org.apache.hadoop.hbase.mapreduce.LoadIncrementalHFiles;
+import org.apache.hadoop.hbase.regionserver.StoreFile;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.commonutil.pair.Pair;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.data.element.function.ElementAggregator;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.hbasestore.HBaseStore;
+import uk.gov.gchq.gaffer.hbasestore.operation.impl.BulkImportElements;
+import uk.gov.gchq.gaffer.hbasestore.serialisation.ElementSerialisation;
+import uk.gov.gchq.gaffer.hbasestore.utils.HBaseStoreConstants;
+import uk.gov.gchq.gaffer.hbasestore.utils.IngestUtils;
+import uk.gov.gchq.gaffer.hbasestore.utils.TableUtils;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.ValidatedElements;
+import uk.gov.gchq.gaffer.store.operation.handler.OperationHandler;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * A {@code BulkImportElementsHandler} handles {@link BulkImportElements}
+ * operations by converting the elements into cells, sorting them into an
+ * HFile for each region and then bulk loading the HFiles into the table.
+ * <p>
+ * Cells are sorted in memory in batches of
+ * {@link BulkImportElements#getMaxEntriesInMemory()}. If there is more than one
+ * batch, each batch is written to a run file per region in the working path and
+ * the runs for each region are merged when all the elements have been read.
+ * Cells with the same key are aggregated as they are written, in the same way
+ * as the reducer used by {@link uk.gov.gchq.gaffer.hdfs.operation.AddElementsFromHdfs}.
+ * </p>
+ * <p>
+ * Elements that cannot be converted into cells cause the operation to fail
+ * if it is validated and invalid elements are not skipped. Otherwise they
+ * are logged and skipped.
+ * </p>
+ */
+public class BulkImportElementsHandler implements OperationHandler<BulkImportElements> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkImportElementsHandler.class);
+    private static final String RUNS_DIRECTORY = "runs";
+    private static final String FILES_DIRECTORY = "files";
+
+    @Override
+    public Void doOperation(final BulkImportElements operation,
+                            final Context context, final Store store)
+            throws OperationException {
+        doOperation(operation, (HBaseStore) store);
+        return null;
+    }
+
+    public void doOperation(final BulkImportElements operation, final HBaseStore store) throws OperationException {
+        if (null == operation.getInput()) {
+            throw new IllegalArgumentException("Could not find any elements to add to graph.");
+        }
+        if (operation.getMaxEntriesInMemory() < 1) {
+            throw new IllegalArgumentException("maxEntriesInMemory must be at least 1");
+        }
+
+        final Path workingPath = new Path(operation.getWorkingPath());
+        final Path filesPath = new Path(workingPath, FILES_DIRECTORY);
+        final FileSystem fs;
+        try {
+            TableUtils.ensureTableExists(store);
+            fs = FileSystem.get(store.getConfiguration());
+            checkWorkingPath(workingPath, fs);
+
+            final Iterable<? extends Element> elements = operation.isValidate()
+                    ? new ValidatedElements(operation.getInput(), store.getSchema(), operation.isSkipInvalidElements())
+                    : operation.getInput();
+            final boolean throwOnInvalid = operation.isValidate() && !operation.isSkipInvalidElements();
+            new HFileSorter(store, fs, workingPath, throwOnInvalid).sort(elements, operation.getMaxEntriesInMemory());
+        } catch (final StoreException | IOException e) {
+            throw new OperationException("Failed to write elements to HFiles in " + workingPath, e);
+        }
+
+        try {
+            if (fs.exists(filesPath)) {
+                loadFiles(store, fs, filesPath);
+            }
+        } catch (final Exception e) {
+            throw new OperationException("Failed to bulk load HFiles into HBase", e);
+        }
+
+        try {
+            fs.delete(workingPath, true);
+        } catch (final IOException e) {
+            LOGGER.warn("Failed to delete working path {}", workingPath, e);
+        }
+    }
+
+    private void checkWorkingPath(final Path workingPath, final FileSystem fs) throws IOException {
+        if (fs.exists(workingPath) && fs.listFiles(workingPath, true).hasNext()) {
+            LOGGER.error("Working directory exists and is not empty: {}", workingPath);
+            throw new IllegalArgumentException("Working directory is not empty: " + workingPath);
+        }
+        fs.mkdirs(workingPath);
+    }
+
+    private void loadFiles(final HBaseStore store, final FileSystem fs, final Path filesPath) throws Exception {
+        IngestUtils.setDirectoryPermsForHbase(fs, filesPath);
+        IngestUtils.setDirectoryPermsForHbase(fs, new Path(filesPath, Bytes.toString(HBaseStoreConstants.getColFam())));
+
+        final Configuration conf = new Configuration(store.getConfiguration());
+        conf.set(LoadIncrementalHFiles.CREATE_TABLE_CONF_KEY, "no");
+        final Connection connection = store.getConnection();
+        try (final Admin admin = connection.getAdmin();
+             final Table table = store.getTable();
+             final RegionLocator locator = connection.getRegionLocator(store.getTableName())) {
+            LOGGER.info("Bulk loading HFiles from {}", filesPath);
+            new LoadIncrementalHFiles(conf).doBulkLoad(filesPath, admin, table, locator);
+        }
+    }
+
+    // Supplies cells in sorted order, returning null when there are no more.
+    private interface SortedCells {
+        Cell next() throws IOException;
+    }
+
+    // Converts elements into cells and writes them, sorted, into an HFile per
+    // region.
+    private static final class HFileSorter {
+        private final Schema schema;
+        private final ElementSerialisation serialisation;
+        private final CellCreator cellCreator;
+        private final Configuration conf;
+        private final FileSystem fs;
+        private final Path runsPath;
+        private final Path familyPath;
+        private final byte[][] splits;
+        private final boolean throwOnInvalid;
+        private int numRuns;
+
+        private HFileSorter(final HBaseStore store, final FileSystem fs, final Path workingPath, final boolean throwOnInvalid)
+                throws StoreException, IOException {
+            this.schema = store.getSchema();
+            this.throwOnInvalid = throwOnInvalid;
+            this.serialisation = new ElementSerialisation(schema);
+            this.conf = store.getConfiguration();
+            this.cellCreator = new CellCreator(conf);
+            this.fs = fs;
+            this.runsPath = new Path(workingPath, RUNS_DIRECTORY);
+            // LoadIncrementalHFiles expects a directory for each column family
+            this.familyPath = new Path(new Path(workingPath, FILES_DIRECTORY), Bytes.toString(HBaseStoreConstants.getColFam()));
+            try (final RegionLocator locator = store.getConnection().getRegionLocator(store.getTableName())) {
+                // The first region starts at the empty row, so it is not a split point
+                this.splits = Arrays.stream(locator.getStartKeys())
+                        .filter(startKey -> 0 < startKey.length)
+                        .sorted(Bytes.BYTES_COMPARATOR)
+                        .toArray(byte[][]::new);
+            }
+        }
+
+        private void sort(final Iterable<? extends Element> elements, final int maxEntriesInMemory) throws IOException {
+            List<Cell> cells = new ArrayList<>();
+            for (final Element element : elements) {
+                if (null == element) {
+                    continue;
+                }
+                final Pair<Cell, Cell> elementCells;
+                try {
+                    elementCells = serialisation.getCells(element, cellCreator);
+                } catch (final SerialisationException e) {
+                    if (throwOnInvalid) {
+                        throw e;
+                    }
+                    LOGGER.error("Failed to create HBase cells from element of group {} when trying to insert elements", element.getGroup());
+                    continue;
+                }
+                cells.add(elementCells.getFirst());
+                if (null != elementCells.getSecond()) {
+                    cells.add(elementCells.getSecond());
+                }
+                if (cells.size() >= maxEntriesInMemory) {
+                    writeRun(cells);
+                    cells = new ArrayList<>();
+                }
+            }
+
+            if (0 == numRuns) {
+                // Everything fitted in memory so there is nothing to merge
+                cells.sort(KeyValue.COMPARATOR);
+                write(sortedCells(cells), familyPath, "");
+            } else {
+                if (!cells.isEmpty()) {
+                    writeRun(cells);
+                }
+                merge();
+            }
+        }
+
+        private void writeRun(final List<Cell> cells) throws IOException {
+            cells.sort(KeyValue.COMPARATOR);
+            write(sortedCells(cells), runsPath, String.format("/run-%05d", numRuns));
+            LOGGER.debug("Spilled run {} of {} cells", numRuns, cells.size());
+            numRuns++;
+        }
+
+        private void merge() throws IOException {
+            final CacheConfig cacheConfig = new CacheConfig(conf);
+            for (final FileStatus partition : fs.listStatus(runsPath)) {
+                final FileStatus[] runs = fs.listStatus(partition.getPath());
+                if (1 == runs.length) {
+                    fs.mkdirs(familyPath);
+                    final Path file = new Path(familyPath, partition.getPath().getName());
+                    if (!fs.rename(runs[0].getPath(), file)) {
+                        throw new IOException("Failed to move " + runs[0].getPath() + " to " + file);
+                    }
+                    continue;
+                }
+
+                final List<HFile.Reader> readers = new ArrayList<>(runs.length);
+                try {
+                    final PriorityQueue<RunCursor> cursors = new PriorityQueue<>(runs.length,
+                            (first, second) -> KeyValue.COMPARATOR.compare(first.cell, second.cell));
+                    for (final FileStatus run : runs) {
+                        final HFile.Reader reader = HFile.createReader(fs, run.getPath(), cacheConfig, conf);
+                        readers.add(reader);
+                        final HFileScanner scanner = reader.getScanner(false, false);
+                        if (scanner.seekTo()) {
+                            cursors.add(new RunCursor(scanner));
+                        }
+                    }
+                    // All the runs are for the same region, so the merged
+                    // cells are written to a single file.
+                    write(() -> {
+                        final RunCursor cursor = cursors.poll();
+                        if (null == cursor) {
+                            return null;
+                        }
+                        final Cell cell = cursor.cell;
+                        if (cursor.advance()) {
+                            cursors.add(cursor);
+                        }
+                        return cell;
+                    }, familyPath, "");
+                } finally {
+                    for (final HFile.Reader reader : readers) {
+                        reader.close(false);
+                    }
+                }
+            }
+            fs.delete(runsPath, true);
+        }
+
+        // Writes sorted cells to a file for each region, aggregating cells
+        // with the same key. The files are named after the index of the
+        // region, with the suffix appended.
+        private void write(final SortedCells cells, final Path directory, final String suffix) throws IOException {
+            final PartitionedWriter writer = new PartitionedWriter(directory, suffix);
+            try {
+                final List<Cell> equalCells = new ArrayList<>();
+                Cell cell = cells.next();
+                while (null != cell) {
+                    if (!equalCells.isEmpty() && 0 != KeyValue.COMPARATOR.compare(equalCells.get(0), cell)) {
+                        writer.append(aggregate(equalCells));
+                        equalCells.clear();
+                    }
+                    equalCells.add(cell);
+                    cell = cells.next();
+                }
+                if (!equalCells.isEmpty()) {
+                    writer.append(aggregate(equalCells));
+                }
+            } finally {
+                writer.close();
+            }
+        }
+
+        private List<Cell> aggregate(final List<Cell> equalCells) throws SerialisationException {
+            if (1 == equalCells.size()) {
+                return equalCells;
+            }
+
+            final Cell first = equalCells.get(0);
+            final String group = serialisation.getGroup(first);
+            final SchemaElementDefinition elementDef = schema.getElement(group);
+            if (null == elementDef || !elementDef.isAggregate()) {
+                // The group has aggregation disabled - so write all cells out.
+                return equalCells;
+            }
+
+            final ElementAggregator aggregator = elementDef.getIngestAggregator();
+            Properties state = serialisation.getProperties(group, first);
+            for (int i = 1; i < equalCells.size(); i++) {
+                state = aggregator.apply(state, serialisation.getProperties(group, equalCells.get(i)));
+            }
+            return Arrays.asList(CellUtil.createCell(
+                    CellUtil.cloneRow(first),
+                    CellUtil.cloneFamily(first),
+                    CellUtil.cloneQualifier(first),
+                    first.getTimestamp(),
+                    KeyValue.Type.Maximum,
+                    serialisation.getValue(group, state),
+                    CellUtil.getTagArray(first)));
+        }
+
+        private int findPartition(final Cell cell, final int fromPartition) {
+            // The cells are sorted, so the partition only ever moves forwards.
+            // A region contains its start row, so rows equal to a split point
+            // belong to the region starting at that split point.
+            int partition = fromPartition;
+            while (partition < splits.length
+                    && 0 <= Bytes.compareTo(cell.getRowArray(), cell.getRowOffset(), cell.getRowLength(), splits[partition], 0, splits[partition].length)) {
+                partition++;
+            }
+            return partition;
+        }
+
+        private SortedCells sortedCells(final List<Cell> cells) {
+            final Iterator<Cell> itr = cells.iterator();
+            return () -> itr.hasNext() ? itr.next() : null;
+        }
+
+        // Writes cells to a file per region, starting a new file whenever
+        // the cells move into the next region.
+        private final class PartitionedWriter {
+            private final Path directory;
+            private final String suffix;
+            private HFile.Writer writer;
+            private int partition = -1;
+
+            private PartitionedWriter(final Path directory, final String suffix) {
+                this.directory = directory;
+                this.suffix = suffix;
+            }
+
+            private void append(final List<Cell> cells) throws IOException {
+                for (final Cell cell : cells) {
+                    final int cellPartition = findPartition(cell, Math.max(partition, 0));
+                    if (cellPartition != partition) {
+                        close();
+                        partition = cellPartition;
+                        writer = HFile.getWriterFactoryNoCache(conf)
+                                .withPath(fs, new Path(directory, String.format("part-%05d", partition) + suffix))
+                                .withComparator(KeyValue.COMPARATOR)
+                                .withFileContext(new HFileContextBuilder().withIncludesTags(true).build())
+                                .create();
+                    }
+                    writer.append(cell);
+                }
+            }
+
+            private void close() throws IOException {
+                if (null != writer) {
+                    writer.appendFileInfo(StoreFile.BULKLOAD_TIME_KEY, Bytes.toBytes(System.currentTimeMillis()));
+                    writer.appendFileInfo(StoreFile.MAJOR_COMPACTION_KEY, Bytes.toBytes(false));
+                    writer.close();
+                    writer = null;
+                }
+            }
+        }
+    }
+
+    // The current cell of a run being merged.
+    private static final class RunCursor {
+        private final HFileScanner scanner;
+        private Cell cell;
+
+        private RunCursor(final HFileScanner scanner) {
+            this.scanner = scanner;
+            this.cell = scanner.getKeyValue();
+        }
+
+        private boolean advance() throws IOException {
+            if (scanner.next()) {
+                cell = scanner.getKeyValue();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.operation.handler;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.data.GroupCounts;
+import uk.gov.gchq.gaffer.hbasestore.retriever.HBaseRetriever;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.operation.handler.CountGroupsHandler;
+
+import java.util.Map;
+
+/**
+ * An {@code HBaseCountGroupsHandler} handles {@link CountGroups} operations
+ * on the {@link uk.gov.gchq.gaffer.hbasestore.HBaseStore}.
+ * <p>
+ * If the input to the {@link CountGroups} is the output of a get operation, such as
+ * {@link uk.gov.gchq.gaffer.operation.impl.get.GetElements} or
+ * {@link uk.gov.gchq.gaffer.operation.impl.get.GetAllElements}, then the
+ * elements are counted on the region servers and only the counts are sent back
+ * to the client. If the total count is more than the limit, then the full
+ * counts are returned with the limit flagged as hit. If the input is not the
+ * output of a get operation, then the groups are counted in the same way as
+ * the {@link CountGroupsHandler}.
+ * </p>
+ */
+public class HBaseCountGroupsHandler extends CountGroupsHandler {
+    @Override
+    public GroupCounts doOperation(final CountGroups operation, final Context context, final Store store)
+            throws OperationException {
+        if (operation.getInput() instanceof HBaseRetriever
+                && ((HBaseRetriever<?>) operation.getInput()).canSummarise()) {
+            final Map<String, Long> counts;
+            try {
+                counts = ((HBaseRetriever<?>) operation.getInput()).countGroups();
+            } catch (final StoreException e) {
+                throw new OperationException("Failed to count groups", e);
+            } finally {
+                CloseableUtil.close(operation);
+            }
+            return toGroupCounts(counts, operation.getLimit(), store.getSchema());
+        }
+
+        return super.doOperation(operation, context, store);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.operation.handler;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.hbasestore.retriever.HBaseRetriever;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.operation.handler.CountHandler;
+
+/**
+ * An {@code HBaseCountHandler} handles {@link Count} operations on the
+ * {@link uk.gov.gchq.gaffer.hbasestore.HBaseStore}.
+ * <p>
+ * If the input to the {@link Count} is the output of a get operation, such as
+ * {@link uk.gov.gchq.gaffer.operation.impl.get.GetElements} or
+ * {@link uk.gov.gchq.gaffer.operation.impl.get.GetAllElements}, then the
+ * elements are counted on the region servers and only the counts are sent back
+ * to the client. Otherwise the input is counted in the same way as the
+ * {@link CountHandler}.
+ * </p>
+ */
+public class HBaseCountHandler<T> extends CountHandler<T> {
+    @Override
+    public Long doOperation(final Count operation, final Context context, final Store store)
+            throws OperationException {
+        if (operation.getInput() instanceof HBaseRetriever
+                && ((HBaseRetriever<?>) operation.getInput()).canSummarise()) {
+            final HBaseRetriever<?> retriever = (HBaseRetriever<?>) operation.getInput();
+            try {
+                long count = 0;
+                for (final Long groupCount : retriever.countGroups().values()) {
+                    count += groupCount;
+                }
+                return count;
+            } catch (final StoreException e) {
+                throw new OperationException("Failed to count elements", e);
+            } finally {
+                CloseableUtil.close(retriever);
+            }
+        }
+
+        return super.doOperation(operation, context, store);
+    }
+}
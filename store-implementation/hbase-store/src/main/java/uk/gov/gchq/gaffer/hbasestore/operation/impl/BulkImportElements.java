@@ -0,0 +1,152 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.operation.impl;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+import uk.gov.gchq.gaffer.commonutil.Required;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.Validatable;
+import uk.gov.gchq.gaffer.operation.io.MultiInput;
+import uk.gov.gchq.koryphe.Since;
+import uk.gov.gchq.koryphe.Summary;
+
+import java.util.Map;
+
+/**
+ * A {@code BulkImportElements} operation adds elements to an HBase store by
+ * writing them to HFiles and bulk loading the files, rather than sending them
+ * to the region servers as puts.
+ * <p>
+ * The elements are converted into cells, partitioned by the table's region
+ * boundaries and sorted on the machine running the operation, so no MapReduce
+ * cluster is required. If there are more than {@code maxEntriesInMemory}
+ * cells, they are sorted in batches which are spilled to the working path and
+ * then merged. The working path must be on a file system that HBase can load
+ * files from, and must either not exist or be empty.
+ * </p>
+ */
+@JsonPropertyOrder(value = {"class", "input", "workingPath"}, alphabetic = true)
+@Since("1.21.2")
+@Summary("Adds elements by writing them to HFiles and bulk loading them")
+public class BulkImportElements implements
+        Validatable,
+        MultiInput<Element> {
+    public static final int DEFAULT_MAX_ENTRIES_IN_MEMORY = 1000000;
+
+    private boolean validate = true;
+    private boolean skipInvalidElements;
+    private Iterable<? extends Element> elements;
+    @Required
+    private String workingPath;
+    private int maxEntriesInMemory = DEFAULT_MAX_ENTRIES_IN_MEMORY;
+    private Map<String, String> options;
+
+    @Override
+    public boolean isValidate() {
+        return validate;
+    }
+
+    @Override
+    public void setValidate(final boolean validate) {
+        this.validate = validate;
+    }
+
+    @Override
+    public boolean isSkipInvalidElements() {
+        return skipInvalidElements;
+    }
+
+    @Override
+    public void setSkipInvalidElements(final boolean skipInvalidElements) {
+        this.skipInvalidElements = skipInvalidElements;
+    }
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.EXISTING_PROPERTY, property = "class")
+    @Override
+    public Object[] createInputArray() {
+        return MultiInput.super.createInputArray();
+    }
+
+    @Override
+    public Iterable<? extends Element> getInput() {
+        return elements;
+    }
+
+    @Override
+    public void setInput(final Iterable<? extends Element> elements) {
+        this.elements = elements;
+    }
+
+    public String getWorkingPath() {
+        return workingPath;
+    }
+
+    public void setWorkingPath(final String workingPath) {
+        this.workingPath = workingPath;
+    }
+
+    public int getMaxEntriesInMemory() {
+        return maxEntriesInMemory;
+    }
+
+    public void setMaxEntriesInMemory(final int maxEntriesInMemory) {
+        this.maxEntriesInMemory = maxEntriesInMemory;
+    }
+
+    @Override
+    public Map<String, String> getOptions() {
+        return options;
+    }
+
+    @Override
+    public void setOptions(final Map<String, String> options) {
+        this.options = options;
+    }
+
+    @Override
+    public BulkImportElements shallowClone() {
+        return new BulkImportElements.Builder()
+                .validate(validate)
+                .skipInvalidElements(skipInvalidElements)
+                .input(elements)
+                .workingPath(workingPath)
+                .maxEntriesInMemory(maxEntriesInMemory)
+                .options(options)
+                .build();
+    }
+
+    public static class Builder extends Operation.BaseBuilder<BulkImportElements, Builder>
+            implements Validatable.Builder<BulkImportElements, Builder>,
+            MultiInput.Builder<BulkImportElements, Element, Builder> {
+        public Builder() {
+            super(new BulkImportElements());
+        }
+
+        public Builder workingPath(final String workingPath) {
+            _getOp().setWorkingPath(workingPath);
+            return _self();
+        }
+
+        public Builder maxEntriesInMemory(final int maxEntriesInMemory) {
+            _getOp().setMaxEntriesInMemory(maxEntriesInMemory);
+            return _self();
+        }
+    }
+}
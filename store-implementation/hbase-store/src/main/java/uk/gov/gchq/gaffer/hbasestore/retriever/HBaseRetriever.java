@@ -20,39 +20,46 @@ import org.apache.hadoop.hbase.Cell;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.client.Table;
-import org.apache.hadoop.hbase.filter.MultiRowRangeFilter;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
 import org.apache.hadoop.hbase.security.visibility.Authorizations;
 import org.apache.hadoop.hbase.util.Bytes;
 
 import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
 import uk.gov.gchq.gaffer.commonutil.StringUtil;
 import uk.gov.gchq.gaffer.commonutil.iterable.AlwaysValid;
-import uk.gov.gchq.gaffer.commonutil.iterable.BatchedIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
 import uk.gov.gchq.gaffer.commonutil.iterable.TransformOneToManyIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
 import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.IdentifierType;
 import uk.gov.gchq.gaffer.data.element.function.ElementTransformer;
 import uk.gov.gchq.gaffer.data.element.id.ElementId;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewUtil;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
 import uk.gov.gchq.gaffer.hbasestore.HBaseStore;
+import uk.gov.gchq.gaffer.hbasestore.coprocessor.ElementSummariser;
 import uk.gov.gchq.gaffer.hbasestore.serialisation.ElementSerialisation;
 import uk.gov.gchq.gaffer.hbasestore.utils.HBaseStoreConstants;
 import uk.gov.gchq.gaffer.operation.graph.GraphFilters;
 import uk.gov.gchq.gaffer.operation.io.Output;
 import uk.gov.gchq.gaffer.store.ElementValidator;
 import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
+import uk.gov.gchq.gaffer.store.util.PartitionedSample;
 import uk.gov.gchq.gaffer.user.User;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Random;
 
 public class HBaseRetriever<OP extends Output<CloseableIterable<? extends Element>> & GraphFilters> implements CloseableIterable<Element> {
     private final ElementSerialisation serialisation;
@@ -101,14 +108,89 @@ public class HBaseRetriever<OP extends Output<CloseableIterable<? extends Elemen
         // By design, only 1 iterator can be open at a time
         close();
 
-        if (null != ids) {
-            idsIterator = ids.iterator();
-            iterator = new HBaseRetrieverIterable(new BatchedResultScanner()).iterator();
-        } else {
-            iterator = new HBaseRetrieverIterable(createScanner()).iterator();
+        iterator = new HBaseRetrieverIterable(createResults(createScan())).iterator();
+        return iterator;
+    }
+
+    /**
+     * Checks whether the elements can be summarised on the region servers
+     * using {@link #countGroups()} or {@link #sample(int, boolean, Long)}.
+     * This is not possible if the view has post transform filters, as these
+     * have to be applied on the client.
+     *
+     * @return true if the elements can be summarised on the region servers
+     */
+    public boolean canSummarise() {
+        return !operation.getView().hasPostTransformFilters();
+    }
+
+    /**
+     * Counts the elements in each group that would be returned by this
+     * retriever. The counting is done on the region servers, so only the
+     * counts are sent back to the client rather than the elements.
+     *
+     * @return the number of elements in each group
+     * @throws StoreException if the elements could not be counted
+     */
+    public Map<String, Long> countGroups() throws StoreException {
+        final Map<String, Long> counts = new HashMap<>();
+        for (final RegionSummary summary : summarise(0, false, null)) {
+            summary.counts.forEach((group, count) -> counts.merge(group, count, Long::sum));
         }
+        return counts;
+    }
 
-        return iterator;
+    /**
+     * Takes a uniform random sample of the elements that would be returned by
+     * this retriever. Each region server returns a reservoir sample of its
+     * own elements along with how many elements it sampled from, and these
+     * are combined on the client so that every element is equally likely to
+     * be in the final sample.
+     *
+     * @param sampleSize the maximum number of elements to sample
+     * @param stratified true if up to sampleSize elements should be sampled
+     *                   from each group
+     * @param seed       an optional seed to make the sample repeatable
+     * @return the sampled elements
+     * @throws StoreException if the elements could not be sampled
+     */
+    public List<Element> sample(final int sampleSize, final boolean stratified, final Long seed) throws StoreException {
+        if (sampleSize < 1) {
+            throw new IllegalArgumentException("sampleSize must be greater than 0");
+        }
+
+        final Map<String, PartitionedSample<Cell>> strata = new HashMap<>();
+        for (final RegionSummary summary : summarise(sampleSize, stratified, seed)) {
+            if (stratified) {
+                final Map<String, List<Cell>> cellsByGroup = new HashMap<>();
+                for (final Cell cell : summary.cells) {
+                    try {
+                        cellsByGroup.computeIfAbsent(serialisation.getGroup(cell), k -> new ArrayList<>()).add(cell);
+                    } catch (final SerialisationException e) {
+                        throw new StoreException("Failed to read the group of a sampled element", e);
+                    }
+                }
+                for (final Map.Entry<String, Long> entry : summary.counts.entrySet()) {
+                    strata.computeIfAbsent(entry.getKey(), k -> new PartitionedSample<>())
+                            .add(entry.getValue(), cellsByGroup.getOrDefault(entry.getKey(), new ArrayList<>()));
+                }
+            } else {
+                long population = 0;
+                for (final Long count : summary.counts.values()) {
+                    population += count;
+                }
+                strata.computeIfAbsent("", k -> new PartitionedSample<>()).add(population, summary.cells);
+            }
+        }
+
+        final Random random = null != seed ? new Random(seed) : new Random();
+        final List<Element> sample = new ArrayList<>();
+        for (final PartitionedSample<Cell> stratum : strata.values()) {
+            for (final Cell cell : stratum.draw(sampleSize, random)) {
+                sample.add(loadElement(deserialiseAndTransform(cell)));
+            }
+        }
+        return sample;
     }
 
     @Override
@@ -126,7 +208,7 @@ public class HBaseRetriever<OP extends Output<CloseableIterable<? extends Elemen
 
     private Element deserialiseAndTransform(final Cell cell) {
         try {
-            Element element = serialisation.getElement(cell, includeMatchedVertex);
+            Element element = serialisation.getLazyElement(cell, includeMatchedVertex);
             final ViewElementDefinition viewDef = operation.getView().getElement(element.getGroup());
             if (null != viewDef) {
                 final ElementTransformer transformer = viewDef.getTransformer();
@@ -144,43 +226,89 @@ public class HBaseRetriever<OP extends Output<CloseableIterable<? extends Elemen
         return validator.validateTransform(element);
     }
 
-    private CloseableIterable<Result> createScanner() {
-        // End of input ids
-        if (null != idsIterator && !idsIterator.hasNext()) {
-            return null;
+    // Only elements that have passed all the filters get this far, so this is
+    // where the remaining identifiers and properties are deserialised.
+    private Element loadElement(final Element lazyElement) {
+        final ViewElementDefinition viewDef = operation.getView().getElement(lazyElement.getGroup());
+        final SchemaElementDefinition elementDef = store.getSchema().getElement(lazyElement.getGroup());
+        if (null != elementDef) {
+            for (final String propertyName : elementDef.getProperties()) {
+                if (isPropertyIncluded(viewDef, propertyName)) {
+                    lazyElement.getProperty(propertyName);
+                }
+            }
         }
 
-        Table table = null;
-        try {
-            final Scan scan = new Scan();
+        lazyElement.getIdentifier(lazyElement instanceof Entity ? IdentifierType.VERTEX : IdentifierType.SOURCE);
+        final Element element = lazyElement.getElement();
+        ViewUtil.removeProperties(viewDef, element);
+        return element;
+    }
 
-            if (null != idsIterator) {
-                final List<MultiRowRangeFilter.RowRange> rowRanges = new ArrayList<>();
-                final int maxEntriesForBatchScanner = store.getProperties().getMaxEntriesForBatchScanner();
-                int count = 0;
-                while (idsIterator.hasNext() && count < maxEntriesForBatchScanner) {
-                    count++;
-                    rowRanges.addAll(rowRangeFactory.getRowRange(idsIterator.next(), operation));
-                }
+    private boolean isPropertyIncluded(final ViewElementDefinition viewDef, final String propertyName) {
+        if (null == viewDef || viewDef.isAllProperties()) {
+            return true;
+        }
+        if (null != viewDef.getProperties()) {
+            return viewDef.getProperties().contains(propertyName);
+        }
+        return !viewDef.getExcludeProperties().contains(propertyName);
+    }
 
-                if (rowRanges.isEmpty()) {
-                    return new WrappedCloseableIterable<>(Collections.emptyList());
-                }
+    private List<RegionSummary> summarise(final int sampleSize, final boolean stratified, final Long seed) throws StoreException {
+        if (!canSummarise()) {
+            throw new IllegalStateException("Elements cannot be summarised on the region servers when the view has post transform filters");
+        }
 
-                scan.setFilter(new MultiRowRangeFilter(rowRanges));
+        final Scan scan = createScan();
+        scan.setAttribute(HBaseStoreConstants.COUNT_GROUPS, Bytes.toBytes(Boolean.toString(true)));
+        if (sampleSize > 0) {
+            scan.setAttribute(HBaseStoreConstants.SAMPLE_SIZE, Bytes.toBytes(Integer.toString(sampleSize)));
+            scan.setAttribute(HBaseStoreConstants.SAMPLE_STRATIFIED, Bytes.toBytes(Boolean.toString(stratified)));
+            if (null != seed) {
+                scan.setAttribute(HBaseStoreConstants.SAMPLE_SEED, Bytes.toBytes(Long.toString(seed)));
             }
+        }
 
-            scan.setAuthorizations(authorisations);
-            scan.setAttribute(HBaseStoreConstants.SCHEMA, store.getSchema().toCompactJson());
-            scan.setAttribute(HBaseStoreConstants.INCLUDE_MATCHED_VERTEX, Bytes.toBytes(Boolean.toString(includeMatchedVertex)));
-            scan.setAttribute(HBaseStoreConstants.VIEW, operation.getView().toCompactJson());
-            if (null != operation.getDirectedType()) {
-                scan.setAttribute(HBaseStoreConstants.DIRECTED_TYPE, Bytes.toBytes(operation.getDirectedType().name()));
+        // Each region returns its summary as a single result
+        final List<RegionSummary> summaries = new ArrayList<>();
+        final CloseableIterable<Result> results = createResults(scan);
+        try {
+            for (final Result result : results) {
+                final RegionSummary summary = new RegionSummary();
+                for (final Cell cell : result.rawCells()) {
+                    if (ElementSummariser.isCounts(cell)) {
+                        summary.counts = ElementSummariser.getCounts(cell);
+                    } else {
+                        summary.cells.add(cell);
+                    }
+                }
+                summaries.add(summary);
             }
-            if (null != extraProcessors) {
-                scan.setAttribute(HBaseStoreConstants.EXTRA_PROCESSORS, extraProcessors);
+        } catch (final IOException e) {
+            throw new StoreException("Failed to summarise elements", e);
+        } finally {
+            CloseableUtil.close(results);
+            if (null != idsIterator) {
+                CloseableUtil.close(idsIterator);
+                idsIterator = null;
             }
-            scan.setMaxVersions();
+        }
+        return summaries;
+    }
+
+    private CloseableIterable<Result> createResults(final Scan scan) {
+        if (null != ids) {
+            idsIterator = ids.iterator();
+            return new RegionParallelScanner(store, scan, new RowRangeBatches(),
+                    store.getProperties().getThreadsForBatchScanner());
+        }
+        return createScanner(scan);
+    }
+
+    private CloseableIterable<Result> createScanner(final Scan scan) {
+        Table table = null;
+        try {
             table = store.getTable();
             return new WrappedCloseableIterable<>(table.getScanner(scan));
         } catch (final IOException | StoreException e) {
@@ -191,10 +319,46 @@ public class HBaseRetriever<OP extends Output<CloseableIterable<? extends Elemen
         }
     }
 
-    public class BatchedResultScanner extends BatchedIterable<Result> {
+    private Scan createScan() {
+        final Scan scan = new Scan();
+        scan.setAuthorizations(authorisations);
+        scan.setAttribute(HBaseStoreConstants.INCLUDE_MATCHED_VERTEX, Bytes.toBytes(Boolean.toString(includeMatchedVertex)));
+        scan.setAttribute(HBaseStoreConstants.VIEW, operation.getView().toCompactJson());
+        if (null != operation.getDirectedType()) {
+            scan.setAttribute(HBaseStoreConstants.DIRECTED_TYPE, Bytes.toBytes(operation.getDirectedType().name()));
+        }
+        if (null != extraProcessors) {
+            scan.setAttribute(HBaseStoreConstants.EXTRA_PROCESSORS, extraProcessors);
+        }
+        scan.setMaxVersions();
+        return scan;
+    }
+
+    // Converts the seeds into row ranges, in batches of up to the maximum
+    // number of entries for a batch scanner.
+    private final class RowRangeBatches implements Iterator<List<RowRange>> {
+        @Override
+        public boolean hasNext() {
+            return idsIterator.hasNext();
+        }
+
         @Override
-        protected Iterable<Result> createBatch() {
-            return createScanner();
+        public List<RowRange> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Reached the end of the seeds");
+            }
+            final List<RowRange> rowRanges = new ArrayList<>();
+            final int maxEntriesForBatchScanner = store.getProperties().getMaxEntriesForBatchScanner();
+            int count = 0;
+            try {
+                while (idsIterator.hasNext() && count < maxEntriesForBatchScanner) {
+                    count++;
+                    rowRanges.addAll(rowRangeFactory.getRowRange(idsIterator.next(), operation));
+                }
+            } catch (final SerialisationException e) {
+                throw new RuntimeException(e);
+            }
+            return rowRanges;
         }
     }
 
@@ -228,7 +392,7 @@ public class HBaseRetriever<OP extends Output<CloseableIterable<? extends Elemen
                             final Cell possibleNext = cellsItr.next();
                             nextElement = deserialiseAndTransform(possibleNext);
                             if (postTransformFilter(nextElement)) {
-                                ViewUtil.removeProperties(operation.getView(), nextElement);
+                                nextElement = loadElement(nextElement);
                                 hasNext = true;
                                 return true;
                             } else {
@@ -258,4 +422,9 @@ public class HBaseRetriever<OP extends Output<CloseableIterable<? extends Elemen
             };
         }
     }
+
+    private static final class RegionSummary {
+        private final List<Cell> cells = new ArrayList<>();
+        private Map<String, Long> counts = Collections.emptyMap();
+    }
 }
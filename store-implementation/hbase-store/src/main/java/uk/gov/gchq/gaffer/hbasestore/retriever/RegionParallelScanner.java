@@ -0,0 +1,269 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.hbasestore.retriever;
+
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.hbasestore.HBaseStore;
+import uk.gov.gchq.gaffer.store.StoreException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@code RegionParallelScanner} scans batches of row ranges with a separate
+ * {@link Scan} for each region that a batch's ranges fall in, running up to a
+ * fixed number of scans in parallel.
+ * <p>
+ * The batches are read, and their scans submitted, on a separate thread, so the
+ * next batch is prepared whilst the results of the previous batch are being
+ * consumed. The number of scans waiting to run and the number of results
+ * waiting to be consumed are both bounded. Results are returned in the order
+ * they are received rather than in row order.
+ * </p>
+ */
+public class RegionParallelScanner implements CloseableIterable<Result> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RegionParallelScanner.class);
+    private static final int RESULTS_PER_THREAD = 100;
+    private static final long POLL_INTERVAL_MS = 100L;
+
+    private final HBaseStore store;
+    private final Scan scanTemplate;
+    private final Iterator<List<RowRange>> rangeBatches;
+    private final int maxPendingScans;
+    private final Semaphore pendingScans;
+    private final BlockingQueue<Result> results;
+    private final ExecutorService batchExecutor;
+    private final ExecutorService scanExecutor;
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+    private volatile boolean finished;
+    private volatile boolean closed;
+    private boolean started;
+
+    /**
+     * @param store        the store to scan
+     * @param scanTemplate the scan to copy for each region, with all the
+     *                     attributes required by the coprocessor
+     * @param rangeBatches the batches of row ranges to scan
+     * @param numThreads   the maximum number of scans to run in parallel
+     */
+    public RegionParallelScanner(final HBaseStore store, final Scan scanTemplate,
+                                 final Iterator<List<RowRange>> rangeBatches, final int numThreads) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("The number of scanner threads must be at least 1");
+        }
+        this.store = store;
+        this.scanTemplate = scanTemplate;
+        this.rangeBatches = rangeBatches;
+        this.maxPendingScans = 2 * numThreads;
+        this.pendingScans = new Semaphore(maxPendingScans);
+        this.results = new ArrayBlockingQueue<>(RESULTS_PER_THREAD * numThreads);
+        this.batchExecutor = Executors.newSingleThreadExecutor(RegionParallelScanner::createDaemonThread);
+        this.scanExecutor = Executors.newFixedThreadPool(numThreads, RegionParallelScanner::createDaemonThread);
+    }
+
+    @Override
+    public CloseableIterator<Result> iterator() {
+        if (started) {
+            throw new IllegalStateException("Only one iterator can be created from a " + getClass().getSimpleName());
+        }
+        started = true;
+        batchExecutor.execute(this::submitScans);
+        batchExecutor.shutdown();
+        return new ResultIterator();
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            scanExecutor.shutdownNow();
+            batchExecutor.shutdownNow();
+            try {
+                // The range batches must not be read once this has been
+                // closed, as the seeds they are read from may be closed too.
+                batchExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            results.clear();
+        }
+    }
+
+    private void submitScans() {
+        try (final RegionLocator locator = store.getConnection().getRegionLocator(store.getTableName())) {
+            while (!closed && rangeBatches.hasNext()) {
+                final List<RowRange> ranges = rangeBatches.next();
+                if (ranges.isEmpty()) {
+                    continue;
+                }
+                final Pair<byte[][], byte[][]> regions = locator.getStartEndKeys();
+                for (final Scan scan : createRegionScans(MultiRowRangeFilter.sortAndMerge(ranges), regions.getFirst(), regions.getSecond())) {
+                    pendingScans.acquire();
+                    scanExecutor.execute(() -> {
+                        try {
+                            scan(scan);
+                        } finally {
+                            pendingScans.release();
+                        }
+                    });
+                }
+            }
+            // Wait for all the scans to complete
+            pendingScans.acquire(maxPendingScans);
+            finished = true;
+        } catch (final IOException | StoreException | RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            scanExecutor.shutdown();
+        }
+    }
+
+    private List<Scan> createRegionScans(final List<RowRange> ranges, final byte[][] startKeys, final byte[][] endKeys) throws IOException {
+        // The ranges and regions are both sorted, so the first range that
+        // could be in a region is never before the first range in the
+        // previous region. Ranges that span more than one region are scanned
+        // in each of them, but each scan is limited to its own region.
+        final List<Scan> scans = new ArrayList<>();
+        int first = 0;
+        for (int region = 0; region < startKeys.length; region++) {
+            while (first < ranges.size() && endsBefore(ranges.get(first), startKeys[region])) {
+                first++;
+            }
+            final List<RowRange> regionRanges = new ArrayList<>();
+            for (int i = first; i < ranges.size() && startsBefore(ranges.get(i), endKeys[region]); i++) {
+                regionRanges.add(ranges.get(i));
+            }
+            if (!regionRanges.isEmpty()) {
+                final byte[] firstStart = regionRanges.get(0).getStartRow();
+                final Scan scan = new Scan(scanTemplate);
+                scan.setStartRow(Bytes.compareTo(firstStart, startKeys[region]) > 0 ? firstStart : startKeys[region]);
+                scan.setStopRow(endKeys[region]);
+                scan.setFilter(new MultiRowRangeFilter(regionRanges));
+                scans.add(scan);
+            }
+        }
+        LOGGER.debug("Scanning {} row ranges in {} regions", ranges.size(), scans.size());
+        return scans;
+    }
+
+    private void scan(final Scan scan) {
+        if (closed || null != failure.get()) {
+            return;
+        }
+        try (final Table table = store.getTable();
+             final ResultScanner scanner = table.getScanner(scan)) {
+            for (final Result result : scanner) {
+                results.put(result);
+            }
+        } catch (final IOException | StoreException | RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Thread createDaemonThread(final Runnable runnable) {
+        // The threads must not stop the JVM from exiting if an iterator is
+        // not closed.
+        final Thread thread = new Thread(runnable);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static boolean endsBefore(final RowRange range, final byte[] regionStart) {
+        // An empty stop row means the range has no end
+        return range.getStopRow().length > 0 && Bytes.compareTo(range.getStopRow(), regionStart) < 0;
+    }
+
+    private static boolean startsBefore(final RowRange range, final byte[] regionEnd) {
+        // An empty end key means the region has no end
+        return 0 == regionEnd.length || Bytes.compareTo(range.getStartRow(), regionEnd) < 0;
+    }
+
+    private final class ResultIterator implements CloseableIterator<Result> {
+        private Result next;
+
+        @Override
+        public boolean hasNext() {
+            while (null == next) {
+                throwIfFailed();
+                try {
+                    next = results.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted whilst waiting for scan results", e);
+                }
+                if (null == next && (finished || closed)) {
+                    // All the results were added before finished was set
+                    next = results.poll();
+                    if (null == next) {
+                        throwIfFailed();
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Result next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Reached the end of the iterator");
+            }
+            final Result result = next;
+            next = null;
+            return result;
+        }
+
+        @Override
+        public void close() {
+            RegionParallelScanner.this.close();
+        }
+
+        private void throwIfFailed() {
+            if (null != failure.get()) {
+                close();
+                throw new RuntimeException("Failed to scan row ranges", failure.get());
+            }
+        }
+    }
+}
@@ -35,10 +35,17 @@ import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.EdgeDirection;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.LazyEdge;
+import uk.gov.gchq.gaffer.data.element.LazyEntity;
 import uk.gov.gchq.gaffer.data.element.Properties;
 import uk.gov.gchq.gaffer.data.element.id.EdgeId;
+import uk.gov.gchq.gaffer.data.element.id.ElementId;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.hbasestore.data.element.HBaseEdgeValueLoader;
+import uk.gov.gchq.gaffer.hbasestore.data.element.HBaseEntityValueLoader;
 import uk.gov.gchq.gaffer.hbasestore.utils.HBaseStoreConstants;
+import uk.gov.gchq.gaffer.operation.data.EdgeSeed;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
 import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
 import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawSerialisationUtils;
 import uk.gov.gchq.gaffer.store.schema.Schema;
@@ -104,12 +111,20 @@ public class ElementSerialisation {
 
     public Properties getPropertiesFromValue(final String group, final byte[] value)
             throws SerialisationException {
+        if (null == value) {
+            return new Properties();
+        }
+        return getPropertiesFromValue(group, value, 0, value.length);
+    }
+
+    public Properties getPropertiesFromValue(final String group, final byte[] value, final int offset, final int length)
+            throws SerialisationException {
         final Properties properties = new Properties();
-        if (null == value || value.length == 0) {
+        if (null == value || length == 0) {
             return properties;
         }
-        int lastDelimiter = 0;
-        final int arrayLength = value.length;
+        int lastDelimiter = offset;
+        final int arrayLength = offset + length;
         final SchemaElementDefinition elementDefinition = schema.getElement(group);
         if (null == elementDefinition) {
             throw new SerialisationException("No SchemaElementDefinition found for group " + group + ", is this group in your schema or do your table iterators need updating?");
@@ -166,13 +181,89 @@ public class ElementSerialisation {
         return getEdge(cell, includeMatchedVertex);
     }
 
+    /**
+     * Creates an {@link Element} that only deserialises its identifiers and
+     * properties when they are first requested. Each requested property is
+     * read straight from the backing arrays of the {@link Cell}, so a filter
+     * that references a single property only pays for that property.
+     *
+     * @param cell                 the cell to wrap
+     * @param includeMatchedVertex true if the matched vertex should be set on edges
+     * @return a {@link LazyEntity} or {@link LazyEdge} backed by the cell
+     * @throws SerialisationException if the group cannot be read from the cell
+     */
+    public Element getLazyElement(final Cell cell, final boolean includeMatchedVertex)
+            throws SerialisationException {
+        final String group = getGroup(cell);
+        if (isEntity(cell)) {
+            return new LazyEntity(new Entity(group), new HBaseEntityValueLoader(group, cell, this));
+        }
+        return new LazyEdge(new Edge(group, null, null, false), new HBaseEdgeValueLoader(group, cell, this, includeMatchedVertex));
+    }
+
+    public ElementId getElementId(final Cell cell, final boolean includeMatchedVertex)
+            throws SerialisationException {
+        if (isEntity(cell)) {
+            return new EntitySeed(getVertex(cell));
+        }
+
+        final byte[][] result = new byte[3][];
+        final EdgeDirection direction = getSourceAndDestination(cell.getRowArray(), cell.getRowOffset(), cell.getRowLength(), result);
+        final ToBytesSerialiser vertexSerialiser = (ToBytesSerialiser) schema.getVertexSerialiser();
+        return new EdgeSeed(vertexSerialiser.deserialise(result[0]), vertexSerialiser.deserialise(result[1]),
+                direction.isDirected(), getMatchedVertex(direction, includeMatchedVertex));
+    }
+
     public Properties getProperties(final String group, final Cell cell) throws SerialisationException {
-        Properties properties = getPropertiesFromColumnQualifier(group, CellUtil.cloneQualifier(cell));
-        properties.putAll(getPropertiesFromValue(group, CellUtil.cloneValue(cell)));
+        Properties properties = getPropertiesFromColumnQualifier(group, cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength());
+        properties.putAll(getPropertiesFromValue(group, cell.getValueArray(), cell.getValueOffset(), cell.getValueLength()));
         properties.putAll(getPropertiesFromTimestamp(group, cell.getTimestamp()));
         return properties;
     }
 
+    /**
+     * Deserialises a single property from a {@link Cell}. The lengths of the
+     * preceding properties are read to skip over them, but they are not
+     * deserialised.
+     *
+     * @param group        the group of the element held in the cell
+     * @param propertyName the name of the property to deserialise
+     * @param cell         the cell
+     * @return the property value, or null if the property is not stored in the cell
+     * @throws SerialisationException if the property could not be deserialised
+     */
+    public Object getProperty(final String group, final String propertyName, final Cell cell)
+            throws SerialisationException {
+        final SchemaElementDefinition elementDefinition = schema.getElement(group);
+        if (null == elementDefinition) {
+            throw new SerialisationException("No SchemaElementDefinition found for group " + group + ", is this group in your schema or do your table iterators need updating?");
+        }
+
+        if (!elementDefinition.containsProperty(propertyName)) {
+            return null;
+        }
+
+        if (elementDefinition.getGroupBy().contains(propertyName)) {
+            final byte[] qualifier = cell.getQualifierArray();
+            final int qualifierOffset = cell.getQualifierOffset();
+            final int qualifierLength = cell.getQualifierLength();
+            if (0 == qualifierLength) {
+                return null;
+            }
+            final int groupLength = (int) CompactRawSerialisationUtils.readLong(qualifier, qualifierOffset);
+            final int propertiesOffset = qualifierOffset + CompactRawSerialisationUtils.decodeVIntSize(qualifier[qualifierOffset]) + groupLength;
+            return getPropertyFromBytes(propertyName, elementDefinition, elementDefinition.getGroupBy(), false,
+                    qualifier, propertiesOffset, qualifierOffset + qualifierLength);
+        }
+
+        if (propertyName.equals(timestampProperty)) {
+            return cell.getTimestamp();
+        }
+
+        return getPropertyFromBytes(propertyName, elementDefinition, elementDefinition.getProperties(), true,
+                cell.getValueArray(), cell.getValueOffset(), cell.getValueOffset() + cell.getValueLength());
+    }
+
     public byte[] getColumnVisibility(final Element element) throws SerialisationException {
         return getColumnVisibility(element.getGroup(), element.getProperties());
     }
@@ -248,18 +339,26 @@ public class ElementSerialisation {
 
     public Properties getPropertiesFromColumnQualifier(final String group, final byte[] bytes)
             throws SerialisationException {
+        if (null == bytes) {
+            return getPropertiesFromColumnQualifier(group, null, 0, 0);
+        }
+        return getPropertiesFromColumnQualifier(group, bytes, 0, bytes.length);
+    }
+
+    public Properties getPropertiesFromColumnQualifier(final String group, final byte[] bytes, final int offset, final int length)
+            throws SerialisationException {
         final SchemaElementDefinition elementDefinition = schema.getElement(group);
         if (null == elementDefinition) {
             throw new SerialisationException("No SchemaElementDefinition found for group " + group + ", is this group in your schema or do your table iterators need updating?");
         }
 
         final Properties properties = new Properties();
-        if (null == bytes || bytes.length == 0) {
+        if (null == bytes || length == 0) {
             return properties;
         }
 
-        int carriage = CompactRawSerialisationUtils.decodeVIntSize(bytes[0]) + Bytes.toBytes(group).length;
-        final int arrayLength = bytes.length;
+        int carriage = offset + CompactRawSerialisationUtils.decodeVIntSize(bytes[offset]) + Bytes.toBytes(group).length;
+        final int arrayLength = offset + length;
 
         final Iterator<String> propertyNames = elementDefinition.getGroupBy().iterator();
         while (propertyNames.hasNext() && carriage < arrayLength) {
@@ -393,20 +492,23 @@ public class ElementSerialisation {
     }
 
     public boolean isEntity(final Cell cell) throws SerialisationException {
-        final byte[] row = CellUtil.cloneRow(cell);
-        return row[row.length - 1] == HBaseStoreConstants.ENTITY;
+        return cell.getRowArray()[cell.getRowOffset() + cell.getRowLength() - 1] == HBaseStoreConstants.ENTITY;
     }
 
 
     public String getGroup(final Cell cell) throws SerialisationException {
-        return getGroup(CellUtil.cloneQualifier(cell));
+        return getGroup(cell.getQualifierArray(), cell.getQualifierOffset());
     }
 
     public String getGroup(final byte[] columnQualifier) throws SerialisationException {
+        return getGroup(columnQualifier, 0);
+    }
+
+    public String getGroup(final byte[] columnQualifier, final int offset) throws SerialisationException {
         try {
-            final int numBytesForLength = CompactRawSerialisationUtils.decodeVIntSize(columnQualifier[0]);
-            int currentPropLength = (int) CompactRawSerialisationUtils.readLong(columnQualifier, 0);
-            return new String(columnQualifier, numBytesForLength, currentPropLength, Charset.forName("UTF-8"));
+            final int numBytesForLength = CompactRawSerialisationUtils.decodeVIntSize(columnQualifier[offset]);
+            int currentPropLength = (int) CompactRawSerialisationUtils.readLong(columnQualifier, offset);
+            return new String(columnQualifier, offset + numBytesForLength, currentPropLength, Charset.forName("UTF-8"));
         } catch (final SerialisationException e) {
             throw new SerialisationException("Exception reading length of property");
         }
@@ -529,12 +631,17 @@ public class ElementSerialisation {
     }
 
     public EdgeDirection getSourceAndDestination(final byte[] rowKey, final byte[][] sourceDestValues) throws SerialisationException {
+        return getSourceAndDestination(rowKey, 0, rowKey.length, sourceDestValues);
+    }
+
+    public EdgeDirection getSourceAndDestination(final byte[] rowKey, final int offset, final int length, final byte[][] sourceDestValues) throws SerialisationException {
         // Get element class, sourceValue, destinationValue and directed flag from row cell
         // Expect to find 3 delimiters (4 fields)
         final int[] positionsOfDelimiters = new int[3];
         short numDelims = 0;
+        final int end = offset + length;
         // Last byte will be directional flag so don't count it
-        for (int i = 0; i < rowKey.length - 1; ++i) {
+        for (int i = offset; i < end - 1; ++i) {
             if (rowKey[i] == ByteArrayEscapeUtils.DELIMITER) {
                 if (numDelims >= 3) {
                     throw new SerialisationException(
@@ -552,11 +659,11 @@ public class ElementSerialisation {
         // If the edge is directed then need to decide which way round the vertices should go.
         byte directionFlag;
         try {
-            directionFlag = rowKey[rowKey.length - 1];
+            directionFlag = rowKey[end - 1];
         } catch (final NumberFormatException e) {
             throw new SerialisationException("Error parsing direction flag from row cell - " + e);
         }
-        byte[] sourceBytes = ByteArrayEscapeUtils.unEscape(rowKey, 0, positionsOfDelimiters[0]);
+        byte[] sourceBytes = ByteArrayEscapeUtils.unEscape(rowKey, offset, positionsOfDelimiters[0]);
         byte[] destBytes = ByteArrayEscapeUtils.unEscape(rowKey, positionsOfDelimiters[1] + 1, positionsOfDelimiters[2]);
         sourceDestValues[0] = sourceBytes;
         sourceDestValues[1] = destBytes;
@@ -594,12 +701,68 @@ public class ElementSerialisation {
         out.write(bytes);
     }
 
+    private Object getPropertyFromBytes(final String propertyName,
+                                        final SchemaElementDefinition elementDefinition,
+                                        final Iterable<String> storedPropertyNames,
+                                        final boolean storedInValue,
+                                        final byte[] bytes,
+                                        final int offset,
+                                        final int end) throws SerialisationException {
+        int carriage = offset;
+        for (final String storedPropertyName : storedPropertyNames) {
+            if (carriage >= end) {
+                break;
+            }
+            if (storedInValue && !isStoredInValue(storedPropertyName, elementDefinition)) {
+                continue;
+            }
+
+            final int numBytesForLength = CompactRawSerialisationUtils.decodeVIntSize(bytes[carriage]);
+            // value is never larger than int.
+            final int currentPropLength = (int) CompactRawSerialisationUtils.readLong(bytes, carriage);
+            carriage += numBytesForLength;
+            if (storedPropertyName.equals(propertyName)) {
+                final TypeDefinition typeDefinition = elementDefinition.getPropertyTypeDef(propertyName);
+                final ToBytesSerialiser serialiser = (null != typeDefinition) ? (ToBytesSerialiser) typeDefinition.getSerialiser() : null;
+                if (null == serialiser) {
+                    return null;
+                }
+                try {
+                    return currentPropLength > 0
+                            ? serialiser.deserialise(bytes, carriage, currentPropLength)
+                            : serialiser.deserialiseEmpty();
+                } catch (final SerialisationException e) {
+                    throw new SerialisationException("Failed to deserialise property " + propertyName, e);
+                }
+            }
+            carriage += currentPropLength;
+        }
+
+        return null;
+    }
+
+    private Object getVertex(final Cell cell) throws SerialisationException {
+        final int rowOffset = cell.getRowOffset();
+        return ((ToBytesSerialiser) schema.getVertexSerialiser()).deserialise(
+                ByteArrayEscapeUtils.unEscape(cell.getRowArray(), rowOffset, rowOffset + cell.getRowLength() - 2));
+    }
+
+    private EdgeId.MatchedVertex getMatchedVertex(final EdgeDirection direction, final boolean includeMatchedVertex) {
+        if (!includeMatchedVertex) {
+            return null;
+        }
+        if (EdgeDirection.DIRECTED_REVERSED == direction) {
+            return EdgeId.MatchedVertex.DESTINATION;
+        }
+        return EdgeId.MatchedVertex.SOURCE;
+    }
+
     private void addPropertiesToElement(final Element element, final Cell cell)
             throws SerialisationException {
         element.copyProperties(
-                getPropertiesFromColumnQualifier(element.getGroup(), CellUtil.cloneQualifier(cell)));
+                getPropertiesFromColumnQualifier(element.getGroup(), cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength()));
         element.copyProperties(
-                getPropertiesFromValue(element.getGroup(), CellUtil.cloneValue(cell)));
+                getPropertiesFromValue(element.getGroup(), cell.getValueArray(), cell.getValueOffset(), cell.getValueLength()));
         element.copyProperties(
                 getPropertiesFromTimestamp(element.getGroup(), cell.getTimestamp()));
     }
@@ -612,15 +775,8 @@ public class ElementSerialisation {
     private Edge getEdge(final Cell cell, final boolean includeMatchedVertex)
             throws SerialisationException {
         final byte[][] result = new byte[3][];
-        final EdgeDirection direction = getSourceAndDestination(CellUtil.cloneRow(cell), result);
-        final EdgeId.MatchedVertex matchedVertex;
-        if (!includeMatchedVertex) {
-            matchedVertex = null;
-        } else if (EdgeDirection.DIRECTED_REVERSED == direction) {
-            matchedVertex = EdgeId.MatchedVertex.DESTINATION;
-        } else {
-            matchedVertex = EdgeId.MatchedVertex.SOURCE;
-        }
+        final EdgeDirection direction = getSourceAndDestination(cell.getRowArray(), cell.getRowOffset(), cell.getRowLength(), result);
+        final EdgeId.MatchedVertex matchedVertex = getMatchedVertex(direction, includeMatchedVertex);
         final String group = getGroup(cell);
         try {
             final Edge edge = new Edge(group, ((ToBytesSerialiser) schema.getVertexSerialiser()).deserialise(result[0]),
@@ -635,9 +791,7 @@ public class ElementSerialisation {
     private Entity getEntity(final Cell cell) throws SerialisationException {
 
         try {
-            final byte[] row = CellUtil.cloneRow(cell);
-            final Entity entity = new Entity(getGroup(cell), ((ToBytesSerialiser) schema.getVertexSerialiser())
-                    .deserialise(ByteArrayEscapeUtils.unEscape(row, 0, row.length - 2)));
+            final Entity entity = new Entity(getGroup(cell), getVertex(cell));
             addPropertiesToElement(entity, cell);
             return entity;
         } catch (final SerialisationException e) {
@@ -58,7 +58,7 @@ public class LazyElementCell {
                 throw new IllegalStateException("Element has been marked for deletion it should not be used");
             }
             try {
-                setElement(serialisation.getElement(cell, includeMatchedVertex));
+                setElement(serialisation.getLazyElement(cell, includeMatchedVertex));
             } catch (final SerialisationException e) {
                 throw new RuntimeException(e);
             }
@@ -41,6 +41,10 @@ public final class HBaseStoreConstants {
     public static final String EXTRA_PROCESSORS = "ExtraProcessors";
     public static final String DIRECTED_TYPE = "DirectedType";
     public static final String INCLUDE_MATCHED_VERTEX = "IncludeMatchedVertex";
+    public static final String COUNT_GROUPS = "CountGroups";
+    public static final String SAMPLE_SIZE = "SampleSize";
+    public static final String SAMPLE_STRATIFIED = "SampleStratified";
+    public static final String SAMPLE_SEED = "SampleSeed";
 
     // Operations options
     public static final String OPERATION_HDFS_STAGING_PATH = "hbasestore.operation.hdfs.staging.path";
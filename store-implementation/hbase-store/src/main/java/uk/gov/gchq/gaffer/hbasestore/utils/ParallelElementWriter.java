@@ -0,0 +1,206 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.utils;
+
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.pair.Pair;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.hbasestore.HBaseStore;
+import uk.gov.gchq.gaffer.hbasestore.serialisation.ElementSerialisation;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.util.AggregatorUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@code ParallelElementWriter} adds elements to an {@link HBaseStore},
+ * converting them into {@link Put}s on a pool of threads and writing them
+ * through {@link BufferedMutator}s.
+ * <p>
+ * The elements are read on the calling thread and handed to the pool in
+ * batches of {@link uk.gov.gchq.gaffer.hbasestore.HBaseProperties#getWriteBufferSize()}.
+ * If all the threads are busy, the calling thread converts the next batch
+ * itself, so the input is not read faster than it can be written. HBase skips
+ * puts with the same row and column in a single batch, so if the schema has
+ * aggregation each batch is aggregated before it is converted. The puts are
+ * then sorted by row, so the puts for each region are sent together.
+ * </p>
+ * <p>
+ * Each batch is written through its own mutator, which is flushed before
+ * the batch is finished, so puts from different batches are never sent to
+ * the region servers together. Within a batch the mutator sends the puts in
+ * the background once more than
+ * {@link uk.gov.gchq.gaffer.hbasestore.HBaseProperties#getIngestBufferedBytes()}
+ * are buffered.
+ * </p>
+ */
+public class ParallelElementWriter {
+    private final HBaseStore store;
+    private final int numThreads;
+    private final int batchSize;
+    private final long bufferedBytes;
+    private final byte[] schemaJson;
+
+    // Schemas are not thread safe, so each thread has its own copy.
+    private final ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+    public ParallelElementWriter(final HBaseStore store) {
+        this.store = store;
+        this.numThreads = store.getProperties().getIngestThreads();
+        this.batchSize = store.getProperties().getWriteBufferSize();
+        this.bufferedBytes = store.getProperties().getIngestBufferedBytes();
+        this.schemaJson = store.getSchema().toCompactJson();
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("The number of ingest threads must be at least 1");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The write buffer size must be at least 1");
+        }
+    }
+
+    /**
+     * Writes the elements to the store, returning once they have all been
+     * written. Null elements are skipped.
+     *
+     * @param elements    the elements to write
+     * @param validate    true if elements that cannot be converted into puts
+     *                    should cause an exception, unless skipInvalid is true
+     * @param skipInvalid true if elements that cannot be converted into puts
+     *                    should be skipped
+     * @throws StoreException if the elements could not be written
+     */
+    public void write(final Iterable<? extends Element> elements, final boolean validate, final boolean skipInvalid) throws StoreException {
+        final boolean throwOnInvalid = validate && !skipInvalid;
+        final Connection connection = store.getConnection();
+
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(numThreads, numThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(numThreads), new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            List<Element> batch = new ArrayList<>(Math.min(batchSize, 10000));
+            for (final Element element : elements) {
+                if (null == element) {
+                    continue;
+                }
+                batch.add(element);
+                if (batch.size() >= batchSize) {
+                    submit(executor, connection, batch, throwOnInvalid);
+                    batch = new ArrayList<>(Math.min(batchSize, 10000));
+                    if (null != failure.get()) {
+                        break;
+                    }
+                }
+            }
+            if (!batch.isEmpty() && null == failure.get()) {
+                submit(executor, connection, batch, throwOnInvalid);
+            }
+        } catch (final RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            executor.shutdown();
+        }
+
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new StoreException("Interrupted whilst waiting for elements to be written", e);
+        }
+
+        final Exception e = failure.get();
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        if (null != e) {
+            throw new StoreException("Failed to add elements", e);
+        }
+    }
+
+    private void submit(final ThreadPoolExecutor executor, final Connection connection, final List<Element> batch,
+                        final boolean throwOnInvalid) {
+        executor.execute(() -> {
+            if (null != failure.get()) {
+                return;
+            }
+            // Closing the mutator flushes the batch's puts. The mutator shuts
+            // down its pool when it is closed, so each has its own params.
+            final BufferedMutatorParams params = new BufferedMutatorParams(store.getTableName())
+                    .writeBufferSize(bufferedBytes)
+                    .listener((e, mutator) -> failure.compareAndSet(null, e));
+            try (final BufferedMutator mutator = connection.getBufferedMutator(params)) {
+                workers.get().write(mutator, batch, throwOnInvalid);
+            } catch (final Exception e) {
+                failure.compareAndSet(null, e);
+            }
+        });
+    }
+
+    private final class Worker {
+        private final Schema schema;
+        private final ElementSerialisation serialisation;
+
+        private Worker() {
+            schema = Schema.fromJson(schemaJson);
+            serialisation = new ElementSerialisation(schema);
+        }
+
+        private void write(final BufferedMutator mutator, final List<Element> batch, final boolean throwOnInvalid) throws Exception {
+            final List<Put> puts = new ArrayList<>(2 * batch.size());
+            if (schema.isAggregationEnabled()) {
+                try (final CloseableIterable<Element> aggregated = AggregatorUtil.ingestAggregate(batch, schema)) {
+                    convert(aggregated, puts, throwOnInvalid);
+                }
+            } else {
+                convert(batch, puts, throwOnInvalid);
+            }
+
+            // Sorting by row means the puts for each region are adjacent.
+            puts.sort((first, second) -> Bytes.compareTo(first.getRow(), second.getRow()));
+            mutator.mutate(puts);
+        }
+
+        private void convert(final Iterable<? extends Element> elements, final List<Put> puts, final boolean throwOnInvalid) throws Exception {
+            for (final Element element : elements) {
+                try {
+                    final Pair<Put, Put> putPair = serialisation.getPuts(element);
+                    puts.add(putPair.getFirst());
+                    if (null != putPair.getSecond()) {
+                        puts.add(putPair.getSecond());
+                    }
+                } catch (final Exception e) {
+                    if (throwOnInvalid) {
+                        throw e;
+                    }
+                    // otherwise just ignore the error
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.coprocessor;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.hbasestore.serialisation.ElementSerialisation;
+import uk.gov.gchq.gaffer.hbasestore.util.CellUtil;
+import uk.gov.gchq.gaffer.hbasestore.util.HBasePropertyNames;
+import uk.gov.gchq.gaffer.hbasestore.utils.HBaseStoreConstants;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ElementSummariserTest {
+    private static final Schema SCHEMA = Schema.fromJson(StreamUtil.schemas(ElementSummariserTest.class));
+    private static final ElementSerialisation SERIALISATION = new ElementSerialisation(SCHEMA);
+
+    @Test
+    public void shouldOnlyCreateSummariserWhenRequestedByScan() {
+        // Given
+        final Scan scan = new Scan();
+
+        // When / Then
+        assertNull(ElementSummariser.create(scan, SERIALISATION, null));
+
+        scan.setAttribute(HBaseStoreConstants.COUNT_GROUPS, Bytes.toBytes("true"));
+        assertNotNull(ElementSummariser.create(scan, SERIALISATION, null));
+    }
+
+    @Test
+    public void shouldWriteCountsCellAfterLastCell() throws Exception {
+        // Given
+        final ElementSummariser summariser = new ElementSummariser(SERIALISATION, 0, false, new Random(1L));
+        final List<Cell> cells = createCells();
+        summariser.add(cells);
+
+        // When
+        final List<Cell> output = new ArrayList<>();
+        summariser.writeSummary(output);
+
+        // Then
+        assertEquals(1, output.size());
+        final Cell countsCell = output.get(0);
+        assertTrue(ElementSummariser.isCounts(countsCell));
+        assertFalse(ElementSummariser.isCounts(cells.get(0)));
+        final Map<String, Long> expected = new HashMap<>();
+        expected.put(TestGroups.ENTITY, 10L);
+        expected.put(TestGroups.EDGE, 10L);
+        assertEquals(expected, ElementSummariser.getCounts(countsCell));
+        assertEquals(0, KeyValue.COMPARATOR.compareRows(cells.get(cells.size() - 1), countsCell));
+    }
+
+    @Test
+    public void shouldWriteSortedSampleOfEachGroupWhenStratified() throws Exception {
+        // Given
+        final ElementSummariser summariser = new ElementSummariser(SERIALISATION, 3, true, new Random(1L));
+        summariser.add(createCells());
+
+        // When
+        final List<Cell> output = new ArrayList<>();
+        summariser.writeSummary(output);
+
+        // Then
+        assertEquals(7, output.size());
+        final Map<String, Integer> sampledGroups = new HashMap<>();
+        for (int i = 0; i < 6; i++) {
+            sampledGroups.merge(SERIALISATION.getGroup(output.get(i)), 1, Integer::sum);
+            if (i > 0) {
+                assertTrue(KeyValue.COMPARATOR.compare(output.get(i - 1), output.get(i)) <= 0);
+            }
+        }
+        assertEquals(3, (int) sampledGroups.get(TestGroups.ENTITY));
+        assertEquals(3, (int) sampledGroups.get(TestGroups.EDGE));
+        assertTrue(ElementSummariser.isCounts(output.get(6)));
+    }
+
+    @Test
+    public void shouldWriteNothingWhenNoCellsWereAdded() throws Exception {
+        // Given
+        final ElementSummariser summariser = new ElementSummariser(SERIALISATION, 3, false, new Random(1L));
+
+        // When
+        final List<Cell> output = new ArrayList<>();
+        summariser.writeSummary(output);
+
+        // Then
+        assertTrue(output.isEmpty());
+    }
+
+    private List<Cell> createCells() throws Exception {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex("vertex" + i)
+                    .property(HBasePropertyNames.COUNT, 1)
+                    .build());
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source("vertex" + i)
+                    .dest("vertex" + i)
+                    .directed(true)
+                    .property(HBasePropertyNames.COUNT, 1)
+                    .build());
+        }
+
+        final List<Cell> cells = new ArrayList<>();
+        for (final Element element : elements) {
+            cells.add(CellUtil.getLazyCell(element, SERIALISATION).getCell());
+        }
+        cells.sort(KeyValue.COMPARATOR);
+        return cells;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.coprocessor;
+
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.regionserver.RegionScanner;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.GafferScannerProcessor;
+import uk.gov.gchq.gaffer.hbasestore.coprocessor.scanner.QueryScanner;
+import uk.gov.gchq.gaffer.hbasestore.utils.HBaseStoreConstants;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.koryphe.impl.binaryoperator.StringConcat;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class ScannerProcessorCacheTest {
+    private static final Schema SCHEMA = new Schema.Builder()
+            .type("string", new TypeDefinition.Builder()
+                    .clazz(String.class)
+                    .aggregateFunction(new StringConcat())
+                    .build())
+            .type("type", Boolean.class)
+            .edge(TestGroups.EDGE, new SchemaEdgeDefinition.Builder()
+                    .source("string")
+                    .destination("string")
+                    .directed("true")
+                    .build())
+            .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                    .vertex("string")
+                    .build())
+            .vertexSerialiser(new StringSerialiser())
+            .build();
+
+    private static final View VIEW = new View.Builder()
+            .entity(TestGroups.ENTITY)
+            .build();
+
+    private static final View VIEW_2 = new View.Builder()
+            .edge(TestGroups.EDGE)
+            .build();
+
+    @Test
+    public void shouldReturnTheSameCacheForTheSameSchema() {
+        // When
+        final ScannerProcessorCache cache1 = ScannerProcessorCache.forSchema(SCHEMA.toCompactJson());
+        final ScannerProcessorCache cache2 = ScannerProcessorCache.forSchema(SCHEMA.toCompactJson());
+
+        // Then
+        assertSame(cache1, cache2);
+    }
+
+    @Test
+    public void shouldReuseProcessorsOnceTheyAreReleased() {
+        // Given
+        final ScannerProcessorCache cache = new ScannerProcessorCache(SCHEMA);
+        final List<GafferScannerProcessor> processors = cache.lease(createScan(VIEW));
+
+        // When
+        cache.release(processors);
+        final List<GafferScannerProcessor> reused = cache.lease(createScan(VIEW));
+
+        // Then
+        assertSame(processors, reused);
+    }
+
+    @Test
+    public void shouldNotShareProcessorsThatAreLeased() {
+        // Given
+        final ScannerProcessorCache cache = new ScannerProcessorCache(SCHEMA);
+        final List<GafferScannerProcessor> processors = cache.lease(createScan(VIEW));
+
+        // When
+        final List<GafferScannerProcessor> other = cache.lease(createScan(VIEW));
+
+        // Then
+        assertNotSame(processors, other);
+    }
+
+    @Test
+    public void shouldNotReuseProcessorsForADifferentView() {
+        // Given
+        final ScannerProcessorCache cache = new ScannerProcessorCache(SCHEMA);
+        final List<GafferScannerProcessor> processors = cache.lease(createScan(VIEW));
+        cache.release(processors);
+
+        // When
+        final List<GafferScannerProcessor> other = cache.lease(createScan(VIEW_2));
+
+        // Then
+        assertNotSame(processors, other);
+    }
+
+    @Test
+    public void shouldOnlyReuseProcessorsOnceWhenReleasedTwice() {
+        // Given
+        final ScannerProcessorCache cache = new ScannerProcessorCache(SCHEMA);
+        final List<GafferScannerProcessor> processors = cache.lease(createScan(VIEW));
+        cache.release(processors);
+        cache.release(processors);
+
+        // When
+        final List<GafferScannerProcessor> first = cache.lease(createScan(VIEW));
+        final List<GafferScannerProcessor> second = cache.lease(createScan(VIEW));
+
+        // Then
+        assertSame(processors, first);
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void shouldReleaseProcessorsWhenQueryScannerIsClosed() throws IOException {
+        // Given
+        final ScannerProcessorCache cache = new ScannerProcessorCache(SCHEMA);
+        final RegionScanner scanner = mock(RegionScanner.class);
+        final QueryScanner queryScanner = new QueryScanner(scanner, createScan(VIEW), cache);
+        final List<GafferScannerProcessor> otherProcessors = cache.lease(createScan(VIEW));
+        cache.release(otherProcessors);
+
+        // When
+        queryScanner.close();
+
+        // Then - the processors released by the scanner are reused before the
+        // ones released earlier
+        verify(scanner).close();
+        assertNotSame(otherProcessors, cache.lease(createScan(VIEW)));
+        assertSame(otherProcessors, cache.lease(createScan(VIEW)));
+    }
+
+    private Scan createScan(final View view) {
+        final Scan scan = mock(Scan.class);
+        given(scan.getAttribute(HBaseStoreConstants.VIEW)).willReturn(view.toCompactJson());
+        return scan;
+    }
+}
@@ -111,7 +111,7 @@ public class FilterProcessorTest {
 
         // When / Then
         assertThat(result).hasSize(2);
-        assertEquals(ELEMENTS.get(0), result.get(0).getElement());
+        assertEquals(ELEMENTS.get(0), serialisation.getElement(result.get(0).getCell(), false));
         assertEquals(deletedCell, result.get(1).getCell());
     }
 }
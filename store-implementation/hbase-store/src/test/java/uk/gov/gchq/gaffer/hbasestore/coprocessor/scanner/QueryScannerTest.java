@@ -16,16 +16,22 @@
 
 package uk.gov.gchq.gaffer.hbasestore.coprocessor.scanner;
 
+import org.apache.hadoop.hbase.Cell;
 import org.apache.hadoop.hbase.HRegionInfo;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.regionserver.RegionScanner;
+import org.apache.hadoop.hbase.regionserver.ScannerContext;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.junit.jupiter.api.Test;
 
 import uk.gov.gchq.gaffer.commonutil.StringUtil;
 import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.data.element.id.DirectedType;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.hbasestore.coprocessor.ElementSummariser;
 import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.ElementDedupeFilterProcessor;
 import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.GafferScannerProcessor;
 import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.GroupFilterProcessor;
@@ -35,6 +41,7 @@ import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.QueryAggregationProce
 import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.StoreAggregationProcessor;
 import uk.gov.gchq.gaffer.hbasestore.coprocessor.processor.ValidationProcessor;
 import uk.gov.gchq.gaffer.hbasestore.serialisation.ElementSerialisation;
+import uk.gov.gchq.gaffer.hbasestore.util.CellUtil;
 import uk.gov.gchq.gaffer.hbasestore.utils.HBaseStoreConstants;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
@@ -45,7 +52,11 @@ import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
 import uk.gov.gchq.koryphe.impl.binaryoperator.StringConcat;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -53,8 +64,11 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 public class QueryScannerTest {
@@ -287,4 +301,61 @@ public class QueryScannerTest {
         assertEquals(2, queryScanner.getBatch());
         verify(scanner).getBatch();
     }
+
+    @Test
+    public void shouldSummariseRegionAcrossCallsWithinScannerContextLimits() throws IOException {
+        // Given
+        final Scan scan = mock(Scan.class);
+        given(scan.getAttribute(HBaseStoreConstants.COUNT_GROUPS)).willReturn(Bytes.toBytes("true"));
+        final Entity entityA = new Entity(TestGroups.ENTITY, "A");
+        final Entity entityB = new Entity(TestGroups.ENTITY, "B");
+        final Edge edge = new Edge.Builder()
+                .group(TestGroups.EDGE)
+                .source("C")
+                .dest("D")
+                .directed(true)
+                .build();
+        // The row for entity B is split across the first two batches
+        final List<List<Cell>> batches = Arrays.asList(
+                createCells(entityA, entityB),
+                createCells(entityB),
+                createCells(edge));
+        final RegionScanner scanner = mock(RegionScanner.class);
+        final ScannerContext scannerContext = ScannerContext.newBuilder().build();
+        final int[] batch = {0};
+        given(scanner.nextRaw(anyList(), same(scannerContext))).willAnswer(invocation -> {
+            final List<Cell> input = invocation.getArgument(0);
+            input.addAll(batches.get(batch[0]++));
+            return batch[0] < batches.size();
+        });
+        final QueryScanner queryScanner = new QueryScanner(scanner, scan, SCHEMA, serialisation);
+
+        // When
+        final List<Cell> output = new ArrayList<>();
+        final boolean hasMoreAfterFirstBatch = queryScanner.nextRaw(output, scannerContext);
+        final boolean hasMoreAfterSecondBatch = queryScanner.nextRaw(output, scannerContext);
+        final List<Cell> outputBeforeLastBatch = new ArrayList<>(output);
+        final boolean hasMoreAfterLastBatch = queryScanner.nextRaw(output, scannerContext);
+
+        // Then
+        assertTrue(hasMoreAfterFirstBatch);
+        assertTrue(hasMoreAfterSecondBatch);
+        assertThat(outputBeforeLastBatch).isEmpty();
+        assertFalse(hasMoreAfterLastBatch);
+        verify(scanner, times(3)).nextRaw(anyList(), same(scannerContext));
+        assertThat(output).hasSize(1);
+        assertTrue(ElementSummariser.isCounts(output.get(0)));
+        final Map<String, Long> expected = new HashMap<>();
+        expected.put(TestGroups.ENTITY, 2L);
+        expected.put(TestGroups.EDGE, 1L);
+        assertEquals(expected, ElementSummariser.getCounts(output.get(0)));
+    }
+
+    private List<Cell> createCells(final Element... elements) throws IOException {
+        final List<Cell> cells = new ArrayList<>();
+        for (final Element element : elements) {
+            cells.add(CellUtil.getLazyCell(element, serialisation).getCell());
+        }
+        return cells;
+    }
 }
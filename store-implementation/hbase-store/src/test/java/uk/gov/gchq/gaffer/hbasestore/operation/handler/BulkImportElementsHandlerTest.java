@@ -0,0 +1,262 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.operation.handler;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.HRegionInfo;
+import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.FSUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.hbasestore.HBaseProperties;
+import uk.gov.gchq.gaffer.hbasestore.HBaseStore;
+import uk.gov.gchq.gaffer.hbasestore.SingleUseMiniHBaseStore;
+import uk.gov.gchq.gaffer.hbasestore.operation.impl.BulkImportElements;
+import uk.gov.gchq.gaffer.hbasestore.util.HBasePropertyNames;
+import uk.gov.gchq.gaffer.hbasestore.utils.HBaseStoreConstants;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class BulkImportElementsHandlerTest {
+    private static final Schema SCHEMA = Schema.fromJson(StreamUtil.schemas(BulkImportElementsHandlerTest.class));
+    private static final HBaseProperties PROPERTIES = HBaseProperties.loadStoreProperties(StreamUtil.storeProps(BulkImportElementsHandlerTest.class));
+    private static final Context CONTEXT = new Context();
+    private static final long SPLIT_TIMEOUT_MS = 60000L;
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    public void shouldBulkImportTheSameElementsAsAddElementsWhenTheyFitInMemory() throws Exception {
+        shouldBulkImportTheSameElementsAsAddElements(BulkImportElements.DEFAULT_MAX_ENTRIES_IN_MEMORY);
+    }
+
+    @Test
+    public void shouldBulkImportTheSameElementsAsAddElementsWhenMergingRuns() throws Exception {
+        shouldBulkImportTheSameElementsAsAddElements(7);
+    }
+
+    @Test
+    public void shouldThrowExceptionIfWorkingPathIsNotEmpty() throws Exception {
+        // Given
+        final HBaseStore store = createStore("bulkImport");
+        final File workingPath = new File(tempDir, "working");
+        assertTrue(workingPath.mkdirs());
+        assertTrue(new File(workingPath, "existing").createNewFile());
+        final BulkImportElements bulkImport = new BulkImportElements.Builder()
+                .input(createElements())
+                .workingPath(workingPath.getAbsolutePath())
+                .build();
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> store.execute(bulkImport, CONTEXT));
+    }
+
+    @Test
+    public void shouldLoadASingleHFileIntoEachRegion() throws Exception {
+        // Given
+        final HBaseStore store = createStore("bulkImport");
+        splitTable(store, "vertex5");
+        final File workingPath = new File(tempDir, "working");
+
+        // When
+        store.execute(new BulkImportElements.Builder()
+                .input(createElements())
+                .workingPath(workingPath.getAbsolutePath())
+                .maxEntriesInMemory(7)
+                .build(), CONTEXT);
+
+        // Then
+        final Configuration conf = store.getConfiguration();
+        final Path tableDir = FSUtils.getTableDir(FSUtils.getRootDir(conf), store.getTableName());
+        final FileSystem fs = tableDir.getFileSystem(conf);
+        try (final Admin admin = store.getConnection().getAdmin()) {
+            final List<HRegionInfo> regions = admin.getTableRegions(store.getTableName());
+            assertEquals(2, regions.size());
+            for (final HRegionInfo region : regions) {
+                final Path familyDir = new Path(new Path(tableDir, region.getEncodedName()), Bytes.toString(HBaseStoreConstants.getColFam()));
+                assertEquals(1, fs.listStatus(familyDir).length, "Expected one HFile in region " + region.getRegionNameAsString());
+            }
+        }
+    }
+
+    @Test
+    public void shouldThrowExceptionForInvalidElementsWhenValidating() throws Exception {
+        // Given
+        final HBaseStore store = createStore("bulkImport");
+        final List<Element> elements = createElements();
+        elements.add(new Entity("Unknown group", "vertex"));
+        final BulkImportElements bulkImport = new BulkImportElements.Builder()
+                .input(elements)
+                .workingPath(new File(tempDir, "working").getAbsolutePath())
+                .validate(true)
+                .skipInvalidElements(false)
+                .build();
+
+        // When / Then
+        assertThrows(Exception.class, () -> store.execute(bulkImport, CONTEXT));
+        assertTrue(getAllElements(store).isEmpty());
+    }
+
+    @Test
+    public void shouldSkipInvalidElements() throws Exception {
+        shouldSkipInvalidElements(true, true);
+    }
+
+    @Test
+    public void shouldSkipElementsThatCannotBeConvertedIntoCellsWhenNotValidating() throws Exception {
+        shouldSkipInvalidElements(false, false);
+    }
+
+    @Test
+    public void shouldImportNothingWhenThereAreNoElements() throws Exception {
+        // Given
+        final HBaseStore store = createStore("bulkImport");
+        final File workingPath = new File(tempDir, "working");
+
+        // When
+        store.execute(new BulkImportElements.Builder()
+                .input(new ArrayList<>())
+                .workingPath(workingPath.getAbsolutePath())
+                .build(), CONTEXT);
+
+        // Then
+        assertTrue(getAllElements(store).isEmpty());
+        assertFalse(workingPath.exists());
+    }
+
+    private void shouldSkipInvalidElements(final boolean validate, final boolean skipInvalidElements) throws Exception {
+        // Given
+        final HBaseStore expected = createStore("expected");
+        expected.execute(new AddElements.Builder().input(createElements()).build(), CONTEXT);
+        final HBaseStore bulkImported = createStore("bulkImport");
+        final List<Element> elements = createElements();
+        elements.add(null);
+        elements.add(new Entity("Unknown group", "vertex"));
+
+        // When
+        bulkImported.execute(new BulkImportElements.Builder()
+                .input(elements)
+                .workingPath(new File(tempDir, "working").getAbsolutePath())
+                .validate(validate)
+                .skipInvalidElements(skipInvalidElements)
+                .build(), CONTEXT);
+
+        // Then
+        assertEquals(getAllElements(expected), getAllElements(bulkImported));
+    }
+
+    private void shouldBulkImportTheSameElementsAsAddElements(final int maxEntriesInMemory) throws Exception {
+        // Given
+        final HBaseStore expected = createStore("expected");
+        expected.execute(new AddElements.Builder().input(createElements()).build(), CONTEXT);
+        final HBaseStore bulkImported = createStore("bulkImport");
+        splitTable(bulkImported, "vertex5");
+        final File workingPath = new File(tempDir, "working" + maxEntriesInMemory);
+
+        // When
+        bulkImported.execute(new BulkImportElements.Builder()
+                .input(createElements())
+                .workingPath(workingPath.getAbsolutePath())
+                .maxEntriesInMemory(maxEntriesInMemory)
+                .build(), CONTEXT);
+
+        // Then
+        assertEquals(getAllElements(expected), getAllElements(bulkImported));
+        assertFalse(workingPath.exists());
+    }
+
+    private HBaseStore createStore(final String graphId) throws Exception {
+        final HBaseStore store = new SingleUseMiniHBaseStore();
+        store.initialise(graphId, SCHEMA, PROPERTIES);
+        return store;
+    }
+
+    private void splitTable(final HBaseStore store, final String splitPoint) throws Exception {
+        try (final Admin admin = store.getConnection().getAdmin()) {
+            admin.split(store.getTableName(), Bytes.toBytes(splitPoint));
+            final long end = System.currentTimeMillis() + SPLIT_TIMEOUT_MS;
+            while (admin.getTableRegions(store.getTableName()).size() < 2) {
+                if (System.currentTimeMillis() > end) {
+                    fail("Table was not split at " + splitPoint);
+                }
+                Thread.sleep(100L);
+            }
+        }
+    }
+
+    private Set<Element> getAllElements(final HBaseStore store) throws Exception {
+        final Set<Element> elements = new HashSet<>();
+        try (final CloseableIterable<? extends Element> results = store.execute(new GetAllElements.Builder()
+                .view(new View.Builder()
+                        .entity(TestGroups.ENTITY)
+                        .edge(TestGroups.EDGE)
+                        .build())
+                .build(), CONTEXT)) {
+            for (final Element element : results) {
+                elements.add(element);
+            }
+        }
+        return elements;
+    }
+
+    private List<Element> createElements() {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex("vertex" + (i % 10))
+                    .property(HBasePropertyNames.COLUMN_QUALIFIER, i % 3)
+                    .property(HBasePropertyNames.COUNT, 1)
+                    .build());
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source("vertex" + (i % 10))
+                    .dest("vertex" + ((i + 3) % 10))
+                    .directed(true)
+                    .property(HBasePropertyNames.COLUMN_QUALIFIER, i % 3)
+                    .property(HBasePropertyNames.COUNT, 1)
+                    .build());
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.operation.handler;
+
+import com.google.common.collect.Lists;
+import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.GroupCounts;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.hbasestore.HBaseProperties;
+import uk.gov.gchq.gaffer.hbasestore.HBaseStore;
+import uk.gov.gchq.gaffer.hbasestore.SingleUseMiniHBaseStore;
+import uk.gov.gchq.gaffer.hbasestore.util.HBasePropertyNames;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.operation.io.Output;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.operation.handler.CountGroupsHandler;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class HBaseCountHandlerTest {
+    private static final Schema SCHEMA = Schema.fromJson(StreamUtil.schemas(HBaseCountHandlerTest.class));
+    private static final HBaseProperties PROPERTIES = HBaseProperties.loadStoreProperties(StreamUtil.storeProps(HBaseCountHandlerTest.class));
+    private static final Context CONTEXT = new Context();
+    private static final long SPLIT_TIMEOUT_MS = 60000L;
+
+    private HBaseStore store;
+
+    @BeforeEach
+    public void reInitialise() throws Exception {
+        store = new SingleUseMiniHBaseStore();
+        store.initialise("countGraph", SCHEMA, PROPERTIES);
+        store.execute(new AddElements.Builder().input(createElements()).build(), CONTEXT);
+
+        // Split the table so the partial results of two regions are combined
+        try (final Admin admin = store.getConnection().getAdmin()) {
+            admin.flush(store.getTableName());
+            admin.split(store.getTableName(), Bytes.toBytes("vertex15"));
+            final long end = System.currentTimeMillis() + SPLIT_TIMEOUT_MS;
+            while (admin.getTableRegions(store.getTableName()).size() < 2) {
+                if (System.currentTimeMillis() > end) {
+                    fail("Table was not split");
+                }
+                Thread.sleep(100L);
+            }
+        }
+    }
+
+    @Test
+    public void shouldCountAllElementsOnRegionServers() throws OperationException {
+        shouldCountTheSameAsRetrievingTheElements(allElements());
+    }
+
+    @Test
+    public void shouldCountSeededElementsWithQueryTimeAggregation() throws OperationException {
+        final View view = new View.Builder()
+                .entity(TestGroups.ENTITY, new ViewElementDefinition.Builder()
+                        .groupBy()
+                        .build())
+                .edge(TestGroups.EDGE, new ViewElementDefinition.Builder()
+                        .groupBy()
+                        .build())
+                .build();
+        final GetElements getElements = new GetElements.Builder()
+                .input(new EntitySeed("vertex1"), new EntitySeed("vertex2"), new EntitySeed("vertex17"))
+                .view(view)
+                .build();
+
+        shouldCountTheSameAsRetrievingTheElements(getElements);
+    }
+
+    @Test
+    public void shouldCountElementsWithPostTransformFilters() throws OperationException {
+        final View view = new View.Builder()
+                .edge(TestGroups.EDGE, new ViewElementDefinition.Builder()
+                        .postTransformFilter(new ElementFilter.Builder()
+                                .select(HBasePropertyNames.COLUMN_QUALIFIER)
+                                .execute(new IsMoreThan(1))
+                                .build())
+                        .build())
+                .build();
+
+        shouldCountTheSameAsRetrievingTheElements(new GetAllElements.Builder().view(view).build());
+    }
+
+    @Test
+    public void shouldCountGroupsOnRegionServers() throws OperationException {
+        // Given
+        final GroupCounts expected = new CountGroupsHandler().doOperation(
+                new CountGroups.Builder().input(getElements(allElements())).build(), CONTEXT, store);
+
+        // When
+        final GroupCounts result = store.execute(new OperationChain.Builder()
+                .first(allElements())
+                .then(new CountGroups())
+                .build(), CONTEXT);
+
+        // Then
+        assertEquals(expected.getEntityGroups(), result.getEntityGroups());
+        assertEquals(expected.getEdgeGroups(), result.getEdgeGroups());
+        assertFalse(result.isLimitHit());
+    }
+
+    @Test
+    public void shouldReturnRegionServerCountsWhenLimitIsHit() throws OperationException {
+        // Given
+        final GroupCounts allCounts = store.execute(new OperationChain.Builder()
+                .first(allElements())
+                .then(new CountGroups())
+                .build(), CONTEXT);
+
+        // When
+        final GroupCounts result = store.execute(new OperationChain.Builder()
+                .first(allElements())
+                .then(new CountGroups(5))
+                .build(), CONTEXT);
+
+        // Then
+        // Counting on the client would stop after the limit, so the full
+        // counts can only have come from the region servers
+        assertTrue(result.isLimitHit());
+        assertEquals(allCounts.getEntityGroups(), result.getEntityGroups());
+        assertEquals(allCounts.getEdgeGroups(), result.getEdgeGroups());
+        assertTrue(5 < result.getEntityGroups().get(TestGroups.ENTITY));
+    }
+
+    private void shouldCountTheSameAsRetrievingTheElements(final Output<CloseableIterable<? extends Element>> getOperation) throws OperationException {
+        // Given
+        final long expected = getElements(getOperation).size();
+
+        // When
+        final Long count = store.execute(new OperationChain.Builder()
+                .first(getOperation)
+                .then(new Count<>())
+                .build(), CONTEXT);
+
+        // Then
+        assertTrue(0 < expected);
+        assertEquals(expected, (long) count);
+    }
+
+    private GetAllElements allElements() {
+        return new GetAllElements.Builder()
+                .view(new View.Builder()
+                        .entity(TestGroups.ENTITY)
+                        .edge(TestGroups.EDGE)
+                        .build())
+                .build();
+    }
+
+    private List<Element> getElements(final Output<CloseableIterable<? extends Element>> getOperation) throws OperationException {
+        try (final CloseableIterable<? extends Element> elements = store.execute(getOperation, CONTEXT)) {
+            return Lists.newArrayList(elements);
+        }
+    }
+
+    private List<Element> createElements() {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex("vertex" + i)
+                    .property(HBasePropertyNames.COLUMN_QUALIFIER, i % 3)
+                    .property(HBasePropertyNames.COUNT, 1)
+                    .build());
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source("vertex" + i)
+                    .dest("vertex" + ((i + 1) % 20))
+                    .directed(true)
+                    .property(HBasePropertyNames.COLUMN_QUALIFIER, i % 3)
+                    .property(HBasePropertyNames.COUNT, 1)
+                    .build());
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source("vertex" + i)
+                    .dest("vertex" + ((i + 7) % 20))
+                    .directed(false)
+                    .property(HBasePropertyNames.COLUMN_QUALIFIER, 1)
+                    .property(HBasePropertyNames.COUNT, 1)
+                    .build());
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.operation.handler;
+
+import com.google.common.collect.Lists;
+import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.hbasestore.HBaseProperties;
+import uk.gov.gchq.gaffer.hbasestore.HBaseStore;
+import uk.gov.gchq.gaffer.hbasestore.SingleUseMiniHBaseStore;
+import uk.gov.gchq.gaffer.hbasestore.util.HBasePropertyNames;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.SampleElements;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.io.Output;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class HBaseSampleElementsHandlerTest {
+    private static final Schema SCHEMA = Schema.fromJson(StreamUtil.schemas(HBaseSampleElementsHandlerTest.class));
+    private static final HBaseProperties PROPERTIES = HBaseProperties.loadStoreProperties(StreamUtil.storeProps(HBaseSampleElementsHandlerTest.class));
+    private static final Context CONTEXT = new Context();
+    private static final long SPLIT_TIMEOUT_MS = 60000L;
+
+    private HBaseStore store;
+
+    @BeforeEach
+    public void reInitialise() throws Exception {
+        store = new SingleUseMiniHBaseStore();
+        store.initialise("sampleGraph", SCHEMA, PROPERTIES);
+        store.execute(new AddElements.Builder().input(createElements()).build(), CONTEXT);
+
+        // Split the table so the samples of two regions are combined
+        try (final Admin admin = store.getConnection().getAdmin()) {
+            admin.flush(store.getTableName());
+            admin.split(store.getTableName(), Bytes.toBytes("vertex15"));
+            final long end = System.currentTimeMillis() + SPLIT_TIMEOUT_MS;
+            while (admin.getTableRegions(store.getTableName()).size() < 2) {
+                if (System.currentTimeMillis() > end) {
+                    fail("Table was not split");
+                }
+                Thread.sleep(100L);
+            }
+        }
+    }
+
+    @Test
+    public void shouldSampleElementsOnRegionServers() throws OperationException {
+        // Given
+        final List<Element> allElements = getElements(allElements());
+
+        // When
+        final List<Element> sample = sample(10, false, 1L);
+
+        // Then
+        assertEquals(10, sample.size());
+        assertEquals(10, new HashSet<>(sample).size());
+        assertTrue(allElements.containsAll(sample));
+        assertEquals(sample, sample(10, false, 1L));
+    }
+
+    @Test
+    public void shouldSampleEachGroupOnRegionServersWhenStratified() throws OperationException {
+        // When
+        final Map<String, Long> countsByGroup = sample(5, true, 2L).stream()
+                .collect(Collectors.groupingBy(Element::getGroup, Collectors.counting()));
+
+        // Then
+        assertEquals(5L, (long) countsByGroup.get(TestGroups.ENTITY));
+        assertEquals(5L, (long) countsByGroup.get(TestGroups.EDGE));
+    }
+
+    private List<Element> sample(final int sampleSize, final boolean stratified, final long seed) throws OperationException {
+        return Lists.newArrayList(store.execute(new OperationChain.Builder()
+                .first(allElements())
+                .then(new SampleElements.Builder()
+                        .sampleSize(sampleSize)
+                        .stratified(stratified)
+                        .seed(seed)
+                        .build())
+                .build(), CONTEXT));
+    }
+
+    private GetAllElements allElements() {
+        return new GetAllElements.Builder()
+                .view(new View.Builder()
+                        .entity(TestGroups.ENTITY)
+                        .edge(TestGroups.EDGE)
+                        .build())
+                .build();
+    }
+
+    private List<Element> getElements(final Output<CloseableIterable<? extends Element>> getOperation) throws OperationException {
+        try (final CloseableIterable<? extends Element> elements = store.execute(getOperation, CONTEXT)) {
+            return Lists.newArrayList(elements);
+        }
+    }
+
+    private List<Element> createElements() {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex("vertex" + i)
+                    .property(HBasePropertyNames.COLUMN_QUALIFIER, i % 3)
+                    .property(HBasePropertyNames.COUNT, 1)
+                    .build());
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source("vertex" + i)
+                    .dest("vertex" + ((i + 1) % 20))
+                    .directed(true)
+                    .property(HBasePropertyNames.COLUMN_QUALIFIER, i % 3)
+                    .property(HBasePropertyNames.COUNT, 1)
+                    .build());
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source("vertex" + i)
+                    .dest("vertex" + ((i + 7) % 20))
+                    .directed(false)
+                    .property(HBasePropertyNames.COLUMN_QUALIFIER, 1)
+                    .property(HBasePropertyNames.COUNT, 1)
+                    .build());
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.operation.impl;
+
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.gaffer.operation.OperationTest;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BulkImportElementsTest extends OperationTest<BulkImportElements> {
+    private static final String WORKING_PATH = "/working";
+    private static final Element ELEMENT = new Entity.Builder()
+            .group(TestGroups.ENTITY)
+            .vertex("vertex")
+            .build();
+
+    @Override
+    protected Set<String> getRequiredFields() {
+        return Sets.newHashSet("workingPath");
+    }
+
+    @Test
+    public void shouldJSONSerialiseAndDeserialise() throws SerialisationException {
+        // Given
+        final BulkImportElements op = new BulkImportElements.Builder()
+                .input(ELEMENT)
+                .workingPath(WORKING_PATH)
+                .maxEntriesInMemory(10)
+                .skipInvalidElements(true)
+                .build();
+
+        // When
+        final byte[] json = JSONSerialiser.serialise(op, true);
+        final BulkImportElements deserialisedOp = JSONSerialiser.deserialise(json, BulkImportElements.class);
+
+        // Then
+        assertThat(deserialisedOp.getInput()).containsExactly(ELEMENT);
+        assertEquals(WORKING_PATH, deserialisedOp.getWorkingPath());
+        assertEquals(10, deserialisedOp.getMaxEntriesInMemory());
+        assertTrue(deserialisedOp.isValidate());
+        assertTrue(deserialisedOp.isSkipInvalidElements());
+    }
+
+    @Test
+    @Override
+    public void builderShouldCreatePopulatedOperation() {
+        // When
+        final BulkImportElements op = new BulkImportElements.Builder()
+                .input(ELEMENT)
+                .workingPath(WORKING_PATH)
+                .maxEntriesInMemory(10)
+                .validate(false)
+                .option("testOption", "true")
+                .build();
+
+        // Then
+        assertThat(op.getInput()).containsExactly(ELEMENT);
+        assertEquals(WORKING_PATH, op.getWorkingPath());
+        assertEquals(10, op.getMaxEntriesInMemory());
+        assertFalse(op.isValidate());
+        assertEquals("true", op.getOption("testOption"));
+    }
+
+    @Test
+    @Override
+    public void shouldShallowCloneOperation() {
+        // Given
+        final BulkImportElements op = new BulkImportElements.Builder()
+                .input(ELEMENT)
+                .workingPath(WORKING_PATH)
+                .maxEntriesInMemory(10)
+                .validate(false)
+                .skipInvalidElements(true)
+                .option("testOption", "true")
+                .build();
+
+        // When
+        final BulkImportElements clone = op.shallowClone();
+
+        // Then
+        assertNotSame(op, clone);
+        assertThat(clone.getInput()).containsExactly(ELEMENT);
+        assertEquals(WORKING_PATH, clone.getWorkingPath());
+        assertEquals(10, clone.getMaxEntriesInMemory());
+        assertFalse(clone.isValidate());
+        assertTrue(clone.isSkipInvalidElements());
+        assertEquals("true", clone.getOption("testOption"));
+    }
+
+    @Override
+    protected BulkImportElements getTestObject() {
+        return new BulkImportElements();
+    }
+}
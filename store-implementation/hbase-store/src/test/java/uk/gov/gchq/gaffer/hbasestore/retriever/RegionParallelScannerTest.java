@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.retriever;
+
+import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.hbasestore.HBaseProperties;
+import uk.gov.gchq.gaffer.hbasestore.HBaseStore;
+import uk.gov.gchq.gaffer.hbasestore.SingleUseMiniHBaseStore;
+import uk.gov.gchq.gaffer.hbasestore.util.HBasePropertyNames;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class RegionParallelScannerTest {
+    private static final Schema SCHEMA = Schema.fromJson(StreamUtil.schemas(RegionParallelScannerTest.class));
+    private static final Context CONTEXT = new Context();
+    private static final int NUM_VERTICES = 30;
+    private static final long SPLIT_TIMEOUT_MS = 60000L;
+
+    @Test
+    public void shouldGetElementsForSeedsInEveryRegion() throws Exception {
+        // Given
+        final HBaseStore store = createSplitStore("4");
+
+        // When
+        final Set<Object> vertices = getVertices(store);
+
+        // Then
+        assertEquals(createVertices(), vertices);
+    }
+
+    @Test
+    public void shouldGetTheSameElementsWithOneThread() throws Exception {
+        // Given
+        final HBaseStore store = createSplitStore("1");
+
+        // When
+        final Set<Object> vertices = getVertices(store);
+
+        // Then
+        assertEquals(createVertices(), vertices);
+    }
+
+    @Test
+    public void shouldStopScanningWhenClosedEarly() throws Exception {
+        // Given
+        final HBaseStore store = createSplitStore("2");
+
+        // When
+        try (final CloseableIterable<? extends Element> results = store.execute(createGetElements(), CONTEXT);
+             final CloseableIterator<? extends Element> itr = results.iterator()) {
+            // Then
+            assertTrue(itr.hasNext());
+            itr.next();
+        }
+    }
+
+    private HBaseStore createSplitStore(final String threads) throws Exception {
+        final HBaseProperties properties = HBaseProperties.loadStoreProperties(StreamUtil.storeProps(RegionParallelScannerTest.class));
+        properties.setThreadsForBatchScanner(threads);
+        final HBaseStore store = new SingleUseMiniHBaseStore();
+        store.initialise("regionParallelGraph", SCHEMA, properties);
+
+        final List<Element> elements = new ArrayList<>();
+        for (final Object vertex : createVertices()) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex(vertex)
+                    .property(HBasePropertyNames.COUNT, 1)
+                    .build());
+        }
+        store.execute(new AddElements.Builder().input(elements).build(), CONTEXT);
+
+        try (final Admin admin = store.getConnection().getAdmin()) {
+            admin.flush(store.getTableName());
+            admin.split(store.getTableName(), Bytes.toBytes("vertex15"));
+            waitForRegions(store, admin, 2);
+        }
+        return store;
+    }
+
+    private void waitForRegions(final HBaseStore store, final Admin admin, final int numRegions) throws Exception {
+        final long end = System.currentTimeMillis() + SPLIT_TIMEOUT_MS;
+        while (admin.getTableRegions(store.getTableName()).size() < numRegions) {
+            if (System.currentTimeMillis() > end) {
+                fail("Table was not split into " + numRegions + " regions");
+            }
+            Thread.sleep(100L);
+        }
+    }
+
+    private Set<Object> getVertices(final HBaseStore store) throws Exception {
+        final Set<Object> vertices = new HashSet<>();
+        try (final CloseableIterable<? extends Element> results = store.execute(createGetElements(), CONTEXT)) {
+            for (final Element element : results) {
+                vertices.add(((Entity) element).getVertex());
+            }
+        }
+        return vertices;
+    }
+
+    private GetElements createGetElements() {
+        final List<EntitySeed> seeds = new ArrayList<>();
+        for (final Object vertex : createVertices()) {
+            seeds.add(new EntitySeed(vertex));
+        }
+        return new GetElements.Builder()
+                .input(seeds)
+                .view(new View.Builder()
+                        .entity(TestGroups.ENTITY)
+                        .build())
+                .build();
+    }
+
+    private Set<Object> createVertices() {
+        final Set<Object> vertices = new HashSet<>();
+        for (int i = 0; i < NUM_VERTICES; i++) {
+            vertices.add(String.format("vertex%02d", i));
+        }
+        return vertices;
+    }
+}
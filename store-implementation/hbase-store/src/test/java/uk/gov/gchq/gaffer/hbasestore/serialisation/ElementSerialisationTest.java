@@ -15,6 +15,9 @@
  */
 package uk.gov.gchq.gaffer.hbasestore.serialisation;
 
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.KeyValue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -28,7 +31,9 @@ import uk.gov.gchq.gaffer.data.element.EdgeDirection;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.data.element.IdentifierType;
+import uk.gov.gchq.gaffer.data.element.LazyEdge;
 import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId;
 import uk.gov.gchq.gaffer.data.elementdefinition.exception.SchemaException;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
 import uk.gov.gchq.gaffer.hbasestore.util.HBasePropertyNames;
@@ -621,10 +626,84 @@ public class ElementSerialisationTest {
         assertEquals(EdgeDirection.UNDIRECTED, direction);
     }
 
+    @Test
+    public void shouldOnlyDeserialiseRequestedPropertiesFromLazyEdge() throws SerialisationException {
+        // Given
+        final Edge edge = getExampleEdge();
+        final Cell cell = createCell(edge);
+
+        // When
+        final Element lazyElement = serialisation.getLazyElement(cell, true);
+
+        // Then
+        assertThat(lazyElement).isInstanceOf(LazyEdge.class);
+        assertEquals(299, lazyElement.getProperty(HBasePropertyNames.PROP_3));
+        assertEquals(101, lazyElement.getProperty(HBasePropertyNames.COLUMN_QUALIFIER_2));
+        assertEquals(2, lazyElement.getElement().getProperties().size());
+        assertEquals("1", ((Edge) lazyElement).getSource());
+        assertEquals("2", ((Edge) lazyElement).getDestination());
+        assertEquals(true, ((Edge) lazyElement).isDirected());
+        assertEquals(EdgeId.MatchedVertex.SOURCE, ((Edge) lazyElement).getMatchedVertex());
+    }
+
+    @Test
+    public void shouldGetSinglePropertyFromCell() throws SerialisationException {
+        // Given
+        final Cell cell = createCell(getExampleEdge());
+
+        // When / Then
+        assertEquals(100, serialisation.getProperty(TestGroups.EDGE, HBasePropertyNames.COLUMN_QUALIFIER, cell));
+        assertEquals(101, serialisation.getProperty(TestGroups.EDGE, HBasePropertyNames.COLUMN_QUALIFIER_2, cell));
+        assertEquals(60, serialisation.getProperty(TestGroups.EDGE, HBasePropertyNames.PROP_1, cell));
+        assertEquals(8, serialisation.getProperty(TestGroups.EDGE, HBasePropertyNames.COUNT, cell));
+        assertNull(serialisation.getProperty(TestGroups.EDGE, "unknownProperty", cell));
+    }
+
+    @Test
+    public void shouldGetElementFromCellBackedByLargerArray() throws SerialisationException {
+        // Given
+        final Edge edge = getExampleEdge();
+        final KeyValue keyValue = (KeyValue) createCell(edge);
+        final int offset = 7;
+        final byte[] buffer = new byte[keyValue.getLength() + offset + 3];
+        System.arraycopy(keyValue.getBuffer(), keyValue.getOffset(), buffer, offset, keyValue.getLength());
+        final Cell cell = new KeyValue(buffer, offset, keyValue.getLength());
+
+        // When
+        final Element element = serialisation.getElement(cell, false);
+        final Element lazyElement = serialisation.getLazyElement(cell, false);
+
+        // Then
+        assertEquals(serialisation.getElement(keyValue, false), element);
+        assertEquals(TestGroups.EDGE, serialisation.getGroup(cell));
+        assertEquals(166, lazyElement.getProperty(HBasePropertyNames.PROP_2));
+        assertEquals("2", ((Edge) lazyElement).getDestination());
+    }
+
     private Entity getExampleEntity(final int value) {
         final Entity entity = new Entity(TestGroups.ENTITY);
         entity.putProperty(HBasePropertyNames.COLUMN_QUALIFIER, value);
         entity.putProperty(HBasePropertyNames.COLUMN_QUALIFIER_2, value + 2);
         return entity;
     }
+
+    private Edge getExampleEdge() {
+        return new Edge.Builder()
+                .group(TestGroups.EDGE)
+                .source("1")
+                .dest("2")
+                .directed(true)
+                .property(HBasePropertyNames.COLUMN_QUALIFIER, 100)
+                .property(HBasePropertyNames.COLUMN_QUALIFIER_2, 101)
+                .property(HBasePropertyNames.PROP_1, 60)
+                .property(HBasePropertyNames.PROP_2, 166)
+                .property(HBasePropertyNames.PROP_3, 299)
+                .property(HBasePropertyNames.COUNT, 8)
+                .build();
+    }
+
+    private Cell createCell(final Edge edge) throws SerialisationException {
+        return CellUtil.createCell(serialisation.getRowKeys(edge).getFirst(), HBaseStoreConstants.getColFam(),
+                serialisation.getColumnQualifier(edge), 1L, KeyValue.Type.Put.getCode(), serialisation.getValue(edge));
+    }
 }
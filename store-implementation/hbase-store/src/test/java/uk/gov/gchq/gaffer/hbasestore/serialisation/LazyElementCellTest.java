@@ -40,7 +40,7 @@ public class LazyElementCellTest {
         final ElementSerialisation serialisation = mock(ElementSerialisation.class);
         final Element element = mock(Element.class);
 
-        given(serialisation.getElement(cell, false)).willReturn(element);
+        given(serialisation.getLazyElement(cell, false)).willReturn(element);
 
         // When
         final LazyElementCell lazyElementCell = new LazyElementCell(cell, serialisation, false);
@@ -78,7 +78,7 @@ public class LazyElementCellTest {
         final ElementSerialisation serialisation = mock(ElementSerialisation.class);
         final Element element = mock(Element.class);
 
-        given(serialisation.getElement(cell, false)).willReturn(element);
+        given(serialisation.getLazyElement(cell, false)).willReturn(element);
 
         // When
         final LazyElementCell lazyElementCell = new LazyElementCell(cell, serialisation, false);
@@ -88,7 +88,7 @@ public class LazyElementCellTest {
         assertSame(element, lazyElementCell.getElement());
         assertTrue(lazyElementCell.isElementLoaded());
         assertSame(element, lazyElementCell.getElement());
-        verify(serialisation, times(1)).getElement(cell, false);
+        verify(serialisation, times(1)).getLazyElement(cell, false);
         assertSame(serialisation, lazyElementCell.getSerialisation());
     }
 
@@ -39,7 +39,7 @@ public final class CellUtil {
     public static List<Element> getElements(final Iterable<Put> puts, final ElementSerialisation serialisation, final boolean includeMatchedVertex) throws SerialisationException {
         final List<Element> cells = new ArrayList<>();
         for (final Put put : puts) {
-            cells.add(getLazyCell(put, serialisation, includeMatchedVertex).getElement());
+            cells.add(serialisation.getElement(getLazyCell(put, serialisation, includeMatchedVertex).getCell(), includeMatchedVertex));
         }
 
         return cells;
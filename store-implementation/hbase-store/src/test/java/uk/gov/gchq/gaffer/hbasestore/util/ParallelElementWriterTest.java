@@ -0,0 +1,173 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.hbasestore.util;
+
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.hbasestore.HBaseProperties;
+import uk.gov.gchq.gaffer.hbasestore.HBaseStore;
+import uk.gov.gchq.gaffer.hbasestore.SingleUseMiniHBaseStore;
+import uk.gov.gchq.gaffer.hbasestore.utils.ParallelElementWriter;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ParallelElementWriterTest {
+    private static final Schema SCHEMA = Schema.fromJson(StreamUtil.schemas(ParallelElementWriterTest.class));
+    private static final Context CONTEXT = new Context();
+
+    @Test
+    public void shouldWriteTheSameElementsAsASingleThread() throws StoreException, OperationException {
+        // Given
+        final HBaseStore expected = createStore("expected", "1");
+        final HBaseStore parallel = createStore("parallel", "4");
+
+        // When
+        expected.execute(new AddElements.Builder().input(createElements()).build(), CONTEXT);
+        parallel.execute(new AddElements.Builder().input(createElements()).build(), CONTEXT);
+
+        // Then
+        assertEquals(getAllElements(expected), getAllElements(parallel));
+    }
+
+    @Test
+    public void shouldAggregateTheSameElementsInDifferentBatches() throws StoreException, OperationException {
+        // Given
+        final HBaseStore parallel = createStore("parallel", "4");
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 70; i++) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex("vertex")
+                    .property(HBasePropertyNames.COLUMN_QUALIFIER, 1)
+                    .property(HBasePropertyNames.COUNT, 1)
+                    .build());
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source("vertex")
+                    .dest("vertex2")
+                    .directed(true)
+                    .property(HBasePropertyNames.COLUMN_QUALIFIER, 1)
+                    .property(HBasePropertyNames.COUNT, 1)
+                    .build());
+        }
+
+        // When
+        parallel.execute(new AddElements.Builder().input(elements).build(), CONTEXT);
+
+        // Then
+        final Set<Element> results = getAllElements(parallel);
+        assertEquals(2, results.size());
+        for (final Element result : results) {
+            assertEquals(70, result.getProperty(HBasePropertyNames.COUNT));
+        }
+    }
+
+    @Test
+    public void shouldSkipNullAndInvalidElements() throws StoreException, OperationException {
+        // Given
+        final HBaseStore parallel = createStore("parallel", "3");
+        final List<Element> elements = createElements();
+        elements.add(null);
+        elements.add(new Entity("Unknown group", "vertex"));
+
+        // When
+        parallel.execute(new AddElements.Builder()
+                .input(elements)
+                .skipInvalidElements(true)
+                .build(), CONTEXT);
+
+        // Then
+        final HBaseStore expected = createStore("expected", "1");
+        expected.execute(new AddElements.Builder().input(createElements()).build(), CONTEXT);
+        assertEquals(getAllElements(expected), getAllElements(parallel));
+    }
+
+    @Test
+    public void shouldThrowExceptionForInvalidElements() throws StoreException {
+        // Given
+        final HBaseStore parallel = createStore("parallel", "4");
+        final List<Element> elements = createElements();
+        elements.add(new Entity("Unknown group", "vertex"));
+
+        // When / Then
+        assertThrows(Exception.class, () -> new ParallelElementWriter(parallel).write(elements, true, false));
+    }
+
+    private HBaseStore createStore(final String graphId, final String ingestThreads) throws StoreException {
+        final HBaseProperties properties = HBaseProperties.loadStoreProperties(StreamUtil.storeProps(ParallelElementWriterTest.class));
+        properties.setIngestThreads(ingestThreads);
+        properties.setWriteBufferSize(7);
+        final HBaseStore store = new SingleUseMiniHBaseStore();
+        store.initialise(graphId, SCHEMA, properties);
+        return store;
+    }
+
+    private Set<Element> getAllElements(final HBaseStore store) throws OperationException {
+        final Set<Element> elements = new HashSet<>();
+        try (final CloseableIterable<? extends Element> results = store.execute(new GetAllElements.Builder()
+                .view(new View.Builder()
+                        .entity(TestGroups.ENTITY)
+                        .edge(TestGroups.EDGE)
+                        .build())
+                .build(), CONTEXT)) {
+            for (final Element element : results) {
+                elements.add(element);
+            }
+        }
+        return elements;
+    }
+
+    private List<Element> createElements() {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex("vertex" + (i % 10))
+                    .property(HBasePropertyNames.COLUMN_QUALIFIER, i % 3)
+                    .property(HBasePropertyNames.COUNT, 1)
+                    .build());
+            elements.add(new Edge.Builder()
+                    .group(TestGroups.EDGE)
+                    .source("vertex" + (i % 10))
+                    .dest("vertex" + ((i + 1) % 10))
+                    .directed(true)
+                    .property(HBasePropertyNames.COLUMN_QUALIFIER, i % 3)
+                    .property(HBasePropertyNames.COUNT, 1)
+                    .build());
+        }
+        return elements;
+    }
+}
@@ -30,6 +30,7 @@ import org.slf4j.LoggerFactory;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.IdentifierType;
+import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
 import uk.gov.gchq.gaffer.parquetstore.operation.handler.AddElementsHandler;
@@ -39,11 +40,13 @@ import uk.gov.gchq.gaffer.parquetstore.operation.handler.GetElementsHandler;
 import uk.gov.gchq.gaffer.parquetstore.operation.handler.spark.GetDataFrameOfElementsHandler;
 import uk.gov.gchq.gaffer.parquetstore.operation.handler.spark.ImportJavaRDDOfElementsHandler;
 import uk.gov.gchq.gaffer.parquetstore.operation.handler.spark.ImportRDDOfElementsHandler;
+import uk.gov.gchq.gaffer.parquetstore.operation.handler.utilities.AggregateAndSortPartitions;
 import uk.gov.gchq.gaffer.parquetstore.operation.handler.utilities.CalculatePartitioner;
 import uk.gov.gchq.gaffer.parquetstore.partitioner.GraphPartitioner;
 import uk.gov.gchq.gaffer.parquetstore.partitioner.GroupPartitioner;
 import uk.gov.gchq.gaffer.parquetstore.partitioner.Partition;
 import uk.gov.gchq.gaffer.parquetstore.partitioner.serialisation.GraphPartitionerSerialiser;
+import uk.gov.gchq.gaffer.parquetstore.query.ParquetFileIndex;
 import uk.gov.gchq.gaffer.parquetstore.serialisation.impl.ArrayListStringParquetSerialiser;
 import uk.gov.gchq.gaffer.parquetstore.serialisation.impl.BooleanParquetSerialiser;
 import uk.gov.gchq.gaffer.parquetstore.serialisation.impl.ByteParquetSerialiser;
@@ -78,13 +81,21 @@ import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
 import uk.gov.gchq.gaffer.store.schema.SchemaOptimiser;
 import uk.gov.gchq.koryphe.ValidationResult;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 import static uk.gov.gchq.gaffer.store.StoreTrait.INGEST_AGGREGATION;
@@ -98,7 +109,7 @@ import static uk.gov.gchq.gaffer.store.StoreTrait.PRE_AGGREGATION_FILTERING;
  * {@link uk.gov.gchq.gaffer.parquetstore.serialisation.ParquetSerialiser}s which also allows for Gaffer objects to be
  * stored as multiple or nested columns of primitive types.
  */
-public class ParquetStore extends Store {
+public class ParquetStore extends Store implements Closeable {
     public static final String GROUP = "group";
     public static final String GRAPH = "graph";
     public static final String VERTEX = IdentifierType.VERTEX.name();
@@ -108,6 +119,8 @@ public class ParquetStore extends Store {
     public static final String SNAPSHOT = "snapshot";
     public static final String REVERSED_EDGES = "reversedEdges";
     public static final String PARTITION = "partition";
+    public static final String DELTAS = "deltas";
+    public static final String DELTA = "delta";
     public static final int LENGTH_OF_PARTITION_NUMBER_IN_FILENAME = 7;
 
     @SuppressFBWarnings("MS_MUTABLE_ARRAY")
@@ -132,6 +145,7 @@ public class ParquetStore extends Store {
     };
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ParquetStore.class);
+    private static final long COMPACTION_THREAD_KEEP_ALIVE_SECONDS = 60L;
     private static final Set<StoreTrait> TRAITS =
             Collections.unmodifiableSet(Sets.newHashSet(
                     ORDERED,
@@ -141,10 +155,12 @@ public class ParquetStore extends Store {
 //                    STORE_VALIDATION
             ));
 
-    private GraphPartitioner graphPartitioner;
-    private long currentSnapshot;
     private SchemaUtils schemaUtils;
     private FileSystem fs;
+    private volatile Snapshot snapshot;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private ExecutorService compactionExecutor;
+    private boolean compactionScheduled;
 
     @Override
     public void initialise(final String graphId, final Schema schema, final StoreProperties properties) throws StoreException {
@@ -161,12 +177,14 @@ public class ParquetStore extends Store {
                     + ParquetStoreProperties.TEMP_FILES_DIR + ")");
         }
         LOGGER.info("Initialising ParquetStore for graph id {}", graphId);
+        // A compaction scheduled before the store was re-initialised must not write to the replaced store's data
+        shutdownCompactionExecutor();
         super.initialise(graphId, schema, parquetStoreProperties);
         try {
             fs = FileSystem.get(new Configuration());
             schemaUtils = new SchemaUtils(getSchema());
             initialise();
-            loadGraphPartitioner();
+            loadSnapshot();
         } catch (final IOException e) {
             throw new StoreException("Could not connect to the file system", e);
         }
@@ -181,25 +199,25 @@ public class ParquetStore extends Store {
         final Path dataDirPath = new Path(getDataDir());
         if (!fs.exists(dataDirPath) || 0 == fs.listStatus(dataDirPath).length) {
             LOGGER.info("Data directory {} doesn't exist or is empty so initialising directory structure", dataDirPath);
-            currentSnapshot = System.currentTimeMillis();
-            LOGGER.info("Initialising snapshot id to {}", currentSnapshot);
-            final Path snapshotPath = new Path(dataDirPath, getSnapshotPath(currentSnapshot));
+            final long snapshotId = System.currentTimeMillis();
+            LOGGER.info("Initialising snapshot id to {}", snapshotId);
+            final Path snapshotPath = new Path(dataDirPath, getSnapshotPath(snapshotId));
             LOGGER.info("Creating snapshot directory {}", snapshotPath);
             fs.mkdirs(snapshotPath);
             LOGGER.info("Creating group directories under {}", snapshotPath);
             for (final String group : getSchema().getGroups()) {
-                final Path groupDir = getGroupPath(group);
+                final Path groupDir = getGroupPath(getDataDir(), snapshotId, group, false);
                 fs.mkdirs(groupDir);
                 LOGGER.info("Created directory {}", groupDir);
             }
             LOGGER.info("Creating group directories for reversed edges under {}", snapshotPath);
             for (final String group : getSchema().getEdgeGroups()) {
-                final Path groupDir = getGroupPathForReversedEdges(group);
+                final Path groupDir = getGroupPath(getDataDir(), snapshotId, group, true);
                 fs.mkdirs(groupDir);
                 LOGGER.info("Created directory {}", groupDir);
             }
             LOGGER.info("Creating GraphPartitioner with 0 split points for each group");
-            graphPartitioner = new GraphPartitioner();
+            final GraphPartitioner graphPartitioner = new GraphPartitioner();
             for (final String group : getSchema().getGroups()) {
                 graphPartitioner.addGroupPartitioner(group, new GroupPartitioner(group, new ArrayList<>()));
             }
@@ -207,10 +225,11 @@ public class ParquetStore extends Store {
                 graphPartitioner.addGroupPartitionerForReversedEdges(group, new GroupPartitioner(group, new ArrayList<>()));
             }
             LOGGER.info("Writing GraphPartitioner to snapshot directory");
-            final FSDataOutputStream dataOutputStream = fs.create(getGraphPartitionerPath());
+            final Path graphPartitionerPath = getGraphPartitionerPath(snapshotId);
+            final FSDataOutputStream dataOutputStream = fs.create(graphPartitionerPath);
             new GraphPartitionerSerialiser().write(graphPartitioner, dataOutputStream);
             dataOutputStream.close();
-            LOGGER.info("Wrote GraphPartitioner to file {}", getGraphPartitionerPath().toString());
+            LOGGER.info("Wrote GraphPartitioner to file {}", graphPartitionerPath.toString());
         } else {
             LOGGER.info("Data directory {} exists and is non-empty, validating a snapshot directory exists", dataDirPath);
             final FileStatus[] fileStatuses = fs.listStatus(dataDirPath, f -> f.getName().startsWith(SNAPSHOT + "="));
@@ -219,48 +238,60 @@ public class ParquetStore extends Store {
                 LOGGER.error("Data directory {} should contain a snapshot directory", dataDirPath);
                 throw new StoreException("Data directory should contain a snapshot directory");
             }
-            this.currentSnapshot = getLatestSnapshot();
-            LOGGER.info("Latest snapshot directory in data directory {} is {}", dataDirPath, this.currentSnapshot);
+            final long snapshotId = getLatestSnapshot();
+            LOGGER.info("Latest snapshot directory in data directory {} is {}", dataDirPath, snapshotId);
             LOGGER.info("Verifying snapshot directory contains the correct directories");
             for (final String group : getSchema().getGroups()) {
-                final Path groupDir = getGroupPath(group);
+                final Path groupDir = getGroupPath(getDataDir(), snapshotId, group, false);
                 if (!fs.exists(groupDir)) {
                     LOGGER.error("Directory {} should exist", groupDir);
-                    throw new StoreException("Group directory " + groupDir + " should exist in snapshot directory " + getSnapshotPath(this.currentSnapshot));
+                    throw new StoreException("Group directory " + groupDir + " should exist in snapshot directory " + getSnapshotPath(snapshotId));
                 }
             }
             for (final String group : getSchema().getEdgeGroups()) {
-                final Path groupDir = getGroupPathForReversedEdges(group);
+                final Path groupDir = getGroupPath(getDataDir(), snapshotId, group, true);
                 if (!fs.exists(groupDir)) {
                     LOGGER.error("Directory {} should exist", groupDir);
-                    throw new StoreException("Group directory " + groupDir + " should exist in snapshot directory " + getSnapshotPath(this.currentSnapshot));
+                    throw new StoreException("Group directory " + groupDir + " should exist in snapshot directory " + getSnapshotPath(snapshotId));
                 }
             }
         }
     }
 
     public Path getGraphPartitionerPath() {
-        return new Path(getProperties().getDataDir() + "/" + SNAPSHOT + "=" + currentSnapshot, "graphPartitioner");
+        return getGraphPartitionerPath(snapshot.getId());
     }
 
-    private void loadGraphPartitioner() throws StoreException {
+    private Path getGraphPartitionerPath(final long snapshotId) {
+        return new Path(getProperties().getDataDir() + "/" + SNAPSHOT + "=" + snapshotId, "graphPartitioner");
+    }
+
+    /**
+     * Loads the graph partitioner, file index and deltas of the latest snapshot in the data directory, and then
+     * publishes them together as the current {@link Snapshot}.
+     *
+     * @throws StoreException if the snapshot could not be loaded
+     */
+    private void loadSnapshot() throws StoreException {
         final String dataDir = getDataDir();
         try {
             if (fs.exists(new Path(dataDir))) {
-                this.currentSnapshot = getLatestSnapshot(dataDir);
-                LOGGER.info("Setting currentSnapshot to {}", this.currentSnapshot);
-                final Path path = getGraphPartitionerPath();
+                final long snapshotId = getLatestSnapshot(dataDir);
+                LOGGER.info("Setting currentSnapshot to {}", snapshotId);
+                final Path path = getGraphPartitionerPath(snapshotId);
                 if (!fs.exists(path)) {
                     LOGGER.info("Graph partitioner does not exist in {} so creating it", path);
                     final GraphPartitioner partitioner =
-                            new CalculatePartitioner(new Path(dataDir + "/" + getSnapshotPath(this.currentSnapshot)), getSchema(), fs).call();
+                            new CalculatePartitioner(new Path(dataDir + "/" + getSnapshotPath(snapshotId)), getSchema(), fs).call();
                     LOGGER.info("Writing graph partitioner to {}", path);
                     final FSDataOutputStream stream = fs.create(path);
                     new GraphPartitionerSerialiser().write(partitioner, stream);
                     stream.close();
                 }
                 LOGGER.info("Loading graph partitioner from path {}", path);
-                loadGraphPartitioner(path);
+                final Snapshot loaded = new Snapshot(dataDir, snapshotId, loadGraphPartitioner(path),
+                        loadFileIndex(snapshotId), loadDeltas(snapshotId));
+                this.snapshot = loaded;
             } else {
                 throw new StoreException("Data directory " + dataDir + " does not exist - store is in an inconsistent state");
             }
@@ -269,10 +300,90 @@ public class ParquetStore extends Store {
         }
     }
 
-    private void loadGraphPartitioner(final Path graphPartitionerPath) throws IOException {
+    private GraphPartitioner loadGraphPartitioner(final Path graphPartitionerPath) throws IOException {
         final FSDataInputStream stream = fs.open(graphPartitionerPath);
-        this.graphPartitioner = new GraphPartitionerSerialiser().read(stream);
+        final GraphPartitioner graphPartitioner = new GraphPartitionerSerialiser().read(stream);
         stream.close();
+        return graphPartitioner;
+    }
+
+    private ParquetFileIndex loadFileIndex(final long snapshotId) throws IOException {
+        final ParquetFileIndex index = new ParquetFileIndex(fs);
+        if (getProperties().getLoadFileIndex()) {
+            final List<FileStatus> files = new ArrayList<>();
+            for (final String group : getSchema().getGroups()) {
+                files.addAll(listParquetFiles(getGroupPath(getDataDir(), snapshotId, group, false)));
+            }
+            for (final String group : getSchema().getEdgeGroups()) {
+                files.addAll(listParquetFiles(getGroupPath(getDataDir(), snapshotId, group, true)));
+            }
+            LOGGER.info("Loading the file index for snapshot {} ({} files)", snapshotId, files.size());
+            index.load(files);
+        }
+        return index;
+    }
+
+    private List<FileStatus> listParquetFiles(final Path dir) throws IOException {
+        if (!fs.exists(dir)) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(fs.listStatus(dir, p -> p.getName().endsWith(".parquet")));
+    }
+
+    /**
+     * Returns the current state of the store. A query should call this once and then only use the returned
+     * {@link Snapshot}, so that it reads a consistent set of files even if deltas are added or compacted while it
+     * runs.
+     *
+     * @return the current snapshot
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns the index of the row group statistics of the files in the current snapshot and its deltas.
+     *
+     * @return the file index
+     */
+    public ParquetFileIndex getFileIndex() {
+        return snapshot.getFileIndex();
+    }
+
+    private Deltas loadDeltas(final long snapshotId) throws IOException {
+        final String deltasDir = getDeltasDir(getDataDir(), snapshotId);
+        final List<Long> loadedDeltas = new ArrayList<>();
+        final Map<String, List<Path>> loadedDeltaFiles = new HashMap<>();
+        if (fs.exists(new Path(deltasDir))) {
+            // Deltas that are still being written end in -tmp and are ignored
+            final FileStatus[] statuses = fs.listStatus(new Path(deltasDir),
+                    p -> p.getName().startsWith(DELTA + "=") && !p.getName().endsWith("-tmp"));
+            for (final FileStatus status : statuses) {
+                loadedDeltas.add(Long.parseLong(status.getPath().getName().substring(DELTA.length() + 1)));
+            }
+            Collections.sort(loadedDeltas);
+            for (final long delta : loadedDeltas) {
+                final Path deltaDir = new Path(deltasDir, DELTA + "=" + delta);
+                for (final String group : getSchema().getGroups()) {
+                    addDeltaFiles(deltaDir, getGroupSubDir(group, false), loadedDeltaFiles);
+                }
+                for (final String group : getSchema().getEdgeGroups()) {
+                    addDeltaFiles(deltaDir, getGroupSubDir(group, true), loadedDeltaFiles);
+                }
+            }
+        }
+        LOGGER.info("Loaded {} deltas for snapshot {}", loadedDeltas.size(), snapshotId);
+        return new Deltas(loadedDeltas, loadedDeltaFiles);
+    }
+
+    private void addDeltaFiles(final Path deltaDir, final String groupSubDir, final Map<String, List<Path>> files) throws IOException {
+        final Path groupDir = new Path(deltaDir, groupSubDir);
+        if (fs.exists(groupDir)) {
+            for (final FileStatus file : fs.listStatus(groupDir, p -> p.getName().endsWith(".parquet"))) {
+                files.computeIfAbsent(groupSubDir + "/" + file.getPath().getName(), k -> new ArrayList<>())
+                        .add(file.getPath());
+            }
+        }
     }
 
     public FileSystem getFS() {
@@ -301,11 +412,7 @@ public class ParquetStore extends Store {
     }
 
     public String getFile(final String group, final Integer partitionId) {
-        return getDataDir()
-                + "/" + getSnapshotPath(currentSnapshot)
-                + "/" + GRAPH
-                + "/" + GROUP + "=" + group
-                + "/" + getFile(partitionId);
+        return snapshot.getFile(group, partitionId);
     }
 
     public static String getFile(final Integer partitionId) {
@@ -325,30 +432,191 @@ public class ParquetStore extends Store {
     }
 
     public String getFileForReversedEdges(final String group, final Integer partitionId) {
-        return getDataDir()
-                + "/" + getSnapshotPath(currentSnapshot)
-                + "/" + REVERSED_EDGES
-                + "/" + GROUP + "=" + group
-                + "/" + getFile(partitionId);
+        return snapshot.getFileForReversedEdges(group, partitionId);
     }
 
     public List<Path> getFilesForGroup(final String group) throws IOException {
-        final Path dir = new Path(getDataDir()
-                + "/" + getSnapshotPath(currentSnapshot)
-                + "/" + GRAPH
-                + "/" + GROUP + "=" + group);
-        final FileStatus[] files = fs.listStatus(dir, path -> path.getName().endsWith(".parquet"));
+        return getFilesForGroup(snapshot, group);
+    }
+
+    public List<Path> getFilesForGroup(final Snapshot snapshot, final String group) throws IOException {
+        final FileStatus[] files = fs.listStatus(snapshot.getGroupPath(group), path -> path.getName().endsWith(".parquet"));
         return Arrays
                 .stream(files)
                 .map(FileStatus::getPath)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Returns the files in the deltas of the current snapshot that contain data for the given partition, oldest
+     * delta first.
+     *
+     * @param group       the group
+     * @param reversed    whether the partition is of reversed edges
+     * @param partitionId the id of the partition
+     * @return the delta files for the partition, or an empty list if there are none
+     */
+    public List<Path> getDeltaFiles(final String group, final boolean reversed, final Integer partitionId) {
+        return getDeltaFiles(group, reversed, getFile(partitionId));
+    }
+
+    public List<Path> getDeltaFiles(final String group, final boolean reversed, final String fileName) {
+        return snapshot.getDeltaFiles(group, reversed, fileName);
+    }
+
+    public List<Path> getDeltaFilesForGroup(final String group) {
+        return snapshot.getDeltaFilesForGroup(group);
+    }
+
+    public String getDeltasDir() {
+        return snapshot.getDeltasDir();
+    }
+
+    private static String getDeltasDir(final String dataDir, final long snapshotId) {
+        return dataDir
+                + "/" + getSnapshotPath(snapshotId)
+                + "/" + DELTAS;
+    }
+
+    public static String getDeltaPath(final long delta) {
+        return DELTAS + "/" + DELTA + "=" + delta;
+    }
+
+    /**
+     * Returns the ids of the deltas that have been added to the current snapshot, oldest first.
+     *
+     * @return the ids of the deltas
+     */
+    public List<Long> getDeltas() {
+        return snapshot.getDeltas();
+    }
+
+    public void addDelta(final long delta) throws StoreException {
+        writeLock.lock();
+        try {
+            final Snapshot current = snapshot;
+            final Path deltaPath = new Path(getDataDir() + "/" + getSnapshotPath(current.getId()), getDeltaPath(delta));
+            if (!fs.exists(deltaPath)) {
+                throw new StoreException(String.format("Failed adding delta: '%s' does not exist", deltaPath.toString()));
+            }
+            LOGGER.info("Adding delta {} to snapshot {}", delta, current.getId());
+            snapshot = current.withDeltas(loadDeltas(current.getId()));
+        } catch (final IOException e) {
+            throw new StoreException("IOException loading deltas: ", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * The lock that must be held while data is written to the store, so that adding elements and compacting deltas
+     * do not interleave.
+     *
+     * @return the write lock
+     */
+    public ReentrantLock getWriteLock() {
+        return writeLock;
+    }
+
+    /**
+     * Folds all the deltas of the current snapshot into a new snapshot.
+     *
+     * @throws StoreException if the compaction fails
+     */
+    public void compactDeltas() throws StoreException {
+        writeLock.lock();
+        try {
+            final Snapshot toCompact = snapshot;
+            if (toCompact.getDeltas().isEmpty()) {
+                LOGGER.info("Not compacting snapshot {} as it has no deltas", toCompact.getId());
+                return;
+            }
+            LOGGER.info("Compacting {} deltas into snapshot {}", toCompact.getDeltas().size(), toCompact.getId());
+            new AggregateAndSortPartitions(this, getTempFilesDir()).writeSnapshot(
+                    (group, partitionId) -> getFileAndDeltaFiles(toCompact.getFile(group, partitionId),
+                            toCompact.getDeltaFiles(group, false, getFile(partitionId))),
+                    (group, partitionId) -> getFileAndDeltaFiles(toCompact.getFileForReversedEdges(group, partitionId),
+                            toCompact.getDeltaFiles(group, true, getFile(partitionId))));
+        } catch (final OperationException e) {
+            throw new StoreException("Exception compacting deltas", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Starts {@link #compactDeltas()} on a background thread if the number of deltas has reached the compaction
+     * threshold in the {@link ParquetStoreProperties}.
+     */
+    public synchronized void compactDeltasIfRequired() {
+        final int threshold = getProperties().getDeltaCompactionThreshold();
+        final int numDeltas = snapshot.getDeltas().size();
+        if (threshold < 1 || numDeltas < threshold || compactionScheduled) {
+            return;
+        }
+        if (null == compactionExecutor) {
+            // The thread exits when idle, so it is not kept alive by a store that is no longer used
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, COMPACTION_THREAD_KEEP_ALIVE_SECONDS,
+                    TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                        final Thread thread = new Thread(r, "parquet-delta-compaction-" + getGraphId());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            compactionExecutor = executor;
+        }
+        LOGGER.info("Scheduling compaction of {} deltas (threshold is {})", numDeltas, threshold);
+        compactionScheduled = true;
+        compactionExecutor.submit(() -> {
+            try {
+                compactDeltas();
+            } catch (final StoreException | RuntimeException e) {
+                LOGGER.error("Failed to compact deltas", e);
+            } finally {
+                synchronized (this) {
+                    compactionScheduled = false;
+                }
+            }
+        });
+    }
+
+    /**
+     * Shuts down the thread that compacts deltas in the background. A compaction that has already been scheduled is
+     * allowed to finish, so that the store is not left with a partly written snapshot.
+     */
+    @Override
+    public void close() {
+        shutdownCompactionExecutor();
+    }
+
+    private synchronized void shutdownCompactionExecutor() {
+        if (null != compactionExecutor) {
+            LOGGER.info("Shutting down the delta compaction executor");
+            compactionExecutor.shutdown();
+            compactionExecutor = null;
+            compactionScheduled = false;
+        }
+    }
+
+    private static List<String> getFileAndDeltaFiles(final String file, final List<Path> deltaFiles) {
+        final List<String> files = new ArrayList<>();
+        files.add(file);
+        deltaFiles.stream().map(Path::toString).forEach(files::add);
+        return files;
+    }
+
     public Path getGroupPath(final String group) {
-        return new Path(getDataDir()
-                + "/" + getSnapshotPath(currentSnapshot)
-                + "/" + GRAPH
-                + "/" + GROUP + "=" + group);
+        return snapshot.getGroupPath(group);
+    }
+
+    private static Path getGroupPath(final String dataDir, final long snapshotId, final String group, final boolean reversed) {
+        return new Path(getGroupDir(dataDir, snapshotId, group, reversed));
+    }
+
+    private static String getGroupDir(final String dataDir, final long snapshotId, final String group, final boolean reversed) {
+        return dataDir
+                + "/" + getSnapshotPath(snapshotId)
+                + "/" + getGroupSubDir(group, reversed);
     }
 
     public static String getGroupSubDir(final String group, final boolean reversed) {
@@ -360,17 +628,11 @@ public class ParquetStore extends Store {
         if (!getSchema().getEdgeGroups().contains(group)) {
             throw new IllegalArgumentException("Invalid group: " + group + " is not an edge group");
         }
-        return new Path(getDataDir()
-                + "/" + getSnapshotPath(currentSnapshot)
-                + "/" + REVERSED_EDGES
-                + "/" + GROUP + "=" + group);
+        return snapshot.getGroupPathForReversedEdges(group);
     }
 
     public String getGraphPath() {
-        return getDataDir()
-                + "/" + getSnapshotPath(currentSnapshot)
-                + "/" + GRAPH
-                + "/";
+        return snapshot.getGraphPath();
     }
 
     @SuppressFBWarnings(value = "BC_UNCONFIRMED_CAST_OF_RETURN_VALUE", justification = "The properties should always be ParquetStoreProperties")
@@ -449,8 +711,12 @@ public class ParquetStore extends Store {
         }
 
         LOGGER.info("Setting currentSnapshot to {} and reloading graph partitioner", snapshot);
-        this.currentSnapshot = snapshot;
-        loadGraphPartitioner();
+        writeLock.lock();
+        try {
+            loadSnapshot();
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     private long getLatestSnapshot(final String rootDir) throws StoreException {
@@ -469,6 +735,110 @@ public class ParquetStore extends Store {
     }
 
     public GraphPartitioner getGraphPartitioner() {
-        return graphPartitioner;
+        return snapshot.getGraphPartitioner();
+    }
+
+    /**
+     * The state of the store at a snapshot: the snapshot id, its graph partitioner, the index of its files and its
+     * deltas. These are never changed once created. When any of them changes a new instance is built and published
+     * with a single volatile write, so a query that reads the snapshot once never sees, for example, the files of a
+     * new snapshot together with the deltas that have already been compacted into it.
+     */
+    public static final class Snapshot {
+        private final String dataDir;
+        private final long id;
+        private final GraphPartitioner graphPartitioner;
+        private final ParquetFileIndex fileIndex;
+        private final Deltas deltas;
+
+        private Snapshot(final String dataDir, final long id, final GraphPartitioner graphPartitioner,
+                         final ParquetFileIndex fileIndex, final Deltas deltas) {
+            this.dataDir = dataDir;
+            this.id = id;
+            this.graphPartitioner = graphPartitioner;
+            this.fileIndex = fileIndex;
+            this.deltas = deltas;
+        }
+
+        private Snapshot withDeltas(final Deltas newDeltas) {
+            return new Snapshot(dataDir, id, graphPartitioner, fileIndex, newDeltas);
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public GraphPartitioner getGraphPartitioner() {
+            return graphPartitioner;
+        }
+
+        public ParquetFileIndex getFileIndex() {
+            return fileIndex;
+        }
+
+        public List<Long> getDeltas() {
+            return deltas.ids;
+        }
+
+        public List<Path> getDeltaFiles(final String group, final boolean reversed, final String fileName) {
+            return deltas.getFiles(group, reversed, fileName);
+        }
+
+        public List<Path> getDeltaFilesForGroup(final String group) {
+            final String prefix = getGroupSubDir(group, false) + "/";
+            return deltas.files.entrySet()
+                    .stream()
+                    .filter(e -> e.getKey().startsWith(prefix))
+                    .flatMap(e -> e.getValue().stream())
+                    .collect(Collectors.toList());
+        }
+
+        public String getDeltasDir() {
+            return ParquetStore.getDeltasDir(dataDir, id);
+        }
+
+        public String getFile(final String group, final Integer partitionId) {
+            return getGroupDir(dataDir, id, group, false) + "/" + ParquetStore.getFile(partitionId);
+        }
+
+        public String getFileForReversedEdges(final String group, final Integer partitionId) {
+            return getGroupDir(dataDir, id, group, true) + "/" + ParquetStore.getFile(partitionId);
+        }
+
+        public Path getGroupPath(final String group) {
+            return ParquetStore.getGroupPath(dataDir, id, group, false);
+        }
+
+        public Path getGroupPathForReversedEdges(final String group) {
+            return ParquetStore.getGroupPath(dataDir, id, group, true);
+        }
+
+        public String getGraphPath() {
+            return dataDir
+                    + "/" + getSnapshotPath(id)
+                    + "/" + GRAPH
+                    + "/";
+        }
+    }
+
+    /**
+     * The deltas of a snapshot and the files within them.
+     */
+    private static final class Deltas {
+        private static final Deltas EMPTY = new Deltas(Collections.emptyList(), Collections.emptyMap());
+
+        private final List<Long> ids;
+        private final Map<String, List<Path>> files;
+
+        private Deltas(final List<Long> ids, final Map<String, List<Path>> files) {
+            this.ids = Collections.unmodifiableList(new ArrayList<>(ids));
+            final Map<String, List<Path>> filesCopy = new HashMap<>();
+            files.forEach((key, paths) -> filesCopy.put(key, Collections.unmodifiableList(new ArrayList<>(paths))));
+            this.files = Collections.unmodifiableMap(filesCopy);
+        }
+
+        private List<Path> getFiles(final String group, final boolean reversed, final String fileName) {
+            return files.getOrDefault(getGroupSubDir(group, reversed) + "/" + fileName, Collections.emptyList());
+        }
     }
 }
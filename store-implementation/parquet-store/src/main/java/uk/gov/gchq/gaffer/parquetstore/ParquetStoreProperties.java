@@ -45,6 +45,10 @@ public class ParquetStoreProperties extends StoreProperties implements Serializa
     public static final String SPARK_MASTER = "spark.master";
     public static final String PARQUET_SKIP_VALIDATION = "parquet.skip_validation";
     public static final String COMPRESSION_CODEC = "parquet.compression.codec";
+    public static final String PARQUET_ADD_ELEMENTS_AS_DELTAS = "parquet.add_elements.deltas";
+    public static final String PARQUET_DELTA_COMPACTION_THRESHOLD = "parquet.deltas.compaction.threshold";
+    public static final String PARQUET_LOAD_FILE_INDEX = "parquet.file_index.load_on_snapshot";
+    public static final String PARQUET_ADD_ELEMENTS_MAX_ELEMENTS_IN_MEMORY = "parquet.add_elements.max_elements_in_memory";
 
     // Default values - NB No default values for DATA_DIR or TEMP_FILES_DIR to
     // avoid the inadvertent storage of data in unexpected folders.
@@ -58,6 +62,10 @@ public class ParquetStoreProperties extends StoreProperties implements Serializa
     private static final String SPARK_MASTER_DEFAULT = "local[*]";
     private static final String PARQUET_SKIP_VALIDATION_DEFAULT = "false";
     private static final String COMPRESSION_CODEC_DEFAULT = "GZIP";
+    private static final String PARQUET_ADD_ELEMENTS_AS_DELTAS_DEFAULT = "false";
+    private static final String PARQUET_DELTA_COMPACTION_THRESHOLD_DEFAULT = "10";
+    private static final String PARQUET_LOAD_FILE_INDEX_DEFAULT = "true";
+    private static final String PARQUET_ADD_ELEMENTS_MAX_ELEMENTS_IN_MEMORY_DEFAULT = "500000";
     private static final long serialVersionUID = 7695540336792378185L;
 
     public ParquetStoreProperties() {
@@ -155,6 +163,65 @@ public class ParquetStoreProperties extends StoreProperties implements Serializa
         set(PARQUET_SKIP_VALIDATION, String.valueOf(skipValidation));
     }
 
+    /**
+     * If true then {@link uk.gov.gchq.gaffer.operation.impl.add.AddElements} writes the new elements as a small
+     * sorted delta alongside the current snapshot, rather than merging them into a new snapshot. Deltas are merged
+     * with the snapshot when queried and are folded into it by compaction.
+     *
+     * @return true if elements should be added as deltas.
+     */
+    public boolean getAddElementsAsDeltas() {
+        return Boolean.parseBoolean(get(PARQUET_ADD_ELEMENTS_AS_DELTAS, PARQUET_ADD_ELEMENTS_AS_DELTAS_DEFAULT));
+    }
+
+    public void setAddElementsAsDeltas(final boolean addElementsAsDeltas) {
+        set(PARQUET_ADD_ELEMENTS_AS_DELTAS, String.valueOf(addElementsAsDeltas));
+    }
+
+    /**
+     * The number of deltas at which a background compaction of the deltas into a new snapshot is started. A value
+     * less than 1 disables background compaction.
+     *
+     * @return The number of deltas that triggers a compaction.
+     */
+    public int getDeltaCompactionThreshold() {
+        return Integer.parseInt(get(PARQUET_DELTA_COMPACTION_THRESHOLD, PARQUET_DELTA_COMPACTION_THRESHOLD_DEFAULT));
+    }
+
+    public void setDeltaCompactionThreshold(final int deltaCompactionThreshold) {
+        set(PARQUET_DELTA_COMPACTION_THRESHOLD, String.valueOf(deltaCompactionThreshold));
+    }
+
+    /**
+     * If true then the footers of all the files in a snapshot are read into the
+     * {@link uk.gov.gchq.gaffer.parquetstore.query.ParquetFileIndex} when the snapshot is loaded. Otherwise the
+     * footers are read the first time each file is queried.
+     *
+     * @return true if the file index should be loaded with the snapshot.
+     */
+    public boolean getLoadFileIndex() {
+        return Boolean.parseBoolean(get(PARQUET_LOAD_FILE_INDEX, PARQUET_LOAD_FILE_INDEX_DEFAULT));
+    }
+
+    public void setLoadFileIndex(final boolean loadFileIndex) {
+        set(PARQUET_LOAD_FILE_INDEX, String.valueOf(loadFileIndex));
+    }
+
+    /**
+     * The maximum number of elements that each thread holds in memory while aggregating and sorting a partition
+     * during an {@link uk.gov.gchq.gaffer.operation.impl.add.AddElements} operation or a compaction. Once this is
+     * reached the sorted elements are spilled to a temporary file.
+     *
+     * @return The maximum number of elements each thread holds in memory.
+     */
+    public int getAddElementsMaxElementsInMemory() {
+        return Integer.parseInt(get(PARQUET_ADD_ELEMENTS_MAX_ELEMENTS_IN_MEMORY, PARQUET_ADD_ELEMENTS_MAX_ELEMENTS_IN_MEMORY_DEFAULT));
+    }
+
+    public void setAddElementsMaxElementsInMemory(final int maxElementsInMemory) {
+        set(PARQUET_ADD_ELEMENTS_MAX_ELEMENTS_IN_MEMORY, String.valueOf(maxElementsInMemory));
+    }
+
     @Override
     public String getJsonSerialiserModules() {
         return new StringDeduplicateConcat().apply(
@@ -23,31 +23,45 @@ import org.apache.parquet.schema.MessageType;
 
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.parquetstore.utils.GafferGroupObjectConverter;
+import uk.gov.gchq.gaffer.parquetstore.utils.SchemaUtils;
 
 import java.util.Map;
+import java.util.Set;
 
 /**
  * This class provides the {@link ReadSupport} required by the {@link ParquetElementReader} making use of the
  * {@link ElementRecordMaterialiser} to directly build the Gaffer Elements from the Parquet types.
+ * <p>
+ * If a set of Gaffer columns is provided then only the Parquet columns that store them are read, and the elements
+ * only contain those identifiers and properties.
  */
 public class ElementReadSupport extends ReadSupport<Element> {
     private final boolean isEntity;
     private final GafferGroupObjectConverter converter;
+    private final Set<String> columns;
 
     public ElementReadSupport(final boolean isEntity, final GafferGroupObjectConverter converter) {
+        this(isEntity, converter, null);
+    }
+
+    public ElementReadSupport(final boolean isEntity, final GafferGroupObjectConverter converter, final Set<String> columns) {
         super();
         this.isEntity = isEntity;
         this.converter = converter;
+        this.columns = columns;
     }
 
     @Override
     public RecordMaterializer<Element> prepareForRead(final Configuration configuration, final Map<String, String> map,
                                                       final MessageType parquetSchema, final ReadContext readContext) {
-        return new ElementRecordMaterialiser(parquetSchema, isEntity, converter);
+        return new ElementRecordMaterialiser(readContext.getRequestedSchema(), isEntity, converter);
     }
 
     @Override
     public ReadContext init(final InitContext context) {
-        return new ReadContext(context.getFileSchema());
+        if (null == columns) {
+            return new ReadContext(context.getFileSchema());
+        }
+        return new ReadContext(SchemaUtils.getProjectedParquetSchema(context.getFileSchema(), columns));
     }
 }
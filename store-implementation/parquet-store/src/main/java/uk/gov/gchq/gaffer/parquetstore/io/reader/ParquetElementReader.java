@@ -23,6 +23,7 @@ import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.parquetstore.utils.GafferGroupObjectConverter;
 
 import java.io.IOException;
+import java.util.Set;
 
 /**
  * This is the Parquet reader that can read the Parquet files directly to Elements provided the files are written the
@@ -51,6 +52,7 @@ public class ParquetElementReader extends ParquetReader<Element> {
     public static class Builder<Element> extends ParquetReader.Builder<Element> {
         private boolean isEntity;
         private GafferGroupObjectConverter converter;
+        private Set<String> columns;
 
         public Builder(final Path path) {
             super(path);
@@ -66,9 +68,21 @@ public class ParquetElementReader extends ParquetReader<Element> {
             return this;
         }
 
+        /**
+         * Only reads the Parquet columns that store the given Gaffer columns.
+         *
+         * @param columns the vertex, source, destination, directed and property columns to read, or null to read
+         *                all the columns
+         * @return this builder
+         */
+        public ParquetElementReader.Builder<Element> withColumns(final Set<String> columns) {
+            this.columns = columns;
+            return this;
+        }
+
         @Override
         protected ReadSupport<Element> getReadSupport() {
-            return (ReadSupport<Element>) new ElementReadSupport(isEntity, converter);
+            return (ReadSupport<Element>) new ElementReadSupport(isEntity, converter, columns);
         }
     }
 }
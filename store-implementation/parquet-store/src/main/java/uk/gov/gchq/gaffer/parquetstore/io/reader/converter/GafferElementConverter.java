@@ -25,9 +25,12 @@ import org.slf4j.LoggerFactory;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
 import uk.gov.gchq.gaffer.parquetstore.utils.GafferGroupObjectConverter;
+import uk.gov.gchq.gaffer.parquetstore.utils.SchemaUtils;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * This class is used by the {@link uk.gov.gchq.gaffer.parquetstore.io.reader.ElementRecordMaterialiser} to materialise
@@ -39,6 +42,7 @@ public class GafferElementConverter extends GroupConverter {
     private final GafferGroupObjectConverter gafferGroupObjectConverter;
     private final Map<Integer, Converter> fieldToConverter;
     private final Map<String, Object[]> parquetColumnToObject;
+    private final Set<String> columns;
     private final int fieldCount;
     private Element currentRecord = null;
 
@@ -49,6 +53,10 @@ public class GafferElementConverter extends GroupConverter {
         this.gafferGroupObjectConverter = gafferGroupObjectConverter;
         this.fieldCount = schema.getFieldCount();
         this.fieldToConverter = buildFieldToConverter(schema);
+        this.columns = new HashSet<>();
+        for (final Type field : schema.getFields()) {
+            columns.add(SchemaUtils.getColumn(field.getName()));
+        }
     }
 
     private Map<Integer, Converter> buildFieldToConverter(final MessageType schema) {
@@ -78,7 +86,7 @@ public class GafferElementConverter extends GroupConverter {
     @Override
     public void end() {
         try {
-            currentRecord = gafferGroupObjectConverter.buildElementFromParquetObjects(parquetColumnToObject, isEntity);
+            currentRecord = gafferGroupObjectConverter.buildElementFromParquetObjects(parquetColumnToObject, isEntity, columns);
         } catch (final SerialisationException e) {
             LOGGER.warn("Failed to build the Element, skipping this Element {}", parquetColumnToObject);
         }
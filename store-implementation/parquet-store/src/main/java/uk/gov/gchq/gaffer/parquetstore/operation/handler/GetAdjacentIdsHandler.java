@@ -16,25 +16,101 @@
 package uk.gov.gchq.gaffer.parquetstore.operation.handler;
 
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.EmptyClosableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.TransformIterable;
+import uk.gov.gchq.gaffer.data.IsEdgeValidator;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId;
 import uk.gov.gchq.gaffer.data.element.id.EntityId;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.data.EntitySeed;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentIds;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.parquetstore.ParquetStore;
+import uk.gov.gchq.gaffer.parquetstore.operation.handler.utilities.ParquetElementRetriever;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.store.operation.handler.OutputOperationHandler;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * An {@link uk.gov.gchq.gaffer.store.operation.handler.OperationHandler} for the {@link GetAdjacentIds} operation on
- * the {@link uk.gov.gchq.gaffer.parquetstore.ParquetStore}.
+ * the {@link ParquetStore}.
+ * <p>
+ * The edges are retrieved in the same way as for {@link GetElements}. As only their identifiers are needed, the view
+ * requests no properties, so only the source, destination and directed columns and the columns of the properties used
+ * by the view's filters are read from the Parquet files.
  */
 public class GetAdjacentIdsHandler
         implements OutputOperationHandler<GetAdjacentIds, CloseableIterable<? extends EntityId>> {
 
     @Override
-    public CloseableIterable<EntitySeed> doOperation(final GetAdjacentIds operation,
-                                                     final Context context,
-                                                     final Store store) throws OperationException {
-        throw new UnsupportedOperationException("The ParquetStore does not implement " + operation.getClass().getSimpleName() + " yet.");
+    public CloseableIterable<? extends EntityId> doOperation(final GetAdjacentIds operation,
+                                                             final Context context,
+                                                             final Store store) throws OperationException {
+        if (null == operation.getInput() || !operation.getInput().iterator().hasNext()) {
+            return new EmptyClosableIterable<>();
+        }
+        final View view = null != operation.getView()
+                ? operation.getView()
+                : new View.Builder().edges(store.getSchema().getEdgeGroups()).build();
+        final GetElements getEdges = new GetElements.Builder()
+                .options(operation.getOptions())
+                .view(new View.Builder()
+                        .merge(view)
+                        .entities(Collections.emptyMap())
+                        .edges(getEdgesWithoutProperties(view))
+                        .build())
+                .inputIds(operation.getInput())
+                .directedType(operation.getDirectedType())
+                .inOutType(operation.getIncludeIncomingOutGoing())
+                .build();
+        return new ExtractAdjacentEntityId(new ParquetElementRetriever((ParquetStore) store, getEdges, context.getUser(), true));
+    }
+
+    private static Map<String, ViewElementDefinition> getEdgesWithoutProperties(final View view) {
+        final Map<String, ViewElementDefinition> edges = new LinkedHashMap<>();
+        for (final Map.Entry<String, ViewElementDefinition> entry : view.getEdges().entrySet()) {
+            final ViewElementDefinition elementDef = entry.getValue();
+            if (null == elementDef.getTransformer()) {
+                edges.put(entry.getKey(), new ViewElementDefinition.Builder()
+                        .merge(elementDef)
+                        .allProperties()
+                        .properties(Collections.emptySet())
+                        .build());
+            } else {
+                // The transform functions may produce properties that the filters need
+                edges.put(entry.getKey(), elementDef);
+            }
+        }
+        return edges;
+    }
+
+    protected static final class ExtractAdjacentEntityId extends TransformIterable<Element, EntityId> {
+        private ExtractAdjacentEntityId(final Iterable<Element> input) {
+            super(input, new IsEdgeValidator());
+        }
+
+        @Override
+        protected EntityId transform(final Element element) {
+            // Edges read from the reversed edges files are marked as matching on their destination
+            final EntitySeed nextId;
+            if (EdgeId.MatchedVertex.DESTINATION == ((EdgeId) element).getMatchedVertex()) {
+                nextId = new EntitySeed(((EdgeId) element).getSource());
+            } else {
+                nextId = new EntitySeed(((EdgeId) element).getDestination());
+            }
+            return nextId;
+        }
+
+        @Override
+        public void close() {
+            ((CloseableIterable) super.getInput()).close();
+        }
     }
 }
@@ -73,13 +73,18 @@ public class AddElementsFromRDD {
     }
 
     void addElementsFromRDD(final JavaRDD<Element> input) throws OperationException {
-        writeInputData(input);
-        aggregateNewAndOldData();
-        sort();
-        sortEdgeGroupsByDestination();
-        calculateAndWritePartitioner();
-        createNewSnapshotDirectory();
-        deleteTempDirectory();
+        store.getWriteLock().lock();
+        try {
+            writeInputData(input);
+            aggregateNewAndOldData();
+            sort();
+            sortEdgeGroupsByDestination();
+            calculateAndWritePartitioner();
+            createNewSnapshotDirectory();
+            deleteTempDirectory();
+        } finally {
+            store.getWriteLock().unlock();
+        }
     }
 
     void addElementsFromRDD(final RDD<Element> input) throws OperationException {
@@ -122,7 +127,7 @@ public class AddElementsFromRDD {
 
     /**
      * For each group that requires aggregation, this method aggregates the new data that has been written out to file
-     * with the existing data for that group.
+     * with the existing data for that group, including any deltas of the current snapshot.
      *
      * @throws OperationException if an {@link IOException} or a {@link SerialisationException} is thrown
      */
@@ -146,6 +151,7 @@ public class AddElementsFromRDD {
                 throw new OperationException("IOException finding files for group " + group, e);
             }
             existingData.stream().map(Path::toString).forEach(inputFiles::add);
+            store.getDeltaFilesForGroup(group).stream().map(Path::toString).forEach(inputFiles::add);
             final String outputDir = getDirectory(group, false, true, false);
             final AggregateDataForGroup aggregateDataForGroup;
             try {
@@ -177,13 +183,14 @@ public class AddElementsFromRDD {
                             .listStatus(new Path(inputDir), path -> path.getName().endsWith(".parquet"));
                     Arrays.stream(inputFilesFS).map(f -> f.getPath().toString()).forEach(inputFiles::add);
                 } else {
-                    // Input is new data from groupToUnsortedUnaggregatedNewData and old data from existing snapshot directory
+                    // Input is new data from groupToUnsortedUnaggregatedNewData and old data from existing snapshot directory and its deltas
                     final String groupDirectoryNewData = getDirectory(group, false, false, false);
                     final FileStatus[] newData = fs
                             .listStatus(new Path(groupDirectoryNewData), path -> path.getName().endsWith(".parquet"));
                     Arrays.stream(newData).map(f -> f.getPath().toString()).forEach(inputFiles::add);
                     final List<Path> existingData = store.getFilesForGroup(group);
                     existingData.stream().map(p -> p.toString()).forEach(inputFiles::add);
+                    store.getDeltaFilesForGroup(group).stream().map(Path::toString).forEach(inputFiles::add);
                 }
                 sort(group, false, inputFiles, outputDir);
             }
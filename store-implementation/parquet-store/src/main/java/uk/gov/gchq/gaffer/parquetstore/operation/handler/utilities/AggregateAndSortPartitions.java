@@ -0,0 +1,275 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.parquetstore.operation.handler.utilities;
+
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.spark.sql.SparkSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import scala.Option;
+
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.parquetstore.ParquetStore;
+import uk.gov.gchq.gaffer.parquetstore.ParquetStoreProperties;
+import uk.gov.gchq.gaffer.parquetstore.partitioner.GraphPartitioner;
+import uk.gov.gchq.gaffer.parquetstore.partitioner.Partition;
+import uk.gov.gchq.gaffer.parquetstore.partitioner.serialisation.GraphPartitionerSerialiser;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+/**
+ * Aggregates and sorts the data for every partition of every group in the {@link ParquetStore}'s current
+ * {@link GraphPartitioner}, and moves the results into either a new snapshot directory or a new delta of the current
+ * snapshot. The input files for each partition are supplied by the caller, so this is used both to merge new data
+ * with the existing data and to compact the deltas of a snapshot.
+ * <p>
+ * If a {@link SparkSession} is provided then each partition is aggregated and sorted by an
+ * {@link AggregateAndSortData} task using Spark, otherwise each partition is aggregated and sorted within this JVM by
+ * a {@link LocalAggregateAndSortData} task.
+ */
+public class AggregateAndSortPartitions {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AggregateAndSortPartitions.class);
+
+    private final ParquetStore store;
+    private final SparkSession spark;
+    private final String tmpDirectory;
+    private final FileSystem fs;
+    private final Schema schema;
+    private final GraphPartitioner graphPartitioner;
+
+    public AggregateAndSortPartitions(final ParquetStore store, final String tmpDirectory) {
+        this(store, null, tmpDirectory);
+    }
+
+    public AggregateAndSortPartitions(final ParquetStore store, final SparkSession spark, final String tmpDirectory) {
+        this.store = store;
+        this.spark = spark;
+        this.tmpDirectory = tmpDirectory;
+        this.fs = store.getFS();
+        this.schema = store.getSchema();
+        this.graphPartitioner = store.getGraphPartitioner();
+    }
+
+    /**
+     * Writes the aggregated and sorted data into a new snapshot and sets it as the latest snapshot on the store.
+     *
+     * @param inputFilesForGroupAndPartitionId                 the files containing the data for each partition
+     * @param inputFilesForGroupAndPartitionIdForReversedEdges the files containing the data for each reversed edges partition
+     * @throws OperationException if the data could not be aggregated, sorted or moved into the new snapshot
+     */
+    public void writeSnapshot(final BiFunction<String, Integer, List<String>> inputFilesForGroupAndPartitionId,
+                              final BiFunction<String, Integer, List<String>> inputFilesForGroupAndPartitionIdForReversedEdges)
+            throws OperationException {
+        aggregateAndSort(inputFilesForGroupAndPartitionId, inputFilesForGroupAndPartitionIdForReversedEdges);
+        try {
+            // Move results to a new snapshot directory (the -tmp at the end allows us to add data to the directory,
+            // and then when this is all finished we rename the directory to remove the -tmp; this allows us to make
+            // the replacement of the old data with the new data an atomic operation and ensures that a get operation
+            // against the store will not read the directory when only some of the data has been moved there).
+            final long snapshot = System.currentTimeMillis();
+            final String newDataDir = store.getDataDir() + "/" + ParquetStore.getSnapshotPath(snapshot) + "-tmp";
+            LOGGER.info("Moving aggregated and sorted data to new snapshot directory {}", newDataDir);
+            moveResults(newDataDir);
+
+            // Delete temporary data directory
+            LOGGER.info("Deleting temporary directory {}", tmpDirectory);
+            fs.delete(new Path(tmpDirectory), true);
+            // Write out graph partitioner (unchanged from previous one)
+            final Path newGraphPartitionerPath = new Path(newDataDir + "/graphPartitioner");
+            final FSDataOutputStream stream = fs.create(newGraphPartitionerPath);
+            LOGGER.info("Writing graph partitioner to {}", newGraphPartitionerPath);
+            new GraphPartitionerSerialiser().write(graphPartitioner, stream);
+            stream.close();
+            // Move snapshot-tmp directory to snapshot
+            final String directoryWithoutTmp = newDataDir.substring(0, newDataDir.lastIndexOf("-tmp"));
+            LOGGER.info("Renaming {} to {}", newDataDir, directoryWithoutTmp);
+            fs.rename(new Path(newDataDir), new Path(directoryWithoutTmp));
+            // Set snapshot on store to new value
+            LOGGER.info("Updating latest snapshot on store to {}", snapshot);
+            store.setLatestSnapshot(snapshot);
+        } catch (final IOException | StoreException e) {
+            throw new OperationException("IOException moving results files into new snapshot directory", e);
+        }
+    }
+
+    /**
+     * Writes the aggregated and sorted data into a new delta of the store's current snapshot and adds the delta to the
+     * store.
+     *
+     * @param inputFilesForGroupAndPartitionId                 the files containing the data for each partition
+     * @param inputFilesForGroupAndPartitionIdForReversedEdges the files containing the data for each reversed edges partition
+     * @throws OperationException if the data could not be aggregated, sorted or moved into the new delta
+     */
+    public void writeDelta(final BiFunction<String, Integer, List<String>> inputFilesForGroupAndPartitionId,
+                           final BiFunction<String, Integer, List<String>> inputFilesForGroupAndPartitionIdForReversedEdges)
+            throws OperationException {
+        aggregateAndSort(inputFilesForGroupAndPartitionId, inputFilesForGroupAndPartitionIdForReversedEdges);
+        try {
+            // As with snapshots, the delta is written to a -tmp directory which is renamed once complete so that
+            // queries never read a partially written delta.
+            final List<Long> deltas = store.getDeltas();
+            final long delta = deltas.isEmpty()
+                    ? System.currentTimeMillis()
+                    : Math.max(System.currentTimeMillis(), deltas.get(deltas.size() - 1) + 1);
+            final String newDeltaDir = store.getDeltasDir() + "/" + ParquetStore.DELTA + "=" + delta + "-tmp";
+            LOGGER.info("Moving aggregated and sorted data to new delta directory {}", newDeltaDir);
+            moveResults(newDeltaDir);
+
+            // Delete temporary data directory
+            LOGGER.info("Deleting temporary directory {}", tmpDirectory);
+            fs.delete(new Path(tmpDirectory), true);
+            // Move delta-tmp directory to delta
+            final String directoryWithoutTmp = newDeltaDir.substring(0, newDeltaDir.lastIndexOf("-tmp"));
+            LOGGER.info("Renaming {} to {}", newDeltaDir, directoryWithoutTmp);
+            fs.rename(new Path(newDeltaDir), new Path(directoryWithoutTmp));
+            LOGGER.info("Adding delta {} to store", delta);
+            store.addDelta(delta);
+        } catch (final IOException | StoreException e) {
+            throw new OperationException("IOException moving results files into new delta directory", e);
+        }
+    }
+
+    private String getSortedResultsDir(final String group, final boolean reversed, final Integer partitionId) {
+        return tmpDirectory
+                + "/sorted_new_old_merged"
+                + "/" + (reversed ? "REVERSED-" : "") + "group=" + group
+                + "/partition=" + partitionId;
+    }
+
+    private void aggregateAndSort(final BiFunction<String, Integer, List<String>> inputFilesForGroupAndPartitionId,
+                                  final BiFunction<String, Integer, List<String>> inputFilesForGroupAndPartitionIdForReversedEdges)
+            throws OperationException {
+        // For every group and partition, aggregate the input data and then sort
+        final List<Callable<CallableResult>> tasks = new ArrayList<>();
+        for (final String group : schema.getGroups()) {
+            final List<Partition> partitions = graphPartitioner.getGroupPartitioner(group).getPartitions();
+            for (final Partition partition : partitions) {
+                final List<String> inputFiles = inputFilesForGroupAndPartitionId.apply(group, partition.getPartitionId());
+                final String outputDir = getSortedResultsDir(group, false, partition.getPartitionId());
+                tasks.add(createTask(inputFiles, outputDir, group, group + "-" + partition.getPartitionId(), false));
+                LOGGER.info("Created aggregate and sort task for group {}, partition {}", group, partition.getPartitionId());
+            }
+        }
+        for (final String group : schema.getEdgeGroups()) {
+            final List<Partition> partitions = graphPartitioner.getGroupPartitionerForReversedEdges(group).getPartitions();
+            for (final Partition partition : partitions) {
+                final List<String> inputFiles = inputFilesForGroupAndPartitionIdForReversedEdges.apply(group, partition.getPartitionId());
+                final String outputDir = getSortedResultsDir(group, true, partition.getPartitionId());
+                tasks.add(createTask(inputFiles, outputDir, group, "reversed-" + group + "-" + partition.getPartitionId(), true));
+                LOGGER.info("Created aggregate and sort task for reversed edge group {}, partition {}", group, partition.getPartitionId());
+            }
+        }
+        final ExecutorService threadPool = createThreadPool(spark, store.getProperties());
+        try {
+            LOGGER.info("Invoking {} aggregate and sort tasks", tasks.size());
+            final List<Future<CallableResult>> futures = threadPool.invokeAll(tasks);
+            for (final Future<CallableResult> future : futures) {
+                final CallableResult result = future.get();
+                LOGGER.info("Result {} from task", result);
+            }
+        } catch (final InterruptedException e) {
+            throw new OperationException("InterruptedException running aggregate and sort tasks", e);
+        } catch (final ExecutionException e) {
+            throw new OperationException("ExecutionException running aggregate and sort tasks", e);
+        } finally {
+            threadPool.shutdown();
+        }
+    }
+
+    private Callable<CallableResult> createTask(final List<String> inputFiles, final String outputDir, final String group,
+                                                final String id, final boolean reversed) {
+        if (null == spark) {
+            return new LocalAggregateAndSortData(store.getSchemaUtils(), fs, inputFiles, outputDir, group, id, reversed,
+                    store.getProperties());
+        }
+        return new AggregateAndSortData(store.getSchemaUtils(), fs, inputFiles, outputDir, group, id, reversed,
+                store.getProperties().getCompressionCodecName(), spark);
+    }
+
+    private void moveResults(final String newDataDir) throws IOException, OperationException {
+        fs.mkdirs(new Path(newDataDir));
+        for (final String group : schema.getGroups()) {
+            final Path groupDir = new Path(newDataDir, ParquetStore.getGroupSubDir(group, false));
+            fs.mkdirs(groupDir);
+            LOGGER.info("Created directory {}", groupDir);
+        }
+        for (final String group : schema.getEdgeGroups()) {
+            final Path groupDir = new Path(newDataDir, ParquetStore.getGroupSubDir(group, true));
+            fs.mkdirs(groupDir);
+            LOGGER.info("Created directory {}", groupDir);
+        }
+        for (final String group : schema.getGroups()) {
+            final List<Partition> partitions = graphPartitioner.getGroupPartitioner(group).getPartitions();
+            for (final Partition partition : partitions) {
+                moveResult(group, false, partition.getPartitionId(), newDataDir);
+            }
+        }
+        for (final String group : schema.getEdgeGroups()) {
+            final List<Partition> partitions = graphPartitioner.getGroupPartitionerForReversedEdges(group).getPartitions();
+            for (final Partition partition : partitions) {
+                moveResult(group, true, partition.getPartitionId(), newDataDir);
+            }
+        }
+    }
+
+    private void moveResult(final String group, final boolean reversed, final Integer partitionId, final String newDataDir)
+            throws IOException, OperationException {
+        final String groupDir = newDataDir + "/" + ParquetStore.getGroupSubDir(group, reversed);
+        final Path outputDir = new Path(getSortedResultsDir(group, reversed, partitionId));
+        if (!fs.exists(outputDir)) {
+            LOGGER.info("Not moving data for {}group {}, partition id {} as the outputDir {} does not exist",
+                    reversed ? "reversed edge " : "", group, partitionId, outputDir);
+        } else {
+            // One .parquet file and one .parquet.crc file
+            final FileStatus[] status = fs.listStatus(outputDir, path -> path.getName().endsWith(".parquet"));
+            if (1 != status.length) {
+                LOGGER.error("Didn't find one Parquet file in path {} (found {} files)", outputDir, status.length);
+                throw new OperationException("Expected to find one Parquet file in path " + outputDir
+                        + " (found " + status.length + " files)");
+            } else {
+                final Path destination = new Path(groupDir, ParquetStore.getFile(partitionId));
+                LOGGER.info("Renaming {} to {}", status[0].getPath(), destination);
+                fs.rename(status[0].getPath(), destination);
+            }
+        }
+    }
+
+    private static ExecutorService createThreadPool(final SparkSession spark, final ParquetStoreProperties storeProperties) {
+        int numberOfThreads = storeProperties.getThreadsAvailable();
+        if (null != spark) {
+            final Option<String> sparkDriverCores = spark.conf().getOption("spark.driver.cores");
+            if (sparkDriverCores.nonEmpty()) {
+                numberOfThreads = Integer.parseInt(sparkDriverCores.get());
+            }
+        }
+        LOGGER.debug("Created thread pool of size {}", numberOfThreads);
+        return Executors.newFixedThreadPool(numberOfThreads);
+    }
+}
@@ -0,0 +1,392 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.parquetstore.operation.handler.utilities;
+
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.parquetstore.ParquetStoreProperties;
+import uk.gov.gchq.gaffer.parquetstore.io.reader.ParquetElementReader;
+import uk.gov.gchq.gaffer.parquetstore.io.writer.ParquetElementWriter;
+import uk.gov.gchq.gaffer.parquetstore.utils.GafferGroupObjectConverter;
+import uk.gov.gchq.gaffer.parquetstore.utils.SchemaUtils;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.util.AggregatorUtil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+
+/**
+ * Aggregates and sorts the data in a list of files into one sorted file within this JVM, i.e. without using Spark.
+ * This is the equivalent of {@link AggregateAndSortData}.
+ * <p>
+ * Elements are read into memory, aggregated and sorted. If there are more than
+ * {@link ParquetStoreProperties#getAddElementsMaxElementsInMemory()} elements then the sorted elements are spilled
+ * to a temporary file and the spilled files are merged once all the input has been read. Elements are sorted by
+ * the same columns as {@link AggregateAndSortData}, i.e. the vertex for entities or the source, destination and
+ * directed flag (destination, source and directed flag for reversed edges) for edges, followed by the group-by
+ * properties.
+ */
+public class LocalAggregateAndSortData implements Callable<CallableResult> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalAggregateAndSortData.class);
+    private static final String RUNS = "/runs";
+    private static final String SORTED_FILE = "part-00000.parquet";
+
+    private final SchemaUtils schemaUtils;
+    private final FileSystem fs;
+    private final List<String> files;
+    private final String outputDir;
+    private final String group;
+    private final String id; // Used in the logging statements so that users of this class can provide some context as to what is being done
+    private final boolean reversed;
+    private final ParquetStoreProperties properties;
+    private final boolean isEntity;
+    private final boolean aggregate;
+    private final GafferGroupObjectConverter converter;
+    private final List<String> groupByProperties;
+    private final AggregatorUtil.ToIngestElementKey toElementKey;
+    private final AggregatorUtil.IngestElementBinaryOperator aggregator;
+    private final Map<Element, Element> aggregatedElements = new HashMap<>();
+    private final List<Element> elements = new ArrayList<>();
+
+    public LocalAggregateAndSortData(final SchemaUtils schemaUtils,
+                                     final FileSystem fs,
+                                     final List<String> files,
+                                     final String outputDir,
+                                     final String group,
+                                     final String id,
+                                     final boolean reversed,
+                                     final ParquetStoreProperties properties) {
+        this.schemaUtils = schemaUtils;
+        this.fs = fs;
+        this.files = files;
+        this.outputDir = outputDir;
+        this.group = group;
+        this.id = id;
+        this.reversed = reversed;
+        this.properties = properties;
+        this.isEntity = schemaUtils.getEntityGroups().contains(group);
+        this.aggregate = schemaUtils.getGafferSchema().getAggregatedGroups().contains(group);
+        this.converter = schemaUtils.getConverter(group);
+        this.groupByProperties = new ArrayList<>();
+        final Map<String, String[]> columnToPaths = schemaUtils.getColumnToPaths(group);
+        for (final String property : schemaUtils.getGafferSchema().getElement(group).getGroupBy()) {
+            final String[] paths = columnToPaths.get(property);
+            if (null != paths && paths.length > 0) {
+                groupByProperties.add(property);
+            }
+        }
+        // The schema caches the aggregators, which are not thread safe, so each task uses its own copy of the schema
+        // as the tasks for the different partitions of a group are run in parallel
+        final Schema schema = Schema.fromJson(schemaUtils.getGafferSchema().toCompactJson());
+        this.toElementKey = new AggregatorUtil.ToIngestElementKey(schema);
+        this.aggregator = new AggregatorUtil.IngestElementBinaryOperator(schema);
+    }
+
+    @Override
+    public CallableResult call() throws Exception {
+        final List<Path> inputFiles = getInputFiles();
+        LOGGER.info("{} data for group {} and id {} ({} input files, results will be stored in {})",
+                aggregate ? "Aggregating and sorting" : "Sorting", group, id, inputFiles.size(), outputDir);
+        final int maxElementsInMemory = properties.getAddElementsMaxElementsInMemory();
+        final List<Path> runs = new ArrayList<>();
+        for (final Path inputFile : inputFiles) {
+            final ParquetReader<Element> reader = openReader(inputFile);
+            try {
+                Element e = reader.read();
+                while (null != e) {
+                    add(e);
+                    if (getNumberOfElementsInMemory() >= maxElementsInMemory) {
+                        runs.add(spill(runs.size()));
+                    }
+                    e = reader.read();
+                }
+            } finally {
+                reader.close();
+            }
+        }
+
+        final Path sortedFile = new Path(outputDir, SORTED_FILE);
+        if (runs.isEmpty()) {
+            if (0 == getNumberOfElementsInMemory()) {
+                LOGGER.info("No data for group {} and id {} so there is nothing to write", group, id);
+            } else {
+                LOGGER.info("Writing sorted data for group {} and id {} to {}", group, id, sortedFile);
+                write(sortElementsInMemory(), sortedFile, properties.getCompressionCodecName());
+            }
+        } else {
+            if (0 < getNumberOfElementsInMemory()) {
+                runs.add(spill(runs.size()));
+            }
+            LOGGER.info("Merging {} sorted runs of data for group {} and id {} into {}", runs.size(), group, id, sortedFile);
+            merge(runs, sortedFile);
+            fs.delete(new Path(outputDir + RUNS), true);
+        }
+        return CallableResult.SUCCESS;
+    }
+
+    private List<Path> getInputFiles() throws IOException {
+        final List<Path> inputFiles = new ArrayList<>();
+        for (final String file : files) {
+            final Path path = new Path(file);
+            if (!fs.exists(path)) {
+                LOGGER.debug("Ignoring input {} for group {} and id {} as it does not exist", path, group, id);
+            } else if (fs.getFileStatus(path).isDirectory()) {
+                for (final FileStatus status : fs.listStatus(path, p -> p.getName().endsWith(".parquet"))) {
+                    inputFiles.add(status.getPath());
+                }
+            } else {
+                inputFiles.add(path);
+            }
+        }
+        return inputFiles;
+    }
+
+    private void add(final Element e) {
+        if (aggregate) {
+            aggregatedElements.merge(toElementKey.apply(e), e, aggregator);
+        } else {
+            elements.add(e);
+        }
+    }
+
+    private int getNumberOfElementsInMemory() {
+        return aggregate ? aggregatedElements.size() : elements.size();
+    }
+
+    private List<SortableElement> sortElementsInMemory() throws SerialisationException {
+        final List<SortableElement> sorted = new ArrayList<>(getNumberOfElementsInMemory());
+        for (final Element e : aggregate ? aggregatedElements.values() : elements) {
+            sorted.add(new SortableElement(getSortKey(e), e));
+        }
+        aggregatedElements.clear();
+        elements.clear();
+        sorted.sort(Comparator.comparing(SortableElement::getKey));
+        return sorted;
+    }
+
+    private Path spill(final int run) throws IOException {
+        final Path runFile = new Path(outputDir + RUNS, "run-" + run + ".parquet");
+        LOGGER.debug("Spilling {} sorted elements for group {} and id {} to {}", getNumberOfElementsInMemory(), group, id, runFile);
+        write(sortElementsInMemory(), runFile, CompressionCodecName.UNCOMPRESSED);
+        return runFile;
+    }
+
+    private void write(final List<SortableElement> sorted, final Path file, final CompressionCodecName compressionCodecName)
+            throws IOException {
+        final ParquetWriter<Element> writer = openWriter(file, compressionCodecName);
+        try {
+            for (final SortableElement e : sorted) {
+                writer.write(e.getElement());
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void merge(final List<Path> runs, final Path file) throws IOException {
+        final PriorityQueue<Run> queue = new PriorityQueue<>(runs.size(), Comparator.comparing(Run::getKey));
+        final ParquetWriter<Element> writer = openWriter(file, properties.getCompressionCodecName());
+        try {
+            for (final Path runFile : runs) {
+                final Run run = new Run(openReader(runFile));
+                if (run.next()) {
+                    queue.add(run);
+                }
+            }
+            // Elements with the same group-by key have the same sort key, so the elements from the different runs
+            // can be aggregated by collecting together all the elements with the same sort key.
+            final Map<Element, Element> elementsWithSameKey = new LinkedHashMap<>();
+            SortKey currentKey = null;
+            while (!queue.isEmpty()) {
+                final Run run = queue.poll();
+                if (aggregate) {
+                    if (null != currentKey && 0 != currentKey.compareTo(run.getKey())) {
+                        writeAll(elementsWithSameKey.values(), writer);
+                        elementsWithSameKey.clear();
+                    }
+                    currentKey = run.getKey();
+                    elementsWithSameKey.merge(toElementKey.apply(run.getElement()), run.getElement(), aggregator);
+                } else {
+                    writer.write(run.getElement());
+                }
+                if (run.next()) {
+                    queue.add(run);
+                }
+            }
+            writeAll(elementsWithSameKey.values(), writer);
+        } finally {
+            for (final Run run : queue) {
+                run.close();
+            }
+            writer.close();
+        }
+    }
+
+    private static void writeAll(final Iterable<Element> elements, final ParquetWriter<Element> writer) throws IOException {
+        for (final Element e : elements) {
+            writer.write(e);
+        }
+    }
+
+    private SortKey getSortKey(final Element e) throws SerialisationException {
+        final List<Object> key = new ArrayList<>();
+        if (reversed) {
+            Collections.addAll(key, converter.corePropertiesToParquetObjectsForReversedEdge((Edge) e));
+        } else {
+            Collections.addAll(key, converter.corePropertiesToParquetObjects(e));
+        }
+        for (final String property : groupByProperties) {
+            Collections.addAll(key, converter.gafferObjectToParquetObjects(property, e.getProperty(property)));
+        }
+        return new SortKey(key.toArray());
+    }
+
+    private ParquetReader<Element> openReader(final Path file) throws IOException {
+        return new ParquetElementReader.Builder<Element>(file)
+                .isEntity(isEntity)
+                .usingConverter(converter)
+                .build();
+    }
+
+    private ParquetWriter<Element> openWriter(final Path file, final CompressionCodecName compressionCodecName)
+            throws IOException {
+        return new ParquetElementWriter.Builder(file)
+                .withType(schemaUtils.getParquetSchema(group))
+                .usingConverter(converter)
+                .withSparkSchema(schemaUtils.getSparkSchema(group))
+                .withCompressionCodec(compressionCodecName)
+                .withRowGroupSize(properties.getRowGroupSize())
+                .withPageSize(properties.getPageSize())
+                .withDictionaryPageSize(properties.getPageSize())
+                .build();
+    }
+
+    /**
+     * The values of the columns that the elements are sorted by. Nulls are sorted first and binary values are
+     * compared as unsigned bytes, as they are when Spark sorts the columns.
+     */
+    private static final class SortKey implements Comparable<SortKey> {
+        private final Object[] values;
+
+        private SortKey(final Object[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public int compareTo(final SortKey other) {
+            final int length = Math.min(values.length, other.values.length);
+            for (int i = 0; i < length; i++) {
+                final int diff = compareValues(values[i], other.values[i]);
+                if (0 != diff) {
+                    return diff;
+                }
+            }
+            return Integer.compare(values.length, other.values.length);
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static int compareValues(final Object value, final Object other) {
+            if (null == value || null == other) {
+                return null == value ? (null == other ? 0 : -1) : 1;
+            }
+            if (value instanceof byte[] && other instanceof byte[]) {
+                return compareBytes((byte[]) value, (byte[]) other);
+            }
+            return ((Comparable) value).compareTo(other);
+        }
+
+        private static int compareBytes(final byte[] bytes, final byte[] other) {
+            final int length = Math.min(bytes.length, other.length);
+            for (int i = 0; i < length; i++) {
+                final int diff = Integer.compare(bytes[i] & 0xff, other[i] & 0xff);
+                if (0 != diff) {
+                    return diff;
+                }
+            }
+            return Integer.compare(bytes.length, other.length);
+        }
+    }
+
+    private static final class SortableElement {
+        private final SortKey key;
+        private final Element element;
+
+        private SortableElement(final SortKey key, final Element element) {
+            this.key = key;
+            this.element = element;
+        }
+
+        private SortKey getKey() {
+            return key;
+        }
+
+        private Element getElement() {
+            return element;
+        }
+    }
+
+    // A sorted file of spilled elements that is being merged
+    private final class Run {
+        private final ParquetReader<Element> reader;
+        private Element element;
+        private SortKey key;
+
+        private Run(final ParquetReader<Element> reader) {
+            this.reader = reader;
+        }
+
+        private boolean next() throws IOException {
+            element = reader.read();
+            if (null == element) {
+                close();
+                return false;
+            }
+            key = getSortKey(element);
+            return true;
+        }
+
+        private Element getElement() {
+            return element;
+        }
+
+        private SortKey getKey() {
+            return key;
+        }
+
+        private void close() throws IOException {
+            reader.close();
+        }
+    }
+}
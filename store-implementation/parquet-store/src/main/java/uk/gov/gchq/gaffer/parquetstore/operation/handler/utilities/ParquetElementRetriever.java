@@ -28,6 +28,8 @@ import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
 import uk.gov.gchq.gaffer.parquetstore.ParquetStore;
+import uk.gov.gchq.gaffer.parquetstore.query.ParquetFileIndex;
+import uk.gov.gchq.gaffer.parquetstore.query.ParquetFileQuery;
 import uk.gov.gchq.gaffer.parquetstore.query.ParquetQuery;
 import uk.gov.gchq.gaffer.parquetstore.query.QueryGenerator;
 import uk.gov.gchq.gaffer.user.User;
@@ -53,14 +55,28 @@ public class ParquetElementRetriever implements CloseableIterable<Element> {
     private final ParquetStore store;
     private final Operation operation;
     private final User user;
+    private final boolean markMatchedVertex;
 
     public ParquetElementRetriever(final ParquetStore store, final Operation operation, final User user) {
+        this(store, operation, user, false);
+    }
+
+    /**
+     * @param store             the store
+     * @param operation         the {@link GetElements} or {@link GetAllElements} operation
+     * @param user              the user
+     * @param markMatchedVertex whether edges read from the reversed edges files should be marked as having matched on
+     *                          their destination
+     */
+    public ParquetElementRetriever(final ParquetStore store, final Operation operation, final User user,
+                                   final boolean markMatchedVertex) {
         if (!(operation instanceof GetElements) && !(operation instanceof GetAllElements)) {
             throw new IllegalArgumentException("Only operations of type GetElements and GetAllElements are supported");
         }
         this.store = store;
         this.operation = operation;
         this.user = user;
+        this.markMatchedVertex = markMatchedVertex;
     }
 
     @Override
@@ -70,7 +86,7 @@ public class ParquetElementRetriever implements CloseableIterable<Element> {
     @Override
     public CloseableIterator<Element> iterator() {
         try {
-            return new ParquetIterator(store, operation, user);
+            return new ParquetIterator(store, operation, user, markMatchedVertex);
         } catch (final OperationException e) {
             throw new RuntimeException("Exception in iterator()", e);
         }
@@ -82,6 +98,11 @@ public class ParquetElementRetriever implements CloseableIterable<Element> {
         private ExecutorService executorServicePool;
 
         protected ParquetIterator(final ParquetStore store, final Operation operation, final User user) throws OperationException {
+            this(store, operation, user, false);
+        }
+
+        protected ParquetIterator(final ParquetStore store, final Operation operation, final User user,
+                                  final boolean markMatchedVertex) throws OperationException {
             final QueryGenerator queryGenerator = new QueryGenerator(store);
             final View view;
             if (operation instanceof GetAllElements) {
@@ -89,18 +110,21 @@ public class ParquetElementRetriever implements CloseableIterable<Element> {
             } else {
                 view = ((GetElements) operation).getView();
             }
+            // The snapshot is read once so the files queried, their deltas and the file index are all consistent
+            final ParquetStore.Snapshot snapshot = store.getSnapshot();
             try {
-                final ParquetQuery parquetQuery = queryGenerator.getParquetQuery(operation);
+                final ParquetQuery parquetQuery = queryGenerator.getParquetQuery(operation, snapshot);
                 LOGGER.debug("Created ParquetQuery {}", parquetQuery);
-                if (!parquetQuery.isEmpty()) {
+                final List<ParquetFileQuery> fileQueries = getFileQueriesThatCanMatch(snapshot.getFileIndex(), parquetQuery);
+                if (!fileQueries.isEmpty()) {
                     queue = new ConcurrentLinkedQueue<>();
                     executorServicePool = Executors.newFixedThreadPool(store.getProperties().getThreadsAvailable());
                     final List<RetrieveElementsFromFile> tasks = new ArrayList<>();
-                    tasks.addAll(parquetQuery.getAllParquetFileQueries()
+                    tasks.addAll(fileQueries
                             .stream()
-                            .map(entry -> new RetrieveElementsFromFile(entry.getFile(), entry.getFilter(),
+                            .map(entry -> new RetrieveElementsFromFile(entry.getFile(), entry.getDeltaFiles(), entry.getFilter(),
                                     store.getSchema(), queue, !entry.isFullyApplied(),
-                                    store.getProperties().getSkipValidation(), view, user))
+                                    store.getProperties().getSkipValidation(), view, user, markMatchedVertex))
                             .collect(Collectors.toList()));
                     LOGGER.info("Invoking {} RetrieveElementsFromFile tasks", tasks.size());
                     runningTasks = executorServicePool.invokeAll(tasks);
@@ -116,6 +140,20 @@ public class ParquetElementRetriever implements CloseableIterable<Element> {
             }
         }
 
+        private static List<ParquetFileQuery> getFileQueriesThatCanMatch(final ParquetFileIndex index, final ParquetQuery parquetQuery) {
+            final List<ParquetFileQuery> fileQueries = parquetQuery.getAllParquetFileQueries();
+            if (null == index) {
+                return fileQueries;
+            }
+            final List<ParquetFileQuery> fileQueriesThatCanMatch = fileQueries
+                    .stream()
+                    .filter(entry -> !index.canDrop(entry))
+                    .collect(Collectors.toList());
+            LOGGER.debug("Skipping {} of {} files as the statistics of their row groups do not match their filters",
+                    fileQueries.size() - fileQueriesThatCanMatch.size(), fileQueries.size());
+            return fileQueriesThatCanMatch;
+        }
+
         @Override
         public boolean hasNext() {
             if (null != queue) {
@@ -16,6 +16,8 @@
 
 package uk.gov.gchq.gaffer.parquetstore.operation.handler.utilities;
 
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.parquet.filter2.compat.FilterCompat;
 import org.apache.parquet.filter2.predicate.FilterPredicate;
@@ -27,26 +29,48 @@ import uk.gov.gchq.gaffer.commonutil.elementvisibilityutil.Authorisations;
 import uk.gov.gchq.gaffer.commonutil.elementvisibilityutil.ElementVisibility;
 import uk.gov.gchq.gaffer.commonutil.elementvisibilityutil.VisibilityEvaluator;
 import uk.gov.gchq.gaffer.commonutil.elementvisibilityutil.exception.VisibilityParseException;
+import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.function.ElementAggregator;
 import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
+import uk.gov.gchq.gaffer.data.element.id.EdgeId;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewUtil;
 import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.parquetstore.ParquetStore;
 import uk.gov.gchq.gaffer.parquetstore.io.reader.ParquetElementReader;
 import uk.gov.gchq.gaffer.parquetstore.utils.GafferGroupObjectConverter;
 import uk.gov.gchq.gaffer.parquetstore.utils.SchemaUtils;
 import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.util.AggregatorUtil;
 import uk.gov.gchq.gaffer.user.User;
+import uk.gov.gchq.koryphe.tuple.function.TupleAdaptedFunction;
+import uk.gov.gchq.koryphe.tuple.predicate.TupleAdaptedPredicate;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Used to retrieve the elements from a single file and put the elements into a shared
- * {@link java.util.concurrent.ConcurrentLinkedQueue}.
+ * {@link java.util.concurrent.ConcurrentLinkedQueue}. If the partition the file belongs to also has data in the
+ * deltas of the snapshot then the elements from the delta files are aggregated with those from the file before the
+ * view is applied.
+ * <p>
+ * If the view only requires some of the properties of the group then only the columns needed for those properties,
+ * the identifiers, and the properties used by the view's functions and the schema's validator are read.
+ * <p>
+ * If requested, edges read from the reversed edges files are marked as having matched on their destination. This is
+ * used by {@link uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentIds} to find the other end of each edge, and is not
+ * done for the other operations so that the elements they return are unchanged.
  */
 public class RetrieveElementsFromFile implements Callable<OperationException> {
     private static final Logger LOGGER = LoggerFactory.getLogger(RetrieveElementsFromFile.class);
@@ -65,6 +89,9 @@ public class RetrieveElementsFromFile implements Callable<OperationException> {
     private final Schema gafferSchema;
     private final Authorisations auths;
     private final String visibility;
+    private final List<Path> deltaFiles;
+    private final EdgeId.MatchedVertex matchedVertex;
+    private transient Set<String> columnsToRead;
 
     public RetrieveElementsFromFile(final Path filePath,
                                     final FilterPredicate filter,
@@ -74,8 +101,37 @@ public class RetrieveElementsFromFile implements Callable<OperationException> {
                                     final boolean skipValidation,
                                     final View view,
                                     final User user) {
-        LOGGER.info("Creating RetrieveElementsFromFile for path {} with predicate {}", filePath, filter);
+        this(filePath, Collections.emptyList(), filter, gafferSchema, queue, needsValidatorsAndFiltersApplying,
+                skipValidation, view, user);
+    }
+
+    public RetrieveElementsFromFile(final Path filePath,
+                                    final List<Path> deltaFiles,
+                                    final FilterPredicate filter,
+                                    final Schema gafferSchema,
+                                    final ConcurrentLinkedQueue<Element> queue,
+                                    final boolean needsValidatorsAndFiltersApplying,
+                                    final boolean skipValidation,
+                                    final View view,
+                                    final User user) {
+        this(filePath, deltaFiles, filter, gafferSchema, queue, needsValidatorsAndFiltersApplying, skipValidation,
+                view, user, false);
+    }
+
+    public RetrieveElementsFromFile(final Path filePath,
+                                    final List<Path> deltaFiles,
+                                    final FilterPredicate filter,
+                                    final Schema gafferSchema,
+                                    final ConcurrentLinkedQueue<Element> queue,
+                                    final boolean needsValidatorsAndFiltersApplying,
+                                    final boolean skipValidation,
+                                    final View view,
+                                    final User user,
+                                    final boolean markMatchedVertex) {
+        LOGGER.info("Creating RetrieveElementsFromFile for path {} ({} delta files) with predicate {}",
+                filePath, deltaFiles.size(), filter);
         this.filePath = filePath;
+        this.deltaFiles = deltaFiles;
         this.filter = filter;
         this.jsonGafferSchema = gafferSchema.toCompactJson();
         this.gafferSchema = gafferSchema;
@@ -97,10 +153,13 @@ public class RetrieveElementsFromFile implements Callable<OperationException> {
         this.view = view;
         this.needsValidatorsAndFiltersApplying = needsValidatorsAndFiltersApplying;
         this.skipValidation = skipValidation;
-        if (filePath.getName().contains("=")) {
-            group = filePath.getName().split("=")[1];
+        final Path groupPath = filePath.getName().contains("=") ? filePath : filePath.getParent();
+        group = groupPath.getName().split("=")[1];
+        if (markMatchedVertex && null != groupPath.getParent()
+                && ParquetStore.REVERSED_EDGES.equals(groupPath.getParent().getName())) {
+            matchedVertex = EdgeId.MatchedVertex.DESTINATION;
         } else {
-            group = filePath.getParent().getName().split("=")[1];
+            matchedVertex = null;
         }
         elementDefinitionJson = view.getElement(group).toCompactJson();
     }
@@ -112,43 +171,21 @@ public class RetrieveElementsFromFile implements Callable<OperationException> {
         }
         if (null == schemaUtils) {
             schemaUtils = new SchemaUtils(Schema.fromJson(jsonGafferSchema));
+            columnsToRead = getColumnsToRead();
+            LOGGER.debug("Reading columns {} of group {}", null != columnsToRead ? columnsToRead : "(all)", group);
         }
         try {
-            final ParquetReader<Element> fileReader = openParquetReader();
-            Element e = fileReader.read();
-            while (null != e) {
-                if (!visibility.isEmpty()) {
-                    if (isVisible(e)) {
-                        if (needsValidatorsAndFiltersApplying) {
-                            final String group = e.getGroup();
-                            final ElementFilter validatorFilter = gafferSchema.getElement(group).getValidator(false);
-                            if (skipValidation || validatorFilter == null || validatorFilter.test(e)) {
-                                if (elementFilter == null || elementFilter.test(e)) {
-                                    ViewUtil.removeProperties(view, e);
-                                    queue.add(e);
-                                }
-                            }
-                        } else {
-                            ViewUtil.removeProperties(view, e);
-                            queue.add(e);
-                        }
-                    }
-                } else if (needsValidatorsAndFiltersApplying) {
-                    final String group = e.getGroup();
-                    final ElementFilter validatorFilter = gafferSchema.getElement(group).getValidator(false);
-                    if (skipValidation || validatorFilter == null || validatorFilter.test(e)) {
-                        if (elementFilter == null || elementFilter.test(e)) {
-                            ViewUtil.removeProperties(view, e);
-                            queue.add(e);
-                        }
-                    }
-                } else {
-                    ViewUtil.removeProperties(view, e);
-                    queue.add(e);
+            if (deltaFiles.isEmpty()) {
+                final ParquetReader<Element> fileReader = openParquetReader(filePath);
+                Element e = fileReader.read();
+                while (null != e) {
+                    addElement(e, needsValidatorsAndFiltersApplying);
+                    e = fileReader.read();
                 }
-                e = fileReader.read();
+                fileReader.close();
+            } else {
+                mergeWithDeltas();
             }
-            fileReader.close();
         } catch (final IOException ignore) {
             LOGGER.error("IOException reading file", ignore);
             // ignore as this file does not exist
@@ -156,24 +193,152 @@ public class RetrieveElementsFromFile implements Callable<OperationException> {
         return null;
     }
 
-    private ParquetReader<Element> openParquetReader() throws IOException {
+    private void addElement(final Element e, final boolean applyValidatorsAndFilters) throws VisibilityParseException {
+        if (!visibility.isEmpty() && !isVisible(e)) {
+            return;
+        }
+        if (applyValidatorsAndFilters) {
+            final ElementFilter validatorFilter = gafferSchema.getElement(e.getGroup()).getValidator(false);
+            if (!skipValidation && null != validatorFilter && !validatorFilter.test(e)) {
+                return;
+            }
+            if (null != elementFilter && !elementFilter.test(e)) {
+                return;
+            }
+        }
+        ViewUtil.removeProperties(view, e);
+        if (null != matchedVertex && e instanceof Edge) {
+            final Edge edge = (Edge) e;
+            edge.setIdentifiers(edge.getSource(), edge.getDestination(), edge.isDirected(), matchedVertex);
+        }
+        queue.add(e);
+    }
+
+    private void mergeWithDeltas() throws IOException, VisibilityParseException {
+        // The elements from the file and the deltas are merged before the validators and filters are applied as they
+        // may depend on the aggregated properties.
+        final Schema schema = schemaUtils.getGafferSchema();
+        if (!schema.getAggregatedGroups().contains(group)) {
+            for (final Path file : getFilesThatExist()) {
+                final ParquetReader<Element> fileReader = openParquetReader(file);
+                Element e = fileReader.read();
+                while (null != e) {
+                    addElement(e, true);
+                    e = fileReader.read();
+                }
+                fileReader.close();
+            }
+            return;
+        }
+
+        // The deltas are small compared to the file, so they are aggregated in memory and then merged with the
+        // elements from the file as it is streamed.
+        final AggregatorUtil.ToIngestElementKey toElementKey = new AggregatorUtil.ToIngestElementKey(schema);
+        final AggregatorUtil.IngestElementBinaryOperator aggregator = new AggregatorUtil.IngestElementBinaryOperator(schema);
+        final Map<Element, Element> deltaElements = new LinkedHashMap<>();
+        final List<Path> files = getFilesThatExist();
+        for (final Path file : files) {
+            if (!file.equals(filePath)) {
+                final ParquetReader<Element> fileReader = openParquetReader(file);
+                Element e = fileReader.read();
+                while (null != e) {
+                    deltaElements.merge(toElementKey.apply(e), e, aggregator);
+                    e = fileReader.read();
+                }
+                fileReader.close();
+            }
+        }
+        if (files.contains(filePath)) {
+            final ParquetReader<Element> fileReader = openParquetReader(filePath);
+            Element e = fileReader.read();
+            while (null != e) {
+                final Element deltaElement = deltaElements.remove(toElementKey.apply(e));
+                addElement(null != deltaElement ? aggregator.apply(e, deltaElement) : e, true);
+                e = fileReader.read();
+            }
+            fileReader.close();
+        }
+        for (final Element e : deltaElements.values()) {
+            addElement(e, true);
+        }
+    }
+
+    private List<Path> getFilesThatExist() throws IOException {
+        final List<Path> files = new ArrayList<>();
+        final FileSystem fs = filePath.getFileSystem(new Configuration());
+        if (fs.exists(filePath)) {
+            files.add(filePath);
+        }
+        files.addAll(deltaFiles);
+        return files;
+    }
+
+    private ParquetReader<Element> openParquetReader(final Path file) throws IOException {
         final boolean isEntity = schemaUtils.getEntityGroups().contains(group);
         final GafferGroupObjectConverter converter = schemaUtils.getConverter(group);
-        LOGGER.debug("Opening a new Parquet reader for file {}", filePath);
+        LOGGER.debug("Opening a new Parquet reader for file {}", file);
         if (null != filter) {
-            return new ParquetElementReader.Builder<Element>(filePath)
+            return new ParquetElementReader.Builder<Element>(file)
                     .isEntity(isEntity)
                     .usingConverter(converter)
+                    .withColumns(columnsToRead)
                     .withFilter(FilterCompat.get(filter))
                     .build();
         } else {
-            return new ParquetElementReader.Builder<Element>(filePath)
+            return new ParquetElementReader.Builder<Element>(file)
                     .isEntity(isEntity)
                     .usingConverter(converter)
+                    .withColumns(columnsToRead)
                     .build();
         }
     }
 
+    private Set<String> getColumnsToRead() {
+        final ViewElementDefinition elementDefinition = view.getElement(group);
+        if (null == elementDefinition || elementDefinition.isAllProperties()) {
+            return null;
+        }
+        if (!deltaFiles.isEmpty() && gafferSchema.getAggregatedGroups().contains(group)) {
+            // All the properties are needed to aggregate the elements from the file with those from the deltas
+            return null;
+        }
+        final Set<String> columns = new HashSet<>(schemaUtils.getCoreProperties(group));
+        if (null != elementDefinition.getProperties()) {
+            columns.addAll(elementDefinition.getProperties());
+        } else {
+            columns.addAll(gafferSchema.getElement(group).getProperties());
+            columns.removeAll(elementDefinition.getExcludeProperties());
+        }
+        if (null != elementDefinition.getGroupBy()) {
+            columns.addAll(elementDefinition.getGroupBy());
+        }
+        addPredicateSelections(columns, elementDefinition.getPreAggregationFilterFunctions());
+        addPredicateSelections(columns, elementDefinition.getPostAggregationFilterFunctions());
+        addPredicateSelections(columns, elementDefinition.getPostTransformFilterFunctions());
+        final List<TupleAdaptedFunction<String, ?, ?>> transformFunctions = elementDefinition.getTransformFunctions();
+        if (null != transformFunctions) {
+            transformFunctions.forEach(function -> Collections.addAll(columns, function.getSelection()));
+        }
+        final ElementAggregator aggregator = elementDefinition.getAggregator();
+        if (null != aggregator) {
+            aggregator.getComponents().forEach(function -> Collections.addAll(columns, function.getSelection()));
+        }
+        final ElementFilter validator = gafferSchema.getElement(group).getValidator(false);
+        if (!skipValidation && null != validator) {
+            addPredicateSelections(columns, validator.getComponents());
+        }
+        if (!visibility.isEmpty()) {
+            columns.add(visibility);
+        }
+        return columns;
+    }
+
+    private static void addPredicateSelections(final Set<String> columns, final List<TupleAdaptedPredicate<String, ?>> predicates) {
+        if (null != predicates) {
+            predicates.forEach(predicate -> Collections.addAll(columns, predicate.getSelection()));
+        }
+    }
+
     private Boolean isVisible(final Element e) throws VisibilityParseException {
         if (e.getProperty(visibility) != null) {
             final VisibilityEvaluator visibilityEvaluator = new VisibilityEvaluator(auths);
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.parquetstore.query;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.LogicalInverseRewriter;
+import org.apache.parquet.filter2.statisticslevel.StatisticsFilter;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.Footer;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache of the row group metadata, including the min and max statistics of every column, of the Parquet files in a
+ * snapshot. As the files in a snapshot never change this lets queries skip the files in which no row group can match
+ * their {@link FilterPredicate} without reading the records in them.
+ * <p>
+ * Only the files loaded into the index when the snapshot was opened are skipped without being opened. A file that is
+ * not in the index has its footer read the first time it is queried, and is then added to the index. If
+ * {@code parquet.file_index.load_on_snapshot} is false then no files are loaded, so the first query of every file
+ * reads its footer.
+ * <p>
+ * Each snapshot of the store has its own index, which is replaced together with the rest of the
+ * {@link uk.gov.gchq.gaffer.parquetstore.ParquetStore.Snapshot} when the store moves to a new snapshot. The row groups
+ * of the files of a superseded snapshot, and of the deltas compacted into the new one, are therefore released once
+ * the queries that are still reading the old snapshot have finished.
+ */
+public class ParquetFileIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParquetFileIndex.class);
+
+    private final FileSystem fs;
+    private final Configuration conf;
+    private final Map<Path, List<BlockMetaData>> rowGroups = new ConcurrentHashMap<>();
+
+    public ParquetFileIndex(final FileSystem fs) {
+        this.fs = fs;
+        this.conf = fs.getConf();
+    }
+
+    /**
+     * Reads the footers of the given files in parallel and adds their row groups to the index.
+     *
+     * @param files the files to add to the index
+     * @throws IOException if the footers could not be read
+     */
+    public void load(final List<FileStatus> files) throws IOException {
+        if (files.isEmpty()) {
+            return;
+        }
+        for (final Footer footer : ParquetFileReader.readAllFootersInParallel(conf, files)) {
+            rowGroups.put(fs.makeQualified(footer.getFile()), footer.getParquetMetadata().getBlocks());
+        }
+        LOGGER.info("Loaded the row groups of {} files into the index", files.size());
+    }
+
+    /**
+     * Returns the metadata of the row groups in the given file. A file that does not exist has no row groups.
+     *
+     * @param file the file
+     * @return the row groups in the file, or null if its footer could not be read
+     */
+    public List<BlockMetaData> getRowGroups(final Path file) {
+        return rowGroups.computeIfAbsent(fs.makeQualified(file), this::readRowGroups);
+    }
+
+    /**
+     * Returns whether the row groups of the given file are held in the index.
+     *
+     * @param file the file
+     * @return true if the file is in the index
+     */
+    public boolean isIndexed(final Path file) {
+        return rowGroups.containsKey(fs.makeQualified(file));
+    }
+
+    /**
+     * Uses the statistics of the row groups in the given file to determine whether any of its records could match
+     * the filter. This applies the same checks as the Parquet reader does when deciding which row groups to read.
+     *
+     * @param file   the file
+     * @param filter the filter, which may be null
+     * @return true if no record in the file can match the filter
+     */
+    public boolean canDrop(final Path file, final FilterPredicate filter) {
+        final List<BlockMetaData> fileRowGroups = getRowGroups(file);
+        if (null == fileRowGroups) {
+            return false;
+        }
+        if (fileRowGroups.isEmpty()) {
+            return true;
+        }
+        if (null == filter) {
+            return false;
+        }
+        final FilterPredicate collapsedFilter = LogicalInverseRewriter.rewrite(filter);
+        for (final BlockMetaData rowGroup : fileRowGroups) {
+            try {
+                if (!StatisticsFilter.canDrop(collapsedFilter, rowGroup.getColumns())) {
+                    return false;
+                }
+            } catch (final RuntimeException e) {
+                // For example the filter refers to a column the file does not have statistics for
+                LOGGER.debug("Unable to check the statistics of file {} against filter {}", file, filter, e);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Determines whether the given query can be skipped. A query reads a partition of the snapshot merged with the
+     * same partition of each of the deltas, so it can only be skipped if none of those files can match its filter.
+     * The file in the snapshot does not exist if the partition has only been written to the deltas.
+     *
+     * @param query the query
+     * @return true if no record in the files read by the query can match its filter
+     */
+    public boolean canDrop(final ParquetFileQuery query) {
+        if (!canDrop(query.getFile(), query.getFilter())) {
+            return false;
+        }
+        for (final Path deltaFile : query.getDeltaFiles()) {
+            if (!canDrop(deltaFile, query.getFilter())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<BlockMetaData> readRowGroups(final Path file) {
+        try {
+            if (!fs.exists(file)) {
+                return Collections.emptyList();
+            }
+            return ParquetFileReader.readFooter(conf, file, ParquetMetadataConverter.NO_FILTER).getBlocks();
+        } catch (final IOException e) {
+            // Not cached, so the footer will be read again the next time the file is queried
+            LOGGER.warn("Unable to read the footer of file {}", file, e);
+            return null;
+        }
+    }
+}
@@ -75,16 +75,32 @@ public class QueryGenerator {
     }
 
     public ParquetQuery getParquetQuery(final Operation operation) throws IOException, OperationException {
+        return getParquetQuery(operation, store.getSnapshot());
+    }
+
+    /**
+     * Creates the query against the files of the given snapshot, so that all the files in the query, and the deltas
+     * that are merged with them, are from the same state of the store.
+     *
+     * @param operation the {@link GetAllElements} or {@link GetElements} operation
+     * @param snapshot  the snapshot to query
+     * @return the query
+     * @throws IOException        if the files in the snapshot could not be listed
+     * @throws OperationException if the operation is not supported or the query could not be created
+     */
+    public ParquetQuery getParquetQuery(final Operation operation, final ParquetStore.Snapshot snapshot)
+            throws IOException, OperationException {
         if (operation instanceof GetAllElements) {
-            return getPathsAndFiltersForAllElements((GetAllElements) operation);
+            return getPathsAndFiltersForAllElements((GetAllElements) operation, snapshot);
         } else if (operation instanceof GetElements) {
-            return getPathsAndFiltersForGetElements((GetElements) operation);
+            return getPathsAndFiltersForGetElements((GetElements) operation, snapshot);
         } else {
             throw new OperationException("QueryGenerator can only handle GetAllElements and GetElements operations");
         }
     }
 
-    private ParquetQuery getPathsAndFiltersForAllElements(final GetAllElements getAllElements)
+    private ParquetQuery getPathsAndFiltersForAllElements(final GetAllElements getAllElements,
+                                                          final ParquetStore.Snapshot snapshot)
             throws IOException, OperationException {
         // Stage 1: Use the view to identify all groups that might contain data
         final Set<String> allRelevantGroups = getRelevantGroups(getAllElements.getView());
@@ -92,7 +108,7 @@ public class QueryGenerator {
         // Stage 2: Create map from group to list of files containing data for that group
         final Map<String, List<Path>> groupToPaths = new HashMap<>();
         for (final String group : allRelevantGroups) {
-            groupToPaths.put(group, store.getFilesForGroup(group));
+            groupToPaths.put(group, getFilesForGroup(group, snapshot));
         }
 
         // Stage 3: For each of the above groups, create a Parquet predicate from the view and directedType
@@ -117,9 +133,18 @@ public class QueryGenerator {
         for (final Map.Entry<String, List<Path>> entry : groupToPaths.entrySet()) {
             for (final Path path : entry.getValue()) {
                 final String group = entry.getKey();
-                final ParquetFileQuery fileQuery = groupToPredicate.containsKey(group) ?
-                        new ParquetFileQuery(path, groupToPredicate.get(group).getFirst(), groupToPredicate.get(group).getSecond())
-                                : new ParquetFileQuery(path, null, false);
+                final List<Path> deltaFiles = snapshot.getDeltaFiles(group, false, path.getName());
+                final ParquetFileQuery fileQuery;
+                if (!deltaFiles.isEmpty()) {
+                    // The view can only be applied once the elements have been merged with those in the deltas
+                    final FilterPredicate directedTypeFilter = schemaUtils.getEdgeGroups().contains(group)
+                            ? getPredicateFromDirectedType(getAllElements.getDirectedType()) : null;
+                    fileQuery = new ParquetFileQuery(path, directedTypeFilter, false, deltaFiles);
+                } else {
+                    fileQuery = groupToPredicate.containsKey(group) ?
+                            new ParquetFileQuery(path, groupToPredicate.get(group).getFirst(), groupToPredicate.get(group).getSecond())
+                                    : new ParquetFileQuery(path, null, false);
+                }
                 parquetQuery.add(group, fileQuery);
             }
         }
@@ -127,6 +152,18 @@ public class QueryGenerator {
         return parquetQuery;
     }
 
+    private List<Path> getFilesForGroup(final String group, final ParquetStore.Snapshot snapshot) throws IOException {
+        final List<Path> files = store.getFilesForGroup(snapshot, group);
+        // Partitions that only contain data in the deltas are queried via the path they will have in the snapshot
+        final Set<String> fileNames = files.stream().map(Path::getName).collect(Collectors.toSet());
+        for (final Path deltaFile : snapshot.getDeltaFilesForGroup(group)) {
+            if (fileNames.add(deltaFile.getName())) {
+                files.add(new Path(snapshot.getGroupPath(group), deltaFile.getName()));
+            }
+        }
+        return files;
+    }
+
     private Set<String> getRelevantGroups(final View view) {
         final Set<String> allRelevantGroups = new HashSet<>();
         if (null != view) {
@@ -139,7 +176,8 @@ public class QueryGenerator {
         return allRelevantGroups;
     }
 
-    private ParquetQuery getPathsAndFiltersForGetElements(final GetElements getElements)
+    private ParquetQuery getPathsAndFiltersForGetElements(final GetElements getElements,
+                                                          final ParquetStore.Snapshot snapshot)
             throws SerialisationException, OperationException {
         final Iterable<? extends ElementId> seeds = getElements.getInput();
         if (null == seeds || !seeds.iterator().hasNext()) {
@@ -175,7 +213,7 @@ public class QueryGenerator {
         // Stage 4: Convert stream of <group, ParquetElementSeed> pars to stream of tuples
         // <group, ParquetElementSeed, List<PathInfo>>
         final Stream<Tuple3<String, ParquetElementSeed, Set<PathInfo>>> groupSeedsAndPaths = groupAndSeeds
-                .map(pair -> getRelevantFiles(pair.getFirst(), pair.getSecond()));
+                .map(pair -> getRelevantFiles(pair.getFirst(), pair.getSecond(), snapshot));
 
         // Stage 5: Create map from path to list of <group, reversed edge flag, Parquet seeds>
         // TODO: Currently this consumes the entire stream - need to do this in batches
@@ -201,13 +239,22 @@ public class QueryGenerator {
             FilterPredicate filterPredicate = seedsToPredicate(seedList, includeIncomingOutgoingType, seedMatchingType);
             if (null != filterPredicate) {
                 final String group = pathInfo.getGroup();
-                final Pair<FilterPredicate, Boolean> viewFilterPredicate = groupToPredicate.get(group);
-                if (null != viewFilterPredicate) {
-                    // Put view predicate first as filter for checking whether it matches one of many seeds could be complex
-                    filterPredicate = FilterPredicateUtils.and(viewFilterPredicate.getFirst(), filterPredicate);
+                final List<Path> deltaFiles = snapshot.getDeltaFiles(group, pathInfo.isReversed(), pathInfo.getPath().getName());
+                if (!deltaFiles.isEmpty()) {
+                    // The view can only be applied once the elements have been merged with those in the deltas
+                    if (schemaUtils.getEdgeGroups().contains(group)) {
+                        filterPredicate = FilterPredicateUtils.and(getPredicateFromDirectedType(getElements.getDirectedType()), filterPredicate);
+                    }
+                    parquetQuery.add(group, new ParquetFileQuery(pathInfo.getPath(), filterPredicate, false, deltaFiles));
+                } else {
+                    final Pair<FilterPredicate, Boolean> viewFilterPredicate = groupToPredicate.get(group);
+                    if (null != viewFilterPredicate) {
+                        // Put view predicate first as filter for checking whether it matches one of many seeds could be complex
+                        filterPredicate = FilterPredicateUtils.and(viewFilterPredicate.getFirst(), filterPredicate);
+                    }
+                    final ParquetFileQuery fileQuery = new ParquetFileQuery(pathInfo.getPath(), filterPredicate, viewFilterPredicate.getSecond());
+                    parquetQuery.add(group, fileQuery);
                 }
-                final ParquetFileQuery fileQuery = new ParquetFileQuery(pathInfo.getPath(), filterPredicate, viewFilterPredicate.getSecond());
-                parquetQuery.add(group, fileQuery);
             }
         }
         LOGGER.info("Created ParquetQuery of {}", parquetQuery);
@@ -287,13 +334,15 @@ public class QueryGenerator {
     }
 
     private Tuple3<String, ParquetElementSeed, Set<PathInfo>> getRelevantFiles(final String group,
-                                                                               final ParquetElementSeed seed) {
-        final Set<PathInfo> paths = getPathsForSeed(seed, group);
+                                                                               final ParquetElementSeed seed,
+                                                                               final ParquetStore.Snapshot snapshot) {
+        final Set<PathInfo> paths = getPathsForSeed(seed, group, snapshot);
         return new Tuple3<>(group, seed, paths);
     }
 
-    private Set<PathInfo> getPathsForSeed(final ParquetElementSeed parquetElementSeed, final String group) {
-        final GraphPartitioner graphPartitioner = store.getGraphPartitioner();
+    private Set<PathInfo> getPathsForSeed(final ParquetElementSeed parquetElementSeed, final String group,
+                                          final ParquetStore.Snapshot snapshot) {
+        final GraphPartitioner graphPartitioner = snapshot.getGraphPartitioner();
         final boolean isEntityGroup = store.getSchema().getEntityGroups().contains(group);
         final List<Object[]> seeds = new ArrayList<>();
         if (parquetElementSeed instanceof ParquetEntitySeed) {
@@ -320,10 +369,10 @@ public class QueryGenerator {
             final List<Integer> partitionIds = graphPartitioner.getGroupPartitioner(group).getPartitionIds(seed);
             LOGGER.debug("Partition ids for seed {} in group {}: {}", seed, group, partitionIds);
             final PathInfo.FILETYPE fileType = isEntityGroup ? PathInfo.FILETYPE.ENTITY : PathInfo.FILETYPE.EDGE;
-            partitionIds.forEach(id -> paths.add(new PathInfo(new Path(store.getFile(group, id)), group, fileType)));
+            partitionIds.forEach(id -> paths.add(new PathInfo(new Path(snapshot.getFile(group, id)), group, fileType)));
             if (!isEntityGroup && parquetElementSeed instanceof ParquetEntitySeed) {
                 final List<Integer> partitionIdsFromReversed = graphPartitioner.getGroupPartitionerForReversedEdges(group).getPartitionIds(seed);
-                partitionIdsFromReversed.forEach(id -> paths.add(new PathInfo(new Path(store.getFileForReversedEdges(group, id)), group, PathInfo.FILETYPE.REVERSED_EDGE)));
+                partitionIdsFromReversed.forEach(id -> paths.add(new PathInfo(new Path(snapshot.getFileForReversedEdges(group, id)), group, PathInfo.FILETYPE.REVERSED_EDGE)));
             }
         }
         LOGGER.debug("Returning {} paths for seed {} and group {} (paths are {})",
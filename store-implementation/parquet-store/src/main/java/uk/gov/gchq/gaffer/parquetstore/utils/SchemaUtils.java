@@ -18,6 +18,7 @@ package uk.gov.gchq.gaffer.parquetstore.utils;
 
 import org.apache.parquet.schema.MessageType;
 import org.apache.parquet.schema.MessageTypeParser;
+import org.apache.parquet.schema.Type;
 import org.apache.spark.sql.execution.datasources.parquet.ParquetToSparkSchemaConverter;
 import org.apache.spark.sql.types.StructField;
 import org.apache.spark.sql.types.StructType;
@@ -41,6 +42,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * This class is responsible for converting a Gaffer {@link Schema} to a Parquet {@link MessageType} per group
@@ -172,12 +174,7 @@ public class SchemaUtils {
         final Map<String, String[]> columnToPaths = new HashMap<>();
         for (final String[] paths : getParquetSchema(group).getPaths()) {
             final String firstPath = paths[0];
-            final String col;
-            if (firstPath.contains("_")) {
-                col = firstPath.substring(0, firstPath.indexOf("_"));
-            } else {
-                col = firstPath;
-            }
+            final String col = getColumn(firstPath);
             final String newPath;
             if (paths.length > 1) {
                 newPath = String.join(".", paths);
@@ -201,6 +198,37 @@ public class SchemaUtils {
         return columnToPaths;
     }
 
+    /**
+     * Returns the Gaffer column, i.e. the vertex, source, destination, directed flag or property, that is stored in
+     * the given top-level field of a Parquet schema.
+     *
+     * @param field the name of the field
+     * @return the Gaffer column stored in that field
+     */
+    public static String getColumn(final String field) {
+        if (field.contains("_")) {
+            return field.substring(0, field.indexOf("_"));
+        } else {
+            return field;
+        }
+    }
+
+    /**
+     * Projects the given Parquet schema onto the fields that store the given Gaffer columns, so that a reader using
+     * the projected schema only reads the columns it needs from the file.
+     *
+     * @param schema  the Parquet schema, typically the schema of the file being read
+     * @param columns the Gaffer columns to keep
+     * @return a {@link MessageType} containing only the fields that store the given columns
+     */
+    public static MessageType getProjectedParquetSchema(final MessageType schema, final Set<String> columns) {
+        final List<Type> fields = schema.getFields()
+                .stream()
+                .filter(field -> columns.contains(getColumn(field.getName())))
+                .collect(Collectors.toList());
+        return new MessageType(schema.getName(), fields);
+    }
+
     public String[] getPaths(final String group, final String column) {
         return getColumnToPaths(group).get(column);
     }
@@ -73,6 +73,13 @@ public class ParquetStorePropertiesTest {
         assertEquals((Integer) 100000, props.getPageSize());
     }
 
+    @Test
+    public void addElementsMaxElementsInMemoryTest() {
+        assertEquals(500000, props.getAddElementsMaxElementsInMemory());
+        props.setAddElementsMaxElementsInMemory(1000);
+        assertEquals(1000, props.getAddElementsMaxElementsInMemory());
+    }
+
 
     @Test
     public void sparkMasterTest() {
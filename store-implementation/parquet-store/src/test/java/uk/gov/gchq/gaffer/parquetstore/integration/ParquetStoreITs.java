@@ -22,7 +22,6 @@ import org.junit.rules.TemporaryFolder;
 import uk.gov.gchq.gaffer.commonutil.CommonTestConstants;
 import uk.gov.gchq.gaffer.commonutil.StreamUtil;
 import uk.gov.gchq.gaffer.integration.AbstractStoreITs;
-import uk.gov.gchq.gaffer.integration.impl.GetAdjacentIdsIT;
 import uk.gov.gchq.gaffer.integration.impl.PartAggregationIT;
 import uk.gov.gchq.gaffer.parquetstore.ParquetStoreProperties;
 
@@ -44,7 +43,6 @@ public class ParquetStoreITs extends AbstractStoreITs {
 
         ((ParquetStoreProperties) getStoreProperties()).setDataDir(testFolderPath + "/data");
         ((ParquetStoreProperties) getStoreProperties()).setTempFilesDir(testFolderPath + "/tmpdata");
-        skipTest(GetAdjacentIdsIT.class, "GetAdjacentIds is not implemented yet");
         skipTest(PartAggregationIT.class, "known bug with ParquetStore");
     }
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.parquetstore.io.reader;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.parquetstore.ParquetStore;
+import uk.gov.gchq.gaffer.parquetstore.operation.handler.utilities.CalculatePartitionerTest;
+import uk.gov.gchq.gaffer.parquetstore.testutils.TestUtils;
+import uk.gov.gchq.gaffer.parquetstore.utils.SchemaUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ParquetElementReaderTest {
+
+    @Test
+    public void shouldOnlyReadRequestedColumns(@TempDir java.nio.file.Path tempDir) throws IOException {
+        // Given
+        final SchemaUtils schemaUtils = new SchemaUtils(TestUtils.gafferSchema("schemaUsingLongVertexType"));
+        CalculatePartitionerTest.writeData(tempDir.toString(), schemaUtils);
+        final Path file = new Path(new Path(tempDir.toString(), ParquetStore.getGroupSubDir(TestGroups.ENTITY, false)),
+                ParquetStore.getFile(3));
+        final Set<String> columns = new HashSet<>(Arrays.asList(ParquetStore.VERTEX, "count"));
+
+        // When
+        final List<Element> allColumns = read(file, schemaUtils, null);
+        final List<Element> projectedColumns = read(file, schemaUtils, columns);
+
+        // Then
+        assertThat(allColumns).hasSize(10);
+        assertThat(allColumns.get(0).getProperties().keySet()).contains("byte", "treeSet", "freqMap", "count");
+        assertThat(projectedColumns).hasSize(10);
+        for (int i = 0; i < projectedColumns.size(); i++) {
+            final Element element = projectedColumns.get(i);
+            assertThat(((Entity) element).getVertex()).isEqualTo(30L + i);
+            assertThat(element.getProperties().keySet()).containsExactly("count");
+            assertThat(element.getProperty("count")).isEqualTo(50);
+        }
+    }
+
+    private static List<Element> read(final Path file, final SchemaUtils schemaUtils, final Set<String> columns) throws IOException {
+        final ParquetReader<Element> reader = new ParquetElementReader.Builder<Element>(file)
+                .isEntity(true)
+                .usingConverter(schemaUtils.getConverter(TestGroups.ENTITY))
+                .withColumns(columns)
+                .build();
+        final List<Element> elements = new ArrayList<>();
+        Element element = reader.read();
+        while (null != element) {
+            elements.add(element);
+            element = reader.read();
+        }
+        reader.close();
+        return elements;
+    }
+}
@@ -27,6 +27,7 @@ import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
 import uk.gov.gchq.gaffer.data.element.id.DirectedType;
+import uk.gov.gchq.gaffer.data.element.id.EntityId;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
 import uk.gov.gchq.gaffer.data.util.ElementUtil;
@@ -38,6 +39,7 @@ import uk.gov.gchq.gaffer.operation.data.ElementSeed;
 import uk.gov.gchq.gaffer.operation.data.EntitySeed;
 import uk.gov.gchq.gaffer.operation.graph.SeededGraphFilters;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentIds;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
 import uk.gov.gchq.gaffer.parquetstore.ParquetStoreProperties;
@@ -49,8 +51,10 @@ import uk.gov.gchq.koryphe.impl.predicate.IsEqual;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -326,6 +330,43 @@ public abstract class AbstractOperationsTest extends StandaloneIT {
         ElementUtil.assertElementEquals(getResultsForGetElementsWithSeedsAndViewTest(), results);
     }
 
+    @Test
+    public void shouldGetAdjacentIdsTest() throws OperationException {
+        // Given
+        final Graph graph = createGraph();
+        final List<Element> elements = getInputDataForGetAllElementsTest();
+        graph.execute(new AddElements.Builder().input(elements).build(), user);
+        final List<EntitySeed> seeds = getSeeds().stream()
+                .filter(e -> e instanceof EntitySeed)
+                .map(e -> (EntitySeed) e)
+                .collect(Collectors.toList());
+        final Set<EntityId> expected = new HashSet<>();
+        for (final Element element : elements) {
+            if (element instanceof Edge) {
+                final Edge edge = (Edge) element;
+                for (final EntitySeed seed : seeds) {
+                    if (edge.getSource().equals(seed.getVertex())) {
+                        expected.add(new EntitySeed(edge.getDestination()));
+                    }
+                    if (edge.getDestination().equals(seed.getVertex())) {
+                        expected.add(new EntitySeed(edge.getSource()));
+                    }
+                }
+            }
+        }
+
+        // When
+        final CloseableIterable<? extends EntityId> results = graph
+                .execute(new GetAdjacentIds.Builder().input(seeds).build(), user);
+
+        // Then
+        assertThat(expected).isNotEmpty();
+        final Set<EntityId> resultsSet = new HashSet<>();
+        results.forEach(resultsSet::add);
+        results.close();
+        assertThat(resultsSet).isEqualTo(expected);
+    }
+
     @Test
     public void shouldThrowUnsupportedTraitExceptionWithPostAggregationFiltering() throws OperationException {
         // Given
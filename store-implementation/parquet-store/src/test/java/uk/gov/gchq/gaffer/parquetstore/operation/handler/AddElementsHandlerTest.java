@@ -30,10 +30,15 @@ import uk.gov.gchq.gaffer.commonutil.TestGroups;
 import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
 import uk.gov.gchq.gaffer.parquetstore.ParquetStore;
 import uk.gov.gchq.gaffer.parquetstore.ParquetStoreProperties;
+import uk.gov.gchq.gaffer.parquetstore.query.ParquetFileIndex;
 import uk.gov.gchq.gaffer.parquetstore.testutils.TestUtils;
 import uk.gov.gchq.gaffer.parquetstore.utils.AggregateAndSortDataTest;
 import uk.gov.gchq.gaffer.parquetstore.utils.WriteUnsortedDataTest;
@@ -41,6 +46,7 @@ import uk.gov.gchq.gaffer.spark.SparkSessionProvider;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.util.AggregatorUtil;
 import uk.gov.gchq.gaffer.types.FreqMap;
 
 import java.io.IOException;
@@ -50,10 +56,17 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class AddElementsHandlerTest {
@@ -650,6 +663,209 @@ public class AddElementsHandlerTest {
         checkEdge(WriteUnsortedDataTest.createEdgeForEdgeGroup_2(1L, 2000L, false), results[7]);
     }
 
+    @Test
+    public void testAddElementsAsDeltasMergesDeltasWithSnapshotOnRead(@TempDir java.nio.file.Path tempDir)
+            throws OperationException, IOException, StoreException {
+        // Given
+        final Schema schema = TestUtils.gafferSchema("schemaUsingLongVertexType");
+        final ParquetStore deltaStore = createStore(schema, tempDir.toString() + "/deltas", true);
+        final ParquetStore snapshotStore = createStore(schema, tempDir.toString() + "/snapshots", false);
+        final long snapshotId = deltaStore.getLatestSnapshot();
+        final Context context = new Context();
+
+        // When
+        for (int i = 0; i < 2; i++) {
+            new AddElementsHandler().doOperation(new AddElements.Builder().input(generateDeltaData()).build(), context, deltaStore);
+            new AddElementsHandler().doOperation(new AddElements.Builder().input(generateDeltaData()).build(), context, snapshotStore);
+        }
+
+        // Then
+        // - The elements should have been added as deltas of the original snapshot
+        assertEquals(snapshotId, deltaStore.getLatestSnapshot());
+        assertEquals(2, deltaStore.getDeltas().size());
+        final FileSystem fs = FileSystem.get(new Configuration());
+        assertTrue(fs.exists(new Path(deltaStore.getDeltasDir() + "/" + ParquetStore.DELTA + "=" + deltaStore.getDeltas().get(0),
+                ParquetStore.getGroupSubDir(TestGroups.ENTITY, false) + "/" + ParquetStore.getFile(0))));
+        // - Querying should aggregate the deltas in the same way as merging them into a new snapshot
+        assertThat(getAllElements(deltaStore, context)).containsExactlyInAnyOrderElementsOf(getAllElements(snapshotStore, context));
+        assertThat(getElements(deltaStore, context, 10L)).containsExactlyInAnyOrderElementsOf(getElements(snapshotStore, context, 10L));
+        assertThat(getElements(deltaStore, context, 10L)).isNotEmpty();
+    }
+
+    @Test
+    public void testCompactDeltasFoldsDeltasIntoNewSnapshot(@TempDir java.nio.file.Path tempDir)
+            throws OperationException, StoreException {
+        // Given
+        final Schema schema = TestUtils.gafferSchema("schemaUsingLongVertexType");
+        final ParquetStore store = createStore(schema, tempDir.toString(), true);
+        final Context context = new Context();
+        for (int i = 0; i < 2; i++) {
+            new AddElementsHandler().doOperation(new AddElements.Builder().input(generateDeltaData()).build(), context, store);
+        }
+        final long snapshotId = store.getLatestSnapshot();
+        final List<Element> expected = getAllElements(store, context);
+        assertFalse(store.getDeltas().isEmpty());
+        final ParquetFileIndex index = store.getFileIndex();
+        final Path deltaFile = store.getDeltaFilesForGroup(TestGroups.ENTITY).get(0);
+        assertTrue(index.isIndexed(deltaFile));
+
+        // When
+        store.compactDeltas();
+
+        // Then
+        assertNotEquals(snapshotId, store.getLatestSnapshot());
+        assertThat(store.getDeltas()).isEmpty();
+        assertThat(getAllElements(store, context)).containsExactlyInAnyOrderElementsOf(expected);
+        // - The index of the old snapshot, including the row groups of its deltas, should have been replaced
+        assertNotSame(index, store.getFileIndex());
+        assertFalse(store.getFileIndex().isIndexed(deltaFile));
+        assertTrue(store.getFileIndex().isIndexed(new Path(store.getFile(TestGroups.ENTITY, 0))));
+    }
+
+    @Test
+    public void testAddElementsAsDeltasThenCompactReturnsAggregatedInput(@TempDir java.nio.file.Path tempDir)
+            throws OperationException, StoreException {
+        // Given
+        final Schema schema = TestUtils.gafferSchema("schemaUsingLongVertexType");
+        final ParquetStore store = createStore(schema, tempDir.toString(), true);
+        final Context context = new Context();
+        final List<Element> input = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            input.addAll(generateDeltaData());
+            new AddElementsHandler().doOperation(new AddElements.Builder().input(generateDeltaData()).build(), context, store);
+        }
+        assertEquals(3, store.getDeltas().size());
+        final List<Element> expected = aggregate(schema, input);
+
+        // When
+        store.compactDeltas();
+
+        // Then
+        assertThat(store.getDeltas()).isEmpty();
+        assertThat(getAllElements(store, context)).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(getElements(store, context, 10L)).containsExactlyInAnyOrderElementsOf(expected.stream()
+                .filter(e -> e instanceof Entity
+                        ? Long.valueOf(10L).equals(((Entity) e).getVertex())
+                        : Long.valueOf(10L).equals(((Edge) e).getSource()) || Long.valueOf(10L).equals(((Edge) e).getDestination()))
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testQueriesDuringCompactionSeeEachElementOnce(@TempDir java.nio.file.Path tempDir)
+            throws Exception {
+        // Given
+        final Schema schema = TestUtils.gafferSchema("schemaUsingLongVertexType");
+        final ParquetStore store = createStore(schema, tempDir.toString(), true);
+        final Context context = new Context();
+        for (int i = 0; i < 2; i++) {
+            new AddElementsHandler().doOperation(new AddElements.Builder().input(generateDeltaData()).build(), context, store);
+        }
+        final List<Element> expectedAll = getAllElements(store, context);
+        final List<Element> expectedForVertex = getElements(store, context, 10L);
+        final long snapshotId = store.getLatestSnapshot();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            // When
+            final Future<?> compaction = executor.submit(() -> {
+                store.compactDeltas();
+                return null;
+            });
+            int queries = 0;
+            do {
+                // Then - the deltas should never be merged with a snapshot they have already been compacted into
+                assertThat(getAllElements(store, context)).containsExactlyInAnyOrderElementsOf(expectedAll);
+                assertThat(getElements(store, context, 10L)).containsExactlyInAnyOrderElementsOf(expectedForVertex);
+                queries++;
+            } while (!compaction.isDone());
+            compaction.get();
+
+            assertThat(queries).isPositive();
+            assertNotEquals(snapshotId, store.getLatestSnapshot());
+            assertThat(store.getDeltas()).isEmpty();
+            assertThat(getAllElements(store, context)).containsExactlyInAnyOrderElementsOf(expectedAll);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testClosingStoreStopsBackgroundCompactionThread(@TempDir java.nio.file.Path tempDir)
+            throws OperationException, StoreException, InterruptedException {
+        // Given
+        final ParquetStoreProperties storeProperties = new ParquetStoreProperties();
+        storeProperties.setDataDir(tempDir.toString() + "/data");
+        storeProperties.setTempFilesDir(tempDir.toString() + "/tmpdata");
+        storeProperties.setAddElementsAsDeltas(true);
+        storeProperties.setDeltaCompactionThreshold(1);
+        final ParquetStore store = (ParquetStore) ParquetStore.createStore("closedGraphId",
+                TestUtils.gafferSchema("schemaUsingLongVertexType"), storeProperties);
+        new AddElementsHandler().doOperation(new AddElements.Builder().input(generateDeltaData()).build(), new Context(), store);
+
+        // When
+        store.close();
+
+        // Then - the compaction that was scheduled should finish and its thread should then stop
+        final long deadline = System.currentTimeMillis() + 60000L;
+        while (isCompactionThreadAlive("closedGraphId") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100L);
+        }
+        assertFalse(isCompactionThreadAlive("closedGraphId"));
+        assertThat(store.getDeltas()).isEmpty();
+    }
+
+    private static boolean isCompactionThreadAlive(final String graphId) {
+        return Thread.getAllStackTraces().keySet()
+                .stream()
+                .anyMatch(thread -> thread.isAlive() && ("parquet-delta-compaction-" + graphId).equals(thread.getName()));
+    }
+
+    private static List<Element> aggregate(final Schema schema, final List<Element> elements) {
+        final List<Element> aggregated = new ArrayList<>();
+        AggregatorUtil.ingestAggregate(elements, schema).forEach(element -> {
+            if (getView().getGroups().contains(element.getGroup())) {
+                aggregated.add(element);
+            }
+        });
+        return aggregated;
+    }
+
+    private static ParquetStore createStore(final Schema schema, final String testDir, final boolean addElementsAsDeltas)
+            throws StoreException {
+        final ParquetStoreProperties storeProperties = new ParquetStoreProperties();
+        storeProperties.setDataDir(testDir + "/data");
+        storeProperties.setTempFilesDir(testDir + "/tmpdata");
+        storeProperties.setAddElementsAsDeltas(addElementsAsDeltas);
+        storeProperties.setDeltaCompactionThreshold(0);
+        return (ParquetStore) ParquetStore.createStore("graphId", schema, storeProperties);
+    }
+
+    private static List<Element> generateDeltaData() {
+        final List<Element> elements = new ArrayList<>(AggregateAndSortDataTest.generateData());
+        elements.add(WriteUnsortedDataTest.createEdgeForEdgeGroup(1L, 10L, true, new Date(300L)));
+        elements.add(WriteUnsortedDataTest.createEdgeForEdgeGroup(10L, 100L, false, new Date(400L)));
+        return elements;
+    }
+
+    private static List<Element> getAllElements(final ParquetStore store, final Context context) throws OperationException {
+        final List<Element> elements = new ArrayList<>();
+        store.execute(new GetAllElements.Builder().view(getView()).build(), context).forEach(elements::add);
+        return elements;
+    }
+
+    private static List<Element> getElements(final ParquetStore store, final Context context, final long vertex) throws OperationException {
+        final List<Element> elements = new ArrayList<>();
+        store.execute(new GetElements.Builder().input(new EntitySeed(vertex)).view(getView()).build(), context).forEach(elements::add);
+        return elements;
+    }
+
+    private static View getView() {
+        return new View.Builder()
+                .entity(TestGroups.ENTITY)
+                .edge(TestGroups.EDGE)
+                .build();
+    }
+
     @Test
     public void testWhenInputIsEmpty() {
         // TODO
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.parquetstore.query;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.parquetstore.ParquetStore;
+import uk.gov.gchq.gaffer.parquetstore.operation.handler.utilities.CalculatePartitionerTest;
+import uk.gov.gchq.gaffer.parquetstore.testutils.TestUtils;
+import uk.gov.gchq.gaffer.parquetstore.utils.SchemaUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.apache.parquet.filter2.predicate.FilterApi.and;
+import static org.apache.parquet.filter2.predicate.FilterApi.eq;
+import static org.apache.parquet.filter2.predicate.FilterApi.gt;
+import static org.apache.parquet.filter2.predicate.FilterApi.not;
+import static org.apache.parquet.filter2.predicate.FilterApi.or;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ParquetFileIndexTest {
+
+    @Test
+    public void shouldOnlyDropFilesWhoseStatisticsCannotMatchTheFilter(@TempDir java.nio.file.Path tempDir) throws IOException {
+        // Given
+        final FileSystem fs = FileSystem.get(new Configuration());
+        final String folder = tempDir.toString();
+        CalculatePartitionerTest.writeData(folder, new SchemaUtils(TestUtils.gafferSchema("schemaUsingLongVertexType")));
+        final Path groupPath = new Path(folder, ParquetStore.getGroupSubDir(TestGroups.ENTITY, false));
+        final ParquetFileIndex index = new ParquetFileIndex(fs);
+        index.load(Arrays.asList(fs.listStatus(groupPath, p -> p.getName().endsWith(".parquet"))));
+
+        // When / Then
+        // - Partition 3 contains vertices 30 to 39
+        final Path file = new Path(groupPath, ParquetStore.getFile(3));
+        assertThat(index.getRowGroups(file)).isNotEmpty();
+        assertThat(index.canDrop(file, vertex(35L))).isFalse();
+        assertThat(index.canDrop(file, vertex(5L))).isTrue();
+        assertThat(index.canDrop(file, or(vertex(5L), vertex(39L)))).isFalse();
+        assertThat(index.canDrop(file, and(vertex(35L), gt(FilterApi.longColumn(ParquetStore.VERTEX), 39L)))).isTrue();
+        assertThat(index.canDrop(file, not(vertex(5L)))).isFalse();
+        assertThat(index.canDrop(file, null)).isFalse();
+    }
+
+    @Test
+    public void shouldReadFootersOfFilesThatAreNotLoaded(@TempDir java.nio.file.Path tempDir) throws IOException {
+        // Given
+        final FileSystem fs = FileSystem.get(new Configuration());
+        final String folder = tempDir.toString();
+        CalculatePartitionerTest.writeData(folder, new SchemaUtils(TestUtils.gafferSchema("schemaUsingLongVertexType")));
+        final Path groupPath = new Path(folder, ParquetStore.getGroupSubDir(TestGroups.ENTITY_2, false));
+        final ParquetFileIndex index = new ParquetFileIndex(fs);
+
+        // When / Then
+        final Path file = new Path(groupPath, ParquetStore.getFile(0));
+        assertThat(index.canDrop(file, vertex(5L))).isFalse();
+        assertThat(index.canDrop(file, vertex(15L))).isTrue();
+    }
+
+    @Test
+    public void shouldDropFilesThatDoNotExist(@TempDir java.nio.file.Path tempDir) throws IOException {
+        // Given
+        final ParquetFileIndex index = new ParquetFileIndex(FileSystem.get(new Configuration()));
+        final Path file = new Path(tempDir.toString(), "partition-0.parquet");
+
+        // When / Then
+        assertThat(index.getRowGroups(file)).isEmpty();
+        assertThat(index.canDrop(file, null)).isTrue();
+        assertThat(index.canDrop(file, vertex(5L))).isTrue();
+    }
+
+    @Test
+    public void shouldDropQueryOfFileThatCannotMatchTheFilter(@TempDir java.nio.file.Path tempDir) throws IOException {
+        // Given
+        final FileSystem fs = FileSystem.get(new Configuration());
+        final String folder = tempDir.toString();
+        CalculatePartitionerTest.writeData(folder, new SchemaUtils(TestUtils.gafferSchema("schemaUsingLongVertexType")));
+        final Path file = new Path(new Path(folder, ParquetStore.getGroupSubDir(TestGroups.ENTITY, false)), ParquetStore.getFile(3));
+        final ParquetFileIndex index = new ParquetFileIndex(fs);
+
+        // When
+        final boolean canDrop = index.canDrop(new ParquetFileQuery(file, vertex(5L), true));
+
+        // Then
+        assertThat(canDrop).isTrue();
+    }
+
+    @Test
+    public void shouldNotDropQueryOfFileThatCanMatchTheFilter(@TempDir java.nio.file.Path tempDir) throws IOException {
+        // Given
+        final FileSystem fs = FileSystem.get(new Configuration());
+        final String folder = tempDir.toString();
+        CalculatePartitionerTest.writeData(folder, new SchemaUtils(TestUtils.gafferSchema("schemaUsingLongVertexType")));
+        final Path file = new Path(new Path(folder, ParquetStore.getGroupSubDir(TestGroups.ENTITY, false)), ParquetStore.getFile(3));
+        final ParquetFileIndex index = new ParquetFileIndex(fs);
+
+        // When
+        final boolean canDrop = index.canDrop(new ParquetFileQuery(file, vertex(35L), true));
+
+        // Then
+        assertThat(canDrop).isFalse();
+    }
+
+    @Test
+    public void shouldOnlyDropQueryOfDeltaOnlyPartitionIfNoDeltaFileCanMatchTheFilter(@TempDir java.nio.file.Path tempDir) throws IOException {
+        // Given
+        final FileSystem fs = FileSystem.get(new Configuration());
+        final String deltaFolder = new Path(tempDir.toString(), "delta").toString();
+        CalculatePartitionerTest.writeData(deltaFolder, new SchemaUtils(TestUtils.gafferSchema("schemaUsingLongVertexType")));
+        // - The partition has not been written to the snapshot, only to the delta
+        final Path file = new Path(new Path(tempDir.toString(), ParquetStore.getGroupSubDir(TestGroups.ENTITY, false)), ParquetStore.getFile(3));
+        final Path deltaFile = new Path(new Path(deltaFolder, ParquetStore.getGroupSubDir(TestGroups.ENTITY, false)), ParquetStore.getFile(3));
+        final ParquetFileIndex index = new ParquetFileIndex(fs);
+
+        // When
+        final boolean canDropMatching = index.canDrop(new ParquetFileQuery(file, vertex(35L), true, Collections.singletonList(deltaFile)));
+        final boolean canDropNotMatching = index.canDrop(new ParquetFileQuery(file, vertex(5L), true, Collections.singletonList(deltaFile)));
+
+        // Then
+        assertThat(index.getRowGroups(file)).isEmpty();
+        assertThat(canDropMatching).isFalse();
+        assertThat(canDropNotMatching).isTrue();
+    }
+
+    private static FilterPredicate vertex(final long vertex) {
+        return eq(FilterApi.longColumn(ParquetStore.VERTEX), vertex);
+    }
+}
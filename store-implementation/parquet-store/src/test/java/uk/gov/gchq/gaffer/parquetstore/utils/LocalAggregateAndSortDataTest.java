@@ -0,0 +1,122 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.parquetstore.utils;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.parquetstore.ParquetStoreProperties;
+import uk.gov.gchq.gaffer.parquetstore.io.reader.ParquetElementReader;
+import uk.gov.gchq.gaffer.parquetstore.operation.handler.utilities.LocalAggregateAndSortData;
+import uk.gov.gchq.gaffer.parquetstore.testutils.TestUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LocalAggregateAndSortDataTest {
+
+    @Test
+    public void shouldAggregateAndSortInMemory(@TempDir java.nio.file.Path tempDir) throws Exception {
+        shouldAggregateAndSort(tempDir, 1000);
+    }
+
+    @Test
+    public void shouldAggregateAndSortWhenSpillingSortedRuns(@TempDir java.nio.file.Path tempDir) throws Exception {
+        shouldAggregateAndSort(tempDir, 3);
+    }
+
+    @Test
+    public void shouldNotWriteAnythingIfThereIsNoData(@TempDir java.nio.file.Path tempDir) throws Exception {
+        // Given
+        final FileSystem fs = FileSystem.get(new Configuration());
+        final SchemaUtils schemaUtils = new SchemaUtils(TestUtils.gafferSchema("schemaUsingLongVertexType"));
+        final String outputFolder = tempDir.resolve("aggregated").toString();
+
+        // When
+        new LocalAggregateAndSortData(schemaUtils, fs, Arrays.asList(tempDir.resolve("missing").toString()),
+                outputFolder, TestGroups.ENTITY, "test", false, new ParquetStoreProperties())
+                .call();
+
+        // Then
+        assertThat(fs.exists(new Path(outputFolder))).isFalse();
+    }
+
+    private void shouldAggregateAndSort(final java.nio.file.Path tempDir, final int maxElementsInMemory) throws Exception {
+        // Given
+        final FileSystem fs = FileSystem.get(new Configuration());
+        final SchemaUtils schemaUtils = new SchemaUtils(TestUtils.gafferSchema("schemaUsingLongVertexType"));
+        final String file1 = tempDir.resolve("inputdata1.parquet").toString();
+        final String file2 = tempDir.resolve("inputdata2.parquet").toString();
+        AggregateAndSortDataTest.writeData(file1, schemaUtils);
+        AggregateAndSortDataTest.writeData(file2, schemaUtils);
+        final String outputFolder = tempDir.resolve("aggregated").toString();
+        final ParquetStoreProperties properties = new ParquetStoreProperties();
+        properties.setAddElementsMaxElementsInMemory(maxElementsInMemory);
+
+        // When
+        new LocalAggregateAndSortData(schemaUtils, fs, Arrays.asList(file1, file2), outputFolder, TestGroups.ENTITY,
+                "test", false, properties)
+                .call();
+
+        // Then
+        final FileStatus[] files = fs.listStatus(new Path(outputFolder), p -> p.getName().endsWith(".parquet"));
+        assertThat(files).hasSize(1);
+        assertThat(fs.exists(new Path(outputFolder, "runs"))).isFalse();
+        final List<Element> results = readElements(files[0].getPath(), schemaUtils);
+        assertThat(results).hasSize(40);
+        for (int i = 0; i < 40; i += 2) {
+            final long vertex = i / 2;
+            final List<Element> elementsForVertex = results.subList(i, i + 2);
+            assertThat(elementsForVertex).allSatisfy(e -> {
+                assertThat(((Entity) e).getVertex()).isEqualTo(vertex);
+                assertThat(e.getProperty("count")).isEqualTo(2);
+                assertThat(e.getProperty("long")).isEqualTo(22L * vertex);
+            });
+            assertThat(new HashSet<>(Arrays.asList(elementsForVertex.get(0).getProperty("byte"),
+                    elementsForVertex.get(1).getProperty("byte"))))
+                    .containsExactlyInAnyOrder((byte) 'a', (byte) 'b');
+        }
+    }
+
+    private static List<Element> readElements(final Path file, final SchemaUtils schemaUtils) throws IOException {
+        final List<Element> elements = new ArrayList<>();
+        final ParquetReader<Element> reader = new ParquetElementReader.Builder<Element>(file)
+                .isEntity(true)
+                .usingConverter(schemaUtils.getConverter(TestGroups.ENTITY))
+                .build();
+        Element e = reader.read();
+        while (null != e) {
+            elements.add(e);
+            e = reader.read();
+        }
+        reader.close();
+        return elements;
+    }
+}
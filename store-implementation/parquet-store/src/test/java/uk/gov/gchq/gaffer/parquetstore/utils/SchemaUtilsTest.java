@@ -16,6 +16,8 @@
 
 package uk.gov.gchq.gaffer.parquetstore.utils;
 
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,9 +27,12 @@ import uk.gov.gchq.gaffer.parquetstore.ParquetStore;
 import uk.gov.gchq.gaffer.parquetstore.testutils.TestUtils;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -74,6 +79,27 @@ public class SchemaUtilsTest {
                 columnToSerialiser.get("count"));
     }
 
+    @Test
+    public void getProjectedParquetSchemaTest() {
+        // Given
+        final MessageType schema = utils.getParquetSchema(TestGroups.EDGE);
+        final Set<String> columns = new HashSet<>(Arrays.asList(ParquetStore.SOURCE, ParquetStore.DESTINATION,
+                ParquetStore.DIRECTED, "freqMap"));
+
+        // When
+        final MessageType projectedSchema = SchemaUtils.getProjectedParquetSchema(schema, columns);
+
+        // Then
+        assertEquals(schema.getName(), projectedSchema.getName());
+        assertEquals(columns, projectedSchema.getFields().stream()
+                .map(Type::getName)
+                .map(SchemaUtils::getColumn)
+                .collect(Collectors.toSet()));
+        for (final Type field : projectedSchema.getFields()) {
+            assertEquals(schema.getType(field.getName()), field);
+        }
+    }
+
     @Test
     public void getEntityGroupsTest() {
         final Set<String> entityGroups = utils.getEntityGroups();